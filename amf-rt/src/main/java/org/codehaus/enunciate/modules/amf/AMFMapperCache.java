@@ -0,0 +1,252 @@
+/*
+ * Copyright 2006-2008 Web Cohesion
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.codehaus.enunciate.modules.amf;
+
+import javax.xml.bind.annotation.adapters.XmlAdapter;
+import javax.xml.bind.annotation.adapters.XmlJavaTypeAdapter;
+import java.lang.reflect.Type;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Concurrent registry of resolved AMF mappers. Reads are lock-free. Mappers are keyed by the JAXB type together with
+ * the adapter and element type that were in effect when the mapper was resolved, so adapted and element-typed mappers
+ * are cached, too.<br/><br/>
+ *
+ * The cache is bounded: when a newly-resolved mapper is cached and the cache already holds the maximum number of resolved
+ * mappers, all resolved mappers are evicted before the new one is added (the built-in mappers are kept). The size is taken
+ * from the map itself, so it may briefly exceed the maximum by the number of threads that are caching a mapper at the same
+ * moment. Evicting everything instead of the least-recently-used entry keeps reads lock-free; the mappers are cheap to
+ * resolve again, and the bound only exists to keep a long-running server from pinning the classes of redeployed
+ * applications indefinitely. The other lookups held by the cache are bounded and evicted the same way. The maximum size
+ * can be configured with the "enunciate.amf.mapperCacheSize" system property.
+ *
+ * @author Ryan Heaton
+ */
+public class AMFMapperCache {
+
+  /**
+   * The default maximum number of resolved mappers.
+   */
+  public static final int DEFAULT_MAX_SIZE = 4096;
+
+  private final Map<Type, AMFMapper> builtInMappers;
+  private final ConcurrentMap<Key, AMFMapper> mappers = new ConcurrentHashMap<Key, AMFMapper>();
+  private final ConcurrentMap<Class, Boolean> typesWithoutCustomMapper = new ConcurrentHashMap<Class, Boolean>();
+  private final AtomicLong hits = new AtomicLong(0);
+  private final AtomicLong misses = new AtomicLong(0);
+  private final AtomicLong evictions = new AtomicLong(0);
+  private final int maxSize;
+
+  public AMFMapperCache(Map<Type, AMFMapper> builtInMappers) {
+    this(builtInMappers, Integer.getInteger("enunciate.amf.mapperCacheSize", DEFAULT_MAX_SIZE));
+  }
+
+  public AMFMapperCache(Map<Type, AMFMapper> builtInMappers, int maxSize) {
+    this.builtInMappers = builtInMappers;
+    this.maxSize = maxSize;
+  }
+
+  /**
+   * Get the built-in mapper for the specified type.
+   *
+   * @param type The type.
+   * @return The built-in mapper, or null if none.
+   */
+  public AMFMapper getBuiltInMapper(Type type) {
+    return this.builtInMappers.get(type);
+  }
+
+  /**
+   * Get the cached mapper for the specified type in the specified context.
+   *
+   * @param type The JAXB type.
+   * @param adapterInfo The adapter info (or null).
+   * @param specifiedType The type specified by the element metadata (or null).
+   * @return The cached mapper, or null if none is cached.
+   */
+  public AMFMapper get(Type type, XmlJavaTypeAdapter adapterInfo, Class specifiedType) {
+    if (adapterInfo == null) {
+      AMFMapper builtIn = this.builtInMappers.get(type);
+      if (builtIn != null) {
+        this.hits.incrementAndGet();
+        return builtIn;
+      }
+    }
+
+    AMFMapper mapper = this.mappers.get(new Key(type, adapterInfo, specifiedType));
+    if (mapper != null) {
+      this.hits.incrementAndGet();
+    }
+    return mapper;
+  }
+
+  /**
+   * Cache a newly-resolved mapper (counted as a cache miss). If another thread cached a mapper for the same key first, that mapper is returned.
+   *
+   * @param type The JAXB type.
+   * @param adapterInfo The adapter info (or null).
+   * @param specifiedType The type specified by the element metadata (or null).
+   * @param mapper The mapper to cache.
+   * @return The mapper that is cached for the key.
+   */
+  public AMFMapper put(Type type, XmlJavaTypeAdapter adapterInfo, Class specifiedType, AMFMapper mapper) {
+    this.misses.incrementAndGet();
+    Key key = new Key(type, adapterInfo, specifiedType);
+    AMFMapper existing = this.mappers.get(key);
+    if (existing != null) {
+      return existing;
+    }
+
+    if (this.mappers.size() >= this.maxSize) {
+      evict();
+    }
+
+    existing = this.mappers.putIfAbsent(key, mapper);
+    return existing != null ? existing : mapper;
+  }
+
+  /**
+   * Whether the specified type is known to have no custom (generated) mapper.
+   *
+   * @param type The type.
+   * @return Whether the specified type is known to have no custom mapper.
+   */
+  public boolean isKnownWithoutCustomMapper(Class type) {
+    return this.typesWithoutCustomMapper.containsKey(type);
+  }
+
+  /**
+   * Record that the specified type has no custom (generated) mapper.
+   *
+   * @param type The type.
+   */
+  public void markWithoutCustomMapper(Class type) {
+    if (this.typesWithoutCustomMapper.size() >= this.maxSize) {
+      this.typesWithoutCustomMapper.clear();
+    }
+    this.typesWithoutCustomMapper.put(type, Boolean.TRUE);
+  }
+
+  /**
+   * Evict all resolved mappers. The built-in mappers are kept.
+   */
+  public void clear() {
+    this.mappers.clear();
+    this.typesWithoutCustomMapper.clear();
+  }
+
+  private void evict() {
+    clear();
+    this.evictions.incrementAndGet();
+  }
+
+  /**
+   * The number of resolved mappers currently cached (not including the built-in mappers).
+   *
+   * @return The number of resolved mappers currently cached.
+   */
+  public int getSize() {
+    return this.mappers.size();
+  }
+
+  /**
+   * The maximum number of resolved mappers the cache holds before it is evicted.
+   *
+   * @return The maximum number of resolved mappers the cache holds before it is evicted.
+   */
+  public int getMaxSize() {
+    return maxSize;
+  }
+
+  /**
+   * The number of lookups that were answered by the cache.
+   *
+   * @return The number of lookups that were answered by the cache.
+   */
+  public long getHitCount() {
+    return this.hits.get();
+  }
+
+  /**
+   * The number of lookups that were not answered by the cache, i.e. the number of mappers that had to be resolved.
+   *
+   * @return The number of lookups that were not answered by the cache.
+   */
+  public long getMissCount() {
+    return this.misses.get();
+  }
+
+  /**
+   * The number of times the cache was evicted because it reached its maximum size.
+   *
+   * @return The number of times the cache was evicted.
+   */
+  public long getEvictionCount() {
+    return this.evictions.get();
+  }
+
+  @Override
+  public String toString() {
+    return "AMFMapperCache{size=" + getSize() + ", hits=" + getHitCount() + ", misses=" + getMissCount() + ", evictions=" + getEvictionCount() + "}";
+  }
+
+  /**
+   * Cache key: the JAXB type, the adapter class and the element-specified type.
+   */
+  private static final class Key {
+
+    private final Type type;
+    private final Class<? extends XmlAdapter> adapterClass;
+    private final Class specifiedType;
+    private final int hashCode;
+
+    private Key(Type type, XmlJavaTypeAdapter adapterInfo, Class specifiedType) {
+      this.type = type;
+      this.adapterClass = adapterInfo == null ? null : adapterInfo.value();
+      this.specifiedType = specifiedType;
+
+      int hash = type == null ? 0 : type.hashCode();
+      hash = 31 * hash + (this.adapterClass == null ? 0 : this.adapterClass.hashCode());
+      hash = 31 * hash + (specifiedType == null ? 0 : specifiedType.hashCode());
+      this.hashCode = hash;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+
+      Key other = (Key) o;
+      return this.hashCode == other.hashCode
+        && (this.type == null ? other.type == null : this.type.equals(other.type))
+        && this.adapterClass == other.adapterClass
+        && this.specifiedType == other.specifiedType;
+    }
+
+    @Override
+    public int hashCode() {
+      return this.hashCode;
+    }
+  }
+}
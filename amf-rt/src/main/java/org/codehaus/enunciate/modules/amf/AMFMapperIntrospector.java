@@ -25,6 +25,7 @@ import javax.xml.namespace.QName;
 import java.lang.reflect.*;
 import java.net.URI;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
@@ -36,14 +37,25 @@ import java.util.UUID;
  */
 public class AMFMapperIntrospector {
 
-  private static final Map<Type, AMFMapper> MAPPERS = new HashMap<Type, AMFMapper>();
+  private static final AMFMapperCache MAPPERS;
 
   static {
-    AMFMapperIntrospector.MAPPERS.put(DataHandler.class, new DataHandlerAMFMapper());
-    AMFMapperIntrospector.MAPPERS.put(QName.class, new QNameAMFMapper());
-    AMFMapperIntrospector.MAPPERS.put(URI.class, new URIAMFMapper());
-    AMFMapperIntrospector.MAPPERS.put(UUID.class, new UUIDAMFMapper());
-    AMFMapperIntrospector.MAPPERS.put(XMLGregorianCalendar.class, new XMLGregorianCalendarAMFMapper());
+    Map<Type, AMFMapper> builtInMappers = new HashMap<Type, AMFMapper>();
+    builtInMappers.put(DataHandler.class, new DataHandlerAMFMapper());
+    builtInMappers.put(QName.class, new QNameAMFMapper());
+    builtInMappers.put(URI.class, new URIAMFMapper());
+    builtInMappers.put(UUID.class, new UUIDAMFMapper());
+    builtInMappers.put(XMLGregorianCalendar.class, new XMLGregorianCalendarAMFMapper());
+    MAPPERS = new AMFMapperCache(Collections.unmodifiableMap(builtInMappers));
+  }
+
+  /**
+   * The cache of resolved mappers, exposed so that the hit/miss statistics can be inspected at runtime.
+   *
+   * @return The cache of resolved mappers.
+   */
+  public static AMFMapperCache getMapperCache() {
+    return MAPPERS;
   }
 
   public static AMFMapper getAMFMapper(Type jaxbType) {
@@ -61,19 +73,33 @@ public class AMFMapperIntrospector {
   public static AMFMapper getAMFMapper(Class realType, Type jaxbType, XmlJavaTypeAdapter adapterInfo, XmlElement elementInfo) {
     if (adapterInfo == null && (realType != null) && (!realType.isArray()) && (!realType.isPrimitive()) && (realType.getPackage() != null)) {
       //first check the real type.  if a mapper exists, use it, otherwise use the type defined in the signature.
-      if (MAPPERS.containsKey(realType)) {
-        return MAPPERS.get(realType);
+      AMFMapper mapper = MAPPERS.get(realType, null, null);
+      if (mapper != null) {
+        return mapper;
       }
 
-      try {
-        loadCustomMapperClass(realType);
-        jaxbType = realType;
-      }
-      catch (Throwable e) {
-        //fall through.
+      if (!MAPPERS.isKnownWithoutCustomMapper(realType)) {
+        try {
+          loadCustomMapperClass(realType);
+          jaxbType = realType;
+        }
+        catch (Throwable e) {
+          //fall through.
+          MAPPERS.markWithoutCustomMapper(realType);
+        }
       }
     }
 
+    Class specifiedType = ((elementInfo != null) && (elementInfo.type() != null) && (elementInfo.type() != XmlElement.DEFAULT.class)) ? elementInfo.type() : null;
+    AMFMapper mapper = MAPPERS.get(jaxbType, adapterInfo, specifiedType);
+    if (mapper == null) {
+      //cache under the context as it was requested, so that subsequent lookups in the same context don't have to resolve the adapter again.
+      mapper = MAPPERS.put(jaxbType, adapterInfo, specifiedType, resolveAMFMapper(jaxbType, adapterInfo, elementInfo, specifiedType));
+    }
+    return mapper;
+  }
+
+  private static AMFMapper resolveAMFMapper(Type jaxbType, XmlJavaTypeAdapter adapterInfo, XmlElement elementInfo, Class specifiedType) {
     if (adapterInfo == null && jaxbType instanceof Class) {
       adapterInfo = (XmlJavaTypeAdapter) ((Class)jaxbType).getAnnotation(XmlJavaTypeAdapter.class);
     }
@@ -83,7 +109,6 @@ public class AMFMapperIntrospector {
       AMFMapper adaptingMapper = getAMFMapper(adaptingType);
       AMFMapper adaptedMapper = getAMFMapper(jaxbType);
       try {
-        //if it's adapted, don't cache it (return it directly).
         return new AdaptingAMFMapper(adapterInfo.value().newInstance(), adaptingMapper, adaptedMapper, narrowType(jaxbType), narrowType(adaptingType));
       }
       catch (Exception e) {
@@ -95,12 +120,8 @@ public class AMFMapperIntrospector {
       jaxbType = Object.class;
     }
 
-    Class specifiedType = ((elementInfo != null) && (elementInfo.type() != null) && (elementInfo.type() != XmlElement.DEFAULT.class)) ? elementInfo.type() : null;
-    AMFMapper mapper;
-    if (adapterInfo == null && MAPPERS.containsKey(jaxbType)) {
-      mapper = MAPPERS.get(jaxbType);
-    }
-    else {
+    AMFMapper mapper = adapterInfo == null ? MAPPERS.getBuiltInMapper(jaxbType) : null;
+    if (mapper == null) {
       if (jaxbType instanceof ParameterizedType) {
         Type rawType = ((ParameterizedType) jaxbType).getRawType();
 
@@ -187,10 +208,6 @@ public class AMFMapperIntrospector {
       else {
         mapper = DefaultAMFMapper.INSTANCE;
       }
-
-      if (specifiedType == null) { //only cache if the type isn't specified.
-        MAPPERS.put(jaxbType, mapper);
-      }
     }
 
     return mapper;
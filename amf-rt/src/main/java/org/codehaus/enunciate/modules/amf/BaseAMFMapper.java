@@ -37,7 +37,7 @@ public abstract class BaseAMFMapper<J, G> implements CustomAMFMapper<J, G> {
   private final Class<J> jaxbClass;
   private final Class<G> amfClass;
   private final String[] properties;
-  private final PropertyDescriptor[][] jaxbProperties2amfProperties;
+  private final PropertyMapping[] propertyMappings;
 
   /**
    * Construct a base AMF mapper.
@@ -54,7 +54,7 @@ public abstract class BaseAMFMapper<J, G> implements CustomAMFMapper<J, G> {
     }
 
     this.properties = properties;
-    this.jaxbProperties2amfProperties = new PropertyDescriptor[this.properties.length][];
+    this.propertyMappings = new PropertyMapping[this.properties.length];
     for (int i = 0; i < properties.length; i++) {
       String property = properties[i];
       PropertyDescriptor jaxbProperty = findProperty(jaxbClass, property);
@@ -67,7 +67,7 @@ public abstract class BaseAMFMapper<J, G> implements CustomAMFMapper<J, G> {
         throw new IllegalStateException("Unknown property '" + property + "' on class " + amfClass.getName() + ".");
       }
 
-      this.jaxbProperties2amfProperties[i] = new PropertyDescriptor[]{jaxbProperty, amfProperty};
+      this.propertyMappings[i] = new PropertyMapping(jaxbProperty, amfProperty, findTypeAdapter(jaxbProperty), findXmlElement(jaxbProperty));
     }
   }
 
@@ -126,13 +126,11 @@ public abstract class BaseAMFMapper<J, G> implements CustomAMFMapper<J, G> {
     }
 
     context.objectMapped(jaxbObject, amfObject);
-    for (PropertyDescriptor[] pds : this.jaxbProperties2amfProperties) {
-      PropertyDescriptor jaxbProperty = pds[0];
-      PropertyDescriptor amfProperty = pds[1];
-      Method getter = jaxbProperty.getReadMethod();
+    for (PropertyMapping propertyMapping : this.propertyMappings) {
+      Method getter = propertyMapping.jaxbGetter;
       if (getter == null) {
         throw new AMFMappingException("In order to convert from JAXB classes to AMF, you must provide a getter for property '"
-          + jaxbProperty.getName() + "' on class " + jaxbProperty.getWriteMethod().getDeclaringClass());
+          + propertyMapping.name + "' on class " + propertyMapping.jaxbSetter.getDeclaringClass());
       }
 
       Object propertyValue;
@@ -140,21 +138,19 @@ public abstract class BaseAMFMapper<J, G> implements CustomAMFMapper<J, G> {
         propertyValue = getter.invoke(jaxbObject);
       }
       catch (Exception e) {
-        throw new AMFMappingException("Unable to read property '" + jaxbProperty.getName() + "' on " + jaxbObject, e);
+        throw new AMFMappingException("Unable to read property '" + propertyMapping.name + "' on " + jaxbObject, e);
       }
 
       if (propertyValue == null) {
         continue;
       }
 
-      XmlJavaTypeAdapter adapterInfo = findTypeAdapter(jaxbProperty);
-      XmlElement xmlElement = findXmlElement(jaxbProperty);
-      AMFMapper mapper = AMFMapperIntrospector.getAMFMapper(propertyValue.getClass(), getter.getGenericReturnType(), adapterInfo, xmlElement);
+      AMFMapper mapper = propertyMapping.getAMFMapper(propertyValue.getClass());
       try {
-        amfProperty.getWriteMethod().invoke(amfObject, mapper.toAMF(propertyValue, context));
+        propertyMapping.amfSetter.invoke(amfObject, mapper.toAMF(propertyValue, context));
       }
       catch (Exception e) {
-        throw new AMFMappingException("Unable to set property " + jaxbProperty.getName() + " for the amf bean " + amfClass.getName(), e);
+        throw new AMFMappingException("Unable to set property " + propertyMapping.name + " for the amf bean " + amfClass.getName(), e);
       }
     }
 
@@ -178,7 +174,7 @@ public abstract class BaseAMFMapper<J, G> implements CustomAMFMapper<J, G> {
       adapterInfo = jaxbProperty.getWriteMethod().getAnnotation(XmlJavaTypeAdapter.class);
     }
 
-    if (adapterInfo == null) {
+    if (adapterInfo == null && jaxbProperty.getReadMethod() != null) {
       Package pckg = jaxbProperty.getReadMethod().getDeclaringClass().getPackage();
       Class<?> returnType = jaxbProperty.getReadMethod().getReturnType();
 
@@ -244,42 +240,38 @@ public abstract class BaseAMFMapper<J, G> implements CustomAMFMapper<J, G> {
     }
 
     context.objectMapped(amfObject, jaxbObject);
-    for (PropertyDescriptor[] pds : this.jaxbProperties2amfProperties) {
-      PropertyDescriptor jaxbProperty = pds[0];
-      PropertyDescriptor amfProperty = pds[1];
-      Method getter = amfProperty.getReadMethod();
+    for (PropertyMapping propertyMapping : this.propertyMappings) {
       Object propertyValue;
       try {
-        propertyValue = getter.invoke(amfObject);
+        propertyValue = propertyMapping.amfGetter.invoke(amfObject);
       }
       catch (Exception e) {
-        throw new AMFMappingException("Unable to read property '" + amfProperty.getName() + "' on " + amfObject, e);
+        throw new AMFMappingException("Unable to read property '" + propertyMapping.name + "' on " + amfObject, e);
       }
 
       if (propertyValue == null) {
         continue;
       }
 
-      Method setter = jaxbProperty.getWriteMethod();
+      Method setter = propertyMapping.jaxbSetter;
       if (setter == null) {
         throw new AMFMappingException("In order to convert from AMF back to JAXB classes, you must provide a setter for property '"
-          + jaxbProperty.getName() + "' on class " + jaxbProperty.getReadMethod().getDeclaringClass());
+          + propertyMapping.name + "' on class " + propertyMapping.jaxbGetter.getDeclaringClass());
       }
 
-      XmlJavaTypeAdapter typeAdapter = findTypeAdapter(jaxbProperty);
       AMFMapper mapper;
-      if (propertyValue instanceof AMFMapperAware && typeAdapter == null) {
+      if (propertyValue instanceof AMFMapperAware && propertyMapping.adapterInfo == null) {
         mapper = ((AMFMapperAware) propertyValue).loadAMFMapper();
       }
       else {
-        mapper = AMFMapperIntrospector.getAMFMapper(setter.getGenericParameterTypes()[0], typeAdapter, findXmlElement(jaxbProperty));
+        mapper = propertyMapping.getJAXBMapper();
       }
 
       try {
         setter.invoke(jaxbObject, mapper.toJAXB(propertyValue, context));
       }
       catch (Exception e) {
-        throw new AMFMappingException("Unable to set property " + jaxbProperty.getName() + " for the amf bean " + amfClass.getName(), e);
+        throw new AMFMappingException("Unable to set property " + propertyMapping.name + " for the amf bean " + amfClass.getName(), e);
       }
     }
 
@@ -316,4 +308,89 @@ public abstract class BaseAMFMapper<J, G> implements CustomAMFMapper<J, G> {
   public Class<G> getAmfClass() {
     return amfClass;
   }
+
+  /**
+   * The mapping plan for a single property, computed once per mapper: the accessors, the adapter and element metadata,
+   * and the child mappers, which are resolved on first use (resolving them eagerly would recurse for self-referencing types).
+   */
+  private static final class PropertyMapping {
+
+    private final String name;
+    private final Method jaxbGetter;
+    private final Method jaxbSetter;
+    private final Method amfGetter;
+    private final Method amfSetter;
+    private final XmlJavaTypeAdapter adapterInfo;
+    private final XmlElement xmlElement;
+    private volatile AMFMapper jaxbMapper;
+    private volatile MapperForClass lastAMFMapper;
+
+    private PropertyMapping(PropertyDescriptor jaxbProperty, PropertyDescriptor amfProperty, XmlJavaTypeAdapter adapterInfo, XmlElement xmlElement) {
+      this.name = jaxbProperty.getName();
+      this.jaxbGetter = accessible(jaxbProperty.getReadMethod());
+      this.jaxbSetter = accessible(jaxbProperty.getWriteMethod());
+      this.amfGetter = accessible(amfProperty.getReadMethod());
+      this.amfSetter = accessible(amfProperty.getWriteMethod());
+      this.adapterInfo = adapterInfo;
+      this.xmlElement = xmlElement;
+    }
+
+    /**
+     * The mapper for a JAXB value of the specified class. The last class seen is remembered, since a property
+     * almost always holds values of the same class.
+     *
+     * @param valueClass The class of the JAXB value.
+     * @return The mapper.
+     */
+    AMFMapper getAMFMapper(Class valueClass) {
+      MapperForClass last = this.lastAMFMapper;
+      if (last != null && last.valueClass == valueClass) {
+        return last.mapper;
+      }
+
+      AMFMapper mapper = AMFMapperIntrospector.getAMFMapper(valueClass, this.jaxbGetter.getGenericReturnType(), this.adapterInfo, this.xmlElement);
+      this.lastAMFMapper = new MapperForClass(valueClass, mapper);
+      return mapper;
+    }
+
+    /**
+     * The mapper for an AMF value of this property.
+     *
+     * @return The mapper.
+     */
+    AMFMapper getJAXBMapper() {
+      AMFMapper mapper = this.jaxbMapper;
+      if (mapper == null) {
+        mapper = AMFMapperIntrospector.getAMFMapper(this.jaxbSetter.getGenericParameterTypes()[0], this.adapterInfo, this.xmlElement);
+        this.jaxbMapper = mapper;
+      }
+      return mapper;
+    }
+
+    private static Method accessible(Method method) {
+      if (method != null && !method.isAccessible()) {
+        try {
+          method.setAccessible(true);
+        }
+        catch (SecurityException e) {
+          //fall through; we'll just pay for the access check.
+        }
+      }
+      return method;
+    }
+  }
+
+  /**
+   * A mapper paired with the value class it was resolved for.
+   */
+  private static final class MapperForClass {
+
+    private final Class valueClass;
+    private final AMFMapper mapper;
+
+    private MapperForClass(Class valueClass, AMFMapper mapper) {
+      this.valueClass = valueClass;
+      this.mapper = mapper;
+    }
+  }
 }
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2006-2008 Web Cohesion
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.codehaus.enunciate.modules.amf;
+
+import org.codehaus.enunciate.modules.amf.amf.MappedBeanAMFMapper;
+import java.util.List;
+
+/**
+ * @author Ryan Heaton
+ */
+public class AMFMappedBean implements AMFMapperAware {
+
+  private AMFMappedItem item;
+  private AMFMappedItem[] items;
+  private List itemList;
+  private String readOnly;
+  private String writeOnly;
+
+  public AMFMappedItem getItem() {
+    return item;
+  }
+
+  public void setItem(AMFMappedItem item) {
+    this.item = item;
+  }
+
+  public AMFMappedItem[] getItems() {
+    return items;
+  }
+
+  public void setItems(AMFMappedItem[] items) {
+    this.items = items;
+  }
+
+  public List getItemList() {
+    return itemList;
+  }
+
+  public void setItemList(List itemList) {
+    this.itemList = itemList;
+  }
+
+  public String getReadOnly() {
+    return readOnly;
+  }
+
+  public void setReadOnly(String readOnly) {
+    this.readOnly = readOnly;
+  }
+
+  public String getWriteOnly() {
+    return writeOnly;
+  }
+
+  public void setWriteOnly(String writeOnly) {
+    this.writeOnly = writeOnly;
+  }
+
+  public AMFMapper loadAMFMapper() {
+    return new MappedBeanAMFMapper();
+  }
+}
@@ -7,6 +7,7 @@ import java.beans.PropertyDescriptor;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
 import java.util.AbstractMap;
 import java.util.HashMap;
 import java.util.Map;
@@ -95,4 +96,48 @@ public class TestAMFMapperIntrospector extends TestCase {
       
     assertTrue("Wrong mapper type.", mapper instanceof AdaptingAMFMapper);
   }
+
+  public void testAdaptedMappersAreCached() {
+    PropertyDescriptor prop = AMFUtils.findProperty(TestObject.class, "propString");
+    AMFMapper mapper = AMFMapperIntrospector.getAMFMapper(null, prop.getReadMethod().getGenericReturnType(), AMFUtils.findTypeAdapter(prop), AMFUtils.findXmlElement(prop));
+    long hits = AMFMapperIntrospector.getMapperCache().getHitCount();
+    assertSame(mapper, AMFMapperIntrospector.getAMFMapper(null, prop.getReadMethod().getGenericReturnType(), AMFUtils.findTypeAdapter(prop), AMFUtils.findXmlElement(prop)));
+    assertTrue(AMFMapperIntrospector.getMapperCache().getHitCount() > hits);
+
+    //the same type without the adapter must resolve to a different mapper.
+    assertFalse(AMFMapperIntrospector.getAMFMapper(prop.getReadMethod().getGenericReturnType()) instanceof AdaptingAMFMapper);
+  }
+
+  public void testMapperCacheEviction() {
+    HashMap<Type, AMFMapper> builtInMappers = new HashMap<Type, AMFMapper>();
+    AMFMapper builtIn = new DefaultAMFMapper();
+    builtInMappers.put(Boolean.class, builtIn);
+    AMFMapperCache cache = new AMFMapperCache(builtInMappers, 2);
+    cache.put(String.class, null, null, DefaultAMFMapper.INSTANCE);
+    cache.put(Long.class, null, null, DefaultAMFMapper.INSTANCE);
+    assertEquals(2, cache.getSize());
+
+    //caching a mapper that is already cached doesn't evict a full cache.
+    assertSame(DefaultAMFMapper.INSTANCE, cache.put(Long.class, null, null, new DefaultAMFMapper()));
+    assertEquals(2, cache.getSize());
+    assertEquals(0, cache.getEvictionCount());
+
+    //caching a new mapper evicts all resolved mappers, but keeps the built-in mappers.
+    cache.put(Integer.class, null, null, DefaultAMFMapper.INSTANCE);
+    assertEquals(1, cache.getSize());
+    assertEquals(1, cache.getEvictionCount());
+    assertNull(cache.get(String.class, null, null));
+    assertSame(DefaultAMFMapper.INSTANCE, cache.get(Integer.class, null, null));
+    assertSame(builtIn, cache.get(Boolean.class, null, null));
+    assertEquals(4, cache.getMissCount());
+    assertEquals(2, cache.getHitCount());
+
+    //the types without a custom mapper are bounded the same way.
+    cache.markWithoutCustomMapper(String.class);
+    cache.markWithoutCustomMapper(Long.class);
+    assertTrue(cache.isKnownWithoutCustomMapper(String.class));
+    cache.markWithoutCustomMapper(Integer.class);
+    assertFalse(cache.isKnownWithoutCustomMapper(String.class));
+    assertTrue(cache.isKnownWithoutCustomMapper(Integer.class));
+  }
 }
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2006-2008 Web Cohesion
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.codehaus.enunciate.modules.amf;
+
+import junit.framework.TestCase;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * @author Ryan Heaton
+ */
+public class TestBaseAMFMapper extends TestCase {
+
+  /**
+   * Tests mapping there and back again: null values, a property without a setter, a property without a getter, a property
+   * value whose class changes from one call to the next, and the items of arrays and collections.
+   */
+  public void testRoundTrip() throws Exception {
+    AMFMapper mapper = AMFMapperIntrospector.getAMFMapper(MappedBean.class, null, null);
+    MappedBean bean = new MappedBean();
+    bean.initReadOnly("read-only");
+    bean.setItems(new MappedItem[]{new MappedItem("one"), new SpecialMappedItem("two", 2), null, new MappedItem("three")});
+    bean.setItemList(Arrays.asList(new SpecialMappedItem("four", 4), new MappedItem("five")));
+
+    AMFMappedBean amfBean = (AMFMappedBean) mapper.toAMF(bean, new AMFMappingContext());
+    assertNull(amfBean.getItem());
+    assertEquals("read-only", amfBean.getReadOnly());
+    AMFMappedItem[] amfItems = amfBean.getItems();
+    assertEquals(4, amfItems.length);
+    assertEquals(AMFMappedItem.class, amfItems[0].getClass());
+    assertEquals("one", amfItems[0].getName());
+    assertEquals(AMFSpecialMappedItem.class, amfItems[1].getClass());
+    assertEquals(2, ((AMFSpecialMappedItem) amfItems[1]).getRank());
+    assertNull(amfItems[2]);
+    assertEquals(AMFMappedItem.class, amfItems[3].getClass());
+    assertEquals("three", amfItems[3].getName());
+    List amfItemList = amfBean.getItemList();
+    assertEquals(2, amfItemList.size());
+    assertEquals(AMFSpecialMappedItem.class, amfItemList.get(0).getClass());
+    assertEquals(4, ((AMFSpecialMappedItem) amfItemList.get(0)).getRank());
+    assertEquals(AMFMappedItem.class, amfItemList.get(1).getClass());
+    assertEquals("five", ((AMFMappedItem) amfItemList.get(1)).getName());
+
+    //the class of the value changes from one call to the next.
+    bean.setItem(new MappedItem("six"));
+    assertEquals(AMFMappedItem.class, ((AMFMappedBean) mapper.toAMF(bean, new AMFMappingContext())).getItem().getClass());
+    bean.setItem(new SpecialMappedItem("seven", 7));
+    AMFMappedItem amfItem = ((AMFMappedBean) mapper.toAMF(bean, new AMFMappingContext())).getItem();
+    assertEquals(AMFSpecialMappedItem.class, amfItem.getClass());
+    assertEquals(7, ((AMFSpecialMappedItem) amfItem).getRank());
+    bean.setItem(new MappedItem("eight"));
+    amfItem = ((AMFMappedBean) mapper.toAMF(bean, new AMFMappingContext())).getItem();
+    assertEquals(AMFMappedItem.class, amfItem.getClass());
+    assertEquals("eight", amfItem.getName());
+
+    //a null value doesn't need the missing setter.
+    amfBean.setReadOnly(null);
+    MappedBean jaxbBean = (MappedBean) mapper.toJAXB(amfBean, new AMFMappingContext());
+    assertNull(jaxbBean.getItem());
+    assertNull(jaxbBean.getReadOnly());
+    MappedItem[] jaxbItems = jaxbBean.getItems();
+    assertEquals(4, jaxbItems.length);
+    assertEquals("one", jaxbItems[0].getName());
+    assertEquals("two", jaxbItems[1].getName());
+    assertEquals(SpecialMappedItem.class, jaxbItems[1].getClass());
+    assertEquals(2, ((SpecialMappedItem) jaxbItems[1]).getRank());
+    assertNull(jaxbItems[2]);
+    assertEquals("three", jaxbItems[3].getName());
+    List<MappedItem> jaxbItemList = jaxbBean.getItemList();
+    assertEquals(2, jaxbItemList.size());
+    assertEquals("four", jaxbItemList.get(0).getName());
+    assertEquals(SpecialMappedItem.class, jaxbItemList.get(0).getClass());
+    assertEquals("five", jaxbItemList.get(1).getName());
+
+    amfBean.setReadOnly("changed");
+    try {
+      mapper.toJAXB(amfBean, new AMFMappingContext());
+      fail("a value for a property without a setter shouldn't be mapped.");
+    }
+    catch (AMFMappingException e) {
+      //fall through...
+    }
+
+    AMFMapper writeOnlyMapper = new BaseAMFMapper(MappedBean.class, AMFMappedBean.class, "writeOnly") {};
+    amfBean.setWriteOnly("write-only");
+    assertEquals("write-only", ((MappedBean) writeOnlyMapper.toJAXB(amfBean, new AMFMappingContext())).peekWriteOnly());
+    try {
+      writeOnlyMapper.toAMF(bean, new AMFMappingContext());
+      fail("a property without a getter shouldn't be mapped.");
+    }
+    catch (AMFMappingException e) {
+      //fall through...
+    }
+  }
+
+}
@@ -0,0 +1,30 @@
+/*
+ * Copyright 2006-2008 Web Cohesion
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.codehaus.enunciate.modules.amf.amf;
+
+import org.codehaus.enunciate.modules.amf.SpecialMappedItem;
+import org.codehaus.enunciate.modules.amf.AMFSpecialMappedItem;
+
+/**
+ * @author Ryan Heaton
+ */
+public class SpecialMappedItemAMFMapper extends MappedItemAMFMapper {
+
+  public SpecialMappedItemAMFMapper() {
+    super(SpecialMappedItem.class, AMFSpecialMappedItem.class, "rank");
+  }
+}
@@ -36,6 +36,7 @@ import org.codehaus.enunciate.main.webapp.BaseWebAppFragment;
 import org.codehaus.enunciate.main.webapp.WebAppComponent;
 import org.codehaus.enunciate.modules.FacetAware;
 import org.codehaus.enunciate.modules.FlexHomeAwareModule;
+import org.codehaus.enunciate.modules.DependencyAware;
 import org.codehaus.enunciate.modules.FreemarkerDeploymentModule;
 import org.codehaus.enunciate.modules.ProjectExtensionModule;
 import org.codehaus.enunciate.modules.amf.config.AMFRuleSet;
@@ -53,6 +54,7 @@ import javax.xml.parsers.DocumentBuilderFactory;
 import java.io.*;
 import java.net.URL;
 import java.util.*;
+import java.util.concurrent.*;
 
 /**
  * <h1>AMF Module</h1>
@@ -152,6 +154,7 @@ import java.util.*;
  * <li><b>showDeprecationWarnings</b> (boolean, default: unspecified)</li>
  * <li><b>flexCompileCommand</b> (default "flex2.tools.Compiler")</li>
  * <li><b>swcCompileCommand</b> (default "flex2.tools.Compc")</li>
+ * <li><b>threads</b> (the number of compiles, of the SWC and of the flex apps, that are invoked at the same time, each in its own JVM, default: 1)</li>
  * </ul>
  *
  * <p>The "compiler" element also supports the following subelements:</p>
@@ -224,7 +227,7 @@ import java.util.*;
  * @author Ryan Heaton
  * @docFileName module_amf.html
  */
-public class AMFDeploymentModule extends FreemarkerDeploymentModule implements ProjectExtensionModule, FlexHomeAwareModule, EnunciateClasspathListener, FacetAware {
+public class AMFDeploymentModule extends FreemarkerDeploymentModule implements ProjectExtensionModule, FlexHomeAwareModule, EnunciateClasspathListener, FacetAware, DependencyAware {
 
   private String amfSubcontext = "/amf/";
   private String flexAppDir = null;
@@ -252,6 +255,11 @@ public class AMFDeploymentModule extends FreemarkerDeploymentModule implements P
     return "amf";
   }
 
+  // Inherited.
+  public Set<String> getModuleDependencies() {
+    return Collections.emptySet();
+  }
+
   @Override
   public void init(Enunciate enunciate) throws EnunciateException {
     super.init(enunciate);
@@ -638,11 +646,9 @@ public class AMFDeploymentModule extends FreemarkerDeploymentModule implements P
 
       File swcCompileDir = getSwcCompileDir();
       swcFile = new File(swcCompileDir, swcName);
-      boolean swcUpToDate = swcFile.exists() &&
-        enunciate.isUpToDate(xmlGenerateDir, swcCompileDir) &&
-        enunciate.isUpToDate(clientSideGenerateDir, swcCompileDir);
-
-      if (!swcUpToDate) {
+      File flexConfig = compilerConfig.getFlexConfig();
+      List<FlexCompile> flexCompiles = new ArrayList<FlexCompile>();
+      if (enunciate.isStale(getName(), swcFile, xmlGenerateDir, clientSideGenerateDir, flexConfig)) {
         commandLine.set(compileCommandIndex, compilerConfig.getSwcCompileCommand());
         commandLine.set(outputFileIndex, swcFile.getAbsolutePath());
         debug("Compiling %s for the client-side ActionScript classes...", swcFile.getAbsolutePath());
@@ -653,13 +659,13 @@ public class AMFDeploymentModule extends FreemarkerDeploymentModule implements P
           }
           debug("Executing SWC compile for client-side actionscript with the command: %s", command);
         }
-        compileSwc(commandLine);
+        flexCompiles.add(new FlexCompile(null, new ArrayList<String>(commandLine)));
       }
       else {
         info("Skipping compilation of %s as everything appears up-to-date...", swcFile.getAbsolutePath());
       }
 
-      //swc is compiled
+      //swc command is built
       while (commandLine.size() > argIndex) {
         //remove the compc-specific options...
         commandLine.remove(argIndex);
@@ -710,11 +716,7 @@ public class AMFDeploymentModule extends FreemarkerDeploymentModule implements P
         File appSrcDir = enunciate.resolvePath(flexApp.getSrcDir());
         String swfFilePath = swfFile.getAbsolutePath();
 
-        boolean swfUpToDate = swfFile.exists()
-          && mainMxmlFile.lastModified() < swfFile.lastModified()
-          && enunciate.isUpToDate(appSrcDir, swfFile);
-
-        if (!swfUpToDate) {
+        if (enunciate.isStale(getName(), swfFile, mainMxmlFile, appSrcDir, xmlGenerateDir, clientSideGenerateDir, flexConfig)) {
           commandLine.set(outputFileIndex, swfFilePath);
           commandLine.set(mainMxmlPathIndex, mainMxmlFile.getAbsolutePath());
           commandLine.set(sourcePathIndex, appSrcDir.getAbsolutePath());
@@ -727,33 +729,21 @@ public class AMFDeploymentModule extends FreemarkerDeploymentModule implements P
             }
             debug("Executing flex compile for module %s with the command: %s", flexApp.getName(), command);
           }
-
-          ProcessBuilder processBuilder = new ProcessBuilder(commandLine.toArray(new String[commandLine.size()]));
-          processBuilder.directory(getSwfCompileDir());
-          processBuilder.redirectErrorStream(true);
-          Process process = processBuilder.start();
-          BufferedReader procReader = new BufferedReader(new InputStreamReader(process.getInputStream()));
-          String line = procReader.readLine();
-          while (line != null) {
-            info(line);
-            line = procReader.readLine();
-          }
-          int procCode;
-          try {
-            procCode = process.waitFor();
-          }
-          catch (InterruptedException e1) {
-            throw new EnunciateException("Unexpected inturruption of the Flex compile process.");
-          }
-
-          if (procCode != 0) {
-            throw new EnunciateException("Flex compile failed for module " + flexApp.getName());
-          }
+          flexCompiles.add(new FlexCompile(flexApp, new ArrayList<String>(commandLine)));
         }
         else {
           info("Skipping compilation of %s as everything appears up-to-date...", swfFilePath);
         }
       }
+
+      if (compilerConfig.getThreads() > 1 && flexCompiles.size() > 1) {
+        compileConcurrently(flexCompiles);
+      }
+      else {
+        for (FlexCompile flexCompile : flexCompiles) {
+          flexCompile.call();
+        }
+      }
     }
 
     if (isAsSourcesDownloadable()) {
@@ -804,6 +794,44 @@ public class AMFDeploymentModule extends FreemarkerDeploymentModule implements P
     }
   }
 
+  /**
+   * Invokes the specified flex compiles using a pool of {@link FlexCompilerConfig#getThreads() compiler threads}. Each
+   * compile is invoked in its own JVM.
+   *
+   * @param flexCompiles The flex compiles.
+   */
+  protected void compileConcurrently(List<FlexCompile> flexCompiles) throws IOException, EnunciateException {
+    ExecutorService executor = Executors.newFixedThreadPool(Math.min(compilerConfig.getThreads(), flexCompiles.size()));
+    try {
+      for (Future<Object> result : executor.invokeAll(flexCompiles)) {
+        result.get();
+      }
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new EnunciateException("Interrupted while invoking the flex compiler.", e);
+    }
+    catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof EnunciateException) {
+        throw (EnunciateException) cause;
+      }
+      else if (cause instanceof IOException) {
+        throw (IOException) cause;
+      }
+      else if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      else if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new EnunciateException(cause);
+    }
+    finally {
+      executor.shutdownNow();
+    }
+  }
+
   /**
    * Compiles the SWC.
    *
@@ -811,11 +839,38 @@ public class AMFDeploymentModule extends FreemarkerDeploymentModule implements P
    */
   protected void compileSwc(List<String> commandLine) throws IOException, EnunciateException {
     getSwcCompileDir().mkdirs();
-    Process process = new ProcessBuilder(commandLine).directory(getSwcCompileDir()).redirectErrorStream(true).start();
+    long start = System.currentTimeMillis();
+    invokeFlexCompiler(commandLine, getSwcCompileDir(), "[swc] ", "SWC compile failed.");
+    info("Compilation of the SWC took %d ms.", System.currentTimeMillis() - start);
+  }
+
+  /**
+   * Compiles the SWF for a flex app.
+   *
+   * @param flexApp     The flex app.
+   * @param commandLine The command line.
+   */
+  protected void compileSwf(FlexApp flexApp, List<String> commandLine) throws IOException, EnunciateException {
+    long start = System.currentTimeMillis();
+    invokeFlexCompiler(commandLine, getSwfCompileDir(), "[" + flexApp.getName() + "] ", "Flex compile failed for module " + flexApp.getName());
+    info("Compilation of flex app %s took %d ms.", flexApp.getName(), System.currentTimeMillis() - start);
+  }
+
+  /**
+   * Invokes the flex compiler.
+   *
+   * @param commandLine The command line.
+   * @param dir The working directory.
+   * @param outputPrefix The prefix of the lines of compiler output when compiling concurrently.
+   * @param failureMessage The message of the exception thrown if the compile fails.
+   */
+  private void invokeFlexCompiler(List<String> commandLine, File dir, String outputPrefix, String failureMessage) throws IOException, EnunciateException {
+    boolean concurrent = compilerConfig.getThreads() > 1;
+    Process process = new ProcessBuilder(commandLine).directory(dir).redirectErrorStream(true).start();
     BufferedReader procReader = new BufferedReader(new InputStreamReader(process.getInputStream()));
     String line = procReader.readLine();
     while (line != null) {
-      info(line);
+      info(concurrent ? outputPrefix + line.replaceAll("%", "%%") : line);
       line = procReader.readLine();
     }
     int procCode;
@@ -827,7 +882,35 @@ public class AMFDeploymentModule extends FreemarkerDeploymentModule implements P
     }
 
     if (procCode != 0) {
-      throw new EnunciateException("SWC compile failed.");
+      throw new EnunciateException(failureMessage);
+    }
+  }
+
+  /**
+   * The compile of the SWC or of the SWF of a flex app.
+   */
+  protected class FlexCompile implements Callable<Object> {
+
+    private final FlexApp flexApp;
+    private final List<String> commandLine;
+
+    /**
+     * @param flexApp     The flex app, or null for the SWC.
+     * @param commandLine The command line.
+     */
+    protected FlexCompile(FlexApp flexApp, List<String> commandLine) {
+      this.flexApp = flexApp;
+      this.commandLine = commandLine;
+    }
+
+    public Object call() throws IOException, EnunciateException {
+      if (this.flexApp == null) {
+        compileSwc(this.commandLine);
+      }
+      else {
+        compileSwf(this.flexApp, this.commandLine);
+      }
+      return null;
     }
   }
 
@@ -878,9 +961,11 @@ public class AMFDeploymentModule extends FreemarkerDeploymentModule implements P
     messageServlet.setClassname(MessageBrokerServlet.class.getName());
     messageServlet.setName("AMFMessageServlet");
     TreeSet<String> urlMappings = new TreeSet<String>();
-    for (WsdlInfo wsdlInfo : getModel().getNamespacesToWSDLs().values()) {
-      for (EndpointInterface ei : wsdlInfo.getEndpointInterfaces()) {
-        urlMappings.add(getAmfSubcontext() + ei.getServiceName());
+    synchronized (getModelLock()) {
+      for (WsdlInfo wsdlInfo : getModel().getNamespacesToWSDLs().values()) {
+        for (EndpointInterface ei : wsdlInfo.getEndpointInterfaces()) {
+          urlMappings.add(getAmfSubcontext() + ei.getServiceName());
+        }
       }
     }
     messageServlet.setUrlMappings(urlMappings);
@@ -900,21 +985,23 @@ public class AMFDeploymentModule extends FreemarkerDeploymentModule implements P
    * @return The string form of the resource.
    */
   protected String readResource(String resource) throws IOException, EnunciateException {
-    HashMap<String, Object> model = new HashMap<String, Object>();
-    model.put("sample_service_method", getModelInternal().findExampleWebMethod());
-    model.put("sample_resource", getModelInternal().findExampleResourceMethod());
-
-    URL res = AMFDeploymentModule.class.getResource(resource);
-    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
-    PrintStream out = new PrintStream(bytes);
-    try {
-      processTemplate(res, model, out);
-      out.flush();
-      bytes.flush();
-      return bytes.toString("utf-8");
-    }
-    catch (TemplateException e) {
-      throw new EnunciateException(e);
+    synchronized (getModelLock()) {
+      HashMap<String, Object> model = new HashMap<String, Object>();
+      model.put("sample_service_method", getModelInternal().findExampleWebMethod());
+      model.put("sample_resource", getModelInternal().findExampleResourceMethod());
+
+      URL res = AMFDeploymentModule.class.getResource(resource);
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      PrintStream out = new PrintStream(bytes);
+      try {
+        processTemplate(res, model, out);
+        out.flush();
+        bytes.flush();
+        return bytes.toString("utf-8");
+      }
+      catch (TemplateException e) {
+        throw new EnunciateException(e);
+      }
     }
   }
 
@@ -45,6 +45,7 @@ public class FlexCompilerConfig {
   private Boolean showBindingWarnings = null;
   private Boolean showDeprecationWarnings = null;
   private final List<License> licenses = new ArrayList<License>();
+  private int threads = 1;
 
   /**
    * The SWC compile command.
@@ -240,4 +241,22 @@ public class FlexCompilerConfig {
     this.showDeprecationWarnings = showDeprecationWarnings;
   }
 
+
+  /**
+   * The number of compiles that are invoked at the same time.
+   *
+   * @return The number of compiles that are invoked at the same time.
+   */
+  public int getThreads() {
+    return threads;
+  }
+
+  /**
+   * The number of compiles that are invoked at the same time.
+   *
+   * @param threads The number of compiles that are invoked at the same time.
+   */
+  public void setThreads(int threads) {
+    this.threads = threads;
+  }
 }
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2006-2008 Web Cohesion
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.codehaus.enunciate.modules.amf;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+
+/**
+ * Stands in for the flex compilers: writes the arguments it was invoked with to the output file.
+ *
+ * @author Ryan Heaton
+ */
+public class StubFlexCompiler {
+
+  public static void main(String[] args) throws IOException {
+    File output = null;
+    StringBuilder invocation = new StringBuilder();
+    for (int i = 0; i < args.length; i++) {
+      if ("-output".equals(args[i])) {
+        output = new File(args[i + 1]);
+      }
+      invocation.append(args[i]).append(' ');
+    }
+
+    System.out.println("Compiling " + output);
+    if (output == null || output.getName().startsWith("fail")) {
+      System.exit(1);
+    }
+
+    output.getParentFile().mkdirs();
+    FileWriter writer = new FileWriter(output);
+    writer.write(invocation.toString());
+    writer.close();
+  }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2006-2008 Web Cohesion
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.codehaus.enunciate.modules.amf;
+
+import junit.framework.TestCase;
+import org.codehaus.enunciate.EnunciateException;
+import org.codehaus.enunciate.main.Enunciate;
+import org.codehaus.enunciate.modules.amf.config.FlexApp;
+
+import java.io.*;
+import java.util.jar.JarOutputStream;
+import java.util.zip.ZipEntry;
+
+/**
+ * @author Ryan Heaton
+ */
+public class TestFlexCompile extends TestCase {
+
+  private File flexHome;
+  private File generateDir;
+  private File compileDir;
+  private File appsDir;
+  private File manifestFile;
+
+  @Override
+  protected void setUp() throws Exception {
+    Enunciate enunciate = new Enunciate(new String[0]);
+    this.flexHome = enunciate.createTempDir();
+    this.generateDir = enunciate.createTempDir();
+    this.compileDir = enunciate.createTempDir();
+    this.appsDir = enunciate.createTempDir();
+    this.manifestFile = new File(enunciate.createTempDir(), "build-manifest.properties");
+
+    //the stub compiler has to be in a jar in the flex lib directory.
+    File lib = new File(this.flexHome, "lib");
+    lib.mkdirs();
+    String classFile = StubFlexCompiler.class.getName().replace('.', '/') + ".class";
+    JarOutputStream jar = new JarOutputStream(new FileOutputStream(new File(lib, "stub-compiler.jar")));
+    jar.putNextEntry(new ZipEntry(classFile));
+    InputStream in = StubFlexCompiler.class.getClassLoader().getResourceAsStream(classFile);
+    byte[] buffer = new byte[1024];
+    int len;
+    while ((len = in.read(buffer)) > 0) {
+      jar.write(buffer, 0, len);
+    }
+    in.close();
+    jar.close();
+
+    write(new File(this.appsDir, "app1/App1.mxml"), "<app1/>");
+    write(new File(this.appsDir, "app2/App2.mxml"), "<app2/>");
+    write(new File(this.generateDir, "amf/client/Client.as"), "class Client {}");
+  }
+
+  /**
+   * tests compiling the swc and the flex apps concurrently, and skipping what's up-to-date.
+   */
+  public void testCompileConcurrently() throws Exception {
+    Enunciate enunciate = newEnunciate();
+    AMFDeploymentModule module = newModule(enunciate, "app1", "app2");
+    module.doFlexCompile();
+    enunciate.getBuildManifest().save();
+
+    File swcFile = new File(module.getSwcCompileDir(), "enunciate-as3-client.swc");
+    File app1 = new File(module.getSwfCompileDir(), "app1.swf");
+    File app2 = new File(module.getSwfCompileDir(), "app2.swf");
+    assertTrue(read(swcFile).contains("-include-sources"));
+    assertTrue(read(app1).contains(new File(this.appsDir, "app1/App1.mxml").getAbsolutePath()));
+    assertTrue(read(app2).contains(new File(this.appsDir, "app2/App2.mxml").getAbsolutePath()));
+
+    write(swcFile, "unchanged");
+    write(app1, "unchanged");
+    write(app2, "unchanged");
+    write(new File(this.appsDir, "app2/App2.mxml"), "<app2 changed='true'/>");
+    enunciate = newEnunciate();
+    module = newModule(enunciate, "app1", "app2");
+    module.doFlexCompile();
+    assertEquals("the swc should have been skipped.", "unchanged", read(swcFile));
+    assertEquals("app1 should have been skipped.", "unchanged", read(app1));
+    assertFalse("app2 changed so it should have been compiled.", "unchanged".equals(read(app2)));
+  }
+
+  /**
+   * tests that a failed compile is reported when compiling concurrently.
+   */
+  public void testCompileFailure() throws Exception {
+    write(new File(this.appsDir, "fail/Fail.mxml"), "<fail/>");
+    Enunciate enunciate = newEnunciate();
+    AMFDeploymentModule module = newModule(enunciate, "app1", "fail");
+    try {
+      module.doFlexCompile();
+      fail("The failed compile should have been reported.");
+    }
+    catch (EnunciateException e) {
+      assertEquals("Flex compile failed for module fail", e.getMessage());
+    }
+  }
+
+  private Enunciate newEnunciate() {
+    Enunciate enunciate = new Enunciate(new String[0]);
+    enunciate.setGenerateDir(this.generateDir);
+    enunciate.setCompileDir(this.compileDir);
+    enunciate.setBuildManifestFile(this.manifestFile);
+    return enunciate;
+  }
+
+  private AMFDeploymentModule newModule(Enunciate enunciate, String... appNames) throws EnunciateException {
+    AMFDeploymentModule module = new AMFDeploymentModule();
+    module.setFlexHome(this.flexHome.getAbsolutePath());
+    module.setSwcDownloadable(true);
+    module.getCompilerConfig().setContextRoot("/test");
+    module.getCompilerConfig().setFlexCompileCommand(StubFlexCompiler.class.getName());
+    module.getCompilerConfig().setSwcCompileCommand(StubFlexCompiler.class.getName());
+    module.getCompilerConfig().setThreads(3);
+    for (String appName : appNames) {
+      FlexApp app = new FlexApp();
+      app.setName(appName);
+      File srcDir = new File(this.appsDir, appName);
+      app.setSrcDir(srcDir.getAbsolutePath());
+      app.setMainMxmlFile(srcDir.listFiles()[0].getAbsolutePath());
+      module.addFlexApp(app);
+    }
+    module.init(enunciate);
+    return module;
+  }
+
+  private void write(File file, String content) throws IOException {
+    file.getParentFile().mkdirs();
+    FileWriter writer = new FileWriter(file);
+    writer.write(content);
+    writer.close();
+  }
+
+  private String read(File file) throws IOException {
+    BufferedReader reader = new BufferedReader(new FileReader(file));
+    try {
+      return reader.readLine();
+    }
+    finally {
+      reader.close();
+    }
+  }
+}
@@ -34,6 +34,7 @@ import org.codehaus.enunciate.contract.jaxb.LocalElementDeclaration;
 import org.codehaus.enunciate.main.ClientLibraryArtifact;
 import org.codehaus.enunciate.main.NamedFileArtifact;
 import org.codehaus.enunciate.main.ArtifactType;
+import org.codehaus.enunciate.modules.DependencyAware;
 import org.codehaus.enunciate.modules.FreemarkerDeploymentModule;
 import org.codehaus.enunciate.modules.c.config.CRuleSet;
 
@@ -94,7 +95,7 @@ import org.codehaus.enunciate.template.freemarker.ForAllAccessorsTransform;
  * @author Ryan Heaton
  * @docFileName module_c.html
  */
-public class CDeploymentModule extends FreemarkerDeploymentModule implements FacetAware {
+public class CDeploymentModule extends FreemarkerDeploymentModule implements FacetAware, DependencyAware {
 
   /**
    * The pattern to scrub is any non-word character.
@@ -117,6 +118,11 @@ public class CDeploymentModule extends FreemarkerDeploymentModule implements Fac
     return "c";
   }
 
+  // Inherited.
+  public Set<String> getModuleDependencies() {
+    return Collections.emptySet();
+  }
+
   /**
    * Scrub a C identifier (removing any illegal characters, etc.).
    *
@@ -190,55 +196,57 @@ public class CDeploymentModule extends FreemarkerDeploymentModule implements Fac
    * @return The string form of the resource.
    */
   protected String readResource(String resource) throws IOException, EnunciateException {
-    HashMap<String, Object> model = new HashMap<String, Object>();
-    ResourceMethod exampleResource = getModelInternal().findExampleResourceMethod();
-    model.put("filename", getSourceFileName());
-    String label = getLabel() == null ? getEnunciate().getConfig() == null ? "enunciate" : getEnunciate().getConfig().getLabel() : getLabel();
-    NameForTypeDefinitionMethod nameForTypeDefinition = new NameForTypeDefinitionMethod(getTypeDefinitionNamePattern(), label, getModelInternal().getNamespacesToPrefixes());
-
-    if (exampleResource != null) {
-      if (exampleResource.getEntityParameter() != null && exampleResource.getEntityParameter().getXmlElement() != null) {
-        ElementDeclaration el = exampleResource.getEntityParameter().getXmlElement();
-        TypeDefinition typeDefinition = null;
-        if (el instanceof RootElementDeclaration) {
-          typeDefinition = getModelInternal().findTypeDefinition((RootElementDeclaration) el);
-        }
-        else if (el instanceof LocalElementDeclaration && ((LocalElementDeclaration) el).getElementTypeDeclaration() instanceof ClassDeclaration) {
-          typeDefinition = getModelInternal().findTypeDefinition((ClassDeclaration) ((LocalElementDeclaration) el).getElementTypeDeclaration());
-        }
+    synchronized (getModelLock()) {
+      HashMap<String, Object> model = new HashMap<String, Object>();
+      ResourceMethod exampleResource = getModelInternal().findExampleResourceMethod();
+      model.put("filename", getSourceFileName());
+      String label = getLabel() == null ? getEnunciate().getConfig() == null ? "enunciate" : getEnunciate().getConfig().getLabel() : getLabel();
+      NameForTypeDefinitionMethod nameForTypeDefinition = new NameForTypeDefinitionMethod(getTypeDefinitionNamePattern(), label, getModelInternal().getNamespacesToPrefixes());
+
+      if (exampleResource != null) {
+        if (exampleResource.getEntityParameter() != null && exampleResource.getEntityParameter().getXmlElement() != null) {
+          ElementDeclaration el = exampleResource.getEntityParameter().getXmlElement();
+          TypeDefinition typeDefinition = null;
+          if (el instanceof RootElementDeclaration) {
+            typeDefinition = getModelInternal().findTypeDefinition((RootElementDeclaration) el);
+          }
+          else if (el instanceof LocalElementDeclaration && ((LocalElementDeclaration) el).getElementTypeDeclaration() instanceof ClassDeclaration) {
+            typeDefinition = getModelInternal().findTypeDefinition((ClassDeclaration) ((LocalElementDeclaration) el).getElementTypeDeclaration());
+          }
 
-        if (typeDefinition != null) {
-          model.put("input_element_name", nameForTypeDefinition.calculateName(typeDefinition));
+          if (typeDefinition != null) {
+            model.put("input_element_name", nameForTypeDefinition.calculateName(typeDefinition));
+          }
         }
-      }
 
-      if (exampleResource.getRepresentationMetadata() != null && exampleResource.getRepresentationMetadata().getXmlElement() != null) {
-        ElementDeclaration el = exampleResource.getRepresentationMetadata().getXmlElement();
-        TypeDefinition typeDefinition = null;
-        if (el instanceof RootElementDeclaration) {
-          typeDefinition = getModelInternal().findTypeDefinition((RootElementDeclaration) el);
-        }
-        else if (el instanceof LocalElementDeclaration && ((LocalElementDeclaration) el).getElementTypeDeclaration() instanceof ClassDeclaration) {
-          typeDefinition = getModelInternal().findTypeDefinition((ClassDeclaration) ((LocalElementDeclaration) el).getElementTypeDeclaration());
-        }
+        if (exampleResource.getRepresentationMetadata() != null && exampleResource.getRepresentationMetadata().getXmlElement() != null) {
+          ElementDeclaration el = exampleResource.getRepresentationMetadata().getXmlElement();
+          TypeDefinition typeDefinition = null;
+          if (el instanceof RootElementDeclaration) {
+            typeDefinition = getModelInternal().findTypeDefinition((RootElementDeclaration) el);
+          }
+          else if (el instanceof LocalElementDeclaration && ((LocalElementDeclaration) el).getElementTypeDeclaration() instanceof ClassDeclaration) {
+            typeDefinition = getModelInternal().findTypeDefinition((ClassDeclaration) ((LocalElementDeclaration) el).getElementTypeDeclaration());
+          }
 
-        if (typeDefinition != null) {
-          model.put("output_element_name", nameForTypeDefinition.calculateName(typeDefinition));
+          if (typeDefinition != null) {
+            model.put("output_element_name", nameForTypeDefinition.calculateName(typeDefinition));
+          }
         }
       }
-    }
 
-    URL res = CDeploymentModule.class.getResource(resource);
-    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
-    PrintStream out = new PrintStream(bytes);
-    try {
-      processTemplate(res, model, out);
-      out.flush();
-      bytes.flush();
-      return bytes.toString("utf-8");
-    }
-    catch (TemplateException e) {
-      throw new EnunciateException(e);
+      URL res = CDeploymentModule.class.getResource(resource);
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      PrintStream out = new PrintStream(bytes);
+      try {
+        processTemplate(res, model, out);
+        out.flush();
+        bytes.flush();
+        return bytes.toString("utf-8");
+      }
+      catch (TemplateException e) {
+        throw new EnunciateException(e);
+      }
     }
   }
 
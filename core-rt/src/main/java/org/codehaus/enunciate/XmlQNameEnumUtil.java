@@ -8,6 +8,9 @@ import javax.xml.bind.annotation.XmlSchema;
 import javax.xml.namespace.QName;
 import java.lang.reflect.Field;
 import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -22,6 +25,7 @@ public class XmlQNameEnumUtil {
 
   private static final AtomicReference<String> DEFAULT_BASE_URI = new AtomicReference<String>();
   private static final AtomicBoolean WRITE_RELATIVE_URIS = new AtomicBoolean(false);
+  private static final Map<Class<?>, EnumTable> ENUM_TABLES = new ConcurrentHashMap<Class<?>, EnumTable>();
 
   /**
    * Set the default base uri for resolving qname URIs.
@@ -73,59 +77,13 @@ public class XmlQNameEnumUtil {
       return null;
     }
 
-    XmlQNameEnum enumInfo = clazz.getAnnotation(XmlQNameEnum.class);
-    if (enumInfo == null) {
-      throw new IllegalArgumentException(String.format("Class %s isn't a QName enum.", clazz.getName()));
-    }
-    else if (enumInfo.base() != XmlQNameEnum.BaseType.QNAME) {
+    EnumTable table = getEnumTable(clazz);
+    if (table.base != XmlQNameEnum.BaseType.QNAME) {
       throw new IllegalArgumentException("Class " + clazz.getName() + " is supposed to be converted from a URI (not QName).");
     }
 
-    String namespace = enumInfo.namespace();
-    if ("##default".equals(namespace)) {
-      Package pkg = clazz.getPackage();
-      if (pkg != null) {
-        XmlSchema schemaInfo = pkg.getAnnotation(XmlSchema.class);
-        namespace = schemaInfo.namespace();
-      }
-    }
-
-    Field unknown = null;
-    Field[] fields = clazz.getDeclaredFields();
-    for (Field field : fields) {
-      if (field.isEnumConstant()) {
-        if (field.getAnnotation(XmlUnknownQNameEnumValue.class) != null) {
-          unknown = field;
-          continue;
-        }
-
-        XmlQNameEnumValue enumValueInfo = field.getAnnotation(XmlQNameEnumValue.class);
-        String ns = namespace;
-        String localPart = field.getName();
-        if (enumValueInfo != null) {
-          if (enumValueInfo.exclude()) {
-            continue;
-          }
-          if (!"##default".equals(enumValueInfo.namespace())) {
-            ns = enumValueInfo.namespace();
-          }
-          if (!"##default".equals(enumValueInfo.localPart())) {
-            localPart = enumValueInfo.localPart();
-          }
-        }
-
-        if (new QName(ns, localPart).equals(qname)) {
-          return Enum.valueOf(clazz, field.getName());
-        }
-      }
-    }
-
-    if (unknown != null) {
-      return Enum.valueOf(clazz, unknown.getName());
-    }
-    else {
-      return null;
-    }
+    Enum e = table.qnamesToConstants.get(qname);
+    return clazz.cast(e != null ? e : table.unknown);
   }
 
   /**
@@ -143,50 +101,15 @@ public class XmlQNameEnumUtil {
     }
 
     Class<?> clazz = e.getDeclaringClass();
-    XmlQNameEnum enumInfo = clazz.getAnnotation(XmlQNameEnum.class);
-    if (enumInfo == null) {
-      throw new IllegalArgumentException("Class " + clazz.getName() + " isn't a QName enum.");
-    }
-    else if (enumInfo.base() != XmlQNameEnum.BaseType.QNAME) {
+    EnumTable table = getEnumTable(clazz);
+    if (table.base != XmlQNameEnum.BaseType.QNAME) {
       throw new IllegalArgumentException("Class " + clazz.getName() + " is supposed to be converted to a URI (not QName).");
     }
-
-    String namespace = enumInfo.namespace();
-    if ("##default".equals(namespace)) {
-      Package pkg = clazz.getPackage();
-      if (pkg != null) {
-        XmlSchema schemaInfo = pkg.getAnnotation(XmlSchema.class);
-        namespace = schemaInfo.namespace();
-      }
+    else if (e == table.unknown) {
+      throw new IllegalArgumentException(e.getDeclaringClass().getName() + "." + e + " is not a QName enum value.");
     }
 
-    Field[] fields = clazz.getDeclaredFields();
-    for (Field field : fields) {
-      if (field.isEnumConstant() && field.getName().equals(e.name())) {
-        if (field.getAnnotation(XmlUnknownQNameEnumValue.class) != null) {
-          throw new IllegalArgumentException(e.getDeclaringClass().getName() + "." + e + " is not a QName enum value.");
-        }
-
-        XmlQNameEnumValue enumValueInfo = field.getAnnotation(XmlQNameEnumValue.class);
-        String ns = namespace;
-        String localPart = field.getName();
-        if (enumValueInfo != null && !enumValueInfo.exclude()) {
-          if (enumValueInfo.exclude()) {
-            throw new IllegalArgumentException(e.getDeclaringClass().getName() + "." + e + " is excluded a QName enum value.");
-          }
-          if (!"##default".equals(enumValueInfo.namespace())) {
-            ns = enumValueInfo.namespace();
-          }
-          if (!"##default".equals(enumValueInfo.localPart())) {
-            localPart = enumValueInfo.localPart();
-          }
-        }
-
-        return new QName(ns, localPart);
-      }
-    }
-
-    throw new IllegalStateException("Unable to find " + e.getDeclaringClass().getName() + "." + e + " as a QName enum value.");
+    return table.qnames[e.ordinal()];
   }
 
   /**
@@ -238,59 +161,13 @@ public class XmlQNameEnumUtil {
       uriValue = URI.create(defaultBaseUri).resolve(uriValue).toString();
     }
 
-    XmlQNameEnum enumInfo = clazz.getAnnotation(XmlQNameEnum.class);
-    if (enumInfo == null) {
-      throw new IllegalArgumentException(String.format("Class %s isn't a QName enum.", clazz.getName()));
-    }
-    else if (enumInfo.base() != XmlQNameEnum.BaseType.URI) {
+    EnumTable table = getEnumTable(clazz);
+    if (table.base != XmlQNameEnum.BaseType.URI) {
       throw new IllegalArgumentException("Class " + clazz.getName() + " is supposed to be converted to a QName (not URI).");
     }
 
-    String namespace = enumInfo.namespace();
-    if ("##default".equals(namespace)) {
-      Package pkg = clazz.getPackage();
-      if (pkg != null) {
-        XmlSchema schemaInfo = pkg.getAnnotation(XmlSchema.class);
-        namespace = schemaInfo.namespace();
-      }
-    }
-
-    Field unknown = null;
-    Field[] fields = clazz.getDeclaredFields();
-    for (Field field : fields) {
-      if (field.isEnumConstant()) {
-        if (field.getAnnotation(XmlUnknownQNameEnumValue.class) != null) {
-          unknown = field;
-          continue;
-        }
-
-        XmlQNameEnumValue enumValueInfo = field.getAnnotation(XmlQNameEnumValue.class);
-        String ns = namespace;
-        String localPart = field.getName();
-        if (enumValueInfo != null) {
-          if (enumValueInfo.exclude()) {
-            continue;
-          }
-          if (!"##default".equals(enumValueInfo.namespace())) {
-            ns = enumValueInfo.namespace();
-          }
-          if (!"##default".equals(enumValueInfo.localPart())) {
-            localPart = enumValueInfo.localPart();
-          }
-        }
-
-        if ((ns + localPart).equals(uriValue)) {
-          return Enum.valueOf(clazz, field.getName());
-        }
-      }
-    }
-
-    if (unknown != null) {
-      return Enum.valueOf(clazz, unknown.getName());
-    }
-    else {
-      return null;
-    }
+    Enum e = table.urisToConstants.get(uriValue);
+    return clazz.cast(e != null ? e : table.unknown);
   }
 
   /**
@@ -338,61 +215,108 @@ public class XmlQNameEnumUtil {
       return null;
     }
 
-    String uriValue = null;
-
     Class<?> clazz = e.getDeclaringClass();
-    XmlQNameEnum enumInfo = clazz.getAnnotation(XmlQNameEnum.class);
-    if (enumInfo == null) {
-      throw new IllegalArgumentException("Class " + clazz.getName() + " isn't a QName enum.");
-    }
-    else if (enumInfo.base() != XmlQNameEnum.BaseType.URI) {
+    EnumTable table = getEnumTable(clazz);
+    if (table.base != XmlQNameEnum.BaseType.URI) {
       throw new IllegalArgumentException("Class " + clazz.getName() + " is supposed to be converted from a QName (not URI).");
     }
+    else if (e == table.unknown) {
+      throw new IllegalArgumentException(e.getDeclaringClass().getName() + "." + e + " is not a QName enum value.");
+    }
 
-    String namespace = enumInfo.namespace();
-    if ("##default".equals(namespace)) {
-      Package pkg = clazz.getPackage();
-      if (pkg != null) {
-        XmlSchema schemaInfo = pkg.getAnnotation(XmlSchema.class);
-        namespace = schemaInfo.namespace();
-      }
+    QName qname = table.qnames[e.ordinal()];
+    if (qname.getNamespaceURI().equals(defaultBaseUri) && isWriteRelativeUris()) {
+      return qname.getLocalPart();
     }
 
-    Field[] fields = clazz.getDeclaredFields();
-    for (Field field : fields) {
-      if (field.isEnumConstant() && field.getName().equals(e.name())) {
-        if (field.getAnnotation(XmlUnknownQNameEnumValue.class) != null) {
-          throw new IllegalArgumentException(e.getDeclaringClass().getName() + "." + e + " is not a QName enum value.");
+    return table.uriValues[e.ordinal()];
+  }
+
+  /**
+   * Get the lookup tables for the specified QName enum class, reading its annotations if it hasn't been read yet.
+   *
+   * @param clazz The enum class.
+   * @return The lookup tables.
+   * @throws IllegalArgumentException If <code>clazz</code> isn't a QName enum.
+   */
+  private static EnumTable getEnumTable(Class<?> clazz) {
+    EnumTable table = ENUM_TABLES.get(clazz);
+    if (table == null) {
+      //no harm done if two threads read the same class at the same time.
+      table = new EnumTable(clazz);
+      ENUM_TABLES.put(clazz, table);
+    }
+    return table;
+  }
+
+  /**
+   * The lookup tables for a QName enum class, built once from its annotations.
+   */
+  private static final class EnumTable {
+
+    private final XmlQNameEnum.BaseType base;
+    private final Map<QName, Enum> qnamesToConstants = new HashMap<QName, Enum>();
+    private final Map<String, Enum> urisToConstants = new HashMap<String, Enum>();
+    private final QName[] qnames;
+    private final String[] uriValues;
+    private Enum unknown = null;
+
+    @SuppressWarnings ( "unchecked" )
+    private EnumTable(Class<?> clazz) {
+      XmlQNameEnum enumInfo = clazz.getAnnotation(XmlQNameEnum.class);
+      if (enumInfo == null || !clazz.isEnum()) {
+        throw new IllegalArgumentException(String.format("Class %s isn't a QName enum.", clazz.getName()));
+      }
+      this.base = enumInfo.base();
+
+      String namespace = enumInfo.namespace();
+      if ("##default".equals(namespace)) {
+        Package pkg = clazz.getPackage();
+        if (pkg != null) {
+          XmlSchema schemaInfo = pkg.getAnnotation(XmlSchema.class);
+          namespace = schemaInfo.namespace();
         }
+      }
 
-        XmlQNameEnumValue enumValueInfo = field.getAnnotation(XmlQNameEnumValue.class);
-        String ns = namespace;
-        String localPart = field.getName();
-        if (enumValueInfo != null && !enumValueInfo.exclude()) {
-          if (enumValueInfo.exclude()) {
-            throw new IllegalArgumentException(e.getDeclaringClass().getName() + "." + e + " is excluded a QName enum value.");
-          }
-          if (!"##default".equals(enumValueInfo.namespace())) {
-            ns = enumValueInfo.namespace();
+      Class<? extends Enum> enumClass = (Class<? extends Enum>) clazz;
+      int constantCount = clazz.getEnumConstants().length;
+      this.qnames = new QName[constantCount];
+      this.uriValues = new String[constantCount];
+      for (Field field : clazz.getDeclaredFields()) {
+        if (field.isEnumConstant()) {
+          Enum constant = Enum.valueOf(enumClass, field.getName());
+          if (field.getAnnotation(XmlUnknownQNameEnumValue.class) != null) {
+            this.unknown = constant;
+            continue;
           }
-          if (!"##default".equals(enumValueInfo.localPart())) {
-            localPart = enumValueInfo.localPart();
+
+          XmlQNameEnumValue enumValueInfo = field.getAnnotation(XmlQNameEnumValue.class);
+          boolean excluded = enumValueInfo != null && enumValueInfo.exclude();
+          String ns = namespace;
+          String localPart = field.getName();
+          if (enumValueInfo != null && !excluded) {
+            if (!"##default".equals(enumValueInfo.namespace())) {
+              ns = enumValueInfo.namespace();
+            }
+            if (!"##default".equals(enumValueInfo.localPart())) {
+              localPart = enumValueInfo.localPart();
+            }
           }
-        }
 
-        if (ns.equals(defaultBaseUri) && isWriteRelativeUris()) {
-          ns = "";
+          //an excluded value is still converted *to* a qname (or uri), but it's never converted *from* one.
+          QName qname = new QName(ns, localPart);
+          this.qnames[constant.ordinal()] = qname;
+          this.uriValues[constant.ordinal()] = ns + localPart;
+          if (!excluded) {
+            if (!this.qnamesToConstants.containsKey(qname)) {
+              this.qnamesToConstants.put(qname, constant);
+            }
+            if (!this.urisToConstants.containsKey(ns + localPart)) {
+              this.urisToConstants.put(ns + localPart, constant);
+            }
+          }
         }
-
-        uriValue = ns + localPart;
-        break;
       }
     }
-
-    if (uriValue == null) {
-      throw new IllegalStateException("Unable to find " + e.getDeclaringClass().getName() + "." + e + " as a QName enum value.");
-    }
-
-    return uriValue;
   }
 }
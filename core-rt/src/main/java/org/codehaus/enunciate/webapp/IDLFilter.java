@@ -18,9 +18,21 @@ package org.codehaus.enunciate.webapp;
 
 import javax.servlet.*;
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import java.io.*;
+import java.net.URL;
+import java.net.URLConnection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPOutputStream;
 
 /**
+ * Filter that rewrites the assumed base address in the IDL documents (WSDL, schemas) to the address that was actually
+ * requested. The rewritten documents are cached per (resource, base address) and served from memory, with a content length,
+ * an entity tag and a last-modified date so that conditional requests can be answered with a 304. If the "gzip" parameter
+ * is set to "true", the documents are gzipped for clients that accept it; the gzipped document has its own entity tag.
+ *
  * @author Ryan Heaton
  */
 public class IDLFilter implements Filter {
@@ -29,12 +41,22 @@ public class IDLFilter implements Filter {
   public static final String MATCH_PREFIX_PARAM = "match-prefix";
   public static final String MATCH_SUFFIX_PARAM = "match-suffix";
   public static final String CONTENT_TYPE_PARAM = "content-type";
+  public static final String GZIP_PARAM = "gzip";
+  public static final String CACHE_SIZE_PARAM = "cache-size";
+
+  /**
+   * Marker for a resource that doesn't exist.
+   */
+  private static final IDLDocument NO_DOCUMENT = new IDLDocument(new byte[0], 0, false);
 
   private String matchPrefix = "";
   private String matchSuffix = "";
   private String contentType = "application/xml";
   private String assumedBaseAddress = null;
   private ServletContext servletContext = null;
+  private boolean gzip = false;
+  private int cacheSize = 256;
+  private final ConcurrentMap<String, IDLDocument> documents = new ConcurrentHashMap<String, IDLDocument>();
 
   public void init(FilterConfig filterConfig) throws ServletException {
     this.assumedBaseAddress = filterConfig.getInitParameter(ASSUMED_BASE_ADDRESS_PARAM);
@@ -59,6 +81,16 @@ public class IDLFilter implements Filter {
       this.contentType = contentType;
     }
 
+    String gzip = filterConfig.getInitParameter(GZIP_PARAM);
+    if (gzip != null) {
+      this.gzip = Boolean.valueOf(gzip);
+    }
+
+    String cacheSize = filterConfig.getInitParameter(CACHE_SIZE_PARAM);
+    if (cacheSize != null) {
+      this.cacheSize = Integer.parseInt(cacheSize);
+    }
+
     this.servletContext = filterConfig.getServletContext();
   }
 
@@ -71,20 +103,9 @@ public class IDLFilter implements Filter {
         int splitIndex = requestURI.indexOf(contextPath) + contextPath.length();
         String fullContextPath = requestURI.substring(0, splitIndex);
         String postContextPath = requestURI.substring(splitIndex);
-        InputStream wsdlStream = getServletContext().getResourceAsStream(postContextPath);
-        if (wsdlStream != null) {
-          StringBuffer match = new StringBuffer(matchPrefix).append(assumedBaseAddress).append(matchSuffix);
-          StringBuffer replacement = new StringBuffer(matchPrefix).append(fullContextPath).append(matchSuffix);
-          BufferedReader reader = new BufferedReader(new InputStreamReader(wsdlStream, "utf-8"));
-          String line = reader.readLine();
-          servletResponse.setContentType(this.contentType);
-          PrintWriter out = servletResponse.getWriter();
-          while (line != null) {
-            out.println(line.replace(match, replacement));
-            line = reader.readLine();
-          }
-          out.flush();
-          out.close();
+        IDLDocument document = getIDLDocument(postContextPath, fullContextPath);
+        if (document != null) {
+          writeIDLDocument(document, request, (HttpServletResponse) servletResponse);
           return;
         }
       }
@@ -93,7 +114,128 @@ public class IDLFilter implements Filter {
     chain.doFilter(servletRequest, servletResponse);
   }
 
+  /**
+   * Get the rewritten IDL document for the specified resource and base address, loading it the first time it's requested.
+   *
+   * @param resource The resource path, relative to the context.
+   * @param baseAddress The base address.
+   * @return The document, or null if there is no such resource.
+   */
+  protected IDLDocument getIDLDocument(String resource, String baseAddress) throws IOException {
+    String key = resource + '\n' + baseAddress;
+    IDLDocument document = this.documents.get(key);
+    if (document == null) {
+      document = loadIDLDocument(resource, baseAddress);
+      if (document == null) {
+        document = NO_DOCUMENT;
+      }
+
+      if (this.documents.size() >= this.cacheSize) {
+        //the base address comes from the request, so we don't want this to grow without bound.
+        this.documents.clear();
+      }
+      this.documents.put(key, document);
+    }
+    return document == NO_DOCUMENT ? null : document;
+  }
+
+  /**
+   * Load the specified IDL resource, rewriting the assumed base address to the specified base address.
+   *
+   * @param resource The resource path, relative to the context.
+   * @param baseAddress The base address.
+   * @return The document, or null if there is no such resource.
+   */
+  protected IDLDocument loadIDLDocument(String resource, String baseAddress) throws IOException {
+    InputStream wsdlStream = getServletContext().getResourceAsStream(resource);
+    if (wsdlStream == null) {
+      return null;
+    }
+
+    String match = new StringBuilder(matchPrefix).append(assumedBaseAddress).append(matchSuffix).toString();
+    String replacement = new StringBuilder(matchPrefix).append(baseAddress).append(matchSuffix).toString();
+    StringWriter content = new StringWriter();
+    PrintWriter out = new PrintWriter(content);
+    BufferedReader reader = new BufferedReader(new InputStreamReader(wsdlStream, "utf-8"));
+    try {
+      String line = reader.readLine();
+      while (line != null) {
+        out.println(line.replace(match, replacement));
+        line = reader.readLine();
+      }
+    }
+    finally {
+      reader.close();
+    }
+    out.flush();
+    return new IDLDocument(content.toString().getBytes("utf-8"), getLastModified(resource), this.gzip);
+  }
+
+  /**
+   * The last-modified date of the specified resource.
+   *
+   * @param resource The resource path, relative to the context.
+   * @return The last-modified date of the resource, or the current time if it's unknown.
+   */
+  protected long getLastModified(String resource) {
+    long lastModified = 0;
+    try {
+      URL url = getServletContext().getResource(resource);
+      if (url != null) {
+        URLConnection connection = url.openConnection();
+        lastModified = connection.getLastModified();
+        //getting the headers may have opened the resource.
+        connection.getInputStream().close();
+      }
+    }
+    catch (IOException e) {
+      //fall through; the date's unknown.
+    }
+    return lastModified > 0 ? lastModified : System.currentTimeMillis();
+  }
+
+  /**
+   * Write the specified IDL document to the response, or a 304 if the client already has it.
+   *
+   * @param document The document.
+   * @param request The request.
+   * @param response The response.
+   */
+  protected void writeIDLDocument(IDLDocument document, HttpServletRequest request, HttpServletResponse response) throws IOException {
+    boolean gzipped = false;
+    if (document.getGzippedContent() != null) {
+      String acceptEncoding = request.getHeader("Accept-Encoding");
+      gzipped = acceptEncoding != null && acceptEncoding.indexOf("gzip") >= 0;
+    }
+
+    String etag = gzipped ? document.getGzipEtag() : document.getEtag();
+    response.setHeader("ETag", etag);
+    response.setDateHeader("Last-Modified", document.getLastModified());
+    if (this.gzip) {
+      response.setHeader("Vary", "Accept-Encoding");
+    }
+
+    if (document.isNotModified(etag, request.getHeader("If-None-Match"), request.getDateHeader("If-Modified-Since"))) {
+      response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+      return;
+    }
+
+    byte[] bytes = document.getContent();
+    if (gzipped) {
+      response.setHeader("Content-Encoding", "gzip");
+      bytes = document.getGzippedContent();
+    }
+
+    response.setContentType(this.contentType.indexOf("charset") >= 0 ? this.contentType : this.contentType + ";charset=utf-8");
+    response.setContentLength(bytes.length);
+    OutputStream out = response.getOutputStream();
+    out.write(bytes);
+    out.flush();
+    out.close();
+  }
+
   public void destroy() {
+    this.documents.clear();
   }
 
   public String getMatchPrefix() {
@@ -135,4 +277,94 @@ public class IDLFilter implements Filter {
   public void setContentType(String contentType) {
     this.contentType = contentType;
   }
+
+  public boolean isGzip() {
+    return gzip;
+  }
+
+  public void setGzip(boolean gzip) {
+    this.gzip = gzip;
+  }
+
+  public int getCacheSize() {
+    return cacheSize;
+  }
+
+  public void setCacheSize(int cacheSize) {
+    this.cacheSize = cacheSize;
+  }
+
+  /**
+   * A rewritten IDL document, ready to be served.
+   */
+  protected static class IDLDocument {
+
+    private final byte[] content;
+    private final byte[] gzippedContent;
+    private final String etag;
+    private final String gzipEtag;
+    private final long lastModified;
+
+    public IDLDocument(byte[] content, long lastModified, boolean gzip) {
+      this.content = content;
+      CRC32 crc = new CRC32();
+      crc.update(content);
+      String tag = Long.toHexString(crc.getValue()) + "-" + content.length;
+      this.etag = "\"" + tag + "\"";
+      this.gzipEtag = "\"" + tag + "-gzip\"";
+      //http dates have a resolution of seconds.
+      this.lastModified = (lastModified / 1000) * 1000;
+
+      byte[] gzippedContent = null;
+      if (gzip) {
+        try {
+          ByteArrayOutputStream bytes = new ByteArrayOutputStream(content.length / 4 + 64);
+          GZIPOutputStream gzipOut = new GZIPOutputStream(bytes);
+          gzipOut.write(content);
+          gzipOut.close();
+          gzippedContent = bytes.toByteArray();
+        }
+        catch (IOException e) {
+          //fall through; we just won't gzip.
+        }
+      }
+      this.gzippedContent = gzippedContent;
+    }
+
+    public byte[] getContent() {
+      return content;
+    }
+
+    public byte[] getGzippedContent() {
+      return gzippedContent;
+    }
+
+    public String getEtag() {
+      return etag;
+    }
+
+    public String getGzipEtag() {
+      return gzipEtag;
+    }
+
+    public long getLastModified() {
+      return lastModified;
+    }
+
+    /**
+     * Whether a client with the specified conditional request headers already has this document.
+     *
+     * @param etag The entity tag of the encoding of this document that would be served.
+     * @param ifNoneMatch The value of the If-None-Match header (or null).
+     * @param ifModifiedSince The value of the If-Modified-Since header (or -1).
+     * @return Whether the client already has this document.
+     */
+    public boolean isNotModified(String etag, String ifNoneMatch, long ifModifiedSince) {
+      if (ifNoneMatch != null) {
+        return "*".equals(ifNoneMatch.trim()) || ifNoneMatch.indexOf(etag) >= 0;
+      }
+
+      return ifModifiedSince >= 0 && ifModifiedSince >= this.lastModified;
+    }
+  }
 }
@@ -88,4 +88,45 @@ public class TestXmlQNameEnumUtil extends TestCase {
     catch (IllegalArgumentException e) {}
   }
 
+  /**
+   * tests that every qname enum value converts back to itself, over and over.
+   */
+  public void testRoundTrip() throws Exception {
+    for (int i = 0; i < 1000; i++) {
+      for (SpecialQNameEnum e : SpecialQNameEnum.values()) {
+        assertSame(e, XmlQNameEnumUtil.fromQName(XmlQNameEnumUtil.toQName(e), SpecialQNameEnum.class));
+      }
+      for (SpecialURIEnum e : SpecialURIEnum.values()) {
+        assertSame(e, XmlQNameEnumUtil.fromURI(XmlQNameEnumUtil.toURI(e), SpecialURIEnum.class));
+      }
+    }
+
+    assertEquals(new QName("urn:enunciate", "not_a_qname_enum"), XmlQNameEnumUtil.toQName(AnotherSpecialQNameEnum.not_a_qname_enum));
+    assertSame(AnotherSpecialQNameEnum.other, XmlQNameEnumUtil.fromQName(XmlQNameEnumUtil.toQName(AnotherSpecialQNameEnum.not_a_qname_enum), AnotherSpecialQNameEnum.class));
+    try {
+      XmlQNameEnumUtil.toQName(AnotherSpecialQNameEnum.other);
+      fail();
+    }
+    catch (IllegalArgumentException e) {}
+    try {
+      XmlQNameEnumUtil.toURI(SpecialQNameEnum.best);
+      fail();
+    }
+    catch (IllegalArgumentException e) {}
+  }
+
+  /**
+   * tests the conversions of an enum with hundreds of values.
+   */
+  public void testLargeEnum() throws Exception {
+    LargeQNameEnum[] values = LargeQNameEnum.values();
+    assertEquals(500, values.length);
+    for (int i = 0; i < values.length; i++) {
+      QName qname = XmlQNameEnumUtil.toQName(values[i]);
+      assertEquals(new QName("urn:large", (i % 10 == 0 ? "custom" : "value") + i), qname);
+      assertSame(values[i], XmlQNameEnumUtil.fromQName(qname, LargeQNameEnum.class));
+    }
+    assertNull(XmlQNameEnumUtil.fromQName(new QName("urn:large", "value0"), LargeQNameEnum.class));
+  }
+
 }
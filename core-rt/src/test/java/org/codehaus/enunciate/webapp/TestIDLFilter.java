@@ -24,7 +24,12 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import javax.servlet.FilterChain;
 import javax.servlet.ServletContext;
+import javax.servlet.ServletOutputStream;
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.StringWriter;
 
@@ -58,19 +63,145 @@ public class TestIDLFilter extends TestCase {
     FilterChain chain = createMock(FilterChain.class);
     expect(req.getRequestURL()).andReturn(new StringBuffer("http://myhost.com/mycontext/something/test.wsdl"));
     expect(req.getContextPath()).andReturn("/mycontext");
+    expect(req.getHeader("If-None-Match")).andReturn(null);
+    expect(req.getDateHeader("If-Modified-Since")).andReturn(-1L);
     expect(context.getResourceAsStream("/something/test.wsdl")).andReturn(new ByteArrayInputStream(WSDL_HEADER.getBytes("utf-8")));
-    StringWriter writer = new StringWriter();
-    res.setContentType("application/xml");
-    expect(res.getWriter()).andReturn(new PrintWriter(writer));
+    expect(context.getResource("/something/test.wsdl")).andReturn(null);
+    res.setHeader(eq("ETag"), (String) notNull());
+    res.setDateHeader(eq("Last-Modified"), anyLong());
+    res.setContentType("application/xml;charset=utf-8");
+    res.setContentLength(anyInt());
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    expect(res.getOutputStream()).andReturn(new ByteArrayServletOutputStream(bytes));
     replay(context, req, res, chain);
     filter.doFilter(req, res, chain);
     verify(context, req, res, chain);
     reset(context, req, res, chain);
 
 
-    String actualHeader = writer.toString().trim();
+    String actualHeader = new String(bytes.toByteArray(), "utf-8").trim();
     String expectedOut = buildExpectedOut();
     assertEquals(expectedOut, actualHeader);
+
+    //the second request is served from the cache.
+    expect(req.getRequestURL()).andReturn(new StringBuffer("http://myhost.com/mycontext/something/test.wsdl"));
+    expect(req.getContextPath()).andReturn("/mycontext");
+    expect(req.getHeader("If-None-Match")).andReturn(null);
+    expect(req.getDateHeader("If-Modified-Since")).andReturn(-1L);
+    res.setHeader(eq("ETag"), (String) notNull());
+    res.setDateHeader(eq("Last-Modified"), anyLong());
+    res.setContentType("application/xml;charset=utf-8");
+    res.setContentLength(bytes.size());
+    ByteArrayOutputStream cachedBytes = new ByteArrayOutputStream();
+    expect(res.getOutputStream()).andReturn(new ByteArrayServletOutputStream(cachedBytes));
+    replay(context, req, res, chain);
+    filter.doFilter(req, res, chain);
+    verify(context, req, res, chain);
+    reset(context, req, res, chain);
+    assertEquals(expectedOut, new String(cachedBytes.toByteArray(), "utf-8").trim());
+  }
+
+  /**
+   * tests that a conditional request for a document the client already has gets a 304.
+   */
+  public void testNotModified() throws Exception {
+    final ServletContext context = createMock(ServletContext.class);
+    IDLFilter filter = new IDLFilter() {
+      @Override
+      public ServletContext getServletContext() {
+        return context;
+      }
+    };
+
+    filter.setAssumedBaseAddress("http://localhost:8080/full");
+    File wsdlFile = File.createTempFile("enunciatetest", ".wsdl");
+    wsdlFile.deleteOnExit();
+    FileOutputStream wsdlOut = new FileOutputStream(wsdlFile);
+    wsdlOut.write(WSDL_HEADER.getBytes("utf-8"));
+    wsdlOut.close();
+    assertTrue(wsdlFile.setLastModified(1234567890123L));
+    expect(context.getResourceAsStream("/something/test.wsdl")).andReturn(new ByteArrayInputStream(WSDL_HEADER.getBytes("utf-8")));
+    expect(context.getResource("/something/test.wsdl")).andReturn(wsdlFile.toURI().toURL());
+    replay(context);
+    IDLFilter.IDLDocument document = filter.getIDLDocument("/something/test.wsdl", "http://myhost.com/mycontext");
+    verify(context);
+    reset(context);
+    assertEquals("The document should be as old as its resource.", 1234567890000L, document.getLastModified());
+
+    HttpServletRequest req = createMock(HttpServletRequest.class);
+    HttpServletResponse res = createMock(HttpServletResponse.class);
+    FilterChain chain = createMock(FilterChain.class);
+    expect(req.getRequestURL()).andReturn(new StringBuffer("http://myhost.com/mycontext/something/test.wsdl"));
+    expect(req.getContextPath()).andReturn("/mycontext");
+    expect(req.getHeader("If-None-Match")).andReturn(document.getEtag());
+    expect(req.getDateHeader("If-Modified-Since")).andReturn(-1L);
+    res.setHeader("ETag", document.getEtag());
+    res.setDateHeader("Last-Modified", document.getLastModified());
+    res.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+    replay(context, req, res, chain);
+    filter.doFilter(req, res, chain);
+    verify(context, req, res, chain);
+  }
+
+  /**
+   * tests that the gzipped document has its own entity tag.
+   */
+  public void testGzipEtag() throws Exception {
+    final ServletContext context = createMock(ServletContext.class);
+    IDLFilter filter = new IDLFilter() {
+      @Override
+      public ServletContext getServletContext() {
+        return context;
+      }
+    };
+
+    filter.setAssumedBaseAddress("http://localhost:8080/full");
+    filter.setGzip(true);
+    expect(context.getResourceAsStream("/something/test.wsdl")).andReturn(new ByteArrayInputStream(WSDL_HEADER.getBytes("utf-8")));
+    expect(context.getResource("/something/test.wsdl")).andReturn(null);
+    replay(context);
+    IDLFilter.IDLDocument document = filter.getIDLDocument("/something/test.wsdl", "http://myhost.com/mycontext");
+    verify(context);
+    reset(context);
+    assertNotNull(document.getGzippedContent());
+    assertFalse(document.getEtag().equals(document.getGzipEtag()));
+
+    //a client that has the identity document gets the gzipped one.
+    HttpServletRequest req = createMock(HttpServletRequest.class);
+    HttpServletResponse res = createMock(HttpServletResponse.class);
+    FilterChain chain = createMock(FilterChain.class);
+    expect(req.getRequestURL()).andReturn(new StringBuffer("http://myhost.com/mycontext/something/test.wsdl"));
+    expect(req.getContextPath()).andReturn("/mycontext");
+    expect(req.getHeader("Accept-Encoding")).andReturn("gzip,deflate");
+    expect(req.getHeader("If-None-Match")).andReturn(document.getEtag());
+    expect(req.getDateHeader("If-Modified-Since")).andReturn(-1L);
+    res.setHeader("ETag", document.getGzipEtag());
+    res.setDateHeader("Last-Modified", document.getLastModified());
+    res.setHeader("Vary", "Accept-Encoding");
+    res.setHeader("Content-Encoding", "gzip");
+    res.setContentType("application/xml;charset=utf-8");
+    res.setContentLength(document.getGzippedContent().length);
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    expect(res.getOutputStream()).andReturn(new ByteArrayServletOutputStream(bytes));
+    replay(context, req, res, chain);
+    filter.doFilter(req, res, chain);
+    verify(context, req, res, chain);
+    reset(context, req, res, chain);
+    assertEquals(document.getGzippedContent().length, bytes.size());
+
+    //a client that has the gzipped document gets a 304.
+    expect(req.getRequestURL()).andReturn(new StringBuffer("http://myhost.com/mycontext/something/test.wsdl"));
+    expect(req.getContextPath()).andReturn("/mycontext");
+    expect(req.getHeader("Accept-Encoding")).andReturn("gzip,deflate");
+    expect(req.getHeader("If-None-Match")).andReturn(document.getGzipEtag());
+    expect(req.getDateHeader("If-Modified-Since")).andReturn(-1L);
+    res.setHeader("ETag", document.getGzipEtag());
+    res.setDateHeader("Last-Modified", document.getLastModified());
+    res.setHeader("Vary", "Accept-Encoding");
+    res.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+    replay(context, req, res, chain);
+    filter.doFilter(req, res, chain);
+    verify(context, req, res, chain);
   }
 
   /**
@@ -91,4 +222,18 @@ public class TestIDLFilter extends TestCase {
     return expectedHeader;
   }
 
+  private static class ByteArrayServletOutputStream extends ServletOutputStream {
+
+    private final ByteArrayOutputStream bytes;
+
+    private ByteArrayServletOutputStream(ByteArrayOutputStream bytes) {
+      this.bytes = bytes;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+      this.bytes.write(b);
+    }
+  }
+
 }
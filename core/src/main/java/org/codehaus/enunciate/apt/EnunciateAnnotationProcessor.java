@@ -48,10 +48,8 @@ import org.codehaus.enunciate.json.JsonRootType;
 import org.codehaus.enunciate.json.JsonType;
 import org.codehaus.enunciate.main.Enunciate;
 import org.codehaus.enunciate.modules.DeploymentModule;
-import org.codehaus.enunciate.modules.FacetAware;
 import org.codehaus.enunciate.template.freemarker.*;
 import org.codehaus.enunciate.util.AntPatternMatcher;
-import org.codehaus.enunciate.util.FacetFilter;
 
 import javax.jws.WebService;
 import javax.ws.rs.ApplicationPath;
@@ -119,14 +117,9 @@ public class EnunciateAnnotationProcessor extends FreemarkerProcessor {
         }
       }
 
+      //the generate step is always invoked sequentially because the APT environment is bound to the processing thread.
       for (DeploymentModule module : config.getEnabledModules()) {
-        debug("Invoking %s step for module %s", Enunciate.Target.GENERATE, module.getName());
-
-        if (module instanceof FacetAware) {
-          enunciate.setupFacetFilter((FacetAware) module);
-        }
-        module.step(Enunciate.Target.GENERATE);
-        FacetFilter.clear();
+        this.enunciate.stepModule(Enunciate.Target.GENERATE, module);
       }
     }
     catch (TemplateException e) {
@@ -456,7 +449,7 @@ public class EnunciateAnnotationProcessor extends FreemarkerProcessor {
    * @throws ModelValidationException If any validation errors are encountered.
    */
   protected void validate(EnunciateFreemarkerModel model) throws ModelValidationException {
-    debug("Validating the model...");
+    debug("Validating the model (%d type definitions analyzed, %d reused)...", model.getTypeDefinitionCacheMisses(), model.getTypeDefinitionCacheHits());
     Messager messager = getMessager();
     ValidatorChain validator = new ValidatorChain();
     EnunciateConfiguration config = this.enunciate.getConfig();
@@ -489,6 +482,9 @@ public class EnunciateAnnotationProcessor extends FreemarkerProcessor {
     }
 
     ValidationResult validationResult = validate(model, validator);
+    for (Map.Entry<String, Long> validationTime : validator.getValidationTimes().entrySet()) {
+      debug("Validator %s took %d ms.", validationTime.getKey(), validationTime.getValue());
+    }
 
     if (validationResult.hasWarnings()) {
       warn("Validation result has warnings.");
@@ -20,6 +20,7 @@ import com.sun.mirror.apt.AnnotationProcessorEnvironment;
 import com.sun.mirror.declaration.*;
 import com.sun.mirror.type.*;
 import com.sun.mirror.util.TypeVisitor;
+import freemarker.template.ObjectWrapper;
 import net.sf.jelly.apt.Context;
 import net.sf.jelly.apt.decorations.TypeMirrorDecorator;
 import net.sf.jelly.apt.decorations.declaration.PropertyDeclaration;
@@ -53,7 +54,7 @@ import org.codehaus.enunciate.template.freemarker.GetFacetsMethod;
 import org.codehaus.enunciate.template.freemarker.IsFacetExcludedMethod;
 import org.codehaus.enunciate.util.MapType;
 import org.codehaus.enunciate.util.MapTypeUtil;
-import org.codehaus.enunciate.util.TypeDeclarationComparator;
+import org.codehaus.enunciate.util.TypeDeclarationIndex;
 
 import javax.ws.rs.Consumes;
 import javax.ws.rs.Produces;
@@ -63,6 +64,7 @@ import javax.xml.datatype.XMLGregorianCalendar;
 import java.io.File;
 import java.sql.Timestamp;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * @author Ryan Heaton
@@ -75,8 +77,6 @@ public class EnunciateFreemarkerModel extends FreemarkerModel {
       return new LinkedList<String>();
     }
   };
-  
-  private static final Comparator<TypeDeclaration> CLASS_COMPARATOR = new TypeDeclarationComparator();
 
   int prefixIndex = 0;
   final Map<String, String> namespacesToPrefixes;
@@ -85,12 +85,18 @@ public class EnunciateFreemarkerModel extends FreemarkerModel {
   final Map<String, WsdlInfo> namespacesToWsdls;
   final Map<String, XmlType> knownTypes;
   final Map<String, JsonType> knownJsonTypes;
-  final List<TypeDefinition> typeDefinitions = new ArrayList<TypeDefinition>();
-  final List<RootElementDeclaration> rootElements = new ArrayList<RootElementDeclaration>();
+  final TypeDeclarationIndex<TypeDefinition> typeDefinitions = new TypeDeclarationIndex<TypeDefinition>();
+  final TypeDeclarationIndex<RootElementDeclaration> rootElements = new TypeDeclarationIndex<RootElementDeclaration>();
+  final Map<String, LocalElementDeclaration> localElementsByType = new HashMap<String, LocalElementDeclaration>();
+  final Map<String, TypeDefinition> typeDefinitionCache = new HashMap<String, TypeDefinition>();
+  private int typeDefinitionCacheHits = 0;
   final List<EndpointInterface> endpointInterfaces = new ArrayList<EndpointInterface>();
   final List<RootResource> rootResources = new ArrayList<RootResource>();
   final List<TypeDeclaration> jaxrsProviders = new ArrayList<TypeDeclaration>();
   private File fileOutputDirectory = null;
+  private final ThreadLocal<File> threadFileOutputDirectory = new ThreadLocal<File>();
+  private final ThreadLocal<ObjectWrapper> threadObjectWrapper = new ThreadLocal<ObjectWrapper>();
+  private final Map<File, Boolean> generatedFiles = new ConcurrentHashMap<File, Boolean>();
   private String baseDeploymentAddress = null;
   private EnunciateConfiguration enunciateConfig = null;
   final Map<String, JsonSchemaInfo> idsToJsonSchemas;
@@ -392,17 +398,16 @@ public class EnunciateFreemarkerModel extends FreemarkerModel {
    */
   public void add(TypeDefinition typeDef) {
     if (typeDef.getAnnotation(XmlTransient.class) == null) { //make sure we don't add a transient type definition.
-      if (typeDef.getAnnotation(XmlRootElement.class) != null && Collections.binarySearch(this.rootElements, typeDef, CLASS_COMPARATOR) < 0) {
+      if (typeDef.getAnnotation(XmlRootElement.class) != null && !this.rootElements.containsQualifiedName(typeDef.getQualifiedName())) {
         //if the type definition is a root element, we want to make sure it's added to the model.
         add(new RootElementDeclaration((ClassDeclaration) typeDef.getDelegate(), typeDef));
       }
 
-      int position = Collections.binarySearch(this.typeDefinitions, typeDef, CLASS_COMPARATOR);
-      if (position < 0 && !isKnownType(typeDef)) {
+      if (!this.typeDefinitions.containsQualifiedName(typeDef.getQualifiedName()) && !isKnownType(typeDef)) {
         if (getEnunciateConfig() != null && getEnunciateConfig().isIncludeReferenceTrailInErrors()) {
           typeDef.getReferencedFrom().add(currentReferenceLocation());
         }
-        this.typeDefinitions.add(-position - 1, typeDef);
+        this.typeDefinitions.add(typeDef);
         add(typeDef.getSchema());
 
         String namespace = typeDef.getNamespace();
@@ -840,9 +845,7 @@ public class EnunciateFreemarkerModel extends FreemarkerModel {
    * @param rootElement The root element to add.
    */
   public void add(RootElementDeclaration rootElement) {
-    int position = Collections.binarySearch(this.rootElements, rootElement, CLASS_COMPARATOR);
-    if (position < 0) {
-      this.rootElements.add(-position - 1, rootElement);
+    if (this.rootElements.add(rootElement)) {
       add(rootElement.getSchema());
 
       String namespace = rootElement.getNamespace();
@@ -1051,6 +1054,26 @@ public class EnunciateFreemarkerModel extends FreemarkerModel {
    */
   protected TypeDefinition createTypeDefinition(ClassDeclaration declaration) {
     declaration = narrowToAdaptingType(declaration);
+
+    //a declaration is referenced many times while the model is built, but it only has to be analyzed once.
+    TypeDefinition typeDefinition = this.typeDefinitionCache.get(declaration.getQualifiedName());
+    if (typeDefinition != null) {
+      this.typeDefinitionCacheHits++;
+    }
+    else {
+      typeDefinition = doCreateTypeDefinition(declaration);
+      this.typeDefinitionCache.put(declaration.getQualifiedName(), typeDefinition);
+    }
+    return typeDefinition;
+  }
+
+  /**
+   * Create the type definition for a (narrowed) class declaration.
+   *
+   * @param declaration The declaration.
+   * @return The type definition.
+   */
+  private TypeDefinition doCreateTypeDefinition(ClassDeclaration declaration) {
     if (isEnumType(declaration)) {
       if (declaration.getAnnotation(XmlQNameEnum.class) != null) {
         return new QNameEnumTypeDefinition((EnumDeclaration) declaration);
@@ -1068,6 +1091,24 @@ public class EnunciateFreemarkerModel extends FreemarkerModel {
     }
   }
 
+  /**
+   * The number of times a type definition was reused instead of analyzing its declaration again.
+   *
+   * @return The number of times a type definition was reused.
+   */
+  public int getTypeDefinitionCacheHits() {
+    return typeDefinitionCacheHits;
+  }
+
+  /**
+   * The number of declarations that were analyzed as type definitions.
+   *
+   * @return The number of declarations that were analyzed as type definitions.
+   */
+  public int getTypeDefinitionCacheMisses() {
+    return this.typeDefinitionCache.size();
+  }
+
   /**
    * Narrows the existing declaration down to its adapting declaration, if it's being adapted. Otherwise, the original declaration will be returned.
    *
@@ -1172,6 +1213,13 @@ public class EnunciateFreemarkerModel extends FreemarkerModel {
       namespacesToSchemas.put(namespace, schemaInfo);
     }
     schemaInfo.getRegistries().add(registry);
+    String packageName = registry.getSchema().getQualifiedName();
+    for (LocalElementDeclaration localElement : registry.getLocalElementDeclarations()) {
+      TypeDeclaration elementType = localElement.getElementTypeDeclaration();
+      if (elementType != null && !this.localElementsByType.containsKey(packageName + '#' + elementType.getQualifiedName())) {
+        this.localElementsByType.put(packageName + '#' + elementType.getQualifiedName(), localElement);
+      }
+    }
     REFERENCE_STACK.get().addFirst("registry " + registry.getQualifiedName());
     addReferencedTypeDefinitions(registry);
     for (LocalElementDeclaration led : registry.getLocalElementDeclarations()) {
@@ -1409,12 +1457,7 @@ public class EnunciateFreemarkerModel extends FreemarkerModel {
    * @return The type definition.
    */
   public TypeDefinition findTypeDefinition(ClassDeclaration declaration) {
-    int index = Collections.binarySearch(this.typeDefinitions, declaration, CLASS_COMPARATOR);
-    if (index >= 0) {
-      return this.typeDefinitions.get(index);
-    }
-
-    return null;
+    return this.typeDefinitions.find(declaration.getQualifiedName());
   }
 
   /**
@@ -1441,11 +1484,7 @@ public class EnunciateFreemarkerModel extends FreemarkerModel {
    * @return The root element declaration, or null if the declaration hasn't been added to the model.
    */
   public RootElementDeclaration findRootElementDeclaration(ClassDeclaration declaration) {
-    int index = Collections.binarySearch(this.rootElements, declaration, CLASS_COMPARATOR);
-    if (index >= 0) {
-      return this.rootElements.get(index);
-    }
-    return null;
+    return this.rootElements.find(declaration.getQualifiedName());
   }
 
   /**
@@ -1456,19 +1495,8 @@ public class EnunciateFreemarkerModel extends FreemarkerModel {
    */
   public LocalElementDeclaration findLocalElementDeclaration(ClassDeclaration declaration) {
     if (declaration.getPackage() != null) {
-      String packageName = declaration.getPackage().getQualifiedName();
-      for (SchemaInfo schemaInfo : namespacesToSchemas.values()) {
-        for (Registry registry : schemaInfo.getRegistries()) {
-          if (registry.getSchema().getQualifiedName().equals(packageName)) {
-            //find the registry for the declaration.
-            for (LocalElementDeclaration localElement : registry.getLocalElementDeclarations()) {
-              if (localElement.getElementTypeDeclaration() != null && localElement.getElementTypeDeclaration().getQualifiedName().equals(declaration.getQualifiedName())) {
-                return localElement;
-              }
-            }
-          }
-        }
-      }
+      //local elements are indexed by the package of their registry and the qualified name of their element type.
+      return this.localElementsByType.get(declaration.getPackage().getQualifiedName() + '#' + declaration.getQualifiedName());
     }
 
     return null;
@@ -1585,18 +1613,67 @@ public class EnunciateFreemarkerModel extends FreemarkerModel {
    * @return The file output directory.
    */
   public File getFileOutputDirectory() {
-    return fileOutputDirectory;
+    File fileOutputDirectory = this.threadFileOutputDirectory.get();
+    return fileOutputDirectory != null ? fileOutputDirectory : this.fileOutputDirectory;
   }
 
   /**
-   * The file output directory.
+   * The file output directory. The directory is bound to the current thread (so modules invoked concurrently
+   * don't see each other's directory) and is the default for threads that haven't set their own.
    *
    * @param fileOutputDirectory The file output directory.
    */
   public void setFileOutputDirectory(File fileOutputDirectory) {
+    this.threadFileOutputDirectory.set(fileOutputDirectory);
     this.fileOutputDirectory = fileOutputDirectory;
   }
 
+  /**
+   * Records a file generated by a template.
+   *
+   * @param file    The file.
+   * @param changed Whether the content of the file changed (or whether it's a new file).
+   */
+  public void recordGeneratedFile(File file, boolean changed) {
+    this.generatedFiles.put(file.getAbsoluteFile(), changed);
+  }
+
+  /**
+   * Whether the specified file was generated by a template with the same content it had before.
+   *
+   * @param file The file.
+   * @return Whether the file was generated by a template with the same content it had before.
+   */
+  public boolean isUnchangedGeneratedFile(File file) {
+    return Boolean.FALSE.equals(this.generatedFiles.get(file.getAbsoluteFile()));
+  }
+
+  /**
+   * The object wrapper for the current thread, or the default object wrapper if the current thread hasn't set one.
+   *
+   * @return The object wrapper.
+   */
+  @Override
+  public ObjectWrapper getObjectWrapper() {
+    //the thread-local is null while the superclass is being constructed.
+    ObjectWrapper objectWrapper = this.threadObjectWrapper == null ? null : this.threadObjectWrapper.get();
+    return objectWrapper != null ? objectWrapper : super.getObjectWrapper();
+  }
+
+  /**
+   * Sets the object wrapper. The wrapper is bound to the current thread (so modules invoked concurrently
+   * don't see each other's wrapper) and is the default for threads that haven't set their own.
+   *
+   * @param objectWrapper The object wrapper.
+   */
+  @Override
+  public void setObjectWrapper(ObjectWrapper objectWrapper) {
+    if (this.threadObjectWrapper != null) {
+      this.threadObjectWrapper.set(objectWrapper);
+    }
+    super.setObjectWrapper(objectWrapper);
+  }
+
   /**
    * The wadl file for the model.
    *
@@ -46,6 +46,7 @@ public abstract class Resource extends DecoratedTypeDeclaration implements HasFa
   private final List<ResourceMethod> resourceMethods;
   private final List<SubResourceLocator> resourceLocators;
   private final Set<Facet> facets = new TreeSet<Facet>();
+  private volatile List<ResourceMethod> resourceMethodsWithDescendants;
 
   protected Resource(TypeDeclaration delegate, String path) {
     super(delegate);
@@ -344,7 +345,7 @@ public abstract class Resource extends DecoratedTypeDeclaration implements HasFa
     if (!loadDescendants) {
       return resourceMethods;
     }
-    else {
+    else if (this.resourceMethodsWithDescendants == null) {
       List<ResourceMethod> resourceMethods = new ArrayList<ResourceMethod>();
       LinkedList<Resource> resources = new LinkedList<Resource>();
       Set<String> visited = new TreeSet<String>();
@@ -362,8 +363,9 @@ public abstract class Resource extends DecoratedTypeDeclaration implements HasFa
         }
       }
 
-      return resourceMethods;
+      this.resourceMethodsWithDescendants = Collections.unmodifiableList(resourceMethods);
     }
+    return this.resourceMethodsWithDescendants;
   }
 
   /**
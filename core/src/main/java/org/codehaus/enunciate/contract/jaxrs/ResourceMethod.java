@@ -66,6 +66,8 @@ public class ResourceMethod extends DecoratedMethodDeclaration implements HasFac
   private final Map<String, String> responseHeaders = new HashMap<String, String>();
   private final ResourceRepresentationMetadata representationMetadata;
   private final Set<Facet> facets = new TreeSet<Facet>();
+  private String fullpath;
+  private String servletPattern;
 
   public ResourceMethod(MethodDeclaration delegate, Resource parent) {
     super(delegate);
@@ -490,6 +492,19 @@ public class ResourceMethod extends DecoratedMethodDeclaration implements HasFac
    * @return the full URI path to this resource method.
    */
   public String getFullpath() {
+    //the path doesn't change, but templates ask for it a lot.
+    if (this.fullpath == null) {
+      this.fullpath = buildFullpath();
+    }
+    return this.fullpath;
+  }
+
+  /**
+   * Builds the full URI path to this resource method.
+   *
+   * @return the full URI path to this resource method.
+   */
+  protected String buildFullpath() {
     List<String> subpaths = new ArrayList<String>();
     if (getSubpath() != null) {
       subpaths.add(0, getSubpath());
@@ -524,16 +539,19 @@ public class ResourceMethod extends DecoratedMethodDeclaration implements HasFac
    * @return The servlet pattern that can be applied to access this resource method.
    */
   public String getServletPattern() {
-    StringBuilder builder = new StringBuilder();
-    String fullPath = getFullpath();
-    Matcher pathParamMatcher = CONTEXT_PARAM_PATTERN.matcher(fullPath);
-    if (pathParamMatcher.find()) {
-      builder.append(fullPath, 0, pathParamMatcher.start()).append("*");
-    }
-    else {
-      builder.append(fullPath);
+    if (this.servletPattern == null) {
+      StringBuilder builder = new StringBuilder();
+      String fullPath = getFullpath();
+      Matcher pathParamMatcher = CONTEXT_PARAM_PATTERN.matcher(fullPath);
+      if (pathParamMatcher.find()) {
+        builder.append(fullPath, 0, pathParamMatcher.start()).append("*");
+      }
+      else {
+        builder.append(fullPath);
+      }
+      this.servletPattern = builder.toString();
     }
-    return builder.toString();
+    return this.servletPattern;
   }
 
   /**
@@ -30,8 +30,14 @@ import java.util.List;
  */
 public class BaseValidator implements Validator {
 
+  private boolean elementsValidatedByChain = false;
+
   public ValidationResult validate(EnunciateFreemarkerModel model) {
     ValidationResult validationResult = new ValidationResult();
+    if (this.elementsValidatedByChain) {
+      //the chain has already dispatched the elements of the model to this validator.
+      return validationResult;
+    }
 
     for (EndpointInterface ei : model.getEndpointInterfaces()) {
       validationResult.aggregate(validateEndpointInterface(ei));
@@ -51,6 +57,16 @@ public class BaseValidator implements Validator {
     return validationResult;
   }
 
+  /**
+   * Set by a {@link ValidatorChain} that walks the elements of the model once for all its validators, in which case
+   * {@link #validate(EnunciateFreemarkerModel)} only does the validation that isn't specific to an element.
+   *
+   * @param elementsValidatedByChain Whether the elements of the model are validated by the chain.
+   */
+  void setElementsValidatedByChain(boolean elementsValidatedByChain) {
+    this.elementsValidatedByChain = elementsValidatedByChain;
+  }
+
   /**
    * @return An empty result.
    */
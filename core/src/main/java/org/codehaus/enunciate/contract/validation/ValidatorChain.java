@@ -17,23 +17,23 @@
 package org.codehaus.enunciate.contract.validation;
 
 import org.codehaus.enunciate.apt.EnunciateFreemarkerModel;
-import org.codehaus.enunciate.contract.jaxb.ComplexTypeDefinition;
-import org.codehaus.enunciate.contract.jaxb.EnumTypeDefinition;
 import org.codehaus.enunciate.contract.jaxb.RootElementDeclaration;
-import org.codehaus.enunciate.contract.jaxb.SimpleTypeDefinition;
+import org.codehaus.enunciate.contract.jaxb.TypeDefinition;
 import org.codehaus.enunciate.contract.jaxws.EndpointInterface;
-import org.codehaus.enunciate.contract.jaxrs.RootResource;
 
 import java.util.*;
 
 /**
- * Chains a set of validators.
+ * Chains a set of validators. The elements of the model are walked once, each element being dispatched to every
+ * {@link BaseValidator} in the chain, instead of each validator walking the model itself. The messages are still
+ * aggregated validator by validator, in the order the validators were added.
  *
  * @author Ryan Heaton
  */
 public class ValidatorChain implements Validator {
 
   private final Map<String, Validator> validators = new LinkedHashMap<String, Validator>();
+  private final Map<String, Long> validationTimes = new LinkedHashMap<String, Long>();
 
   public ValidatorChain() {
   }
@@ -69,13 +69,87 @@ public class ValidatorChain implements Validator {
 
   //Inherited.
   public ValidationResult validate(EnunciateFreemarkerModel model) {
-    ValidationResult result = new ValidationResult();
+    this.validationTimes.clear();
+    Map<String, ValidationResult> results = new LinkedHashMap<String, ValidationResult>();
+    Map<String, BaseValidator> baseValidators = new LinkedHashMap<String, BaseValidator>();
+    for (Map.Entry<String, Validator> validatorEntry : validators.entrySet()) {
+      results.put(validatorEntry.getKey(), new ValidationResult());
+      this.validationTimes.put(validatorEntry.getKey(), 0L);
+      if (validatorEntry.getValue() instanceof BaseValidator) {
+        baseValidators.put(validatorEntry.getKey(), (BaseValidator) validatorEntry.getValue());
+      }
+    }
+
+    for (EndpointInterface ei : model.getEndpointInterfaces()) {
+      for (Map.Entry<String, BaseValidator> validatorEntry : baseValidators.entrySet()) {
+        long start = System.nanoTime();
+        results.get(validatorEntry.getKey()).aggregate(validatorEntry.getValue().validateEndpointInterface(ei));
+        addTime(validatorEntry.getKey(), start);
+      }
+    }
+
+    for (TypeDefinition typeDefinition : model.getTypeDefinitions()) {
+      for (Map.Entry<String, BaseValidator> validatorEntry : baseValidators.entrySet()) {
+        long start = System.nanoTime();
+        results.get(validatorEntry.getKey()).aggregate(typeDefinition.accept(validatorEntry.getValue()));
+        addTime(validatorEntry.getKey(), start);
+      }
+    }
+
+    for (RootElementDeclaration rootElement : model.getRootElementDeclarations()) {
+      for (Map.Entry<String, BaseValidator> validatorEntry : baseValidators.entrySet()) {
+        long start = System.nanoTime();
+        results.get(validatorEntry.getKey()).aggregate(validatorEntry.getValue().validateRootElement(rootElement));
+        addTime(validatorEntry.getKey(), start);
+      }
+    }
+
+    for (Map.Entry<String, BaseValidator> validatorEntry : baseValidators.entrySet()) {
+      long start = System.nanoTime();
+      results.get(validatorEntry.getKey()).aggregate(validatorEntry.getValue().validateRootResources(model.getRootResources()));
+      addTime(validatorEntry.getKey(), start);
+    }
 
+    //now the validation that isn't specific to an element (or, for validators that aren't base validators, everything).
     for (Map.Entry<String, Validator> validatorEntry : validators.entrySet()) {
-      result.aggregate(validatorEntry.getKey(), validatorEntry.getValue().validate(model));
+      Validator validator = validatorEntry.getValue();
+      long start = System.nanoTime();
+      if (validator instanceof BaseValidator) {
+        ((BaseValidator) validator).setElementsValidatedByChain(true);
+      }
+      try {
+        results.get(validatorEntry.getKey()).aggregate(validator.validate(model));
+      }
+      finally {
+        if (validator instanceof BaseValidator) {
+          ((BaseValidator) validator).setElementsValidatedByChain(false);
+        }
+      }
+      addTime(validatorEntry.getKey(), start);
     }
 
+    ValidationResult result = new ValidationResult();
+    for (Map.Entry<String, ValidationResult> resultEntry : results.entrySet()) {
+      result.aggregate(resultEntry.getKey(), resultEntry.getValue());
+    }
     return result;
   }
 
+  private void addTime(String label, long start) {
+    this.validationTimes.put(label, this.validationTimes.get(label) + (System.nanoTime() - start));
+  }
+
+  /**
+   * The time each validator took during the last validation, in milliseconds, by label.
+   *
+   * @return The time each validator took during the last validation.
+   */
+  public Map<String, Long> getValidationTimes() {
+    Map<String, Long> times = new LinkedHashMap<String, Long>();
+    for (Map.Entry<String, Long> time : this.validationTimes.entrySet()) {
+      times.put(time.getKey(), time.getValue() / 1000000);
+    }
+    return times;
+  }
+
 }
@@ -0,0 +1,349 @@
+package org.codehaus.enunciate.main;
+
+import java.io.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * Manifest of the outputs of the modules, kept between builds so that an output that is up-to-date doesn't have to be
+ * generated (or compiled or zipped) again, and so that the output directories don't have to be walked to find out.
+ * <p/>
+ * Each output is recorded with a fingerprint of its inputs: the content hashes of the source set and the config file,
+ * the classpath (the content hash of each jar and the size and modification time of each file in each directory), and
+ * the fingerprints of any additional inputs. An additional input that is itself an output checked
+ * earlier in the build contributes its fingerprint without being read, so an output is only stale if something it
+ * (transitively) depends on actually changed. Any other additional input is hashed by content. Content hashes of files
+ * are cached by size and modification time. An output is also stale if it doesn't exist or is an empty directory.
+ * <p/>
+ * The fingerprints computed during a build are only saved when the build completes successfully.
+ *
+ * @author Ryan Heaton
+ */
+public class BuildManifest {
+
+  private static final String FILE_PREFIX = "file.";
+  private static final String OUTPUT_PREFIX = "output.";
+  private static final char SEPARATOR = '|';
+
+  private final File manifestFile;
+  private final Enunciate enunciate;
+  private final Map<String, String> recordedFileHashes = new HashMap<String, String>();
+  private final Map<String, String> recordedOutputs = new HashMap<String, String>();
+  private final Map<String, String> fileHashes = new HashMap<String, String>();
+  private final Map<String, String> outputs = new TreeMap<String, String>();
+  private final Map<String, SortedMap<String, String>> outputsByPath = new HashMap<String, SortedMap<String, String>>();
+  private String sourceFingerprint;
+
+  public BuildManifest(File manifestFile, Enunciate enunciate) {
+    this.manifestFile = manifestFile;
+    this.enunciate = enunciate;
+  }
+
+  /**
+   * Loads the manifest of the previous build, if any.
+   */
+  public synchronized void load() {
+    if (!this.manifestFile.exists()) {
+      return;
+    }
+
+    Properties properties = new Properties();
+    try {
+      InputStream in = new FileInputStream(this.manifestFile);
+      try {
+        properties.load(in);
+      }
+      finally {
+        in.close();
+      }
+    }
+    catch (IOException e) {
+      this.enunciate.debug("Unable to read build manifest %s: %s.", this.manifestFile, e.getMessage());
+      return;
+    }
+
+    for (String name : properties.stringPropertyNames()) {
+      if (name.startsWith(FILE_PREFIX)) {
+        this.recordedFileHashes.put(name.substring(FILE_PREFIX.length()), properties.getProperty(name));
+      }
+      else if (name.startsWith(OUTPUT_PREFIX)) {
+        this.recordedOutputs.put(name.substring(OUTPUT_PREFIX.length()), properties.getProperty(name));
+      }
+    }
+  }
+
+  /**
+   * Saves the manifest of this build, including the outputs recorded by the previous build that still exist.
+   */
+  public synchronized void save() throws IOException {
+    Properties properties = new Properties();
+    for (Map.Entry<String, String> recorded : this.recordedOutputs.entrySet()) {
+      String output = recorded.getKey();
+      if (new File(output.split("\\" + SEPARATOR)[1]).exists()) {
+        properties.setProperty(OUTPUT_PREFIX + output, recorded.getValue());
+      }
+    }
+    for (Map.Entry<String, String> output : this.outputs.entrySet()) {
+      properties.setProperty(OUTPUT_PREFIX + output.getKey(), output.getValue());
+    }
+    for (Map.Entry<String, String> fileHash : this.fileHashes.entrySet()) {
+      properties.setProperty(FILE_PREFIX + fileHash.getKey(), fileHash.getValue());
+    }
+
+    this.manifestFile.getAbsoluteFile().getParentFile().mkdirs();
+    OutputStream out = new FileOutputStream(this.manifestFile);
+    try {
+      properties.store(out, "Enunciate build manifest");
+    }
+    finally {
+      out.close();
+    }
+  }
+
+  /**
+   * Whether the specified output of the specified module is stale with respect to the source set and the specified
+   * additional inputs.
+   *
+   * @param moduleId The id of the module (may be null).
+   * @param output   The output file or directory.
+   * @param inputs   The additional inputs.
+   * @return Whether the output is stale.
+   */
+  public synchronized boolean isStale(String moduleId, File output, File... inputs) throws IOException {
+    String outputPath = output.getAbsolutePath();
+    StringBuilder key = new StringBuilder(String.valueOf(moduleId)).append(SEPARATOR).append(outputPath);
+    List<String> fingerprints = new ArrayList<String>();
+    fingerprints.add(getSourceFingerprint());
+    for (File input : inputs) {
+      key.append(SEPARATOR).append(input.getAbsolutePath());
+      fingerprints.add(getInputFingerprint(input));
+    }
+
+    String outputKey = key.toString();
+    String fingerprint = digest(fingerprints);
+    this.outputs.put(outputKey, fingerprint);
+    SortedMap<String, String> pathOutputs = this.outputsByPath.get(outputPath);
+    if (pathOutputs == null) {
+      pathOutputs = new TreeMap<String, String>();
+      this.outputsByPath.put(outputPath, pathOutputs);
+    }
+    pathOutputs.put(outputKey, fingerprint);
+
+    if (!output.exists()) {
+      this.enunciate.debug("%s is stale because it doesn't exist.", output);
+      return true;
+    }
+    else if (output.isDirectory() && output.list().length == 0) {
+      this.enunciate.debug("%s is stale because it's an empty directory.", output);
+      return true;
+    }
+    else if (!fingerprint.equals(this.recordedOutputs.get(outputKey))) {
+      this.enunciate.debug("%s is stale because its inputs changed since it was built.", output);
+      return true;
+    }
+
+    this.enunciate.debug("%s is up-to-date because its inputs haven't changed since it was built.", output);
+    return false;
+  }
+
+  /**
+   * Whether the specified file or directory is an output that was checked earlier in this build.
+   *
+   * @param file The file.
+   * @return Whether the file is an output that was checked earlier in this build.
+   */
+  public synchronized boolean isKnownOutput(File file) {
+    return this.outputsByPath.containsKey(file.getAbsolutePath());
+  }
+
+  /**
+   * The fingerprint of the source set, the config file and the classpath.
+   *
+   * @return The fingerprint of the source set.
+   */
+  protected String getSourceFingerprint() throws IOException {
+    if (this.sourceFingerprint == null) {
+      List<String> fingerprints = new ArrayList<String>();
+      String[] sourceFiles = this.enunciate.getSourceFiles();
+      Arrays.sort(sourceFiles);
+      for (String sourceFile : sourceFiles) {
+        File file = new File(sourceFile);
+        fingerprints.add(sourceFile);
+        fingerprints.add(file.exists() ? getFileHash(file) : "");
+      }
+
+      File configFile = this.enunciate.getConfigFile();
+      if (configFile != null && configFile.exists()) {
+        fingerprints.add(getFileHash(configFile));
+      }
+
+      String classpath = this.enunciate.getEnunciateRuntimeClasspath();
+      fingerprints.add(String.valueOf(classpath));
+      if (classpath != null) {
+        for (String entry : classpath.split(File.pathSeparator)) {
+          if (entry.length() > 0) {
+            addClasspathFingerprints(new File(entry), fingerprints);
+          }
+        }
+      }
+      fingerprints.add(String.valueOf(Enunciate.class.getPackage() == null ? null : Enunciate.class.getPackage().getImplementationVersion()));
+      this.sourceFingerprint = digest(fingerprints);
+    }
+    return this.sourceFingerprint;
+  }
+
+  /**
+   * Adds the fingerprints of a classpath entry, so that a jar or a class directory that changes without changing its path
+   * (e.g. a snapshot dependency or a local rebuild) makes the outputs stale. A jar is hashed by content. The files of
+   * a directory are only stamped with their size and modification time, so that a directory isn't read on every build.
+   *
+   * @param entry        The classpath entry.
+   * @param fingerprints The fingerprints to add to.
+   */
+  private void addClasspathFingerprints(File entry, List<String> fingerprints) throws IOException {
+    if (!entry.exists()) {
+      fingerprints.add("");
+    }
+    else if (!entry.isDirectory()) {
+      fingerprints.add(getFileHash(entry));
+    }
+    else {
+      addDirectoryStamps(entry, "", fingerprints);
+    }
+  }
+
+  private void addDirectoryStamps(File dir, String relativePath, List<String> fingerprints) {
+    File[] files = dir.listFiles();
+    if (files != null) {
+      Arrays.sort(files);
+      for (File file : files) {
+        String path = relativePath + '/' + file.getName();
+        if (file.isDirectory()) {
+          addDirectoryStamps(file, path, fingerprints);
+        }
+        else {
+          fingerprints.add(path);
+          fingerprints.add(file.length() + ":" + file.lastModified());
+        }
+      }
+    }
+  }
+
+  /**
+   * The fingerprint of an additional input. If the input is an output checked earlier in this build, the fingerprint
+   * of the output is used, otherwise the input is hashed by content.
+   *
+   * @param input The input.
+   * @return The fingerprint.
+   */
+  protected String getInputFingerprint(File input) throws IOException {
+    SortedMap<String, String> pathOutputs = this.outputsByPath.get(input.getAbsolutePath());
+    if (pathOutputs != null) {
+      return digest(pathOutputs.values());
+    }
+    else if (!input.exists()) {
+      return "";
+    }
+    else if (!input.isDirectory()) {
+      return getFileHash(input);
+    }
+    else {
+      List<String> fingerprints = new ArrayList<String>();
+      addDirectoryFingerprints(input, "", fingerprints);
+      return digest(fingerprints);
+    }
+  }
+
+  private void addDirectoryFingerprints(File dir, String relativePath, List<String> fingerprints) throws IOException {
+    File[] files = dir.listFiles();
+    if (files != null) {
+      Arrays.sort(files);
+      for (File file : files) {
+        String path = relativePath + '/' + file.getName();
+        if (file.isDirectory()) {
+          addDirectoryFingerprints(file, path, fingerprints);
+        }
+        else {
+          fingerprints.add(path);
+          fingerprints.add(getFileHash(file));
+        }
+      }
+    }
+  }
+
+  /**
+   * The content hash of the specified file, reusing the hash recorded by the previous build if the size and modification
+   * time of the file haven't changed.
+   *
+   * @param file The file.
+   * @return The content hash.
+   */
+  protected String getFileHash(File file) throws IOException {
+    String path = file.getAbsolutePath();
+    String stamp = file.length() + ":" + file.lastModified() + ":";
+    String recorded = this.fileHashes.get(path);
+    if (recorded == null) {
+      recorded = this.recordedFileHashes.get(path);
+    }
+
+    if (recorded == null || !recorded.startsWith(stamp)) {
+      MessageDigest digest = newDigest();
+      InputStream in = new FileInputStream(file);
+      try {
+        byte[] buffer = new byte[1024 * 2]; //2 kb buffer should suffice.
+        int len;
+        while ((len = in.read(buffer)) > 0) {
+          digest.update(buffer, 0, len);
+        }
+      }
+      finally {
+        in.close();
+      }
+      recorded = stamp + toHex(digest.digest());
+    }
+
+    this.fileHashes.put(path, recorded);
+    return recorded.substring(stamp.length());
+  }
+
+  /**
+   * The manifest file.
+   *
+   * @return The manifest file.
+   */
+  public File getManifestFile() {
+    return manifestFile;
+  }
+
+  private static String digest(Collection<String> values) {
+    MessageDigest digest = newDigest();
+    try {
+      for (String value : values) {
+        digest.update(value.getBytes("utf-8"));
+        digest.update((byte) 0);
+      }
+    }
+    catch (UnsupportedEncodingException e) {
+      throw new IllegalStateException(e);
+    }
+    return toHex(digest.digest());
+  }
+
+  private static MessageDigest newDigest() {
+    try {
+      return MessageDigest.getInstance("MD5");
+    }
+    catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static String toHex(byte[] hash) {
+    StringBuilder hex = new StringBuilder(hash.length * 2);
+    for (byte b : hash) {
+      hex.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+    }
+    return hex.toString();
+  }
+}
@@ -0,0 +1,339 @@
+package org.codehaus.enunciate.main;
+
+import java.io.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+
+/**
+ * On-disk index of the jars on the classpath, so that jars that haven't changed since the last build don't have to be
+ * opened and scanned again. Each jar is indexed by its absolute path, size and modification time. The index records the
+ * paths of all the entries in the jar and keeps an extracted copy of the entries that the classpath handlers are known
+ * to read (sources, package-info classes, the api exports and GWT module descriptors). Any other entry is read from the
+ * jar on demand.
+ *
+ * @author Ryan Heaton
+ */
+public class ClasspathScanIndex {
+
+  private static final String INDEX_FILE = "index";
+  private static final String RESOURCES_DIR = "resources";
+  private static final char EXTRACTED = '+';
+  private static final char NOT_EXTRACTED = '-';
+
+  private final File indexDir;
+  private final Enunciate enunciate;
+  private int hits = 0;
+  private int misses = 0;
+
+  public ClasspathScanIndex(File indexDir, Enunciate enunciate) {
+    this.indexDir = indexDir;
+    this.enunciate = enunciate;
+  }
+
+  /**
+   * Get the index entry for the specified jar, indexing the jar if it isn't indexed or if it changed since it was indexed.
+   *
+   * @param jar The jar.
+   * @return The index entry.
+   * @throws IOException If the file isn't a jar, or if the index couldn't be written.
+   */
+  public Entry getEntry(File jar) throws IOException {
+    jar = jar.getAbsoluteFile();
+    File entryDir = new File(this.indexDir, digest(jar.getPath()));
+    Entry entry = readEntry(jar, entryDir);
+    if (entry != null) {
+      this.hits++;
+      this.enunciate.debug("Classpath index hit for %s.", jar);
+    }
+    else {
+      this.misses++;
+      this.enunciate.debug("Classpath index miss for %s.", jar);
+      entry = writeEntry(jar, entryDir);
+    }
+    return entry;
+  }
+
+  /**
+   * Reads the index entry for the specified jar.
+   *
+   * @param jar      The jar.
+   * @param entryDir The directory of the index entry.
+   * @return The entry, or null if the jar isn't indexed or the index is stale.
+   */
+  protected Entry readEntry(File jar, File entryDir) {
+    File indexFile = new File(entryDir, INDEX_FILE);
+    if (!indexFile.exists()) {
+      return null;
+    }
+
+    try {
+      BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(indexFile), "utf-8"));
+      try {
+        if (!jar.getPath().equals(reader.readLine())
+          || !String.valueOf(jar.length()).equals(reader.readLine())
+          || !String.valueOf(jar.lastModified()).equals(reader.readLine())) {
+          return null;
+        }
+
+        boolean platformRuntime = Boolean.valueOf(reader.readLine());
+        List<String> paths = new ArrayList<String>();
+        Set<String> extracted = new HashSet<String>();
+        String line = reader.readLine();
+        while (line != null && line.length() > 0) {
+          String path = line.substring(1);
+          paths.add(path);
+          if (line.charAt(0) == EXTRACTED) {
+            extracted.add(path);
+          }
+          line = reader.readLine();
+        }
+        return new Entry(jar, new File(entryDir, RESOURCES_DIR), platformRuntime, paths, extracted);
+      }
+      finally {
+        reader.close();
+      }
+    }
+    catch (IOException e) {
+      this.enunciate.debug("Unable to read classpath index %s: %s.", indexFile, e.getMessage());
+      return null;
+    }
+  }
+
+  /**
+   * Indexes the specified jar.
+   *
+   * @param jar      The jar.
+   * @param entryDir The directory of the index entry.
+   * @return The entry.
+   */
+  protected Entry writeEntry(File jar, File entryDir) throws IOException {
+    JarFile jarFile = new JarFile(jar);
+    try {
+      deleteDir(entryDir);
+      File resourcesDir = new File(entryDir, RESOURCES_DIR);
+      resourcesDir.mkdirs();
+
+      boolean platformRuntime = false;
+      Manifest manifest = jarFile.getManifest();
+      if (manifest != null && manifest.getMainAttributes() != null) {
+        String specTitle = manifest.getMainAttributes().getValue(Attributes.Name.SPECIFICATION_TITLE);
+        platformRuntime = "Java Platform API Specification".equalsIgnoreCase(String.valueOf(specTitle).trim());
+      }
+
+      List<String> paths = new ArrayList<String>();
+      Set<String> extracted = new HashSet<String>();
+      if (!platformRuntime) {
+        String resourcesPath = resourcesDir.getCanonicalPath() + File.separator;
+        Enumeration<JarEntry> entries = jarFile.entries();
+        while (entries.hasMoreElements()) {
+          JarEntry jarEntry = entries.nextElement();
+          String path = jarEntry.getName();
+          paths.add(path);
+          if (!jarEntry.isDirectory() && isExtracted(path)) {
+            File file = new File(resourcesDir, path);
+            if (file.getCanonicalPath().startsWith(resourcesPath)) {
+              extract(jarFile, jarEntry, file);
+              extracted.add(path);
+            }
+            else {
+              //don't let an entry name like "../x" write outside the index; the entry is read from the jar instead.
+              this.enunciate.warn("Entry %s of %s resolves outside of the classpath index, so it won't be extracted.", path, jar);
+            }
+          }
+        }
+      }
+
+      //write to a temp file first so that a partially-written index is never read.
+      File tmpIndexFile = new File(entryDir, INDEX_FILE + ".tmp");
+      PrintWriter writer = new PrintWriter(new OutputStreamWriter(new FileOutputStream(tmpIndexFile), "utf-8"));
+      writer.println(jar.getPath());
+      writer.println(jar.length());
+      writer.println(jar.lastModified());
+      writer.println(platformRuntime);
+      for (String path : paths) {
+        writer.print(extracted.contains(path) ? EXTRACTED : NOT_EXTRACTED);
+        writer.println(path);
+      }
+      writer.close();
+      if (writer.checkError() || !tmpIndexFile.renameTo(new File(entryDir, INDEX_FILE))) {
+        throw new IOException("Unable to write classpath index for " + jar);
+      }
+
+      return new Entry(jar, resourcesDir, platformRuntime, paths, extracted);
+    }
+    finally {
+      jarFile.close();
+    }
+  }
+
+  /**
+   * Whether an extracted copy of the jar entry at the specified path is to be kept in the index.
+   *
+   * @param path The path of the jar entry.
+   * @return Whether an extracted copy of the jar entry is to be kept.
+   */
+  protected boolean isExtracted(String path) {
+    return path.endsWith(".java")
+      || path.endsWith("package-info.class")
+      || path.endsWith(".gwt.xml")
+      || path.startsWith("META-INF/enunciate/");
+  }
+
+  private void extract(JarFile jarFile, JarEntry jarEntry, File file) throws IOException {
+    file.getParentFile().mkdirs();
+    InputStream in = jarFile.getInputStream(jarEntry);
+    FileOutputStream out = new FileOutputStream(file);
+    byte[] buffer = new byte[1024 * 2]; //2 kb buffer should suffice.
+    int len;
+    while ((len = in.read(buffer)) > 0) {
+      out.write(buffer, 0, len);
+    }
+    out.close();
+    in.close();
+  }
+
+  private void deleteDir(File dir) {
+    File[] files = dir.listFiles();
+    if (files != null) {
+      for (File file : files) {
+        if (file.isDirectory()) {
+          deleteDir(file);
+        }
+        else {
+          file.delete();
+        }
+      }
+    }
+    dir.delete();
+  }
+
+  private static String digest(String value) {
+    try {
+      byte[] hash = MessageDigest.getInstance("MD5").digest(value.getBytes("utf-8"));
+      StringBuilder hex = new StringBuilder(hash.length * 2);
+      for (byte b : hash) {
+        hex.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+      }
+      return hex.toString();
+    }
+    catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+    catch (UnsupportedEncodingException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * The directory of the index.
+   *
+   * @return The directory of the index.
+   */
+  public File getIndexDir() {
+    return indexDir;
+  }
+
+  /**
+   * The number of jars that were found in the index.
+   *
+   * @return The number of jars that were found in the index.
+   */
+  public int getHitCount() {
+    return hits;
+  }
+
+  /**
+   * The number of jars that had to be (re-)indexed.
+   *
+   * @return The number of jars that had to be (re-)indexed.
+   */
+  public int getMissCount() {
+    return misses;
+  }
+
+  /**
+   * An indexed jar.
+   */
+  public static class Entry {
+
+    private final File jar;
+    private final File resourcesDir;
+    private final boolean platformRuntime;
+    private final List<String> paths;
+    private final Set<String> extracted;
+    private JarFile jarFile;
+
+    protected Entry(File jar, File resourcesDir, boolean platformRuntime, List<String> paths, Set<String> extracted) {
+      this.jar = jar;
+      this.resourcesDir = resourcesDir;
+      this.platformRuntime = platformRuntime;
+      this.paths = paths;
+      this.extracted = extracted;
+    }
+
+    /**
+     * Whether the jar appears to be the SDK runtime.
+     *
+     * @return Whether the jar appears to be the SDK runtime.
+     */
+    public boolean isPlatformRuntime() {
+      return platformRuntime;
+    }
+
+    /**
+     * The paths of the entries in the jar.
+     *
+     * @return The paths of the entries in the jar.
+     */
+    public List<String> getPaths() {
+      return Collections.unmodifiableList(paths);
+    }
+
+    /**
+     * The resources of the jar.
+     *
+     * @return The resources of the jar.
+     */
+    public List<ClasspathResource> getResources() {
+      List<ClasspathResource> resources = new ArrayList<ClasspathResource>(this.paths.size());
+      for (String path : this.paths) {
+        File file = this.extracted.contains(path) ? new File(this.resourcesDir, path) : null;
+        resources.add(new IndexedClasspathResource(this, path, file));
+      }
+      return resources;
+    }
+
+    /**
+     * Read an entry from the jar, opening the jar if necessary.
+     *
+     * @param path The path of the entry.
+     * @return The stream to the entry.
+     */
+    protected synchronized InputStream read(String path) throws IOException {
+      if (this.jarFile == null) {
+        this.jarFile = new JarFile(this.jar);
+      }
+
+      JarEntry jarEntry = this.jarFile.getJarEntry(path);
+      if (jarEntry == null) {
+        throw new FileNotFoundException(path + " in " + this.jar);
+      }
+      return this.jarFile.getInputStream(jarEntry);
+    }
+
+    /**
+     * Close the jar, if it was opened.
+     */
+    public synchronized void close() throws IOException {
+      if (this.jarFile != null) {
+        this.jarFile.close();
+        this.jarFile = null;
+      }
+    }
+  }
+}
@@ -22,6 +22,7 @@ import org.codehaus.enunciate.config.APIImport;
 import org.codehaus.enunciate.config.EnunciateConfiguration;
 import org.codehaus.enunciate.main.webapp.WebAppFragment;
 import org.codehaus.enunciate.main.webapp.WebAppFragmentComparator;
+import org.codehaus.enunciate.modules.DependencyAware;
 import org.codehaus.enunciate.modules.DeploymentModule;
 import org.codehaus.enunciate.modules.FacetAware;
 import org.codehaus.enunciate.modules.SpecProviderModule;
@@ -34,10 +35,12 @@ import java.net.URI;
 import java.net.URL;
 import java.nio.channels.FileChannel;
 import java.util.*;
+import java.util.concurrent.*;
 import java.util.jar.Attributes;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 import java.util.jar.Manifest;
+import java.util.zip.CRC32;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 import java.util.zip.ZipOutputStream;
@@ -91,19 +94,27 @@ public class Enunciate {
   private String buildClasspath;
   private EnunciateConfiguration config;
   private Target target = Target.PACKAGE;
+  private int moduleThreads = Integer.getInteger("enunciate.moduleThreads", 1);
+  private File classpathIndexDir = System.getProperty("enunciate.classpathIndexDir") == null ? null : new File(System.getProperty("enunciate.classpathIndexDir"));
+  private File buildManifestFile = System.getProperty("enunciate.buildManifest") == null ? null : new File(System.getProperty("enunciate.buildManifest"));
+  private BuildManifest buildManifest;
+  private JavacService javacService;
+  private final Object modelLock = new Object();
+  private final Map<String, long[]> crcCache = new ConcurrentHashMap<String, long[]>();
+  private static final Set<String> COMPRESSED_EXTENSIONS = new HashSet<String>(Arrays.asList("jar", "war", "ear", "zip", "gz", "tgz", "swc", "swf", "png", "gif", "jpg", "jpeg"));
   
   //set version flags for javac
   private static final String JAVAC_DEFAULT_VERSION = "1.5";
   private String javacSourceVersion;
   private String javacTargetVersion;
   
-  private final HashMap<String, Object> properties = new HashMap<String, Object>();
-  private final Set<Artifact> artifacts = new TreeSet<Artifact>();
+  private final Map<String, Object> properties = Collections.synchronizedMap(new HashMap<String, Object>());
+  private final Set<Artifact> artifacts = Collections.synchronizedSortedSet(new TreeSet<Artifact>());
   private final HashMap<String, File> exports = new HashMap<String, File>();
   private final List<String> sourceFiles = new ArrayList<String>();
-  private final Set<File> additionalSourceRoots = new TreeSet<File>();
-  private final Set<WebAppFragment> webAppFragments = new TreeSet<WebAppFragment>(new WebAppFragmentComparator());
-  private final List<ClasspathHandler> classpathHandlers = new ArrayList<ClasspathHandler>();
+  private final Set<File> additionalSourceRoots = Collections.synchronizedSortedSet(new TreeSet<File>());
+  private final Set<WebAppFragment> webAppFragments = Collections.synchronizedSortedSet(new TreeSet<WebAppFragment>(new WebAppFragmentComparator()));
+  private final List<ClasspathHandler> classpathHandlers = new CopyOnWriteArrayList<ClasspathHandler>();
   private final List<String> configuredJavacArguments = new ArrayList<String>();
 
   public static void main(String[] args) throws Exception {
@@ -216,6 +227,15 @@ public class Enunciate {
         warn("WARNING: Unknown artifact '%s'.  Artifact will not be exported.", export);
       }
     }
+
+    if (this.buildManifest != null) {
+      debug("Saving build manifest %s.", this.buildManifest.getManifestFile());
+      this.buildManifest.save();
+    }
+
+    if (this.javacService != null) {
+      this.javacService.close();
+    }
   }
 
   /**
@@ -234,19 +254,7 @@ public class Enunciate {
         "(BTW, if you don't specify a package output directory, a suitable temp directory wil be created for you.)");
     }
 
-    for (DeploymentModule deploymentModule : this.config.getAllModules()) {
-      if (!deploymentModule.isDisabled()) {
-        debug("Invoking %s step for module %s", Target.PACKAGE, deploymentModule.getName());
-        if (deploymentModule instanceof FacetAware) {
-          setupFacetFilter((FacetAware) deploymentModule);
-        }
-        deploymentModule.step(Target.PACKAGE);
-        FacetFilter.clear();
-      }
-      else {
-        debug("Not invoking %s step for module %s (module is disabled).", Target.PACKAGE, deploymentModule.getName());
-      }
-    }
+    stepModules(Target.PACKAGE);
   }
 
   /**
@@ -265,19 +273,7 @@ public class Enunciate {
         "(BTW, if you don't specify a build output directory, a suitable temp directory wil be created for you.)");
     }
 
-    for (DeploymentModule deploymentModule : this.config.getAllModules()) {
-      if (!deploymentModule.isDisabled()) {
-        debug("Invoking %s step for module %s", Target.BUILD, deploymentModule.getName());
-        if (deploymentModule instanceof FacetAware) {
-          setupFacetFilter((FacetAware) deploymentModule);
-        }
-        deploymentModule.step(Target.BUILD);
-        FacetFilter.clear();
-      }
-      else {
-        debug("Not invoking %s step for module %s (module is disabled).", Target.BUILD, deploymentModule.getName());
-      }
-    }
+    stepModules(Target.BUILD);
   }
 
   /**
@@ -296,19 +292,171 @@ public class Enunciate {
         "(BTW, if you don't specify a compile output directory, a suitable temp directory wil be created for you.)");
     }
 
+    stepModules(Target.COMPILE);
+  }
+
+  /**
+   * Invokes the specified step on each enabled module. If more than one {@link #getModuleThreads() module thread} is
+   * configured, the steps of modules that don't depend on each other are invoked concurrently.
+   *
+   * @param target The step to invoke.
+   */
+  protected void stepModules(Target target) throws IOException, EnunciateException {
+    List<DeploymentModule> modules = new ArrayList<DeploymentModule>();
     for (DeploymentModule deploymentModule : this.config.getAllModules()) {
       if (!deploymentModule.isDisabled()) {
-        debug("Invoking %s step for module %s", Target.COMPILE, deploymentModule.getName());
-        if (deploymentModule instanceof FacetAware) {
-          setupFacetFilter((FacetAware) deploymentModule);
+        modules.add(deploymentModule);
+      }
+      else {
+        debug("Not invoking %s step for module %s (module is disabled).", target, deploymentModule.getName());
+      }
+    }
+
+    if (getModuleThreads() > 1 && modules.size() > 1) {
+      stepModulesConcurrently(target, modules);
+    }
+    else {
+      for (DeploymentModule deploymentModule : modules) {
+        stepModule(target, deploymentModule);
+      }
+    }
+  }
+
+  /**
+   * Invokes the specified step on the specified modules using a pool of {@link #getModuleThreads() module threads}.
+   * A module is stepped only after the steps of all the modules it depends on have completed. The step of a module that
+   * isn't {@link DependencyAware} holds the {@link #getModelLock() model lock}.
+   *
+   * @param target  The step to invoke.
+   * @param modules The (enabled) modules, in order.
+   */
+  protected void stepModulesConcurrently(final Target target, List<DeploymentModule> modules) throws IOException, EnunciateException {
+    Map<DeploymentModule, Set<DeploymentModule>> dependencies = getModuleDependencies(modules);
+    LinkedList<DeploymentModule> pending = new LinkedList<DeploymentModule>(modules);
+    Set<DeploymentModule> completed = new HashSet<DeploymentModule>();
+    ExecutorService executor = Executors.newFixedThreadPool(Math.min(getModuleThreads(), modules.size()));
+    CompletionService<DeploymentModule> completionService = new ExecutorCompletionService<DeploymentModule>(executor);
+    int running = 0;
+    try {
+      while (!pending.isEmpty() || running > 0) {
+        Iterator<DeploymentModule> pendingIt = pending.iterator();
+        while (pendingIt.hasNext()) {
+          final DeploymentModule deploymentModule = pendingIt.next();
+          if (completed.containsAll(dependencies.get(deploymentModule))) {
+            pendingIt.remove();
+            completionService.submit(new Callable<DeploymentModule>() {
+              public DeploymentModule call() throws Exception {
+                if (deploymentModule instanceof DependencyAware) {
+                  //a dependency-aware module holds the model lock itself while it reads the model.
+                  stepModule(target, deploymentModule);
+                }
+                else {
+                  synchronized (getModelLock()) {
+                    stepModule(target, deploymentModule);
+                  }
+                }
+                return deploymentModule;
+              }
+            });
+            running++;
+          }
+        }
+
+        if (running == 0) {
+          throw new IllegalStateException("Unable to resolve the module dependencies of " + pending);
+        }
+
+        completed.add(completionService.take().get());
+        running--;
+      }
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new EnunciateException("Interrupted while invoking the " + target + " step.", e);
+    }
+    catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof EnunciateException) {
+        throw (EnunciateException) cause;
+      }
+      else if (cause instanceof IOException) {
+        throw (IOException) cause;
+      }
+      else if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      else if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new EnunciateException(cause);
+    }
+    finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * The lock that is held while the model is read during the compile, build and package steps, which may be invoked
+   * concurrently. The declarations of the model aren't safe for concurrent access, so the steps of a module that isn't
+   * {@link DependencyAware} hold this lock for the whole step, and a {@link DependencyAware} module holds it while it
+   * reads the model.
+   *
+   * @return The model lock.
+   */
+  public Object getModelLock() {
+    return modelLock;
+  }
+
+  /**
+   * Resolves the dependencies of each of the specified modules. A module that is {@link DependencyAware} depends on the
+   * modules it names. Any other module depends on all the modules that are ordered before it.
+   *
+   * @param modules The (enabled) modules, in order.
+   * @return The dependencies of each module.
+   */
+  protected Map<DeploymentModule, Set<DeploymentModule>> getModuleDependencies(List<DeploymentModule> modules) {
+    Map<DeploymentModule, Set<DeploymentModule>> dependencies = new HashMap<DeploymentModule, Set<DeploymentModule>>();
+    for (int i = 0; i < modules.size(); i++) {
+      DeploymentModule deploymentModule = modules.get(i);
+      List<DeploymentModule> upstream = modules.subList(0, i);
+      Set<DeploymentModule> moduleDependencies = new HashSet<DeploymentModule>();
+      if (deploymentModule instanceof DependencyAware) {
+        Set<String> names = ((DependencyAware) deploymentModule).getModuleDependencies();
+        if (names != null) {
+          for (DeploymentModule candidate : upstream) {
+            if (names.contains(candidate.getName()) || (candidate.getAliases() != null && !Collections.disjoint(names, candidate.getAliases()))) {
+              moduleDependencies.add(candidate);
+            }
+          }
         }
-        deploymentModule.step(Target.COMPILE);
-        FacetFilter.clear();
       }
       else {
-        debug("Not invoking %s step for module %s (module is disabled).", Target.COMPILE, deploymentModule.getName());
+        moduleDependencies.addAll(upstream);
       }
+      dependencies.put(deploymentModule, moduleDependencies);
     }
+    return dependencies;
+  }
+
+  /**
+   * Invokes the specified step on the specified module, reporting the time it took.
+   *
+   * @param target          The step to invoke.
+   * @param deploymentModule The module.
+   */
+  public void stepModule(Target target, DeploymentModule deploymentModule) throws IOException, EnunciateException {
+    debug("Invoking %s step for module %s", target, deploymentModule.getName());
+    long start = System.currentTimeMillis();
+    if (deploymentModule instanceof FacetAware) {
+      setupFacetFilter((FacetAware) deploymentModule);
+    }
+    try {
+      deploymentModule.step(target);
+    }
+    finally {
+      FacetFilter.clear();
+    }
+    info("%s step for module %s completed in %d ms.", target.toString().toLowerCase(), deploymentModule.getName(), System.currentTimeMillis() - start);
   }
 
   public void setupFacetFilter(FacetAware facetAware) {
@@ -405,6 +553,8 @@ public class Enunciate {
    * Scans the Enunciate classpath, handling each entry according to each {@link ClasspathHandler}.
    */
   protected void scanClasspath(final Collection<ClasspathHandler> classpathHandlers) throws IOException {
+    File indexDir = getClasspathIndexDir();
+    ClasspathScanIndex index = indexDir == null ? null : new ClasspathScanIndex(indexDir, this);
     LinkedList<String> classpathToScan = new LinkedList<String>(Arrays.asList(getEnunciateRuntimeClasspath().split(File.pathSeparator)));
     while (!classpathToScan.isEmpty()) {
       String pathItem = classpathToScan.removeFirst();
@@ -432,39 +582,73 @@ public class Enunciate {
           }
         }
         else {
-          //assume it's a jar file.
-          JarFile jarFile;
-          try {
-            jarFile = new JarFile(pathFile);
-          }
-          catch (IOException e) {
-            warn("%s doesn't appear to be a jar file, so it will be ignored on the classpath.", pathFile);
-            continue;
+          ClasspathScanIndex.Entry indexEntry = null;
+          if (index != null) {
+            try {
+              indexEntry = index.getEntry(pathFile);
+            }
+            catch (IOException e) {
+              debug("Unable to index %s (%s), so it will be scanned directly.", pathFile, e.getMessage());
+            }
           }
 
-          Manifest manifest = jarFile.getManifest();
-          if (manifest != null && manifest.getMainAttributes() != null) {
-            String specTitle = manifest.getMainAttributes().getValue(Attributes.Name.SPECIFICATION_TITLE);
-            if ("Java Platform API Specification".equalsIgnoreCase(String.valueOf(specTitle).trim())) {
+          if (indexEntry != null) {
+            if (indexEntry.isPlatformRuntime()) {
               debug("Not going to scan %s as it appears to be the SDK runtime.", pathFile);
               continue;
             }
-          }
 
-          for (ClasspathHandler handler : classpathHandlers) {
-            handler.startPathEntry(pathFile);
-          }
+            for (ClasspathHandler handler : classpathHandlers) {
+              handler.startPathEntry(pathFile);
+            }
+
+            for (ClasspathResource entry : indexEntry.getResources()) {
+              for (ClasspathHandler handler : classpathHandlers) {
+                handler.handleResource(entry);
+              }
+            }
 
-          Enumeration<JarEntry> entries = jarFile.entries();
-          while (entries.hasMoreElements()) {
-            JarClasspathResource entry = new JarClasspathResource(jarFile, entries.nextElement());
             for (ClasspathHandler handler : classpathHandlers) {
-              handler.handleResource(entry);
+              lookupSourceEntry |= handler.endPathEntry(pathFile);
             }
+
+            indexEntry.close();
           }
+          else {
+            //assume it's a jar file.
+            JarFile jarFile;
+            try {
+              jarFile = new JarFile(pathFile);
+            }
+            catch (IOException e) {
+              warn("%s doesn't appear to be a jar file, so it will be ignored on the classpath.", pathFile);
+              continue;
+            }
 
-          for (ClasspathHandler handler : classpathHandlers) {
-            lookupSourceEntry |= handler.endPathEntry(pathFile);
+            Manifest manifest = jarFile.getManifest();
+            if (manifest != null && manifest.getMainAttributes() != null) {
+              String specTitle = manifest.getMainAttributes().getValue(Attributes.Name.SPECIFICATION_TITLE);
+              if ("Java Platform API Specification".equalsIgnoreCase(String.valueOf(specTitle).trim())) {
+                debug("Not going to scan %s as it appears to be the SDK runtime.", pathFile);
+                continue;
+              }
+            }
+
+            for (ClasspathHandler handler : classpathHandlers) {
+              handler.startPathEntry(pathFile);
+            }
+
+            Enumeration<JarEntry> entries = jarFile.entries();
+            while (entries.hasMoreElements()) {
+              JarClasspathResource entry = new JarClasspathResource(jarFile, entries.nextElement());
+              for (ClasspathHandler handler : classpathHandlers) {
+                handler.handleResource(entry);
+              }
+            }
+
+            for (ClasspathHandler handler : classpathHandlers) {
+              lookupSourceEntry |= handler.endPathEntry(pathFile);
+            }
           }
         }
 
@@ -479,6 +663,10 @@ public class Enunciate {
         debug("Classpath entry %s cannot be scanned because it doesn't exist on the filesystem.", pathItem);
       }
     }
+
+    if (index != null) {
+      debug("Classpath index %s: %s jars unchanged, %s jars (re-)indexed.", index.getIndexDir(), index.getHitCount(), index.getMissCount());
+    }
   }
 
   /**
@@ -878,9 +1066,6 @@ public class Enunciate {
 
     List<String> args = new ArrayList<String>();
 
-    args.add("-cp");
-    args.add(classpath);
-
     args.add("-source");
     args.add(sourceVersion);
     args.add("-target");
@@ -899,28 +1084,62 @@ public class Enunciate {
       args.add(getEncoding());
     }
     
-    args.add("-d");
-    args.add(compileDir.getAbsolutePath());
     args.addAll(additionalArgs);
     args.addAll(this.configuredJavacArguments);
-    args.addAll(Arrays.asList(sourceFiles));
 
     if (isDebug()) {
-      StringBuilder message = new StringBuilder("Invoking Javac with arguments:");
+      StringBuilder message = new StringBuilder("Invoking Javac with arguments: -cp ");
+      message.append(classpath).append(" -d ").append(compileDir.getAbsolutePath());
       for (String arg : args) {
         message.append(' ');
         message.append(arg);
       }
+      for (String sourceFile : sourceFiles) {
+        message.append(' ');
+        message.append(sourceFile);
+      }
       debug(message.toString());
     }
 
     compileDir.mkdirs();
-    int procCode = com.sun.tools.javac.Main.compile(args.toArray(new String[args.size()]));
-    if (procCode != 0) {
+    JavacService javacService = getJavacService();
+    boolean success;
+    if (javacService.isAvailable() && javacService.isSupported(args)) {
+      try {
+        success = javacService.compile(classpath, compileDir, args, Arrays.asList(sourceFiles));
+      }
+      catch (IOException e) {
+        throw new EnunciateException(e);
+      }
+    }
+    else {
+      //the command-line compiler takes launcher and path options (or reports them) that the in-process compiler doesn't.
+
+      args.add(0, "-cp");
+      args.add(1, classpath);
+      args.add("-d");
+      args.add(compileDir.getAbsolutePath());
+      args.addAll(Arrays.asList(sourceFiles));
+      success = com.sun.tools.javac.Main.compile(args.toArray(new String[args.size()])) == 0;
+    }
+
+    if (!success) {
       throw new EnunciateException("compile failed.");
     }
   }
 
+  /**
+   * The service used to compile in-process, shared by all the compiles of this build.
+   *
+   * @return The javac service.
+   */
+  public synchronized JavacService getJavacService() {
+    if (this.javacService == null) {
+      this.javacService = new JavacService(this);
+    }
+    return this.javacService;
+  }
+
   /**
    * Copy an entire directory from one place to another.
    *
@@ -1054,7 +1273,8 @@ public class Enunciate {
   }
 
   /**
-   * zip up directories to a specified zip file.
+   * zip up directories to a specified zip file. Files that are already compressed (e.g. jars) are stored rather than
+   * deflated again.
    *
    * @param toFile The file to zip to.
    * @param dirs   The directories to zip up.
@@ -1065,8 +1285,8 @@ public class Enunciate {
       toFile.getParentFile().mkdirs();
     }
 
-    byte[] buffer = new byte[2 * 1024]; //buffer of 2K should be fine.
-    ZipOutputStream zipout = new ZipOutputStream(new FileOutputStream(toFile));
+    byte[] buffer = new byte[64 * 1024];
+    ZipOutputStream zipout = new ZipOutputStream(new BufferedOutputStream(new FileOutputStream(toFile), buffer.length));
     for (File dir : dirs) {
 
       URI baseURI = dir.toURI();
@@ -1075,6 +1295,12 @@ public class Enunciate {
       buildFileList(files, dir);
       for (File file : files) {
         ZipEntry entry = new ZipEntry(baseURI.relativize(file.toURI()).getPath());
+        if (!file.isDirectory() && isCompressed(file)) {
+          entry.setMethod(ZipEntry.STORED);
+          entry.setSize(file.length());
+          entry.setCompressedSize(file.length());
+          entry.setCrc(getCrc(file, buffer));
+        }
         debug("Adding entry %s...", entry.getName());
         zipout.putNextEntry(entry);
 
@@ -1095,6 +1321,59 @@ public class Enunciate {
     zipout.close();
   }
 
+  /**
+   * Whether the specified file is already compressed, so that deflating it again isn't worth it.
+   *
+   * @param file The file.
+   * @return Whether the specified file is already compressed.
+   */
+  protected boolean isCompressed(File file) {
+    String name = file.getName();
+    int dot = name.lastIndexOf('.');
+    return dot >= 0 && COMPRESSED_EXTENSIONS.contains(name.substring(dot + 1).toLowerCase());
+  }
+
+  /**
+   * The CRC-32 of the content of the specified file, cached by size and modification time.
+   *
+   * @param file The file.
+   * @return The CRC-32.
+   */
+  public long getCrc(File file) throws IOException {
+    return getCrc(file, new byte[8 * 1024]);
+  }
+
+  /**
+   * The CRC-32 of the content of the specified file, cached by size and modification time.
+   *
+   * @param file   The file.
+   * @param buffer The buffer to use to read the file.
+   * @return The CRC-32.
+   */
+  protected long getCrc(File file, byte[] buffer) throws IOException {
+    String path = file.getAbsolutePath();
+    long[] cached = this.crcCache.get(path);
+    if (cached != null && cached[0] == file.length() && cached[1] == file.lastModified()) {
+      return cached[2];
+    }
+
+    long length = file.length();
+    long lastModified = file.lastModified();
+    CRC32 crc = new CRC32();
+    FileInputStream in = new FileInputStream(file);
+    try {
+      int len;
+      while ((len = in.read(buffer)) > 0) {
+        crc.update(buffer, 0, len);
+      }
+    }
+    finally {
+      in.close();
+    }
+    this.crcCache.put(path, new long[]{length, lastModified, crc.getValue()});
+    return crc.getValue();
+  }
+
   /**
    * Resolves a path relative to the Enunciate config file, if present, otherwise the file will be a relative file
    * to the current user directory.
@@ -1141,7 +1420,10 @@ public class Enunciate {
   /**
    * Determines whether a destination file is newer than a source file. If a source file
    * is a directory, its timestamp is the timestamp of the latest file.  If a destination file
-   * is a directory, its timestamp is the timestamp of the earliest file.
+   * is a directory, its timestamp is the timestamp of the earliest file.<br/><br/>
+   *
+   * If there's a {@link #getBuildManifest() build manifest} and the source file is an output that was checked
+   * earlier in the build, the manifest is used instead and neither file is walked.
    *
    * @param sourceFile The source file.
    * @param destFile   The destination file.
@@ -1151,6 +1433,11 @@ public class Enunciate {
     if (sourceFile == null) {
       throw new IllegalArgumentException();
     }
+
+    BuildManifest manifest = getBuildManifest();
+    if (manifest != null && destFile != null && manifest.isKnownOutput(sourceFile)) {
+      return !isStale(null, destFile, sourceFile);
+    }
     else if (!sourceFile.isDirectory()) {
       return isUpToDate(Arrays.asList(sourceFile), destFile);
     }
@@ -1162,12 +1449,18 @@ public class Enunciate {
   }
 
   /**
-   * Whether all files in the specified directory are newer than all the source files.
+   * Whether all files in the specified directory are newer than all the source files. If there's a
+   * {@link #getBuildManifest() build manifest}, whether the directory is up-to-date with the content of the
+   * source files.
    *
    * @param destDir The directory.
    * @return Whether the destination directory is up-to-date.
    */
   public boolean isUpToDateWithSources(File destDir) {
+    if (destDir != null && getBuildManifest() != null) {
+      return !isStale(null, destDir);
+    }
+
     List<File> sources = new ArrayList<File>();
     for (String source : getSourceFiles()) {
       File sourceFile = new File(source);
@@ -1179,6 +1472,46 @@ public class Enunciate {
     return isUpToDate(sources, destDir);
   }
 
+  /**
+   * Whether the specified output of a module is stale with respect to the source set and the specified additional
+   * inputs, according to the {@link #getBuildManifest() build manifest}. If there's no build manifest, whether the
+   * output is older than any of the source files or the inputs.
+   *
+   * @param moduleId The id of the module (may be null).
+   * @param output   The output file or directory.
+   * @param inputs   The additional inputs.
+   * @return Whether the output is stale.
+   */
+  public boolean isStale(String moduleId, File output, File... inputs) {
+    BuildManifest manifest = getBuildManifest();
+    if (manifest != null) {
+      try {
+        return manifest.isStale(moduleId, output, inputs);
+      }
+      catch (IOException e) {
+        debug("%s is stale because its inputs couldn't be read (%s).", output, e.getMessage());
+        return true;
+      }
+    }
+
+    List<File> sources = new ArrayList<File>();
+    for (String source : getSourceFiles()) {
+      File sourceFile = new File(source);
+      if (sourceFile.exists()) {
+        sources.add(sourceFile);
+      }
+    }
+    for (File input : inputs) {
+      if (input.isDirectory()) {
+        buildFileList(sources, input);
+      }
+      else if (input.exists()) {
+        sources.add(input);
+      }
+    }
+    return !isUpToDate(sources, output);
+  }
+
   /**
    * Whether a given destination file is newer than all the specified source files. If the destination
    * file is a directory its timestamp is the timestamp of the earliest-modified file.
@@ -1480,6 +1813,68 @@ public class Enunciate {
     this.scratchDir = scratchDir;
   }
 
+  /**
+   * The directory of the index of the jars on the classpath, kept between builds so that unchanged jars don't have to be
+   * scanned again. Defaults to the "enunciate.classpathIndexDir" system property, or to a directory in the
+   * {@link #getScratchDir() scratch directory}. If there's no index directory, every jar is scanned.
+   *
+   * @return The directory of the classpath index, or null if the classpath isn't indexed.
+   */
+  public File getClasspathIndexDir() {
+    if (this.classpathIndexDir == null && getScratchDir() != null) {
+      return new File(getScratchDir(), "classpath-index");
+    }
+    return classpathIndexDir;
+  }
+
+  /**
+   * The directory of the index of the jars on the classpath.
+   *
+   * @param classpathIndexDir The directory of the index of the jars on the classpath.
+   */
+  public void setClasspathIndexDir(File classpathIndexDir) {
+    this.classpathIndexDir = classpathIndexDir;
+  }
+
+  /**
+   * The manifest of the outputs of the modules, kept between builds so that an up-to-date output doesn't have to be
+   * built again. Defaults to the "enunciate.buildManifest" system property, or to a file in the
+   * {@link #getScratchDir() scratch directory}. If there's no manifest file, outputs are checked by timestamp.
+   *
+   * @return The build manifest file, or null if there is no build manifest.
+   */
+  public File getBuildManifestFile() {
+    if (this.buildManifestFile == null && getScratchDir() != null) {
+      return new File(getScratchDir(), "build-manifest.properties");
+    }
+    return buildManifestFile;
+  }
+
+  /**
+   * The manifest of the outputs of the modules.
+   *
+   * @param buildManifestFile The build manifest file.
+   */
+  public void setBuildManifestFile(File buildManifestFile) {
+    this.buildManifestFile = buildManifestFile;
+  }
+
+  /**
+   * The build manifest, loaded from the {@link #getBuildManifestFile() build manifest file} on first use.
+   *
+   * @return The build manifest, or null if there is no build manifest file.
+   */
+  public synchronized BuildManifest getBuildManifest() {
+    if (this.buildManifest == null) {
+      File manifestFile = getBuildManifestFile();
+      if (manifestFile != null) {
+        this.buildManifest = new BuildManifest(manifestFile, this);
+        this.buildManifest.load();
+      }
+    }
+    return buildManifest;
+  }
+
   /**
    * The preprocessor directory (-s).
    *
@@ -1551,7 +1946,27 @@ public class Enunciate {
   public void setTarget(Target target) {
     this.target = target;
   }
-  
+
+  /**
+   * The number of threads used to invoke the module steps (defaults to the "enunciate.moduleThreads" system
+   * property, or 1). With more than one thread, the steps of modules that {@link DependencyAware declare their dependencies}
+   * are invoked concurrently with the steps of the modules they don't depend on.
+   *
+   * @return The number of threads used to invoke the module steps.
+   */
+  public int getModuleThreads() {
+    return moduleThreads;
+  }
+
+  /**
+   * The number of threads used to invoke the module steps.
+   *
+   * @param moduleThreads The number of threads used to invoke the module steps.
+   */
+  public void setModuleThreads(int moduleThreads) {
+    this.moduleThreads = moduleThreads;
+  }
+
   /**
    * Set javac -source version.
    * 
@@ -1599,9 +2014,11 @@ public class Enunciate {
    */
   public Artifact findArtifact(String artifactId) {
     if (artifactId != null) {
-      for (Artifact artifact : artifacts) {
-        if (artifactId.equals(artifact.getId()) || artifact.getAliases().contains(artifactId)) {
-          return artifact;
+      synchronized (artifacts) {
+        for (Artifact artifact : artifacts) {
+          if (artifactId.equals(artifact.getId()) || artifact.getAliases().contains(artifactId)) {
+            return artifact;
+          }
         }
       }
     }
@@ -3,13 +3,10 @@ package org.codehaus.enunciate.main;
 import org.codehaus.enunciate.apt.EnunciateClasspathListener;
 import org.codehaus.enunciate.config.APIImport;
 import org.codehaus.enunciate.modules.DeploymentModule;
-import org.codehaus.enunciate.util.AntPatternMatcher;
+import org.codehaus.enunciate.util.AntPatternSet;
 
 import java.io.*;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Set;
-import java.util.TreeSet;
+import java.util.*;
 
 /**
 * @author Ryan Heaton
@@ -23,6 +20,9 @@ public class ImportedClassesClasspathHandler implements ClasspathHandler {
   private File currentEntry;
   private Map<String, File> currentEntryClassesToSources;
   private boolean classesImportedFromCurrentEntry;
+  private List<APIImport> apiImports;
+  private AntPatternSet apiImportPatterns;
+  private int lastAPIImportIndex = -1;
 
   public ImportedClassesClasspathHandler(Enunciate enunciate) throws IOException {
     this.enunciate = enunciate;
@@ -62,7 +62,13 @@ public class ImportedClassesClasspathHandler implements ClasspathHandler {
     }
     else if (path.endsWith(".java")) {
       String classname = path.substring(0, path.length() - 5).replace('/', '.');
-      if (!classname.endsWith(".package-info")) {
+      if (!classname.endsWith(".package-info") && resource instanceof IndexedClasspathResource && ((IndexedClasspathResource) resource).getFile() != null) {
+        //the classpath index already has an extracted copy of the source.
+        File sourcesFile = ((IndexedClasspathResource) resource).getFile();
+        enunciate.debug("Noticed the source for class %s in %s, extracted to %s.", classname, currentEntry, sourcesFile);
+        currentEntryClassesToSources.put(classname, sourcesFile);
+      }
+      else if (!classname.endsWith(".package-info")) {
         File sourcesFile = new File(tempSourcesDir, path);
         enunciate.debug("Noticed the source for class %s in %s, extracting to %s.", classname, currentEntry, sourcesFile);
         try {
@@ -144,6 +150,8 @@ public class ImportedClassesClasspathHandler implements ClasspathHandler {
    */
   protected boolean copyImportedClasses(Map<String, File> foundClasses2Sources, Map<String, File> classes2sources) {
     boolean imported = false;
+    List<APIImport> apiImports = getAPIImports();
+    AntPatternSet apiImportPatterns = getAPIImportPatterns();
     for (Map.Entry<String, File> foundEntry : foundClasses2Sources.entrySet()) {
       if (foundEntry.getKey().endsWith(".package-info")) {
         File sourceFile = foundEntry.getValue();
@@ -153,33 +161,71 @@ public class ImportedClassesClasspathHandler implements ClasspathHandler {
           classes2sources.put(foundEntry.getKey(), sourceFile);
         }
       }
-      else if (this.enunciate.getConfig() != null && this.enunciate.getConfig().getAPIImports() != null && !this.enunciate.getConfig().getAPIImports().isEmpty()) {
-        AntPatternMatcher matcher = new AntPatternMatcher();
-        matcher.setPathSeparator(".");
-        for (APIImport apiImport : this.enunciate.getConfig().getAPIImports()) {
-          String pattern = apiImport.getPattern();
-          if (pattern != null) {
-            if (!classes2sources.containsKey(foundEntry.getKey())) {
-              if (pattern.equals(foundEntry.getKey())) {
-                this.enunciate.debug("Class %s will be imported because it was explicitly listed.", foundEntry.getKey());
-                imported |= !classes2sources.containsKey(foundEntry.getKey());
-                classes2sources.put(foundEntry.getKey(), apiImport.isSeekSource() ? foundEntry.getValue() : null);
-              }
-              else if (matcher.isPattern(pattern) && matcher.match(pattern, foundEntry.getKey())) {
-                this.enunciate.debug("Class %s will be imported because it matches pattern %s.", foundEntry.getKey(), pattern);
-                imported |= !classes2sources.containsKey(foundEntry.getKey());
-                classes2sources.put(foundEntry.getKey(), apiImport.isSeekSource() ? foundEntry.getValue() : null);
-              }
-            }
-            else if (foundEntry.getValue() != null) {
-              imported |= !classes2sources.containsKey(foundEntry.getKey());
-              classes2sources.put(foundEntry.getKey(), foundEntry.getValue());
-            }
+      else if (!apiImports.isEmpty()) {
+        String className = foundEntry.getKey();
+        int nextImport = 0;
+        if (!classes2sources.containsKey(className)) {
+          int matchIndex = apiImportPatterns.indexOfFirstMatch(className);
+          if (matchIndex < 0) {
+            continue;
+          }
+
+          APIImport apiImport = apiImports.get(matchIndex);
+          if (apiImport.getPattern().equals(className)) {
+            this.enunciate.debug("Class %s will be imported because it was explicitly listed.", className);
+          }
+          else {
+            this.enunciate.debug("Class %s will be imported because it matches pattern %s.", className, apiImport.getPattern());
           }
+          imported = true;
+          classes2sources.put(className, apiImport.isSeekSource() ? foundEntry.getValue() : null);
+          nextImport = matchIndex + 1;
+        }
+
+        //any subsequent api import finds the class already imported, and so uses the source that was found.
+        if (foundEntry.getValue() != null && this.lastAPIImportIndex >= nextImport) {
+          classes2sources.put(className, foundEntry.getValue());
         }
       }
     }
 
     return imported;
   }
+
+  /**
+   * The configured api imports.
+   *
+   * @return The configured api imports.
+   */
+  protected List<APIImport> getAPIImports() {
+    if (this.apiImports == null) {
+      List<APIImport> apiImports = new ArrayList<APIImport>();
+      if (this.enunciate.getConfig() != null && this.enunciate.getConfig().getAPIImports() != null) {
+        apiImports.addAll(this.enunciate.getConfig().getAPIImports());
+      }
+      this.apiImports = apiImports;
+    }
+    return this.apiImports;
+  }
+
+  /**
+   * The patterns of the configured api imports, compiled once for matching all the classes found on the classpath.
+   *
+   * @return The patterns of the configured api imports.
+   */
+  protected AntPatternSet getAPIImportPatterns() {
+    if (this.apiImportPatterns == null) {
+      List<String> patterns = new ArrayList<String>();
+      int lastAPIImportIndex = -1;
+      for (APIImport apiImport : getAPIImports()) {
+        if (apiImport.getPattern() != null) {
+          lastAPIImportIndex = patterns.size();
+        }
+        patterns.add(apiImport.getPattern());
+      }
+      this.lastAPIImportIndex = lastAPIImportIndex;
+      this.apiImportPatterns = new AntPatternSet(patterns);
+    }
+    return this.apiImportPatterns;
+  }
 }
@@ -0,0 +1,41 @@
+package org.codehaus.enunciate.main;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * A classpath entry of a jar that was found in the {@link ClasspathScanIndex classpath index}.
+ *
+ * @author Ryan Heaton
+ */
+public class IndexedClasspathResource implements ClasspathResource {
+
+  private final ClasspathScanIndex.Entry jar;
+  private final String path;
+  private final File file;
+
+  public IndexedClasspathResource(ClasspathScanIndex.Entry jar, String path, File file) {
+    this.jar = jar;
+    this.path = path;
+    this.file = file;
+  }
+
+  public String getPath() {
+    return this.path;
+  }
+
+  /**
+   * The extracted copy of the entry that is kept in the index, or null if the entry isn't extracted.
+   *
+   * @return The extracted copy of the entry, or null.
+   */
+  public File getFile() {
+    return file;
+  }
+
+  public InputStream read() throws IOException {
+    return this.file != null ? new FileInputStream(this.file) : this.jar.read(this.path);
+  }
+}
@@ -0,0 +1,205 @@
+/*
+ * Copyright 2006-2008 Web Cohesion
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.codehaus.enunciate.main;
+
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Compiles java sources in-process with the system java compiler. All the compiles share one file manager, so the jars
+ * on the classpath are opened and indexed once rather than once for each compile. The file manager isn't thread-safe, so
+ * compiles are done one at a time.<br/><br/>
+ *
+ * Launcher options ("-J...") and options that set the paths of the compile can't be passed to the compiler in-process;
+ * see {@link #isSupported(List)}.
+ *
+ * @author Ryan Heaton
+ */
+public class JavacService {
+
+  /**
+   * The options that set the paths of the compile. The paths are set on the shared file manager instead.
+   */
+  private static final Set<String> PATH_OPTIONS = new HashSet<String>(Arrays.asList("-cp", "-classpath", "-d", "-s", "-sourcepath", "-bootclasspath", "-extdirs", "-endorseddirs", "-processorpath"));
+
+  private final Enunciate enunciate;
+  private final JavaCompiler compiler;
+  private final Map<String, long[]> classpathStamps = new HashMap<String, long[]>();
+  private StandardJavaFileManager fileManager;
+  private int compileCount = 0;
+
+  public JavacService(Enunciate enunciate) {
+    this(enunciate, ToolProvider.getSystemJavaCompiler());
+  }
+
+  public JavacService(Enunciate enunciate, JavaCompiler compiler) {
+    this.enunciate = enunciate;
+    this.compiler = compiler;
+  }
+
+  /**
+   * Whether there's a system java compiler to compile with (there isn't one if running on a JRE).
+   *
+   * @return Whether there's a system java compiler to compile with.
+   */
+  public boolean isAvailable() {
+    return this.compiler != null;
+  }
+
+  /**
+   * Whether the specified compiler options can be passed to the compiler in-process. Launcher options ("-J...") and the
+   * options that set the paths of the compile can't be: the compiler would reject them. Compiles with such options have
+   * to be done through the command-line compiler.
+   *
+   * @param options The compiler options.
+   * @return Whether the options can be passed to the compiler in-process.
+   */
+  public boolean isSupported(List<String> options) {
+    for (String option : options) {
+      if (option.startsWith("-J") || PATH_OPTIONS.contains(option) || option.startsWith("-Xbootclasspath")) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Compiles the specified source files.
+   *
+   * @param classpath   The classpath.
+   * @param compileDir  The directory to compile to.
+   * @param options     The compiler options, not including the classpath or the compile directory.
+   * @param sourceFiles The source files.
+   * @return Whether the compile succeeded.
+   */
+  public synchronized boolean compile(String classpath, File compileDir, List<String> options, List<String> sourceFiles) throws IOException {
+    if (this.compiler == null) {
+      throw new IllegalStateException("No system java compiler is available.");
+    }
+
+    List<File> classpathFiles = new ArrayList<File>();
+    if (classpath != null) {
+      for (String path : classpath.split(File.pathSeparator)) {
+        if (path.length() > 0) {
+          classpathFiles.add(new File(path));
+        }
+      }
+    }
+
+    boolean classpathChanged = classpathChanged(classpathFiles);
+    if (this.fileManager != null && classpathChanged) {
+      //the file manager keeps the jars it opened (and may keep what it read from directories), so it can't be trusted
+      //with a classpath entry that changed since it was read.
+      this.enunciate.debug("The classpath changed since the last compile; it'll be read again.");
+      close();
+    }
+
+    if (this.fileManager == null) {
+      this.fileManager = this.compiler.getStandardFileManager(null, null, null);
+    }
+    this.fileManager.setLocation(StandardLocation.CLASS_PATH, classpathFiles);
+    this.fileManager.setLocation(StandardLocation.CLASS_OUTPUT, Arrays.asList(compileDir));
+
+    Iterable<? extends JavaFileObject> sources = this.fileManager.getJavaFileObjectsFromStrings(sourceFiles);
+    long start = System.currentTimeMillis();
+    boolean success = this.compiler.getTask(null, this.fileManager, null, options, null, sources).call();
+    this.compileCount++;
+    this.enunciate.debug("Compiled %s source files to %s in %s ms.", sourceFiles.size(), compileDir, System.currentTimeMillis() - start);
+    return success;
+  }
+
+  /**
+   * Whether any of the jars or directories on the classpath changed since it was last on the classpath of a compile.
+   *
+   * @param classpathFiles The files on the classpath.
+   * @return Whether any classpath entry changed.
+   */
+  private boolean classpathChanged(List<File> classpathFiles) {
+    boolean changed = false;
+    for (File file : classpathFiles) {
+      long[] stamp = new long[]{-1, -1, -1};
+      if (file.isDirectory()) {
+        stamp[0] = 0;
+        stamp[1] = 0;
+        stamp[2] = 0;
+        addDirectoryStamp(file, stamp);
+      }
+      else if (file.isFile()) {
+        stamp[0] = 1;
+        stamp[1] = file.length();
+        stamp[2] = file.lastModified();
+      }
+      long[] previous = this.classpathStamps.put(file.getAbsolutePath(), stamp);
+      changed |= previous != null && !Arrays.equals(previous, stamp);
+    }
+    return changed;
+  }
+
+  /**
+   * Adds the number of files, their total size and their latest modification time in the specified directory (and its
+   * subdirectories) to the specified stamp.
+   *
+   * @param dir   The directory.
+   * @param stamp The stamp.
+   */
+  private void addDirectoryStamp(File dir, long[] stamp) {
+    File[] files = dir.listFiles();
+    if (files != null) {
+      for (File file : files) {
+        if (file.isDirectory()) {
+          addDirectoryStamp(file, stamp);
+        }
+        else {
+          stamp[0]++;
+          stamp[1] += file.length();
+          stamp[2] = Math.max(stamp[2], file.lastModified());
+        }
+      }
+    }
+  }
+
+  /**
+   * The number of compiles done by this service.
+   *
+   * @return The number of compiles done by this service.
+   */
+  public int getCompileCount() {
+    return compileCount;
+  }
+
+  /**
+   * Close the service, releasing the jars opened by the file manager.
+   */
+  public synchronized void close() throws IOException {
+    if (this.fileManager != null) {
+      this.fileManager.close();
+      this.fileManager = null;
+    }
+  }
+}
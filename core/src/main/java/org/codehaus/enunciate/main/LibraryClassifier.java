@@ -0,0 +1,345 @@
+package org.codehaus.enunciate.main;
+
+import org.codehaus.enunciate.modules.DeploymentModule;
+
+import java.io.*;
+import java.util.*;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Classifies the libraries on the classpath according to whether they're known to be part of the SDK, the Enunciate
+ * build-time libraries, or an Enunciate module. Each jar is opened only once and its entry names are read in a single pass.
+ * The classification of each jar is cached by its absolute path, size and modification time, and can be kept in a file
+ * between builds so that unchanged jars don't have to be opened again. Directories are always classified again.
+ *
+ * @author Ryan Heaton
+ */
+public class LibraryClassifier {
+
+  private static final String MODULE_SERVICES_PATH = "META-INF/services/" + DeploymentModule.class.getName();
+
+  /**
+   * The classification of a library.
+   */
+  public enum Classification {
+
+    /**
+     * A library that is to be preserved in the war because it contains the entry META-INF/enunciate/preserve-in-war.
+     */
+    PRESERVED("META-INF/enunciate/preserve-in-war", null),
+
+    TOOLS(classPath(com.sun.tools.apt.Main.class), "tools.jar"),
+
+    APT_JELLY(classPath(net.sf.jelly.apt.Context.class), "apt-jelly"),
+
+    APT_JELLY_FREEMARKER(classPath(net.sf.jelly.apt.freemarker.FreemarkerModel.class), "the apt-jelly-freemarker libs"),
+
+    FREEMARKER(classPath(freemarker.template.Configuration.class), "the freemarker libs"),
+
+    ENUNCIATE_CORE(classPath(Enunciate.class), "the enunciate core jar"),
+
+    SERVLET_API("javax/servlet/ServletContext.class", "the servlet api"),
+
+    XFIRE_CLIENT_TOOLS("org/codehaus/enunciate/modules/xfire_client/EnunciatedClientSoapSerializerHandler.class", "the enunciated xfire client tools jar"),
+
+    DT("javax/swing/SwingBeanInfoBase.class", "dt.jar"),
+
+    HTMLCONVERTER("HTMLConverter.class", "htmlconverter.jar"),
+
+    JCONSOLE("sun/tools/jconsole/JConsole.class", "jconsole.jar"),
+
+    SA_JDI("sun/jvm/hotspot/debugger/Debugger.class", "sa-jdi.jar"),
+
+    CHARSETS("sun/io/ByteToCharDoubleByte.class", "charsets.jar"),
+
+    DEPLOY("com/sun/deploy/ClientContainer.class", "deploy.jar"),
+
+    JAVAWS("com/sun/javaws/Globals.class", "javaws.jar"),
+
+    JCE("javax/crypto/SecretKey.class", "jce.jar"),
+
+    JSSE("sun/net/www/protocol/https/HttpsClient.class", "jsse.jar"),
+
+    PLUGIN("sun/plugin/JavaRunTime.class", "plugin.jar"),
+
+    RT("com/sun/corba/se/impl/activation/ServerMain.class", "rt.jar"),
+
+    /**
+     * A library that provides an Enunciate deployment module.
+     */
+    DEPLOYMENT_MODULE(null, "an enunciate module"),
+
+    /**
+     * A library that isn't known.
+     */
+    UNKNOWN(null, null);
+
+    private final String probe;
+    private final String description;
+
+    Classification(String probe, String description) {
+      this.probe = probe;
+      this.description = description;
+    }
+
+    /**
+     * The path of the entry that identifies a library of this classification, or null if there is no such entry.
+     *
+     * @return The path of the entry that identifies a library of this classification.
+     */
+    public String getProbe() {
+      return probe;
+    }
+
+    /**
+     * What a library of this classification appears to be, or null if it isn't a known exclude.
+     *
+     * @return What a library of this classification appears to be.
+     */
+    public String getDescription() {
+      return description;
+    }
+
+    /**
+     * Whether a library of this classification is excluded from the war by default.
+     *
+     * @return Whether a library of this classification is excluded from the war by default.
+     */
+    public boolean isKnownExclude() {
+      return description != null;
+    }
+  }
+
+  private final File cacheFile;
+  private final Enunciate enunciate;
+  private final Map<String, CachedClassification> cache = new HashMap<String, CachedClassification>();
+  private boolean modified = false;
+  private int hits = 0;
+  private int misses = 0;
+
+  /**
+   * @param cacheFile The file in which the classifications are kept between builds, or null if they're not to be kept.
+   * @param enunciate The enunciate mechanism.
+   */
+  public LibraryClassifier(File cacheFile, Enunciate enunciate) {
+    this.cacheFile = cacheFile;
+    this.enunciate = enunciate;
+    if (cacheFile != null && cacheFile.exists()) {
+      readCache();
+    }
+  }
+
+  /**
+   * Classify the specified library.
+   *
+   * @param library The library (a jar or a directory).
+   * @return The classification.
+   */
+  public Classification classify(File library) throws IOException {
+    library = library.getAbsoluteFile();
+    if (library.isDirectory()) {
+      return classify(listEntries(library), readModuleServices(library));
+    }
+
+    CachedClassification cached = this.cache.get(library.getPath());
+    if (cached != null && cached.length == library.length() && cached.lastModified == library.lastModified()) {
+      this.hits++;
+      return cached.classification;
+    }
+
+    this.misses++;
+    Classification classification = classifyJar(library);
+    this.cache.put(library.getPath(), new CachedClassification(library.length(), library.lastModified(), classification));
+    this.modified = true;
+    return classification;
+  }
+
+  /**
+   * Classify a jar, reading its entry names in a single pass.
+   *
+   * @param jar The jar.
+   * @return The classification.
+   */
+  protected Classification classifyJar(File jar) throws IOException {
+    ZipFile zipFile;
+    try {
+      zipFile = new ZipFile(jar);
+    }
+    catch (IOException e) {
+      this.enunciate.debug("Unable to read %s as a jar: %s.", jar, e.getMessage());
+      return Classification.UNKNOWN;
+    }
+
+    try {
+      Set<String> entries = new HashSet<String>();
+      String moduleServices = null;
+      Enumeration<? extends ZipEntry> zipEntries = zipFile.entries();
+      while (zipEntries.hasMoreElements()) {
+        ZipEntry zipEntry = zipEntries.nextElement();
+        entries.add(zipEntry.getName());
+        if (MODULE_SERVICES_PATH.equals(zipEntry.getName())) {
+          moduleServices = read(zipFile.getInputStream(zipEntry));
+        }
+      }
+      return classify(entries, moduleServices);
+    }
+    finally {
+      zipFile.close();
+    }
+  }
+
+  /**
+   * Classify a library by its entries.
+   *
+   * @param entries        The paths of the entries of the library.
+   * @param moduleServices The content of the deployment module services file of the library, or null if there is none.
+   * @return The classification.
+   */
+  protected Classification classify(Set<String> entries, String moduleServices) {
+    for (Classification classification : Classification.values()) {
+      if (classification.getProbe() != null && entries.contains(classification.getProbe())) {
+        return classification;
+      }
+    }
+
+    if (moduleServices != null) {
+      //the same as a service loader would do: any line that isn't a comment names a provider.
+      for (String line : moduleServices.split("[\r\n]+")) {
+        int comment = line.indexOf('#');
+        if (comment >= 0) {
+          line = line.substring(0, comment);
+        }
+        if (line.trim().length() > 0) {
+          return Classification.DEPLOYMENT_MODULE;
+        }
+      }
+    }
+
+    return Classification.UNKNOWN;
+  }
+
+  private Set<String> listEntries(File dir) {
+    Set<String> entries = new HashSet<String>();
+    for (Classification classification : Classification.values()) {
+      if (classification.getProbe() != null && new File(dir, classification.getProbe()).exists()) {
+        entries.add(classification.getProbe());
+      }
+    }
+    return entries;
+  }
+
+  private String readModuleServices(File dir) throws IOException {
+    File servicesFile = new File(dir, MODULE_SERVICES_PATH);
+    return servicesFile.exists() ? read(new FileInputStream(servicesFile)) : null;
+  }
+
+  private String read(InputStream in) throws IOException {
+    try {
+      Reader reader = new InputStreamReader(in, "utf-8");
+      StringBuilder content = new StringBuilder();
+      char[] buffer = new char[512];
+      int len;
+      while ((len = reader.read(buffer)) > 0) {
+        content.append(buffer, 0, len);
+      }
+      return content.toString();
+    }
+    finally {
+      in.close();
+    }
+  }
+
+  private void readCache() {
+    try {
+      BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(this.cacheFile), "utf-8"));
+      try {
+        String line = reader.readLine();
+        while (line != null) {
+          String[] fields = line.split("\t");
+          if (fields.length == 4) {
+            try {
+              this.cache.put(fields[0], new CachedClassification(Long.parseLong(fields[1]), Long.parseLong(fields[2]), Classification.valueOf(fields[3])));
+            }
+            catch (IllegalArgumentException e) {
+              //fall through; the library will be classified again.
+            }
+          }
+          line = reader.readLine();
+        }
+      }
+      finally {
+        reader.close();
+      }
+    }
+    catch (IOException e) {
+      this.enunciate.debug("Unable to read library classifications %s: %s.", this.cacheFile, e.getMessage());
+      this.cache.clear();
+    }
+  }
+
+  /**
+   * Save the classifications to the cache file, if there is one and any library was (re-)classified.
+   */
+  public void save() throws IOException {
+    if (this.cacheFile == null || !this.modified) {
+      return;
+    }
+
+    this.cacheFile.getParentFile().mkdirs();
+    //write to a temp file first so that a partially-written cache is never read.
+    File tmpCacheFile = new File(this.cacheFile.getParentFile(), this.cacheFile.getName() + ".tmp");
+    PrintWriter writer = new PrintWriter(new OutputStreamWriter(new FileOutputStream(tmpCacheFile), "utf-8"));
+    for (Map.Entry<String, CachedClassification> entry : this.cache.entrySet()) {
+      CachedClassification cached = entry.getValue();
+      writer.print(entry.getKey());
+      writer.print('\t');
+      writer.print(cached.length);
+      writer.print('\t');
+      writer.print(cached.lastModified);
+      writer.print('\t');
+      writer.println(cached.classification.name());
+    }
+    writer.close();
+    this.cacheFile.delete();
+    if (writer.checkError() || !tmpCacheFile.renameTo(this.cacheFile)) {
+      throw new IOException("Unable to write library classifications to " + this.cacheFile);
+    }
+    this.modified = false;
+  }
+
+  /**
+   * The number of jars whose classification was found in the cache.
+   *
+   * @return The number of jars whose classification was found in the cache.
+   */
+  public int getHitCount() {
+    return hits;
+  }
+
+  /**
+   * The number of jars that had to be (re-)classified.
+   *
+   * @return The number of jars that had to be (re-)classified.
+   */
+  public int getMissCount() {
+    return misses;
+  }
+
+  private static String classPath(Class<?> clazz) {
+    return clazz.getName().replace('.', '/').concat(".class");
+  }
+
+  private static class CachedClassification {
+
+    private final long length;
+    private final long lastModified;
+    private final Classification classification;
+
+    private CachedClassification(long length, long lastModified, Classification classification) {
+      this.length = length;
+      this.lastModified = lastModified;
+      this.classification = classification;
+    }
+  }
+}
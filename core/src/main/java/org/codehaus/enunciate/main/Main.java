@@ -108,6 +108,7 @@ public class Main {
     packageDir("p", "dir", "The output directory for the \"package\" step."),
     classpath("cp", "path", "The classpath to use (defaults to the system classpath)."),
     target("t", "target", "The target step (defaults to \"package\"). Possible values: \"generate\", \"compile\", \"build\", \"package\"."),
+    moduleThreads("T", "count", "The number of threads used to invoke the modules (defaults to 1)."),
     export("E[artifactId]", "file or dir", "The file (or directory) to which to export the artifact identified by [artifactId]");
 
     private final String id;
@@ -288,6 +289,15 @@ public class Main {
           }
           return true;
 
+        case moduleThreads:
+          try {
+            enunciate.setModuleThreads(Integer.parseInt(value));
+          }
+          catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Illegal number of module threads: " + value);
+          }
+          return true;
+
         case export:
           if (!option.startsWith("E")) {
             return false;
@@ -40,7 +40,7 @@ public class PackageInfoClasspathHandler implements ClasspathHandler {
 
     //we're only going to notice the packages packed up in jars. This is to avoid duplicate package-info.java files. Someday, we may need
     //to revisit this.
-    if (resource instanceof JarClasspathResource) {
+    if (resource instanceof JarClasspathResource || resource instanceof IndexedClasspathResource) {
       if (path.endsWith("package-info.class")) {
         //APT has a bug where it won't find the package-info file unless it's on the source path. So we have to generate
         //the source from bytecode.
@@ -59,6 +59,10 @@ public class PackageInfoClasspathHandler implements ClasspathHandler {
           }
         }
       }
+      else if (path.endsWith("package-info.java") && resource instanceof IndexedClasspathResource && ((IndexedClasspathResource) resource).getFile() != null) {
+        //the classpath index already has an extracted copy of the source.
+        packageInfoSources.put(path, ((IndexedClasspathResource) resource).getFile());
+      }
       else if (path.endsWith("package-info.java")) {
         File sourceFile = new File(tempSourcesDir, path);
         enunciate.debug("Noticed the source for %s, extracting to %s.", path, sourceFile);
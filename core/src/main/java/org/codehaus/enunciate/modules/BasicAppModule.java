@@ -28,6 +28,7 @@ import org.codehaus.enunciate.config.war.WebAppResource;
 import org.codehaus.enunciate.contract.validation.Validator;
 import org.codehaus.enunciate.main.Enunciate;
 import org.codehaus.enunciate.main.FileArtifact;
+import org.codehaus.enunciate.main.LibraryClassifier;
 import org.codehaus.enunciate.main.webapp.BaseWebAppFragment;
 import org.codehaus.enunciate.main.webapp.FilterComponent;
 import org.codehaus.enunciate.main.webapp.WebAppComponent;
@@ -49,7 +50,6 @@ import javax.xml.transform.stream.StreamResult;
 import javax.xml.transform.stream.StreamSource;
 import java.io.*;
 import java.net.URL;
-import java.net.URLClassLoader;
 import java.util.*;
 import java.util.jar.Manifest;
 
@@ -108,6 +108,8 @@ import java.util.jar.Manifest;
  */
 public class BasicAppModule extends FreemarkerDeploymentModule {
 
+  private LibraryClassifier libraryClassifier;
+
   /**
    * @return "basic-app"
    */
@@ -558,6 +560,10 @@ public class BasicAppModule extends FreemarkerDeploymentModule {
       }
     }
 
+    if (this.libraryClassifier != null) {
+      this.libraryClassifier.save();
+    }
+
     //now add the lib files that are explicitly included.
     includedLibs.addAll(explicitIncludes);
 
@@ -568,8 +574,15 @@ public class BasicAppModule extends FreemarkerDeploymentModule {
         enunciate.copyDir(includedLib, webinfClasses);
       }
       else {
-        debug("Including %s in WEB-INF/lib.", includedLib);
-        enunciate.copyFile(includedLib, includedLib.getParentFile(), webinfLib);
+        File webinfLibFile = new File(webinfLib, includedLib.getName());
+        //compare content, not timestamps: a different library can have the same name and size.
+        if (webinfLibFile.exists() && webinfLibFile.length() == includedLib.length() && enunciate.getCrc(webinfLibFile) == enunciate.getCrc(includedLib)) {
+          debug("%s is already in WEB-INF/lib.", includedLib);
+        }
+        else {
+          debug("Including %s in WEB-INF/lib.", includedLib);
+          enunciate.copyFile(includedLib, includedLib.getParentFile(), webinfLib);
+        }
       }
     }
 
@@ -649,96 +662,19 @@ public class BasicAppModule extends FreemarkerDeploymentModule {
    * @return Whether to exclude a file from copying to the lib directory.
    */
   protected boolean knownExclude(File file) throws IOException {
-    //instantiate a loader with this library only in its path...
-    URLClassLoader loader = new URLClassLoader(new URL[]{file.toURL()}, null);
-    if (loader.findResource("META-INF/enunciate/preserve-in-war") != null) {
+    if (this.libraryClassifier == null) {
+      File indexDir = getEnunciate().getClasspathIndexDir();
+      this.libraryClassifier = new LibraryClassifier(indexDir == null ? null : new File(indexDir, "library-classifications"), getEnunciate());
+    }
+
+    LibraryClassifier.Classification classification = this.libraryClassifier.classify(file);
+    if (classification == LibraryClassifier.Classification.PRESERVED) {
       debug("%s is a known include because it contains the entry META-INF/enunciate/preserve-in-war.", file);
       //if a jar happens to have the enunciate "preserve-in-war" file, it is NOT excluded.
       return false;
     }
-    else if (loader.findResource(com.sun.tools.apt.Main.class.getName().replace('.', '/').concat(".class")) != null) {
-      debug("%s is a known exclude because it appears to be tools.jar.", file);
-      //exclude tools.jar.
-      return true;
-    }
-    else if (loader.findResource(net.sf.jelly.apt.Context.class.getName().replace('.', '/').concat(".class")) != null) {
-      debug("%s is a known exclude because it appears to be apt-jelly.", file);
-      //exclude apt-jelly-core.jar
-      return true;
-    }
-    else if (loader.findResource(net.sf.jelly.apt.freemarker.FreemarkerModel.class.getName().replace('.', '/').concat(".class")) != null) {
-      debug("%s is a known exclude because it appears to be the apt-jelly-freemarker libs.", file);
-      //exclude apt-jelly-freemarker.jar
-      return true;
-    }
-    else if (loader.findResource(freemarker.template.Configuration.class.getName().replace('.', '/').concat(".class")) != null) {
-      debug("%s is a known exclude because it appears to be the freemarker libs.", file);
-      //exclude freemarker.jar
-      return true;
-    }
-    else if (loader.findResource(Enunciate.class.getName().replace('.', '/').concat(".class")) != null) {
-      debug("%s is a known exclude because it appears to be the enunciate core jar.", file);
-      //exclude enunciate-core.jar
-      return true;
-    }
-    else if (loader.findResource("javax/servlet/ServletContext.class") != null) {
-      debug("%s is a known exclude because it appears to be the servlet api.", file);
-      //exclude the servlet api.
-      return true;
-    }
-    else if (loader.findResource("org/codehaus/enunciate/modules/xfire_client/EnunciatedClientSoapSerializerHandler.class") != null) {
-      debug("%s is a known exclude because it appears to be the enunciated xfire client tools jar.", file);
-      //exclude xfire-client-tools
-      return true;
-    }
-    else if (loader.findResource("javax/swing/SwingBeanInfoBase.class") != null) {
-      debug("%s is a known exclude because it appears to be dt.jar.", file);
-      //exclude dt.jar
-      return true;
-    }
-    else if (loader.findResource("HTMLConverter.class") != null) {
-      debug("%s is a known exclude because it appears to be htmlconverter.jar.", file);
-      return true;
-    }
-    else if (loader.findResource("sun/tools/jconsole/JConsole.class") != null) {
-      debug("%s is a known exclude because it appears to be jconsole.jar.", file);
-      return true;
-    }
-    else if (loader.findResource("sun/jvm/hotspot/debugger/Debugger.class") != null) {
-      debug("%s is a known exclude because it appears to be sa-jdi.jar.", file);
-      return true;
-    }
-    else if (loader.findResource("sun/io/ByteToCharDoubleByte.class") != null) {
-      debug("%s is a known exclude because it appears to be charsets.jar.", file);
-      return true;
-    }
-    else if (loader.findResource("com/sun/deploy/ClientContainer.class") != null) {
-      debug("%s is a known exclude because it appears to be deploy.jar.", file);
-      return true;
-    }
-    else if (loader.findResource("com/sun/javaws/Globals.class") != null) {
-      debug("%s is a known exclude because it appears to be javaws.jar.", file);
-      return true;
-    }
-    else if (loader.findResource("javax/crypto/SecretKey.class") != null) {
-      debug("%s is a known exclude because it appears to be jce.jar.", file);
-      return true;
-    }
-    else if (loader.findResource("sun/net/www/protocol/https/HttpsClient.class") != null) {
-      debug("%s is a known exclude because it appears to be jsse.jar.", file);
-      return true;
-    }
-    else if (loader.findResource("sun/plugin/JavaRunTime.class") != null) {
-      debug("%s is a known exclude because it appears to be plugin.jar.", file);
-      return true;
-    }
-    else if (loader.findResource("com/sun/corba/se/impl/activation/ServerMain.class") != null) {
-      debug("%s is a known exclude because it appears to be rt.jar.", file);
-      return true;
-    }
-    else if (ServiceLoader.load(DeploymentModule.class, loader).iterator().hasNext()) {
-      debug("%s is a known exclude because it appears to be an enunciate module.", file);
-      //exclude by default any deployment module libraries.
+    else if (classification.isKnownExclude()) {
+      debug("%s is a known exclude because it appears to be %s.", file, classification.getDescription());
       return true;
     }
 
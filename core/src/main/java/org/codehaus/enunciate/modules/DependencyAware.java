@@ -0,0 +1,41 @@
+/*
+ * Copyright 2006-2008 Web Cohesion
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.codehaus.enunciate.modules;
+
+import java.util.Set;
+
+/**
+ * Interface for a deployment module that declares which other modules it depends on. By default, each module
+ * step is assumed to depend on the outputs of every module ordered before it. A module that implements this
+ * interface declares that it only depends on the named modules, so the Enunciate mechanism may invoke its steps
+ * concurrently with the steps of any other module (see {@link org.codehaus.enunciate.main.Enunciate#setModuleThreads(int)}).
+ * Because its compile, build and package steps may run concurrently, such a module must hold the
+ * {@link org.codehaus.enunciate.main.Enunciate#getModelLock() model lock} whenever it reads the model in those steps.
+ *
+ * @author Ryan Heaton
+ */
+public interface DependencyAware {
+
+  /**
+   * The names (or aliases) of the modules whose outputs this module depends on. Dependencies on modules that are
+   * disabled or that are ordered after this module are ignored.
+   *
+   * @return The names of the modules this module depends on (an empty set if none).
+   */
+  Set<String> getModuleDependencies();
+
+}
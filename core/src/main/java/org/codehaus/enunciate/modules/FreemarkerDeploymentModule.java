@@ -22,14 +22,19 @@ import freemarker.core.Environment;
 import org.codehaus.enunciate.EnunciateException;
 import org.codehaus.enunciate.apt.EnunciateFreemarkerModel;
 import org.codehaus.enunciate.apt.EnunciateModelAware;
+import org.codehaus.enunciate.main.Enunciate;
 import net.sf.jelly.apt.freemarker.FreemarkerModel;
 
-import java.io.IOException;
-import java.io.OutputStreamWriter;
-import java.io.PrintStream;
-import java.io.Writer;
+import java.io.*;
+import java.lang.reflect.Method;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
 
 /**
  * Basic module that processes a freemarker template when generating, handling the TemplateException that occurs.
@@ -37,8 +42,21 @@ import java.net.URL;
  * @author Ryan Heaton
  */
 public abstract class FreemarkerDeploymentModule extends BasicDeploymentModule implements EnunciateModelAware {
-  
+
+  private static final TemplateExceptionHandler TEMPLATE_EXCEPTION_HANDLER = new TemplateExceptionHandler() {
+    public void handleTemplateException(TemplateException templateException, Environment environment, Writer writer) throws TemplateException {
+      templateException.printStackTrace(System.err);
+      throw templateException;
+    }
+  };
+  private static final SharedTemplateLoader TEMPLATE_LOADER = new SharedTemplateLoader();
+  private static final ConcurrentMap<Class, Configuration> CONFIGURATIONS = new ConcurrentHashMap<Class, Configuration>();
+  private static final ObjectWrapper SHARED_OBJECT_WRAPPER = new DefaultObjectWrapper();
+  private static final AtomicInteger TEMPLATE_PARSE_COUNT = new AtomicInteger();
+  private static final AtomicLong TEMPLATE_PARSE_TIME = new AtomicLong();
+
   private EnunciateFreemarkerModel model = null;
+  private ObjectWrapper objectWrapper = null;
 
   /**
    * Processes the template.  Declared final because we don't ever want to do more than process
@@ -80,8 +98,15 @@ public abstract class FreemarkerDeploymentModule extends BasicDeploymentModule i
   public void processTemplate(URL templateURL, Object model, PrintStream out) throws IOException, TemplateException {
     debug("Processing template %s.", templateURL);
     Configuration configuration = getConfiguration();
-    configuration.setDefaultEncoding("UTF-8");
+    TEMPLATE_LOADER.loaded.set(Boolean.FALSE);
+    long start = System.currentTimeMillis();
     Template template = configuration.getTemplate(templateURL.toString());
+    if (TEMPLATE_LOADER.loaded.get()) {
+      long time = System.currentTimeMillis() - start;
+      int parseCount = TEMPLATE_PARSE_COUNT.incrementAndGet();
+      long parseTime = TEMPLATE_PARSE_TIME.addAndGet(time);
+      debug("Parsed template %s in %s ms (%s templates parsed in %s ms so far).", templateURL, time, parseCount, parseTime);
+    }
     processTemplate(template, model, out);
   }
 
@@ -106,6 +131,114 @@ public abstract class FreemarkerDeploymentModule extends BasicDeploymentModule i
     template.process(model, new OutputStreamWriter(out));
   }
 
+  /**
+   * Compiles the specified generated java source files, unless the compile directory already holds the classes of the
+   * last successful compile of exactly these source files and every one of them was generated unchanged by a template
+   * in this build. If any source file changed, all of them are compiled: a change can affect the classes of source files
+   * that didn't change (inherited members, inlined constants, signatures used through other types), and those
+   * dependencies can't be told from the source text.<br/><br/>
+   *
+   * The content of the source files of each successful compile is recorded next to the compile directory, and the
+   * record is removed before each compile, so after a failed compile everything is compiled again.
+   *
+   * @param classpath      The classpath.
+   * @param sourceVersion  The source version.
+   * @param targetVersion  The target version.
+   * @param compileDir     The compile directory.
+   * @param additionalArgs Any additional arguments to the compiler.
+   * @param sourceFiles    The source files.
+   */
+  protected void invokeJavacIncrementally(String classpath, String sourceVersion, String targetVersion, File compileDir, List<String> additionalArgs, Collection<String> sourceFiles) throws EnunciateException, IOException {
+    EnunciateFreemarkerModel model = getModelInternal();
+    String[] compileDirContents = compileDir.list();
+    File compileRecord = new File(compileDir.getAbsoluteFile().getParentFile(), compileDir.getName() + ".compiled");
+    Map<String, Long> compiled = readCompileRecord(compileRecord);
+    boolean unchanged = model != null && compileDirContents != null && compileDirContents.length > 0 && compiled.size() == sourceFiles.size();
+    Iterator<String> sourceFileIt = sourceFiles.iterator();
+    while (unchanged && sourceFileIt.hasNext()) {
+      File file = new File(sourceFileIt.next()).getAbsoluteFile();
+      unchanged = model.isUnchangedGeneratedFile(file) && Long.valueOf(checksum(file)).equals(compiled.get(file.getPath()));
+    }
+
+    if (unchanged) {
+      info("Not compiling the generated source files for %s: they're unchanged.", compileDir);
+      return;
+    }
+
+    compileRecord.delete();
+    getEnunciate().invokeJavac(classpath, sourceVersion, targetVersion, compileDir, additionalArgs, sourceFiles.toArray(new String[sourceFiles.size()]));
+    writeCompileRecord(compileRecord, sourceFiles);
+  }
+
+  /**
+   * Reads the record of the source files of the last successful compile.
+   *
+   * @param compileRecord The record.
+   * @return The checksums of the content of the compiled source files, by absolute path (empty if there's no record).
+   */
+  private Map<String, Long> readCompileRecord(File compileRecord) throws IOException {
+    Map<String, Long> compiled = new HashMap<String, Long>();
+    if (compileRecord.exists()) {
+      BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(compileRecord), "utf-8"));
+      try {
+        String line = reader.readLine();
+        while (line != null) {
+          int tab = line.indexOf('\t');
+          if (tab > 0) {
+            try {
+              compiled.put(line.substring(tab + 1), Long.parseLong(line.substring(0, tab)));
+            }
+            catch (NumberFormatException e) {
+              //fall through; the source file will be compiled again.
+            }
+          }
+          line = reader.readLine();
+        }
+      }
+      finally {
+        reader.close();
+      }
+    }
+    return compiled;
+  }
+
+  /**
+   * Records the content of the source files of a successful compile.
+   *
+   * @param compileRecord The record.
+   * @param sourceFiles   The source files.
+   */
+  private void writeCompileRecord(File compileRecord, Collection<String> sourceFiles) throws IOException {
+    PrintWriter writer = new PrintWriter(new OutputStreamWriter(new FileOutputStream(compileRecord), "utf-8"));
+    try {
+      for (String sourceFile : sourceFiles) {
+        File file = new File(sourceFile).getAbsoluteFile();
+        writer.print(checksum(file));
+        writer.print('\t');
+        writer.println(file.getPath());
+      }
+    }
+    finally {
+      writer.close();
+    }
+  }
+
+  private static long checksum(File file) throws IOException {
+    CRC32 crc = new CRC32();
+    InputStream in = new FileInputStream(file);
+    try {
+      byte[] buffer = new byte[8 * 1024];
+      int len;
+      while ((len = in.read(buffer)) > 0) {
+        crc.update(buffer, 0, len);
+      }
+    }
+    finally {
+      in.close();
+    }
+    return crc.getValue();
+  }
+
   /**
    * Gets the model for processing.
    *
@@ -118,7 +251,11 @@ public abstract class FreemarkerDeploymentModule extends BasicDeploymentModule i
       throw new IllegalStateException("A model must be established.");
     }
 
-    model.setObjectWrapper(getObjectWrapper());
+    if (this.objectWrapper == null) {
+      //keep the wrapper so its introspection cache is kept for all the templates processed by this module.
+      this.objectWrapper = getObjectWrapper();
+    }
+    model.setObjectWrapper(this.objectWrapper);
     model.setFileOutputDirectory(getGenerateDir());
     return model;
   }
@@ -128,58 +265,127 @@ public abstract class FreemarkerDeploymentModule extends BasicDeploymentModule i
   }
 
   /**
-   * The object wrapper to use for the model.
+   * The lock to hold while reading the model outside of the generate step. The compile, build and package steps of
+   * {@link DependencyAware} modules may be invoked concurrently, and the declarations of the model aren't safe for
+   * concurrent access.
+   *
+   * @return The lock to hold while reading the model.
+   * @see Enunciate#getModelLock()
+   */
+  protected Object getModelLock() {
+    Enunciate enunciate = getEnunciate();
+    return enunciate != null ? enunciate.getModelLock() : FreemarkerDeploymentModule.class;
+  }
+
+  /**
+   * The object wrapper to use for the model. The default wrapper is shared by all the modules. The wrapper is asked for
+   * only once per module.
    *
    * @return The object wrapper to use for the model.
    */
   protected ObjectWrapper getObjectWrapper() {
-    return new DefaultObjectWrapper();
+    return SHARED_OBJECT_WRAPPER;
   }
 
   /**
-   * Get the freemarker configuration.
+   * Get the freemarker configuration. The configuration is shared by all the modules that don't override
+   * {@link #getTemplateLoader()} or {@link #getTemplateExceptionHandler()}, so the templates are cached by their URL and
+   * each template is only parsed once. A module class that overrides either of them gets its own configuration, built once
+   * from its template loader and exception handler and shared by all the instances of that class. Modules add their own
+   * shared variables and directives to the model rather than to the configuration, so the configuration is not to be modified.
    *
    * @return the freemarker configuration.
    */
   protected Configuration getConfiguration() {
-    Configuration configuration = new Configuration();
-    configuration.setTemplateLoader(getTemplateLoader());
-    configuration.setTemplateExceptionHandler(getTemplateExceptionHandler());
-    configuration.setLocalizedLookup(false);
+    Class key = overridesTemplateHooks(getClass()) ? getClass() : FreemarkerDeploymentModule.class;
+    Configuration configuration = CONFIGURATIONS.get(key);
+    if (configuration == null) {
+      configuration = new Configuration();
+      configuration.setTemplateLoader(getTemplateLoader());
+      configuration.setTemplateExceptionHandler(getTemplateExceptionHandler());
+      configuration.setLocalizedLookup(false);
+      configuration.setDefaultEncoding("UTF-8");
+      Configuration existing = CONFIGURATIONS.putIfAbsent(key, configuration);
+      if (existing != null) {
+        configuration = existing;
+      }
+    }
     return configuration;
   }
 
+  /**
+   * Whether the specified module class overrides the template loader or the template exception handler.
+   *
+   * @param moduleClass The module class.
+   * @return Whether the module class overrides the template loader or the template exception handler.
+   */
+  private static boolean overridesTemplateHooks(Class moduleClass) {
+    for (Class clazz = moduleClass; clazz != null && clazz != FreemarkerDeploymentModule.class; clazz = clazz.getSuperclass()) {
+      for (Method method : clazz.getDeclaredMethods()) {
+        if (method.getParameterTypes().length == 0 && ("getTemplateLoader".equals(method.getName()) || "getTemplateExceptionHandler".equals(method.getName()))) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
   /**
    * Get the template exception handler.  The default one prints the stack trace to <code>System.err</code>
-   * rather than the writer because often Freemarker is printing to temp files.
+   * rather than the writer because often Freemarker is printing to temp files. Asked for only once per module class
+   * (see {@link #getConfiguration()}).
    *
    * @return The template exception handler.
    */
   protected TemplateExceptionHandler getTemplateExceptionHandler() {
-    return new TemplateExceptionHandler() {
-      public void handleTemplateException(TemplateException templateException, Environment environment, Writer writer) throws TemplateException {
-        templateException.printStackTrace(System.err);
-        throw templateException;
-      }
-    };
+    return TEMPLATE_EXCEPTION_HANDLER;
   }
 
   /**
-   * Get the template loader for the freemarker configuration.
+   * Get the template loader for the freemarker configuration. Asked for only once per module class (see
+   * {@link #getConfiguration()}). Only the templates loaded by the default loader are counted as parsed.
    *
    * @return the template loader for the freemarker configuration.
    */
   protected URLTemplateLoader getTemplateLoader() {
-    return new URLTemplateLoader() {
-      protected URL getURL(String name) {
-        try {
-          return new URL(name);
-        }
-        catch (MalformedURLException e) {
-          return null;
-        }
+    return TEMPLATE_LOADER;
+  }
+
+  /**
+   * The number of templates that were parsed by all the modules.
+   *
+   * @return The number of templates that were parsed by all the modules.
+   */
+  public static int getTemplateParseCount() {
+    return TEMPLATE_PARSE_COUNT.get();
+  }
+
+  /**
+   * Template loader that loads templates by their URL, noting when a template is (re)loaded by the current thread.
+   */
+  private static class SharedTemplateLoader extends URLTemplateLoader {
+
+    private final ThreadLocal<Boolean> loaded = new ThreadLocal<Boolean>() {
+      @Override
+      protected Boolean initialValue() {
+        return Boolean.FALSE;
       }
     };
+
+    protected URL getURL(String name) {
+      try {
+        return new URL(name);
+      }
+      catch (MalformedURLException e) {
+        return null;
+      }
+    }
+
+    @Override
+    public Reader getReader(Object templateSource, String encoding) throws IOException {
+      this.loaded.set(Boolean.TRUE);
+      return super.getReader(templateSource, encoding);
+    }
   }
 
   @Override
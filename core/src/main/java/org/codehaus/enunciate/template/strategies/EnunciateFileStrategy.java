@@ -16,15 +16,17 @@
 
 package org.codehaus.enunciate.template.strategies;
 
+import net.sf.jelly.apt.freemarker.FreemarkerModel;
 import net.sf.jelly.apt.strategies.FileStrategy;
 import net.sf.jelly.apt.strategies.MissingParameterException;
+import org.codehaus.enunciate.apt.EnunciateFreemarkerModel;
 
 import java.io.File;
 import java.io.IOException;
 import java.io.PrintWriter;
 
 /**
- * A file strategy that takes into account a base directory.
+ * A file strategy that takes into account a base directory. Files are only written if their content changed.
  *
  * @author Ryan Heaton
  */
@@ -53,13 +55,8 @@ public class EnunciateFileStrategy extends FileStrategy {
       }
       dir.mkdirs();
 
-      String charset = getCharset();
-      if (charset != null) {
-        return new PrintWriter(new File(dir, getName()), charset);
-      }
-      else {
-        return new PrintWriter(new File(dir, getName()));
-      }
+      EnunciateFreemarkerModel model = FreemarkerModel.get() instanceof EnunciateFreemarkerModel ? (EnunciateFreemarkerModel) FreemarkerModel.get() : null;
+      return new PrintWriter(new GeneratedFileWriter(new File(dir, getName()), getCharset(), model));
     }
   }
 }
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2006-2008 Web Cohesion
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.codehaus.enunciate.template.strategies;
+
+import org.codehaus.enunciate.apt.EnunciateFreemarkerModel;
+
+import java.io.*;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+/**
+ * Writer for a file generated by a template. The content is buffered and the file is only written if the content
+ * changed, so that a file that's generated the same way it was before can be recognized as unchanged (e.g. so it
+ * doesn't have to be compiled again). An unchanged file is touched so it's still seen as up-to-date by timestamp.
+ *
+ * @author Ryan Heaton
+ */
+public class GeneratedFileWriter extends Writer {
+
+  private final File file;
+  private final Charset charset;
+  private final EnunciateFreemarkerModel model;
+  private final StringBuilder buffer = new StringBuilder();
+  private boolean changed = false;
+  private boolean compared = false;
+  private boolean closed = false;
+
+  /**
+   * @param file    The file to write.
+   * @param charset The charset, or null for the default charset.
+   * @param model   The model to record the generated file to (may be null).
+   */
+  public GeneratedFileWriter(File file, String charset, EnunciateFreemarkerModel model) {
+    this.file = file;
+    this.charset = charset == null ? Charset.defaultCharset() : Charset.forName(charset);
+    this.model = model;
+  }
+
+  @Override
+  public void write(char[] chars, int off, int len) throws IOException {
+    if (this.closed) {
+      throw new IOException("Writer for " + this.file + " is closed.");
+    }
+    this.buffer.append(chars, off, len);
+    this.compared = false;
+  }
+
+  /**
+   * Writes the content to the file if it changed.
+   */
+  @Override
+  public void flush() throws IOException {
+    if (this.compared) {
+      return;
+    }
+
+    byte[] content = this.buffer.toString().getBytes(this.charset.name());
+    if (this.changed || !this.file.exists() || this.file.length() != content.length || !Arrays.equals(content, read(this.file))) {
+      FileOutputStream out = new FileOutputStream(this.file);
+      try {
+        out.write(content);
+      }
+      finally {
+        out.close();
+      }
+      this.changed = true;
+    }
+    this.compared = true;
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (this.closed) {
+      return;
+    }
+
+    flush();
+    this.closed = true;
+    if (!this.changed) {
+      this.file.setLastModified(System.currentTimeMillis());
+    }
+
+    if (this.model != null) {
+      this.model.recordGeneratedFile(this.file, this.changed);
+    }
+  }
+
+  private static byte[] read(File file) throws IOException {
+    byte[] bytes = new byte[(int) file.length()];
+    DataInputStream in = new DataInputStream(new FileInputStream(file));
+    try {
+      in.readFully(bytes);
+    }
+    finally {
+      in.close();
+    }
+    return bytes;
+  }
+}
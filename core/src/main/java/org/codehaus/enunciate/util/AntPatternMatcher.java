@@ -70,11 +70,32 @@ public class AntPatternMatcher {
       return false;
     }
 
+    return doMatch(tokenize(pattern), pattern.endsWith(this.pathSeparator), tokenize(path), path.endsWith(this.pathSeparator), fullMatch);
+  }
+
+  /**
+   * Split the given path (or pattern) into its elements.
+   *
+   * @param path The path.
+   * @return The elements of the path.
+   */
+  protected String[] tokenize(String path) {
     String pathSeparatorSplitPattern = ".".equals(this.pathSeparator) ? "\\." : this.pathSeparator; //escape the special '.' for regexp splitting.
     pathSeparatorSplitPattern = "\\".equals(pathSeparatorSplitPattern) ? "\\\\" : pathSeparatorSplitPattern; //escape the special '\' for regexp splitting.
-    String[] pattDirs = pattern.split(pathSeparatorSplitPattern);
-    String[] pathDirs = path.split(pathSeparatorSplitPattern);
+    return path.split(pathSeparatorSplitPattern);
+  }
 
+  /**
+   * Match the given (tokenized) path against the given (tokenized) pattern.
+   *
+   * @param pattDirs the elements of the pattern to match against
+   * @param patternEndsWithSeparator whether the pattern ends with the path separator
+   * @param pathDirs the elements of the path to test
+   * @param pathEndsWithSeparator whether the path ends with the path separator
+   * @param fullMatch whether a full pattern match is required
+   * @return whether the path matched
+   */
+  protected boolean doMatch(String[] pattDirs, boolean patternEndsWithSeparator, String[] pathDirs, boolean pathEndsWithSeparator, boolean fullMatch) {
     int pattIdxStart = 0;
     int pattIdxEnd = pattDirs.length - 1;
     int pathIdxStart = 0;
@@ -96,14 +117,13 @@ public class AntPatternMatcher {
     if (pathIdxStart > pathIdxEnd) {
       // Path is exhausted, only match if rest of pattern is * or **'s
       if (pattIdxStart > pattIdxEnd) {
-        return (pattern.endsWith(this.pathSeparator) ?
-            path.endsWith(this.pathSeparator) : !path.endsWith(this.pathSeparator));
+        return (patternEndsWithSeparator ? pathEndsWithSeparator : !pathEndsWithSeparator);
       }
       if (!fullMatch) {
         return true;
       }
       if (pattIdxStart == pattIdxEnd && pattDirs[pattIdxStart].equals("*") &&
-          path.endsWith(this.pathSeparator)) {
+          pathEndsWithSeparator) {
         return true;
       }
       for (int i = pattIdxStart; i <= pattIdxEnd; i++) {
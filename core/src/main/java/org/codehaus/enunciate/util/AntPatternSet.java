@@ -0,0 +1,176 @@
+/*
+ * Copyright 2006-2008 Web Cohesion
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.codehaus.enunciate.util;
+
+import java.util.*;
+
+/**
+ * An ordered set of dot-delimited, ant-style patterns (e.g. the api imports of the configuration) compiled once for
+ * matching against many class names. An entry that isn't a {@link AntPatternMatcher#isPattern(String) pattern} only
+ * matches the class name that equals it. Every pattern is tokenized once, and is indexed by its literal prefix (the
+ * package elements before its first wildcard) so that a class name is only matched against the patterns that could
+ * possibly match it.
+ *
+ * @author Ryan Heaton
+ */
+public class AntPatternSet {
+
+  private final AntPatternMatcher matcher = new AntPatternMatcher();
+  private final Map<String, Integer> literals = new HashMap<String, Integer>();
+  private final PrefixNode root = new PrefixNode('\0');
+  private final String[][] tokenizedPatterns;
+  private final boolean[] startsWithSeparator;
+  private final boolean[] endsWithSeparator;
+
+  /**
+   * Compile the specified patterns. Null patterns never match.
+   *
+   * @param patterns The patterns, in order of precedence.
+   */
+  public AntPatternSet(List<String> patterns) {
+    this.tokenizedPatterns = new String[patterns.size()][];
+    this.startsWithSeparator = new boolean[patterns.size()];
+    this.endsWithSeparator = new boolean[patterns.size()];
+    for (int i = 0; i < patterns.size(); i++) {
+      String pattern = patterns.get(i);
+      if (pattern == null) {
+        continue;
+      }
+
+      if (!this.matcher.isPattern(pattern)) {
+        if (!this.literals.containsKey(pattern)) {
+          this.literals.put(pattern, i);
+        }
+        continue;
+      }
+
+      this.tokenizedPatterns[i] = this.matcher.tokenize(pattern);
+      this.startsWithSeparator[i] = pattern.startsWith(AntPatternMatcher.DEFAULT_PATH_SEPARATOR);
+      this.endsWithSeparator[i] = pattern.endsWith(AntPatternMatcher.DEFAULT_PATH_SEPARATOR);
+
+      //the literal prefix is cut at the last separator before the first wildcard, since '**' may match no elements at all.
+      int firstWildcard = Math.min(pattern.indexOf('*') < 0 ? pattern.length() : pattern.indexOf('*'), pattern.indexOf('?') < 0 ? pattern.length() : pattern.indexOf('?'));
+      int prefixEnd = pattern.lastIndexOf('.', firstWildcard);
+      PrefixNode node = this.root;
+      for (int j = 0; j < prefixEnd; j++) {
+        node = node.getOrAddChild(pattern.charAt(j));
+      }
+      node.patternIndexes.add(i);
+    }
+  }
+
+  /**
+   * The index of the first pattern that matches the specified class name.
+   *
+   * @param className The class name.
+   * @return The index of the first pattern that matches, or -1 if no pattern matches.
+   */
+  public int indexOfFirstMatch(String className) {
+    Integer literalIndex = this.literals.get(className);
+    int firstMatch = literalIndex == null ? -1 : literalIndex;
+
+    String[] tokenizedClassName = null;
+    PrefixNode node = this.root;
+    int i = 0;
+    while (node != null) {
+      for (Integer patternIndex : node.patternIndexes) {
+        if (firstMatch >= 0 && firstMatch < patternIndex) {
+          break;
+        }
+
+        if (this.startsWithSeparator[patternIndex] != className.startsWith(AntPatternMatcher.DEFAULT_PATH_SEPARATOR)) {
+          continue;
+        }
+
+        if (tokenizedClassName == null) {
+          tokenizedClassName = this.matcher.tokenize(className);
+        }
+
+        if (this.matcher.doMatch(this.tokenizedPatterns[patternIndex], this.endsWithSeparator[patternIndex], tokenizedClassName, className.endsWith(AntPatternMatcher.DEFAULT_PATH_SEPARATOR), true)) {
+          firstMatch = patternIndex;
+          break;
+        }
+      }
+
+      node = i < className.length() ? node.getChild(className.charAt(i++)) : null;
+    }
+
+    return firstMatch;
+  }
+
+  /**
+   * Whether any pattern matches the specified class name.
+   *
+   * @param className The class name.
+   * @return Whether any pattern matches the specified class name.
+   */
+  public boolean matches(String className) {
+    return indexOfFirstMatch(className) >= 0;
+  }
+
+  /**
+   * Match the specified class names (e.g. the classes found in a jar) in bulk.
+   *
+   * @param classNames The class names.
+   * @return The class names that match, each mapped to the index of the first pattern it matches.
+   */
+  public Map<String, Integer> match(Collection<String> classNames) {
+    Map<String, Integer> matches = new HashMap<String, Integer>();
+    for (String className : classNames) {
+      int index = indexOfFirstMatch(className);
+      if (index >= 0) {
+        matches.put(className, index);
+      }
+    }
+    return matches;
+  }
+
+  /**
+   * A node of the literal-prefix index.
+   */
+  private static final class PrefixNode {
+
+    private final char c;
+    private PrefixNode[] children = new PrefixNode[0];
+    private final List<Integer> patternIndexes = new ArrayList<Integer>();
+
+    private PrefixNode(char c) {
+      this.c = c;
+    }
+
+    private PrefixNode getChild(char c) {
+      for (PrefixNode child : this.children) {
+        if (child.c == c) {
+          return child;
+        }
+      }
+      return null;
+    }
+
+    private PrefixNode getOrAddChild(char c) {
+      PrefixNode child = getChild(c);
+      if (child == null) {
+        child = new PrefixNode(c);
+        PrefixNode[] children = new PrefixNode[this.children.length + 1];
+        System.arraycopy(this.children, 0, children, 0, this.children.length);
+        children[this.children.length] = child;
+        this.children = children;
+      }
+      return child;
+    }
+  }
+}
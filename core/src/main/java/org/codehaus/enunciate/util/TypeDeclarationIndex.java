@@ -0,0 +1,99 @@
+/*
+ * Copyright 2006-2008 Web Cohesion
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.codehaus.enunciate.util;
+
+import com.sun.mirror.declaration.TypeDeclaration;
+
+import java.util.*;
+
+/**
+ * A list of type declarations, unique by qualified name and sorted by qualified name. The declarations are indexed by
+ * qualified name, so adding a declaration or looking one up doesn't depend on the size of the list. The sorted view is
+ * only (re-)built when the list is read by position (e.g. iterated by a template) after a declaration was added.
+ *
+ * @author Ryan Heaton
+ */
+public class TypeDeclarationIndex<D extends TypeDeclaration> extends AbstractList<D> {
+
+  private static final Comparator<TypeDeclaration> CLASS_COMPARATOR = new TypeDeclarationComparator();
+
+  private final Map<String, D> declarations = new HashMap<String, D>();
+  private volatile List<D> sorted = null;
+
+  /**
+   * Adds a declaration, unless a declaration with the same qualified name has already been added.
+   *
+   * @param declaration The declaration.
+   * @return Whether the declaration was added.
+   */
+  @Override
+  public boolean add(D declaration) {
+    String qualifiedName = declaration.getQualifiedName();
+    if (this.declarations.containsKey(qualifiedName)) {
+      return false;
+    }
+
+    this.declarations.put(qualifiedName, declaration);
+    this.sorted = null;
+    this.modCount++;
+    return true;
+  }
+
+  /**
+   * Find the declaration with the specified qualified name.
+   *
+   * @param qualifiedName The qualified name.
+   * @return The declaration, or null if no declaration with the specified qualified name has been added.
+   */
+  public D find(String qualifiedName) {
+    return this.declarations.get(qualifiedName);
+  }
+
+  /**
+   * Whether a declaration with the specified qualified name has been added.
+   *
+   * @param qualifiedName The qualified name.
+   * @return Whether a declaration with the specified qualified name has been added.
+   */
+  public boolean containsQualifiedName(String qualifiedName) {
+    return this.declarations.containsKey(qualifiedName);
+  }
+
+  @Override
+  public boolean contains(Object o) {
+    if (o instanceof TypeDeclaration) {
+      D declaration = this.declarations.get(((TypeDeclaration) o).getQualifiedName());
+      return declaration != null && declaration.equals(o);
+    }
+    return false;
+  }
+
+  @Override
+  public D get(int index) {
+    if (this.sorted == null) {
+      List<D> sorted = new ArrayList<D>(this.declarations.values());
+      Collections.sort(sorted, CLASS_COMPARATOR);
+      this.sorted = sorted;
+    }
+    return this.sorted.get(index);
+  }
+
+  @Override
+  public int size() {
+    return this.declarations.size();
+  }
+}
@@ -20,9 +20,12 @@ import com.sun.mirror.apt.AnnotationProcessorFactory;
 import com.sun.tools.apt.main.Main;
 import static junit.framework.Assert.fail;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileFilter;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.PrintWriter;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -47,6 +50,46 @@ public class EnunciateTestUtil {
     return outputDir;
   }
 
+  /**
+   * Writes the specified content to a file (UTF-8), creating its parent directories as needed.
+   *
+   * @param file    The file.
+   * @param content The content.
+   * @return The file.
+   */
+  public static File write(File file, String content) throws IOException {
+    file.getParentFile().mkdirs();
+    FileOutputStream out = new FileOutputStream(file);
+    try {
+      out.write(content.getBytes("utf-8"));
+    }
+    finally {
+      out.close();
+    }
+    return file;
+  }
+
+  /**
+   * Reads the content of a stream (UTF-8) and closes it.
+   *
+   * @param in The stream.
+   * @return The content.
+   */
+  public static String read(InputStream in) throws IOException {
+    try {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      byte[] buffer = new byte[1024];
+      int len;
+      while ((len = in.read(buffer)) > 0) {
+        bytes.write(buffer, 0, len);
+      }
+      return bytes.toString("utf-8");
+    }
+    finally {
+      in.close();
+    }
+  }
+
   /**
    * Get a list of all java files in the specified subdirectory.
    *
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2006-2008 Web Cohesion
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.codehaus.enunciate.contract.validation;
+
+import com.sun.mirror.util.SourcePosition;
+import junit.framework.TestCase;
+import org.codehaus.enunciate.apt.EnunciateFreemarkerModel;
+import org.codehaus.enunciate.contract.jaxrs.RootResource;
+
+import java.util.List;
+
+/**
+ * @author Ryan Heaton
+ */
+public class TestValidatorChain extends TestCase {
+
+  /**
+   * tests that the model is walked once for all the validators.
+   */
+  public void testValidate() throws Exception {
+    final int[] rootResourceValidations = new int[1];
+    BaseValidator validator = new BaseValidator() {
+      @Override
+      public ValidationResult validate(EnunciateFreemarkerModel model) {
+        ValidationResult result = super.validate(model);
+        result.addWarning((SourcePosition) null, "model warning");
+        return result;
+      }
+
+      @Override
+      public ValidationResult validateRootResources(List<RootResource> rootResources) {
+        rootResourceValidations[0]++;
+        ValidationResult result = new ValidationResult();
+        result.addError((SourcePosition) null, "root resource error");
+        return result;
+      }
+    };
+
+    Validator otherValidator = new Validator() {
+      public ValidationResult validate(EnunciateFreemarkerModel model) {
+        ValidationResult result = new ValidationResult();
+        result.addError((SourcePosition) null, "other error");
+        return result;
+      }
+    };
+
+    ValidatorChain chain = new ValidatorChain();
+    chain.addValidator("one", validator);
+    chain.addValidator("other", otherValidator);
+    chain.addValidator("two", validator);
+    ValidationResult result = chain.validate(new EnunciateFreemarkerModel());
+    assertEquals("the root resources should be validated once per validator.", 2, rootResourceValidations[0]);
+
+    assertEquals(3, result.getErrors().size());
+    assertEquals("root resource error", result.getErrors().get(0).getText());
+    assertEquals("one", result.getErrors().get(0).getLabel());
+    assertEquals("other error", result.getErrors().get(1).getText());
+    assertEquals("other", result.getErrors().get(1).getLabel());
+    assertEquals("two", result.getErrors().get(2).getLabel());
+    assertEquals(2, result.getWarnings().size());
+    assertEquals("model warning", result.getWarnings().get(0).getText());
+
+    assertEquals(3, chain.getValidationTimes().size());
+    assertTrue(chain.getValidationTimes().containsKey("other"));
+
+    rootResourceValidations[0] = 0;
+    validator.validate(new EnunciateFreemarkerModel());
+    assertEquals("a validator outside the chain should walk the model itself.", 1, rootResourceValidations[0]);
+  }
+
+}
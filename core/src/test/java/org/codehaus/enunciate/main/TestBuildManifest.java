@@ -0,0 +1,101 @@
+package org.codehaus.enunciate.main;
+
+import junit.framework.TestCase;
+
+import java.io.File;
+
+import static org.codehaus.enunciate.EnunciateTestUtil.write;
+
+/**
+ * @author Ryan Heaton
+ */
+public class TestBuildManifest extends TestCase {
+
+  /**
+   * tests the staleness of outputs between builds.
+   */
+  public void testIsStale() throws Exception {
+    File sourceDir = new Enunciate(new String[0]).createTempDir();
+    File source = new File(sourceDir, "SampleClass.java");
+    write(source, "public class SampleClass {}");
+    Enunciate enunciate = new Enunciate(new String[]{source.getAbsolutePath()});
+    File manifestFile = new File(enunciate.createTempDir(), "build-manifest.properties");
+    File genDir = new File(enunciate.createTempDir(), "gen");
+    File jar = new File(enunciate.createTempDir(), "client.jar");
+
+    BuildManifest manifest = new BuildManifest(manifestFile, enunciate);
+    manifest.load();
+    assertTrue("an output that doesn't exist should be stale.", manifest.isStale("module", genDir));
+    write(new File(genDir, "Generated.java"), "generated");
+    assertTrue(manifest.isKnownOutput(genDir));
+    assertTrue(manifest.isStale("module", jar, genDir));
+    write(jar, "jar");
+    manifest.save();
+
+    manifest = new BuildManifest(manifestFile, enunciate);
+    manifest.load();
+    assertFalse(manifest.isStale("module", genDir));
+    assertFalse(manifest.isStale("module", jar, genDir));
+    manifest.save();
+
+    assertTrue(source.setLastModified(source.lastModified() - 10000));
+    manifest = new BuildManifest(manifestFile, enunciate);
+    manifest.load();
+    assertFalse("touching a source without changing it shouldn't make the outputs stale.", manifest.isStale("module", genDir));
+    assertFalse(manifest.isStale("module", jar, genDir));
+    manifest.save();
+
+    write(source, "public class SampleClass { int i; }");
+    manifest = new BuildManifest(manifestFile, enunciate);
+    manifest.load();
+    assertTrue(manifest.isStale("module", genDir));
+    assertTrue("a change should make downstream outputs stale.", manifest.isStale("module", jar, genDir));
+
+    manifest = new BuildManifest(manifestFile, enunciate);
+    manifest.load();
+    assertTrue("fingerprints shouldn't be saved unless the build completes.", manifest.isStale("module", genDir));
+  }
+
+  /**
+   * tests that a change to a classpath entry that keeps its path makes the outputs stale.
+   */
+  public void testClasspathChanges() throws Exception {
+    Enunciate enunciate = new Enunciate(new String[0]);
+    File jar = write(new File(enunciate.createTempDir(), "library.jar"), "version 1");
+    File classesDir = enunciate.createTempDir();
+    write(new File(classesDir, "org/example/Library.class"), "version 1");
+    enunciate.setRuntimeClasspath(jar.getAbsolutePath() + File.pathSeparator + classesDir.getAbsolutePath());
+    File manifestFile = new File(enunciate.createTempDir(), "build-manifest.properties");
+    File genDir = new File(enunciate.createTempDir(), "gen");
+    write(new File(genDir, "Generated.java"), "generated");
+
+    BuildManifest manifest = new BuildManifest(manifestFile, enunciate);
+    manifest.load();
+    assertTrue(manifest.isStale("module", genDir));
+    manifest.save();
+
+    //the same jar content, just touched.
+    write(jar, "version 1");
+    assertTrue(jar.setLastModified(jar.lastModified() - 10000));
+    manifest = new BuildManifest(manifestFile, enunciate);
+    manifest.load();
+    assertFalse(manifest.isStale("module", genDir));
+    manifest.save();
+
+    write(jar, "version 2");
+    manifest = new BuildManifest(manifestFile, enunciate);
+    manifest.load();
+    assertTrue("a changed jar should make the outputs stale.", manifest.isStale("module", genDir));
+    manifest.save();
+
+    manifest = new BuildManifest(manifestFile, enunciate);
+    manifest.load();
+    assertFalse(manifest.isStale("module", genDir));
+    manifest.save();
+
+    write(new File(classesDir, "org/example/Other.class"), "other");
+    manifest = new BuildManifest(manifestFile, enunciate);
+    manifest.load();
+    assertTrue("a changed class directory should make the outputs stale.", manifest.isStale("module", genDir));
+  }
+}
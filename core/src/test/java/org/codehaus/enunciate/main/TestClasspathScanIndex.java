@@ -0,0 +1,113 @@
+package org.codehaus.enunciate.main;
+
+import junit.framework.TestCase;
+import org.codehaus.enunciate.EnunciateTestUtil;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.codehaus.enunciate.EnunciateTestUtil.write;
+
+/**
+ * @author Ryan Heaton
+ */
+public class TestClasspathScanIndex extends TestCase {
+
+  /**
+   * tests indexing a jar.
+   */
+  public void testIndex() throws Exception {
+    Enunciate enunciate = new Enunciate(new String[0]);
+    File dir = enunciate.createTempDir();
+    write(new File(dir, "org/codehaus/enunciate/SampleClass.class"), "bytecode");
+    write(new File(dir, "org/codehaus/enunciate/SampleClass.java"), "source");
+    write(new File(dir, "META-INF/enunciate/api-exports"), "org.codehaus.enunciate.SampleClass");
+    File jar = File.createTempFile("enunciatetest", ".jar");
+    enunciate.zip(jar, dir);
+
+    ClasspathScanIndex index = new ClasspathScanIndex(enunciate.createTempDir(), enunciate);
+    ClasspathScanIndex.Entry entry = index.getEntry(jar);
+    assertEquals(0, index.getHitCount());
+    assertEquals(1, index.getMissCount());
+    assertFalse(entry.isPlatformRuntime());
+    assertResources(entry);
+
+    entry = index.getEntry(jar);
+    assertEquals(1, index.getHitCount());
+    assertEquals(1, index.getMissCount());
+    assertResources(entry);
+
+    assertTrue(jar.setLastModified(jar.lastModified() - 10000));
+    index.getEntry(jar);
+    assertEquals("a modified jar should be re-indexed.", 2, index.getMissCount());
+
+    try {
+      index.getEntry(new File(dir, "org/codehaus/enunciate/SampleClass.java"));
+      fail("should have failed to index a file that isn't a jar.");
+    }
+    catch (IOException e) {
+      //fall through...
+    }
+  }
+
+  /**
+   * tests that an entry whose name resolves outside of the index isn't extracted.
+   */
+  public void testEntryOutsideOfIndex() throws Exception {
+    Enunciate enunciate = new Enunciate(new String[0]);
+    File jar = File.createTempFile("enunciatetest", ".jar");
+    ZipOutputStream out = new ZipOutputStream(new FileOutputStream(jar));
+    out.putNextEntry(new ZipEntry("../../../Evil.java"));
+    out.write("evil".getBytes("utf-8"));
+    out.closeEntry();
+    out.putNextEntry(new ZipEntry("org/codehaus/enunciate/SampleClass.java"));
+    out.write("source".getBytes("utf-8"));
+    out.closeEntry();
+    out.close();
+
+    File tempDir = enunciate.createTempDir();
+    ClasspathScanIndex index = new ClasspathScanIndex(new File(tempDir, "index"), enunciate);
+    ClasspathScanIndex.Entry entry = index.getEntry(jar);
+    assertFalse("an entry was extracted outside of the index.", new File(tempDir, "Evil.java").exists());
+    Map<String, IndexedClasspathResource> resources = new HashMap<String, IndexedClasspathResource>();
+    for (ClasspathResource resource : entry.getResources()) {
+      resources.put(resource.getPath(), (IndexedClasspathResource) resource);
+    }
+    assertNull(resources.get("../../../Evil.java").getFile());
+    assertEquals("evil", read(resources.get("../../../Evil.java")));
+    assertNotNull(resources.get("org/codehaus/enunciate/SampleClass.java").getFile());
+    entry.close();
+  }
+
+  private void assertResources(ClasspathScanIndex.Entry entry) throws IOException {
+    Map<String, IndexedClasspathResource> resources = new HashMap<String, IndexedClasspathResource>();
+    for (ClasspathResource resource : entry.getResources()) {
+      resources.put(resource.getPath(), (IndexedClasspathResource) resource);
+    }
+
+    IndexedClasspathResource classResource = resources.get("org/codehaus/enunciate/SampleClass.class");
+    assertNotNull(classResource);
+    assertNull("class files shouldn't be extracted.", classResource.getFile());
+    assertEquals("bytecode", read(classResource));
+
+    IndexedClasspathResource sourceResource = resources.get("org/codehaus/enunciate/SampleClass.java");
+    assertNotNull(sourceResource);
+    assertNotNull("source files should be extracted.", sourceResource.getFile());
+    assertEquals("source", read(sourceResource));
+
+    IndexedClasspathResource exportsResource = resources.get("META-INF/enunciate/api-exports");
+    assertNotNull(exportsResource);
+    assertNotNull(exportsResource.getFile());
+    assertEquals("org.codehaus.enunciate.SampleClass", read(exportsResource));
+    entry.close();
+  }
+
+  private String read(ClasspathResource resource) throws IOException {
+    return EnunciateTestUtil.read(resource.read());
+  }
+}
@@ -0,0 +1,265 @@
+package org.codehaus.enunciate.main;
+
+import junit.framework.TestCase;
+import org.codehaus.enunciate.EnunciateException;
+import org.codehaus.enunciate.apt.EnunciateFreemarkerModel;
+import org.codehaus.enunciate.config.EnunciateConfiguration;
+import org.codehaus.enunciate.contract.jaxrs.ResourceMethod;
+import org.codehaus.enunciate.modules.BasicDeploymentModule;
+import org.codehaus.enunciate.modules.DependencyAware;
+import org.codehaus.enunciate.modules.DeploymentModule;
+import org.codehaus.enunciate.modules.FreemarkerDeploymentModule;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import static org.codehaus.enunciate.EnunciateTestUtil.read;
+import static org.codehaus.enunciate.EnunciateTestUtil.write;
+
+/**
+ * @author Ryan Heaton
+ */
+public class TestEnunciate extends TestCase {
+
+  /**
+   * tests resolving the module dependencies.
+   */
+  public void testGetModuleDependencies() throws Exception {
+    TestModule one = new TestModule("one", 0);
+    TestModule two = new TestModule("two", 0);
+    TestModule three = new DependentTestModule("three", 0, "one", "four");
+    TestModule four = new TestModule("four", 0);
+    List<DeploymentModule> modules = Arrays.asList((DeploymentModule) one, two, three, four);
+
+    Map<DeploymentModule, Set<DeploymentModule>> dependencies = new Enunciate(new String[0]).getModuleDependencies(modules);
+    assertTrue(dependencies.get(one).isEmpty());
+    assertEquals(new HashSet<DeploymentModule>(Arrays.asList(one)), dependencies.get(two));
+    assertEquals("dependencies on modules ordered later should be ignored.", new HashSet<DeploymentModule>(Arrays.asList(one)), dependencies.get(three));
+    assertEquals(new HashSet<DeploymentModule>(Arrays.asList(one, two, three)), dependencies.get(four));
+  }
+
+  /**
+   * tests stepping modules concurrently.
+   */
+  public void testStepModulesConcurrently() throws Exception {
+    final List<String> completed = Collections.synchronizedList(new ArrayList<String>());
+    TestModule one = new DependentTestModule("one", 0, completed);
+    TestModule two = new DependentTestModule("two", 0, completed);
+    TestModule three = new DependentTestModule("three", 0, completed, "one");
+    TestModule four = new TestModule("four", 1, completed);
+    EnunciateConfiguration config = new EnunciateConfiguration(Arrays.asList((DeploymentModule) one, two, three, four));
+    Enunciate enunciate = new Enunciate(new String[0], config);
+    enunciate.setModuleThreads(4);
+    enunciate.stepModules(Enunciate.Target.COMPILE);
+
+    assertEquals(4, completed.size());
+    assertTrue(completed.indexOf("one") < completed.indexOf("three"));
+    assertEquals("four", completed.get(3));
+  }
+
+  /**
+   * tests that a failed module step fails the step.
+   */
+  public void testStepModulesConcurrentlyFails() throws Exception {
+    TestModule one = new DependentTestModule("one", 0);
+    TestModule two = new DependentTestModule("two", 0) {
+      @Override
+      protected void doCompile() throws EnunciateException, IOException {
+        throw new EnunciateException("failed");
+      }
+    };
+    EnunciateConfiguration config = new EnunciateConfiguration(Arrays.asList((DeploymentModule) one, two));
+    Enunciate enunciate = new Enunciate(new String[0], config);
+    enunciate.setModuleThreads(2);
+    try {
+      enunciate.stepModules(Enunciate.Target.COMPILE);
+      fail();
+    }
+    catch (EnunciateException e) {
+      assertEquals("failed", e.getMessage());
+    }
+  }
+
+  /**
+   * tests that modules stepped concurrently don't read the model concurrently.
+   */
+  public void testStepModulesConcurrentlyLocksModel() throws Exception {
+    final ConcurrencyTrackingModel model = new ConcurrencyTrackingModel();
+    TestModule legacy = new TestModule("legacy", 0) {
+      @Override
+      protected void doCompile() throws EnunciateException, IOException {
+        //a module that isn't dependency-aware doesn't lock the model itself.
+        model.findExampleResourceMethod();
+      }
+    };
+    ModelReadingTestModule one = new ModelReadingTestModule("one");
+    ModelReadingTestModule two = new ModelReadingTestModule("two");
+    EnunciateConfiguration config = new EnunciateConfiguration(Arrays.asList((DeploymentModule) legacy, one, two));
+    Enunciate enunciate = new Enunciate(new String[0], config);
+    for (DeploymentModule module : config.getAllModules()) {
+      module.init(enunciate);
+    }
+    one.initModel(model);
+    two.initModel(model);
+    enunciate.setModuleThreads(3);
+    enunciate.stepModules(Enunciate.Target.COMPILE);
+
+    assertEquals(3, model.reads.get());
+    assertEquals("the model was read concurrently.", 1, model.maxConcurrentReads.get());
+  }
+
+  /**
+   * tests that already-compressed files are stored in a zip rather than deflated again.
+   */
+  public void testZipStoresCompressedFiles() throws Exception {
+    Enunciate enunciate = new Enunciate(new String[0]);
+    File dir = enunciate.createTempDir();
+    File lib = new File(dir, "WEB-INF/lib");
+    lib.mkdirs();
+    File libDir = enunciate.createTempDir();
+    write(new File(libDir, "Library.class"), "library class");
+    enunciate.zip(new File(lib, "library.jar"), libDir);
+    write(new File(dir, "WEB-INF/web.xml"), "<web-app/>");
+
+    File war = new File(enunciate.createTempDir(), "app.war");
+    enunciate.zip(war, dir);
+    ZipFile zip = new ZipFile(war);
+    ZipEntry jarEntry = zip.getEntry("WEB-INF/lib/library.jar");
+    assertEquals(ZipEntry.STORED, jarEntry.getMethod());
+    assertEquals(new File(lib, "library.jar").length(), jarEntry.getSize());
+    ZipEntry webXmlEntry = zip.getEntry("WEB-INF/web.xml");
+    assertEquals(ZipEntry.DEFLATED, webXmlEntry.getMethod());
+    assertEquals("<web-app/>", read(zip.getInputStream(webXmlEntry)));
+    zip.close();
+
+    //the stored jar should still be readable.
+    File extracted = new File(enunciate.createTempDir(), "library.jar");
+    FileOutputStream out = new FileOutputStream(extracted);
+    zip = new ZipFile(war);
+    InputStream in = zip.getInputStream(zip.getEntry("WEB-INF/lib/library.jar"));
+    int b;
+    while ((b = in.read()) >= 0) {
+      out.write(b);
+    }
+    out.close();
+    zip.close();
+    zip = new ZipFile(extracted);
+    assertEquals("library class", read(zip.getInputStream(zip.getEntry("Library.class"))));
+    zip.close();
+  }
+
+  private static class TestModule extends BasicDeploymentModule {
+
+    private final String name;
+    private final int order;
+    private final List<String> completed;
+
+    private TestModule(String name, int order) {
+      this(name, order, new ArrayList<String>());
+    }
+
+    private TestModule(String name, int order, List<String> completed) {
+      this.name = name;
+      this.order = order;
+      this.completed = completed;
+    }
+
+    @Override
+    public String getName() {
+      return name;
+    }
+
+    @Override
+    public int getOrder() {
+      return order;
+    }
+
+    @Override
+    protected void doCompile() throws EnunciateException, IOException {
+      try {
+        Thread.sleep(10);
+      }
+      catch (InterruptedException e) {
+        throw new EnunciateException(e);
+      }
+      completed.add(name);
+    }
+  }
+
+  private static class ModelReadingTestModule extends FreemarkerDeploymentModule implements DependencyAware {
+
+    private final String name;
+
+    private ModelReadingTestModule(String name) {
+      this.name = name;
+    }
+
+    @Override
+    public String getName() {
+      return name;
+    }
+
+    @Override
+    public void doFreemarkerGenerate() {
+    }
+
+    @Override
+    protected void doCompile() throws EnunciateException, IOException {
+      synchronized (getModelLock()) {
+        getModelInternal().findExampleResourceMethod();
+      }
+    }
+
+    public Set<String> getModuleDependencies() {
+      return Collections.emptySet();
+    }
+  }
+
+  private static class ConcurrencyTrackingModel extends EnunciateFreemarkerModel {
+
+    private final AtomicInteger reads = new AtomicInteger();
+    private final AtomicInteger concurrentReads = new AtomicInteger();
+    private final AtomicInteger maxConcurrentReads = new AtomicInteger();
+
+    @Override
+    public ResourceMethod findExampleResourceMethod() {
+      int concurrent = concurrentReads.incrementAndGet();
+      if (concurrent > maxConcurrentReads.get()) {
+        maxConcurrentReads.set(concurrent);
+      }
+      try {
+        Thread.sleep(50);
+      }
+      catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      concurrentReads.decrementAndGet();
+      reads.incrementAndGet();
+      return null;
+    }
+  }
+
+  private static class DependentTestModule extends TestModule implements DependencyAware {
+
+    private final Set<String> dependencies;
+
+    private DependentTestModule(String name, int order, String... dependencies) {
+      this(name, order, new ArrayList<String>(), dependencies);
+    }
+
+    private DependentTestModule(String name, int order, List<String> completed, String... dependencies) {
+      super(name, order, completed);
+      this.dependencies = new TreeSet<String>(Arrays.asList(dependencies));
+    }
+
+    public Set<String> getModuleDependencies() {
+      return dependencies;
+    }
+  }
+}
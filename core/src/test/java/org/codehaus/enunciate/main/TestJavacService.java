@@ -0,0 +1,131 @@
+/*
+ * Copyright 2006-2008 Web Cohesion
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.codehaus.enunciate.main;
+
+import junit.framework.TestCase;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import static org.codehaus.enunciate.EnunciateTestUtil.write;
+
+/**
+ * @author Ryan Heaton
+ */
+public class TestJavacService extends TestCase {
+
+  /**
+   * tests compiling against a jar, then against the classes of a previous compile.
+   */
+  public void testCompile() throws Exception {
+    Enunciate enunciate = new Enunciate(new String[0]);
+    JavacService service = new JavacService(enunciate);
+    if (!service.isAvailable()) {
+      //no system compiler when running on a JRE.
+      return;
+    }
+
+    File libSrcDir = enunciate.createTempDir();
+    File libClassesDir = enunciate.createTempDir();
+    File libSource = write(new File(libSrcDir, "org/example/lib/LibClass.java"), "package org.example.lib; public class LibClass { public static String hello() { return \"hello\"; } }");
+    assertTrue(service.compile(null, libClassesDir, new ArrayList<String>(), Arrays.asList(libSource.getAbsolutePath())));
+    assertTrue(new File(libClassesDir, "org/example/lib/LibClass.class").exists());
+    File libJar = File.createTempFile("enunciatetest", ".jar");
+    enunciate.zip(libJar, libClassesDir);
+
+    File srcDir = enunciate.createTempDir();
+    File compileDir = enunciate.createTempDir();
+    File source1 = write(new File(srcDir, "org/example/One.java"), "package org.example; public class One { String hello = org.example.lib.LibClass.hello(); }");
+    File source2 = write(new File(srcDir, "org/example/Two.java"), "package org.example; public class Two { One one; }");
+    assertTrue(service.compile(libJar.getAbsolutePath(), compileDir, new ArrayList<String>(), Arrays.asList(source1.getAbsolutePath(), source2.getAbsolutePath())));
+    assertTrue(new File(compileDir, "org/example/One.class").exists());
+    assertTrue(new File(compileDir, "org/example/Two.class").exists());
+
+    //recompile only one source, resolving the other from the compile directory.
+    assertTrue(new File(compileDir, "org/example/Two.class").delete());
+    String classpath = compileDir.getAbsolutePath() + File.pathSeparator + libJar.getAbsolutePath();
+    assertTrue(service.compile(classpath, compileDir, new ArrayList<String>(), Arrays.asList(source2.getAbsolutePath())));
+    assertTrue(new File(compileDir, "org/example/Two.class").exists());
+
+    File badSource = write(new File(srcDir, "org/example/Bad.java"), "package org.example; public class Bad { Missing missing; }");
+    assertFalse(service.compile(classpath, compileDir, new ArrayList<String>(), Arrays.asList(badSource.getAbsolutePath())));
+    assertEquals(4, service.getCompileCount());
+    service.close();
+  }
+
+  /**
+   * tests that a class changed in a directory on the classpath is read again.
+   */
+  public void testDirectoryClasspathChanges() throws Exception {
+    Enunciate enunciate = new Enunciate(new String[0]);
+    JavacService service = new JavacService(enunciate);
+    if (!service.isAvailable()) {
+      return;
+    }
+
+    File libSrcDir = enunciate.createTempDir();
+    File libClassesDir = enunciate.createTempDir();
+    File libSource = write(new File(libSrcDir, "org/example/lib/LibClass.java"), "package org.example.lib; public class LibClass { public static String hello() { return \"hello\"; } }");
+    assertTrue(service.compile(null, libClassesDir, new ArrayList<String>(), Arrays.asList(libSource.getAbsolutePath())));
+
+    File srcDir = enunciate.createTempDir();
+    File compileDir = enunciate.createTempDir();
+    File source1 = write(new File(srcDir, "org/example/One.java"), "package org.example; public class One { String hello = org.example.lib.LibClass.hello(); }");
+    assertTrue(service.compile(libClassesDir.getAbsolutePath(), compileDir, new ArrayList<String>(), Arrays.asList(source1.getAbsolutePath())));
+
+    write(libSource, "package org.example.lib; public class LibClass { public static String hello() { return \"hello\"; } public static String goodbye() { return \"goodbye\"; } }");
+    assertTrue(service.compile(null, libClassesDir, new ArrayList<String>(), Arrays.asList(libSource.getAbsolutePath())));
+    File source2 = write(new File(srcDir, "org/example/Two.java"), "package org.example; public class Two { String goodbye = org.example.lib.LibClass.goodbye(); }");
+    assertTrue(service.compile(libClassesDir.getAbsolutePath(), compileDir, new ArrayList<String>(), Arrays.asList(source2.getAbsolutePath())));
+    service.close();
+  }
+
+  /**
+   * tests the options that can't be passed to the compiler in-process.
+   */
+  public void testSupportedOptions() throws Exception {
+    JavacService service = new JavacService(new Enunciate(new String[0]));
+    assertTrue(service.isSupported(Arrays.asList("-g", "-source", "1.5", "-target", "1.5", "-encoding", "UTF-8")));
+    assertFalse(service.isSupported(Arrays.asList("-g", "-J-Xmx512m")));
+    assertFalse(service.isSupported(Arrays.asList("-cp", "lib.jar")));
+    assertFalse(service.isSupported(Arrays.asList("-d", "classes")));
+    assertFalse(service.isSupported(Arrays.asList("-sourcepath", "src")));
+    assertFalse(service.isSupported(Arrays.asList("-Xbootclasspath/p:boot.jar")));
+  }
+
+  /**
+   * tests that a compile with a path option configured goes through the command-line compiler.
+   */
+  public void testInvokeJavacWithPathOption() throws Exception {
+    Enunciate enunciate = new Enunciate(new String[0]);
+    if (!enunciate.getJavacService().isAvailable()) {
+      return;
+    }
+
+    File srcDir = enunciate.createTempDir();
+    File compileDir = enunciate.createTempDir();
+    File source1 = write(new File(srcDir, "org/example/One.java"), "package org.example; public class One { Two two; }");
+    write(new File(srcDir, "org/example/Two.java"), "package org.example; public class Two { }");
+    enunciate.getConfiguredJavacArguments().add("-sourcepath");
+    enunciate.getConfiguredJavacArguments().add(srcDir.getAbsolutePath());
+    enunciate.invokeJavac(srcDir.getAbsolutePath(), compileDir, new String[]{source1.getAbsolutePath()});
+    assertTrue(new File(compileDir, "org/example/One.class").exists());
+    assertTrue(new File(compileDir, "org/example/Two.class").exists());
+    assertEquals("The in-process compiler shouldn't have been used.", 0, enunciate.getJavacService().getCompileCount());
+  }
+}
@@ -0,0 +1,91 @@
+package org.codehaus.enunciate.main;
+
+import junit.framework.TestCase;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * @author Ryan Heaton
+ */
+public class TestLibraryClassifier extends TestCase {
+
+  /**
+   * tests classifying a classpath of hundreds of jars.
+   */
+  public void testClassify() throws Exception {
+    Enunciate enunciate = new Enunciate(new String[0]);
+    File libDir = enunciate.createTempDir();
+    List<File> jars = new ArrayList<File>();
+    for (int i = 0; i < 500; i++) {
+      jars.add(writeJar(new File(libDir, "lib" + i + ".jar"), "META-INF/MANIFEST.MF", "org/example/lib" + i + "/SomeClass.class"));
+    }
+    File servletApi = writeJar(new File(libDir, "servlet-api.jar"), "javax/servlet/ServletContext.class");
+    File preserved = writeJar(new File(libDir, "preserved.jar"), "META-INF/enunciate/preserve-in-war", "freemarker/template/Configuration.class");
+    File module = writeJar(new File(libDir, "module.jar"), "META-INF/services/org.codehaus.enunciate.modules.DeploymentModule");
+    File notAJar = new File(libDir, "notajar.jar");
+    FileOutputStream out = new FileOutputStream(notAJar);
+    out.write("not a jar".getBytes("utf-8"));
+    out.close();
+    jars.add(servletApi);
+    jars.add(preserved);
+    jars.add(module);
+    jars.add(notAJar);
+
+    File cacheFile = new File(enunciate.createTempDir(), "library-classifications");
+    LibraryClassifier classifier = new LibraryClassifier(cacheFile, enunciate);
+    for (File jar : jars) {
+      classifier.classify(jar);
+    }
+    assertEquals(0, classifier.getHitCount());
+    assertEquals(jars.size(), classifier.getMissCount());
+    assertEquals(LibraryClassifier.Classification.UNKNOWN, classifier.classify(jars.get(0)));
+    assertEquals(LibraryClassifier.Classification.SERVLET_API, classifier.classify(servletApi));
+    assertEquals(LibraryClassifier.Classification.PRESERVED, classifier.classify(preserved));
+    assertEquals("a services file without a provider doesn't make a module.", LibraryClassifier.Classification.UNKNOWN, classifier.classify(module));
+    assertEquals(LibraryClassifier.Classification.UNKNOWN, classifier.classify(notAJar));
+    classifier.save();
+
+    //the next build shouldn't have to open any of the jars.
+    classifier = new LibraryClassifier(cacheFile, enunciate);
+    for (File jar : jars) {
+      classifier.classify(jar);
+    }
+    assertEquals(jars.size(), classifier.getHitCount());
+    assertEquals(0, classifier.getMissCount());
+    assertEquals(LibraryClassifier.Classification.SERVLET_API, classifier.classify(servletApi));
+
+    writeJarEntry(module, "META-INF/services/org.codehaus.enunciate.modules.DeploymentModule", "# comment\norg.example.SomeModule\n");
+    assertTrue(module.setLastModified(module.lastModified() - 10000));
+    assertEquals("a modified jar should be classified again.", LibraryClassifier.Classification.DEPLOYMENT_MODULE, classifier.classify(module));
+    assertEquals(1, classifier.getMissCount());
+
+    File classesDir = enunciate.createTempDir();
+    new File(classesDir, "javax/crypto").mkdirs();
+    new File(classesDir, "javax/crypto/SecretKey.class").createNewFile();
+    assertEquals(LibraryClassifier.Classification.JCE, classifier.classify(classesDir));
+  }
+
+  private File writeJar(File jar, String... paths) throws Exception {
+    ZipOutputStream out = new ZipOutputStream(new FileOutputStream(jar));
+    for (String path : paths) {
+      out.putNextEntry(new ZipEntry(path));
+      out.closeEntry();
+    }
+    out.close();
+    return jar;
+  }
+
+  private File writeJarEntry(File jar, String path, String content) throws Exception {
+    ZipOutputStream out = new ZipOutputStream(new FileOutputStream(jar));
+    out.putNextEntry(new ZipEntry(path));
+    out.write(content.getBytes("utf-8"));
+    out.closeEntry();
+    out.close();
+    return jar;
+  }
+}
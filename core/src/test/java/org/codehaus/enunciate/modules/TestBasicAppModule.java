@@ -0,0 +1,69 @@
+/*
+ * Copyright 2006-2008 Web Cohesion
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.codehaus.enunciate.modules;
+
+import junit.framework.TestCase;
+import org.codehaus.enunciate.config.EnunciateConfiguration;
+import org.codehaus.enunciate.config.war.IncludeExcludeLibs;
+import org.codehaus.enunciate.config.war.WebAppConfig;
+import org.codehaus.enunciate.main.Enunciate;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.util.ArrayList;
+
+import static org.codehaus.enunciate.EnunciateTestUtil.read;
+import static org.codehaus.enunciate.EnunciateTestUtil.write;
+
+/**
+ * @author Ryan Heaton
+ */
+public class TestBasicAppModule extends TestCase {
+
+  /**
+   * tests that a library is copied to WEB-INF/lib unless the copy there has the same content.
+   */
+  public void testLibCopy() throws Exception {
+    Enunciate enunciate = new Enunciate(new String[0], new EnunciateConfiguration(new ArrayList<DeploymentModule>()));
+    File lib = write(new File(enunciate.createTempDir(), "library.jar"), "version 1");
+    WebAppConfig webAppConfig = new WebAppConfig();
+    webAppConfig.setIncludeClasspathLibs(false);
+    IncludeExcludeLibs includeLib = new IncludeExcludeLibs();
+    includeLib.setFile(lib);
+    webAppConfig.addIncludeLibs(includeLib);
+    enunciate.getConfig().setWebAppConfig(webAppConfig);
+
+    BasicAppModule module = new BasicAppModule();
+    module.init(enunciate);
+    module.setBuildDir(enunciate.createTempDir());
+    module.doLibCopy();
+    File copy = new File(module.getBuildDir(), "WEB-INF/lib/library.jar");
+    assertEquals("version 1", read(new FileInputStream(copy)));
+
+    //an unchanged library isn't copied again.
+    assertTrue(copy.setLastModified(copy.lastModified() - 10000));
+    long lastModified = copy.lastModified();
+    module.doLibCopy();
+    assertEquals(lastModified, copy.lastModified());
+
+    //a different library with the same name and size is copied, even if the copy is newer.
+    write(lib, "version 2");
+    assertTrue(lib.setLastModified(lastModified - 10000));
+    module.doLibCopy();
+    assertEquals("version 2", read(new FileInputStream(copy)));
+  }
+}
@@ -0,0 +1,222 @@
+/*
+ * Copyright 2006-2008 Web Cohesion
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.codehaus.enunciate.modules;
+
+import freemarker.template.TemplateExceptionHandler;
+import junit.framework.TestCase;
+import org.codehaus.enunciate.EnunciateException;
+import org.codehaus.enunciate.apt.EnunciateFreemarkerModel;
+import org.codehaus.enunciate.main.Enunciate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileWriter;
+import java.io.PrintStream;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author Ryan Heaton
+ */
+public class TestFreemarkerDeploymentModule extends TestCase {
+
+  /**
+   * tests that a template is parsed only once, even when it's processed by different modules.
+   */
+  public void testSharedTemplateCache() throws Exception {
+    File templateFile = File.createTempFile("enunciatetest", ".fmt");
+    templateFile.deleteOnExit();
+    FileWriter writer = new FileWriter(templateFile);
+    writer.write("hello, ${name}!");
+    writer.close();
+    URL templateURL = templateFile.toURI().toURL();
+
+    TestModule module1 = new TestModule();
+    TestModule module2 = new TestModule();
+    assertSame(module1.getConfiguration(), module2.getConfiguration());
+
+    Map<String, Object> model = new HashMap<String, Object>();
+    model.put("name", "world");
+    int parseCount = FreemarkerDeploymentModule.getTemplateParseCount();
+    assertEquals("hello, world!", process(module1, templateURL, model));
+    assertEquals(parseCount + 1, FreemarkerDeploymentModule.getTemplateParseCount());
+
+    model.put("name", "again");
+    assertEquals("hello, again!", process(module2, templateURL, model));
+    assertEquals("the template should have been cached.", parseCount + 1, FreemarkerDeploymentModule.getTemplateParseCount());
+  }
+
+  /**
+   * tests that a module that overrides the template exception handler gets a configuration that uses it.
+   */
+  public void testOverriddenTemplateHooks() throws Exception {
+    HandlerOverridingTestModule module1 = new HandlerOverridingTestModule();
+    HandlerOverridingTestModule module2 = new HandlerOverridingTestModule();
+    assertSame(module1.getConfiguration(), module2.getConfiguration());
+    assertNotSame(new TestModule().getConfiguration(), module1.getConfiguration());
+    assertSame(HandlerOverridingTestModule.HANDLER, module1.getConfiguration().getTemplateExceptionHandler());
+    assertSame(module1.getTemplateLoader(), module1.getConfiguration().getTemplateLoader());
+  }
+
+  /**
+   * tests that a source file that was generated unchanged is compiled again if the compile that followed its last change failed.
+   */
+  public void testIncrementalCompileAfterFailedCompile() throws Exception {
+    Enunciate enunciate = new Enunciate(new String[0]);
+    TestModule module = new TestModule();
+    module.init(enunciate);
+    File srcDir = enunciate.createTempDir();
+    File compileDir = new File(enunciate.createTempDir(), "classes");
+    compileDir.mkdirs();
+    File x = new File(srcDir, "org/example/X.java");
+    File y = new File(srcDir, "org/example/Y.java");
+    List<String> sourceFiles = Arrays.asList(x.getAbsolutePath(), y.getAbsolutePath());
+    String version = System.getProperty("java.specification.version");
+
+    //build 1: everything compiles.
+    EnunciateFreemarkerModel model = new EnunciateFreemarkerModel();
+    module.initModel(model);
+    generate(model, x, "package org.example; public class X { }", true);
+    generate(model, y, "package org.example; public class Y { public void version1() { } }", true);
+    module.invokeJavacIncrementally(null, version, version, compileDir, new ArrayList<String>(), sourceFiles);
+
+    //build 2: Y changes, but the compile fails on X.
+    model = new EnunciateFreemarkerModel();
+    module.initModel(model);
+    generate(model, x, "package org.example; public class X { Missing missing; }", true);
+    generate(model, y, "package org.example; public class Y { public void version2() { } }", true);
+    try {
+      module.invokeJavacIncrementally(null, version, version, compileDir, new ArrayList<String>(), sourceFiles);
+      fail("the compile should have failed.");
+    }
+    catch (EnunciateException e) {
+      //fall through...
+    }
+
+    //build 3: Y is generated unchanged since build 2, but it was never compiled successfully.
+    model = new EnunciateFreemarkerModel();
+    module.initModel(model);
+    generate(model, x, "package org.example; public class X { }", true);
+    generate(model, y, "package org.example; public class Y { public void version2() { } }", false);
+    module.invokeJavacIncrementally(null, version, version, compileDir, new ArrayList<String>(), sourceFiles);
+    String yClass = readBytes(new File(compileDir, "org/example/Y.class"));
+    assertTrue("a stale class was kept.", yClass.contains("version2"));
+    assertFalse(yClass.contains("version1"));
+  }
+
+  /**
+   * tests that a change to one source file recompiles the unchanged source files that depend on it, and that nothing is
+   * compiled if nothing changed.
+   */
+  public void testIncrementalCompileOfDependents() throws Exception {
+    Enunciate enunciate = new Enunciate(new String[0]);
+    TestModule module = new TestModule();
+    module.init(enunciate);
+    File srcDir = enunciate.createTempDir();
+    File compileDir = new File(enunciate.createTempDir(), "classes");
+    compileDir.mkdirs();
+    File x = new File(srcDir, "org/example/X.java");
+    File y = new File(srcDir, "org/example/Y.java");
+    File z = new File(srcDir, "org/example/Z.java");
+    List<String> sourceFiles = Arrays.asList(x.getAbsolutePath(), y.getAbsolutePath(), z.getAbsolutePath());
+    String version = System.getProperty("java.specification.version");
+
+    //build 1: Z inlines a constant of X, through Y.
+    EnunciateFreemarkerModel model = new EnunciateFreemarkerModel();
+    module.initModel(model);
+    generate(model, x, "package org.example; public class X { public static final String VALUE = \"version1\"; }", true);
+    generate(model, y, "package org.example; public class Y extends X { }", true);
+    generate(model, z, "package org.example; public class Z { String value = Y.VALUE; }", true);
+    module.invokeJavacIncrementally(null, version, version, compileDir, new ArrayList<String>(), sourceFiles);
+    assertTrue(readBytes(new File(compileDir, "org/example/Z.class")).contains("version1"));
+
+    //build 2: nothing changed, so nothing is compiled.
+    File zClass = new File(compileDir, "org/example/Z.class");
+    assertTrue(zClass.setLastModified(zClass.lastModified() - 10000));
+    long lastModified = zClass.lastModified();
+    model = new EnunciateFreemarkerModel();
+    module.initModel(model);
+    generate(model, x, "package org.example; public class X { public static final String VALUE = \"version1\"; }", false);
+    generate(model, y, "package org.example; public class Y extends X { }", false);
+    generate(model, z, "package org.example; public class Z { String value = Y.VALUE; }", false);
+    module.invokeJavacIncrementally(null, version, version, compileDir, new ArrayList<String>(), sourceFiles);
+    assertEquals(lastModified, zClass.lastModified());
+
+    //build 3: only X changed, but Z has to be compiled again for the new constant.
+    model = new EnunciateFreemarkerModel();
+    module.initModel(model);
+    generate(model, x, "package org.example; public class X { public static final String VALUE = \"version2\"; }", true);
+    generate(model, y, "package org.example; public class Y extends X { }", false);
+    generate(model, z, "package org.example; public class Z { String value = Y.VALUE; }", false);
+    module.invokeJavacIncrementally(null, version, version, compileDir, new ArrayList<String>(), sourceFiles);
+    String zBytes = readBytes(zClass);
+    assertTrue("a stale dependent was kept.", zBytes.contains("version2"));
+    assertFalse(zBytes.contains("version1"));
+  }
+
+  private void generate(EnunciateFreemarkerModel model, File file, String content, boolean changed) throws Exception {
+    file.getParentFile().mkdirs();
+    FileWriter writer = new FileWriter(file);
+    writer.write(content);
+    writer.close();
+    model.recordGeneratedFile(file, changed);
+  }
+
+  private String readBytes(File file) throws Exception {
+    FileInputStream in = new FileInputStream(file);
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    int b;
+    while ((b = in.read()) >= 0) {
+      bytes.write(b);
+    }
+    in.close();
+    return bytes.toString("iso-8859-1");
+  }
+
+  private String process(FreemarkerDeploymentModule module, URL templateURL, Object model) throws Exception {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    PrintStream out = new PrintStream(bytes, true, "utf-8");
+    module.processTemplate(templateURL, model, out);
+    out.flush();
+    return bytes.toString("utf-8");
+  }
+
+  private static class TestModule extends FreemarkerDeploymentModule {
+
+    public String getName() {
+      return "test";
+    }
+
+    public void doFreemarkerGenerate() {
+    }
+  }
+
+  private static class HandlerOverridingTestModule extends TestModule {
+
+    private static final TemplateExceptionHandler HANDLER = TemplateExceptionHandler.RETHROW_HANDLER;
+
+    @Override
+    protected TemplateExceptionHandler getTemplateExceptionHandler() {
+      return HANDLER;
+    }
+  }
+}
@@ -0,0 +1,39 @@
+package org.codehaus.enunciate.template.strategies;
+
+import junit.framework.TestCase;
+
+import java.io.File;
+import java.io.PrintWriter;
+
+/**
+ * @author Ryan Heaton
+ */
+public class TestGeneratedFileWriter extends TestCase {
+
+  /**
+   * tests that a file is only written if its content changed.
+   */
+  public void testWriteIfChanged() throws Exception {
+    File file = File.createTempFile("enunciatetest", ".java");
+    assertTrue(file.delete());
+
+    PrintWriter writer = new PrintWriter(new GeneratedFileWriter(file, "utf-8", null));
+    writer.print("public class SampleClass {}");
+    writer.close();
+    assertEquals("a new file should be written.", "public class SampleClass {}".length(), file.length());
+
+    assertTrue(file.setLastModified(10000));
+    GeneratedFileWriter same = new GeneratedFileWriter(file, "utf-8", null);
+    same.write("public class SampleClass {}");
+    same.flush();
+    assertEquals("an unchanged file shouldn't be written.", 10000, file.lastModified());
+    same.close();
+    assertTrue("an unchanged file should be touched.", file.lastModified() > 10000);
+
+    GeneratedFileWriter changed = new GeneratedFileWriter(file, "utf-8", null);
+    changed.write("public class SampleClass { int i; }");
+    changed.close();
+    assertEquals("a changed file should be written.", "public class SampleClass { int i; }".length(), file.length());
+  }
+
+}
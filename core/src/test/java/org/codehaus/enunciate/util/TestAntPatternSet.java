@@ -0,0 +1,65 @@
+/*
+ * Copyright 2006-2008 Web Cohesion
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.codehaus.enunciate.util;
+
+import junit.framework.TestCase;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author Ryan Heaton
+ */
+public class TestAntPatternSet extends TestCase {
+
+  /**
+   * tests the index of the first match.
+   */
+  public void testIndexOfFirstMatch() throws Exception {
+    AntPatternSet patterns = new AntPatternSet(Arrays.asList("org.codehaus.enunciate.pckg1.SampleClassOne", null, "org.codehaus.enunciate.**.Sample*", "org.codehaus.enunciate.*", "org.codehaus.**"));
+    assertEquals(0, patterns.indexOfFirstMatch("org.codehaus.enunciate.pckg1.SampleClassOne"));
+    assertEquals(2, patterns.indexOfFirstMatch("org.codehaus.enunciate.pckg1.SampleClassTwo"));
+    assertEquals(2, patterns.indexOfFirstMatch("org.codehaus.enunciate.SampleClass"));
+    assertEquals(3, patterns.indexOfFirstMatch("org.codehaus.enunciate.OtherClass"));
+    assertEquals(4, patterns.indexOfFirstMatch("org.codehaus.enunciate.pckg1.OtherClass"));
+    assertEquals(4, patterns.indexOfFirstMatch("org.codehaus"));
+    assertEquals(-1, patterns.indexOfFirstMatch("org.other.SampleClass"));
+
+    Map<String, Integer> matches = patterns.match(Arrays.asList("org.codehaus.enunciate.OtherClass", "org.other.SampleClass"));
+    assertEquals(1, matches.size());
+    assertEquals(Integer.valueOf(3), matches.get("org.codehaus.enunciate.OtherClass"));
+  }
+
+  /**
+   * tests that the compiled patterns match just like the ant pattern matcher.
+   */
+  public void testSameAsAntPatternMatcher() throws Exception {
+    List<String> patterns = Arrays.asList("org.codehaus.enunciate.*", "org.codehaus.enunciate.**", "org.**.pckg?.*", "**.SampleClass*",
+                                          "org.codehaus.*.pckg1.**", "org.codehaus.enunciate.pckg1.Sample?lass", "org.code*.**", "org.codehaus.enunciate.pckg1.SampleClass");
+    List<String> classNames = Arrays.asList("org.codehaus.enunciate.SampleClass", "org.codehaus.enunciate.pckg1.SampleClass", "org.codehaus.enunciate.pckg1.SampleKlass",
+                                            "org.codehaus.enunciate.pckg12.OtherClass", "org.codehaus", "org.codehausx.Other", "com.other.SampleClassTwo", "org.codehaus.enunciate");
+    AntPatternMatcher matcher = new AntPatternMatcher();
+    for (String pattern : patterns) {
+      AntPatternSet patternSet = new AntPatternSet(Arrays.asList(pattern));
+      for (String className : classNames) {
+        assertEquals(pattern + " against " + className, matcher.match(pattern, className) || pattern.equals(className), patternSet.matches(className));
+      }
+    }
+  }
+
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2006-2008 Web Cohesion
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.codehaus.enunciate.util;
+
+import com.sun.mirror.declaration.TypeDeclaration;
+import junit.framework.TestCase;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Iterator;
+
+/**
+ * @author Ryan Heaton
+ */
+public class TestTypeDeclarationIndex extends TestCase {
+
+  /**
+   * tests the index.
+   */
+  public void testIndex() throws Exception {
+    TypeDeclarationIndex<TypeDeclaration> index = new TypeDeclarationIndex<TypeDeclaration>();
+    TypeDeclaration b = declaration("org.codehaus.enunciate.B");
+    TypeDeclaration a = declaration("org.codehaus.enunciate.A");
+    assertTrue(index.add(b));
+    assertTrue(index.add(a));
+    assertFalse("a declaration should only be added once per qualified name.", index.add(declaration("org.codehaus.enunciate.A")));
+    assertEquals(2, index.size());
+    assertSame(a, index.get(0));
+    assertSame(b, index.get(1));
+    assertSame(b, index.find("org.codehaus.enunciate.B"));
+    assertNull(index.find("org.codehaus.enunciate.C"));
+    assertTrue(index.contains(a));
+    assertFalse(index.contains(declaration("org.codehaus.enunciate.A")));
+
+    TypeDeclaration c = declaration("org.codehaus.enunciate.AA");
+    index.add(c);
+    assertSame("the sorted view should be rebuilt after an add.", c, index.get(1));
+  }
+
+  /**
+   * tests indexing a model-sized number of synthetic types.
+   */
+  public void testManyTypes() throws Exception {
+    TypeDeclarationIndex<TypeDeclaration> index = new TypeDeclarationIndex<TypeDeclaration>();
+    for (int i = 10000; i > 0; i--) {
+      index.add(declaration("org.codehaus.enunciate.pckg" + (i % 100) + ".Type" + i));
+      assertNotNull(index.find("org.codehaus.enunciate.pckg" + (i % 100) + ".Type" + i));
+    }
+    assertEquals(10000, index.size());
+
+    Iterator<TypeDeclaration> it = index.iterator();
+    String previous = it.next().getQualifiedName();
+    while (it.hasNext()) {
+      String next = it.next().getQualifiedName();
+      assertTrue(previous.compareTo(next) < 0);
+      previous = next;
+    }
+  }
+
+  private TypeDeclaration declaration(final String qualifiedName) {
+    return (TypeDeclaration) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{TypeDeclaration.class}, new InvocationHandler() {
+      public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        if ("getQualifiedName".equals(method.getName()) || "toString".equals(method.getName())) {
+          return qualifiedName;
+        }
+        else if ("equals".equals(method.getName())) {
+          return proxy == args[0];
+        }
+        else if ("hashCode".equals(method.getName())) {
+          return System.identityHashCode(proxy);
+        }
+        throw new UnsupportedOperationException(method.getName());
+      }
+    });
+  }
+}
@@ -31,6 +31,7 @@ import org.codehaus.enunciate.contract.jaxws.WebMethod;
 import org.codehaus.enunciate.contract.validation.Validator;
 import org.codehaus.enunciate.main.*;
 import org.codehaus.enunciate.modules.FacetAware;
+import org.codehaus.enunciate.modules.DependencyAware;
 import org.codehaus.enunciate.modules.FreemarkerDeploymentModule;
 import org.codehaus.enunciate.modules.csharp.config.CSharpRuleSet;
 import org.codehaus.enunciate.modules.csharp.config.PackageNamespaceConversion;
@@ -97,7 +98,7 @@ import java.util.*;
  * @author Ryan Heaton
  * @docFileName module_csharp.html
  */
-public class CSharpDeploymentModule extends FreemarkerDeploymentModule implements FacetAware {
+public class CSharpDeploymentModule extends FreemarkerDeploymentModule implements FacetAware, DependencyAware {
 
   private boolean require = false;
   private boolean disableCompile = true;
@@ -124,6 +125,11 @@ public class CSharpDeploymentModule extends FreemarkerDeploymentModule implement
     return "csharp";
   }
 
+  // Inherited.
+  public Set<String> getModuleDependencies() {
+    return Collections.emptySet();
+  }
+
   @Override
   public void init(Enunciate enunciate) throws EnunciateException {
     super.init(enunciate);
@@ -395,24 +401,26 @@ public class CSharpDeploymentModule extends FreemarkerDeploymentModule implement
    * @return The string form of the resource.
    */
   protected String readResource(String resource, String contains) throws IOException, EnunciateException {
-    HashMap<String, Object> model = new HashMap<String, Object>();
-    model.put("sample_service_method", getModelInternal().findExampleWebMethod());
-    model.put("sample_resource", getModelInternal().findExampleResourceMethod());
-    model.put("bundle_contains", contains);
-
-    URL res = CSharpDeploymentModule.class.getResource(resource);
-    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
-    PrintStream out = new PrintStream(bytes);
-    try {
-      processTemplate(res, model, out);
-      out.flush();
-      bytes.flush();
-      return bytes.toString("utf-8");
-    }
-    catch (TemplateException e) {
-      throw new EnunciateException(e);
-    }
+    synchronized (getModelLock()) {
+      HashMap<String, Object> model = new HashMap<String, Object>();
+      model.put("sample_service_method", getModelInternal().findExampleWebMethod());
+      model.put("sample_resource", getModelInternal().findExampleResourceMethod());
+      model.put("bundle_contains", contains);
+
+      URL res = CSharpDeploymentModule.class.getResource(resource);
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      PrintStream out = new PrintStream(bytes);
+      try {
+        processTemplate(res, model, out);
+        out.flush();
+        bytes.flush();
+        return bytes.toString("utf-8");
+      }
+      catch (TemplateException e) {
+        throw new EnunciateException(e);
+      }
 
+    }
   }
 
   /**
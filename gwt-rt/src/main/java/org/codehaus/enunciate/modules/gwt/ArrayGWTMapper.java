@@ -53,6 +53,8 @@ public class ArrayGWTMapper implements CustomGWTMapper {
 
     Object[] jaxbArray = (Object[]) jaxbObject;
     Object[] gwtArray = (Object[]) Array.newInstance(this.gwtItemClass, jaxbArray.length);
+    Class lastItemClass = null;
+    GWTMapper itemMapper = null;
     for (int i = 0; i < jaxbArray.length; i++) {
       Object jaxbItem = jaxbArray[i];
       Object gwtItem;
@@ -60,7 +62,10 @@ public class ArrayGWTMapper implements CustomGWTMapper {
         gwtItem = null;
       }
       else {
-        GWTMapper itemMapper = GWTMapperIntrospector.getGWTMapper(jaxbItem.getClass(), this.declaredComponentType, this.adapterInfo, this.elementInfo);
+        if (itemMapper == null || jaxbItem.getClass() != lastItemClass) {
+          itemMapper = GWTMapperIntrospector.getGWTMapper(jaxbItem.getClass(), this.declaredComponentType, this.adapterInfo, this.elementInfo);
+          lastItemClass = jaxbItem.getClass();
+        }
         gwtItem = itemMapper.toGWT(jaxbItem, context);
       }
 
@@ -77,6 +82,8 @@ public class ArrayGWTMapper implements CustomGWTMapper {
 
     Object[] gwtArray = (Object[]) gwtObject;
     Object[] jaxbArray = (Object[]) Array.newInstance(this.jaxbItemClass, gwtArray.length);
+    Class lastItemClass = null;
+    GWTMapper itemMapper = null;
     for (int i = 0; i < gwtArray.length; i++) {
       Object gwtItem = gwtArray[i];
       Object jaxbItem;
@@ -84,9 +91,12 @@ public class ArrayGWTMapper implements CustomGWTMapper {
         jaxbItem = null;
       }
       else {
-        GWTMapper itemMapper = GWTMapperIntrospector.getGWTMapperForGWTObject(gwtItem);
-        if (itemMapper == null) {
-          itemMapper = GWTMapperIntrospector.getGWTMapper(this.declaredComponentType, this.adapterInfo, this.elementInfo);
+        if (itemMapper == null || gwtItem.getClass() != lastItemClass) {
+          itemMapper = GWTMapperIntrospector.getGWTMapperForGWTClass(gwtItem.getClass());
+          if (itemMapper == null) {
+            itemMapper = GWTMapperIntrospector.getGWTMapper(this.declaredComponentType, this.adapterInfo, this.elementInfo);
+          }
+          lastItemClass = gwtItem.getClass();
         }
         jaxbItem = itemMapper.toJAXB(gwtItem, context);
       }
@@ -37,7 +37,7 @@ public abstract class BaseGWTMapper<J, G> implements CustomGWTMapper<J, G> {
   private final Class<J> jaxbClass;
   private final Class<G> gwtClass;
   private final String[] properties;
-  private final PropertyDescriptor[][] jaxbProperties2gwtProperties;
+  private final PropertyMapping[] propertyMappings;
 
   /**
    * Construct a base GWT mapper.
@@ -54,7 +54,7 @@ public abstract class BaseGWTMapper<J, G> implements CustomGWTMapper<J, G> {
     }
 
     this.properties = properties;
-    this.jaxbProperties2gwtProperties = new PropertyDescriptor[this.properties.length][];
+    this.propertyMappings = new PropertyMapping[this.properties.length];
     for (int i = 0; i < properties.length; i++) {
       String property = properties[i];
       PropertyDescriptor jaxbProperty = findProperty(jaxbClass, property);
@@ -67,7 +67,7 @@ public abstract class BaseGWTMapper<J, G> implements CustomGWTMapper<J, G> {
         throw new IllegalStateException("Unknown property '" + property + "' on class " + gwtClass.getName() + ".");
       }
 
-      this.jaxbProperties2gwtProperties[i] = new PropertyDescriptor[]{jaxbProperty, gwtProperty};
+      this.propertyMappings[i] = new PropertyMapping(jaxbProperty, gwtProperty, findTypeAdapter(jaxbProperty), findXmlElement(jaxbProperty));
     }
   }
 
@@ -126,13 +126,11 @@ public abstract class BaseGWTMapper<J, G> implements CustomGWTMapper<J, G> {
     }
 
     context.objectMapped(jaxbObject, gwtObject);
-    for (PropertyDescriptor[] pds : this.jaxbProperties2gwtProperties) {
-      PropertyDescriptor jaxbProperty = pds[0];
-      PropertyDescriptor gwtProperty = pds[1];
-      Method getter = jaxbProperty.getReadMethod();
+    for (PropertyMapping propertyMapping : this.propertyMappings) {
+      Method getter = propertyMapping.jaxbGetter;
       if (getter == null) {
         throw new GWTMappingException("In order to convert from JAXB classes to GWT, you must provide a getter for property '"
-          + jaxbProperty.getName() + "' on class " + jaxbProperty.getWriteMethod().getDeclaringClass());
+          + propertyMapping.name + "' on class " + propertyMapping.jaxbSetter.getDeclaringClass());
       }
 
       Object propertyValue;
@@ -140,20 +138,19 @@ public abstract class BaseGWTMapper<J, G> implements CustomGWTMapper<J, G> {
         propertyValue = getter.invoke(jaxbObject);
       }
       catch (Exception e) {
-        throw new GWTMappingException("Unable to read property '" + jaxbProperty.getName() + "' on " + jaxbObject, e);
+        throw new GWTMappingException("Unable to read property '" + propertyMapping.name + "' on " + jaxbObject, e);
       }
 
       if (propertyValue == null) {
         continue;
       }
 
-      GWTMapper mapper = GWTMapperIntrospector.getGWTMapper(propertyValue.getClass(), getter.getGenericReturnType(),
-                                                            findTypeAdapter(jaxbProperty), findXmlElement(jaxbProperty));
+      GWTMapper mapper = propertyMapping.getGWTMapper(propertyValue.getClass());
       try {
-        gwtProperty.getWriteMethod().invoke(gwtObject, mapper.toGWT(propertyValue, context));
+        propertyMapping.gwtSetter.invoke(gwtObject, mapper.toGWT(propertyValue, context));
       }
       catch (Exception e) {
-        throw new GWTMappingException("Unable to set property " + jaxbProperty.getName() + " for the gwt bean " + gwtClass.getName(), e);
+        throw new GWTMappingException("Unable to set property " + propertyMapping.name + " for the gwt bean " + gwtClass.getName(), e);
       }
     }
 
@@ -251,38 +248,31 @@ public abstract class BaseGWTMapper<J, G> implements CustomGWTMapper<J, G> {
     }
 
     context.objectMapped(gwtObject, jaxbObject);
-    for (PropertyDescriptor[] pds : this.jaxbProperties2gwtProperties) {
-      PropertyDescriptor jaxbProperty = pds[0];
-      PropertyDescriptor gwtProperty = pds[1];
-      Method getter = gwtProperty.getReadMethod();
+    for (PropertyMapping propertyMapping : this.propertyMappings) {
       Object propertyValue;
       try {
-        propertyValue = getter.invoke(gwtObject);
+        propertyValue = propertyMapping.gwtGetter.invoke(gwtObject);
       }
       catch (Exception e) {
-        throw new GWTMappingException("Unable to read property '" + gwtProperty.getName() + "' on " + gwtObject, e);
+        throw new GWTMappingException("Unable to read property '" + propertyMapping.name + "' on " + gwtObject, e);
       }
 
       if (propertyValue == null) {
         continue;
       }
 
-      GWTMapper mapper = GWTMapperIntrospector.getGWTMapperForGWTObject(propertyValue);
-      Method setter = jaxbProperty.getWriteMethod();
+      Method setter = propertyMapping.jaxbSetter;
       if (setter == null) {
         throw new GWTMappingException("In order to convert from GWT back to JAXB classes, you must provide a setter for property '"
-          + jaxbProperty.getName() + "' on class " + jaxbProperty.getReadMethod().getDeclaringClass());
-      }
-
-      if (mapper == null) {
-        mapper = GWTMapperIntrospector.getGWTMapper(setter.getGenericParameterTypes()[0], findTypeAdapter(jaxbProperty), findXmlElement(jaxbProperty));
+          + propertyMapping.name + "' on class " + propertyMapping.jaxbGetter.getDeclaringClass());
       }
 
+      GWTMapper mapper = propertyMapping.getJAXBMapper(propertyValue.getClass());
       try {
         setter.invoke(jaxbObject, mapper.toJAXB(propertyValue, context));
       }
       catch (Exception e) {
-        throw new GWTMappingException("Unable to set property " + jaxbProperty.getName() + " for the gwt bean " + gwtClass.getName(), e);
+        throw new GWTMappingException("Unable to set property " + propertyMapping.name + " for the gwt bean " + gwtClass.getName(), e);
       }
     }
 
@@ -319,4 +309,96 @@ public abstract class BaseGWTMapper<J, G> implements CustomGWTMapper<J, G> {
   public Class<G> getGwtClass() {
     return gwtClass;
   }
+
+  /**
+   * The mapping plan for a single property, computed once per mapper: the accessors, the adapter and element metadata,
+   * and the child mappers. The child mappers are resolved on first use (resolving them eagerly would recurse for
+   * self-referencing types) and remembered for the last value class seen, since a property almost always holds
+   * values of the same class.
+   */
+  private static final class PropertyMapping {
+
+    private final String name;
+    private final Method jaxbGetter;
+    private final Method jaxbSetter;
+    private final Method gwtGetter;
+    private final Method gwtSetter;
+    private final XmlJavaTypeAdapter adapterInfo;
+    private final XmlElement xmlElement;
+    private volatile MapperForClass lastGWTMapper;
+    private volatile MapperForClass lastJAXBMapper;
+
+    private PropertyMapping(PropertyDescriptor jaxbProperty, PropertyDescriptor gwtProperty, XmlJavaTypeAdapter adapterInfo, XmlElement xmlElement) {
+      this.name = jaxbProperty.getName();
+      this.jaxbGetter = accessible(jaxbProperty.getReadMethod());
+      this.jaxbSetter = accessible(jaxbProperty.getWriteMethod());
+      this.gwtGetter = accessible(gwtProperty.getReadMethod());
+      this.gwtSetter = accessible(gwtProperty.getWriteMethod());
+      this.adapterInfo = adapterInfo;
+      this.xmlElement = xmlElement;
+    }
+
+    /**
+     * The mapper for a JAXB value of the specified class.
+     *
+     * @param valueClass The class of the JAXB value.
+     * @return The mapper.
+     */
+    GWTMapper getGWTMapper(Class valueClass) {
+      MapperForClass last = this.lastGWTMapper;
+      if (last != null && last.valueClass == valueClass) {
+        return last.mapper;
+      }
+
+      GWTMapper mapper = GWTMapperIntrospector.getGWTMapper(valueClass, this.jaxbGetter.getGenericReturnType(), this.adapterInfo, this.xmlElement);
+      this.lastGWTMapper = new MapperForClass(valueClass, mapper);
+      return mapper;
+    }
+
+    /**
+     * The mapper for a GWT value of the specified class.
+     *
+     * @param valueClass The class of the GWT value.
+     * @return The mapper.
+     */
+    GWTMapper getJAXBMapper(Class valueClass) {
+      MapperForClass last = this.lastJAXBMapper;
+      if (last != null && last.valueClass == valueClass) {
+        return last.mapper;
+      }
+
+      GWTMapper mapper = GWTMapperIntrospector.getGWTMapperForGWTClass(valueClass);
+      if (mapper == null) {
+        mapper = GWTMapperIntrospector.getGWTMapper(this.jaxbSetter.getGenericParameterTypes()[0], this.adapterInfo, this.xmlElement);
+      }
+      this.lastJAXBMapper = new MapperForClass(valueClass, mapper);
+      return mapper;
+    }
+
+    private static Method accessible(Method method) {
+      if (method != null && !method.isAccessible()) {
+        try {
+          method.setAccessible(true);
+        }
+        catch (SecurityException e) {
+          //fall through; we'll just pay for the access check.
+        }
+      }
+      return method;
+    }
+  }
+
+  /**
+   * A mapper paired with the value class it was resolved for.
+   */
+  private static final class MapperForClass {
+
+    private final Class valueClass;
+    private final GWTMapper mapper;
+
+    private MapperForClass(Class valueClass, GWTMapper mapper) {
+      this.valueClass = valueClass;
+      this.mapper = mapper;
+    }
+  }
 }
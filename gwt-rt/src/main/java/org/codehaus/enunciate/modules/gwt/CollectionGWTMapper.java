@@ -45,8 +45,15 @@ public class CollectionGWTMapper implements GWTMapper<Collection, Collection> {
     }
 
     Collection collection = CollectionGWTMapper.newCollectionInstance(collectionType);
+    //collections almost always hold items of a single class, so reuse the item mapper while the item class doesn't change.
+    Class lastItemClass = null;
+    GWTMapper itemMapper = null;
     for (Object item : jaxbObject) {
-      GWTMapper itemMapper = GWTMapperIntrospector.getGWTMapper(item == null ? null : item.getClass(), this.defaultItemType, this.adapterInfo, this.elementInfo);
+      Class itemClass = item == null ? null : item.getClass();
+      if (itemMapper == null || itemClass != lastItemClass) {
+        itemMapper = GWTMapperIntrospector.getGWTMapper(itemClass, this.defaultItemType, this.adapterInfo, this.elementInfo);
+        lastItemClass = itemClass;
+      }
       collection.add(itemMapper.toGWT(item, context));
     }
     return collection;
@@ -58,12 +65,17 @@ public class CollectionGWTMapper implements GWTMapper<Collection, Collection> {
     }
 
     Collection collection = CollectionGWTMapper.newCollectionInstance(collectionType);
+    Class lastItemClass = null;
+    GWTMapper itemMapper = null;
     for (Object item : gwtObject) {
       Object toItem = null;
       if (item != null) {
-        GWTMapper itemMapper = GWTMapperIntrospector.getGWTMapperForGWTObject(item);
-        if (itemMapper == null) {
-          itemMapper = GWTMapperIntrospector.getGWTMapper(this.defaultItemType, this.adapterInfo, this.elementInfo);
+        if (itemMapper == null || item.getClass() != lastItemClass) {
+          itemMapper = GWTMapperIntrospector.getGWTMapperForGWTClass(item.getClass());
+          if (itemMapper == null) {
+            itemMapper = GWTMapperIntrospector.getGWTMapper(this.defaultItemType, this.adapterInfo, this.elementInfo);
+          }
+          lastItemClass = item.getClass();
         }
         toItem = itemMapper.toJAXB(item, context);
       }
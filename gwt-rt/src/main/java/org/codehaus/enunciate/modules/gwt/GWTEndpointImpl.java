@@ -66,6 +66,24 @@ public abstract class GWTEndpointImpl extends RemoteServiceServlet {
     if (postProcessor != null) {
       postProcessor.postProcess(this);
     }
+
+    preloadGWTMappers();
+  }
+
+  /**
+   * Resolve the mappers for all operations of this endpoint so that the first calls don't pay for the reflection.
+   * A mapper that can't be resolved here is left to be resolved (and fail) when the operation is invoked.
+   */
+  protected void preloadGWTMappers() {
+    GWTMapperIntrospector.preloadGWT2JAXBMappings();
+    for (Method method : this.operationNames2Methods.values()) {
+      try {
+        GWTMapperIntrospector.preloadGWTMappers(method);
+      }
+      catch (Throwable e) {
+        getServletContext().log("Unable to preload the GWT mappers for " + method + ".", e);
+      }
+    }
   }
 
   protected final Object invokeOperation(String operationName, Object... params) throws Exception {
@@ -36,18 +36,20 @@ import java.util.*;
  */
 public class GWTMapperIntrospector {
 
-  private static final Map<Type, GWTMapper> MAPPERS = new HashMap<Type, GWTMapper>();
+  private static final GWTMapperCache MAPPERS;
   private static final Properties GWT2JAXBMAPPINGS = new Properties();
 
   static {
-    MAPPERS.put(BigDecimal.class, new BigDecimalGWTMapper());
-    MAPPERS.put(BigInteger.class, new BigIntegerGWTMapper());
-    MAPPERS.put(Calendar.class, new CalendarGWTMapper());
-    MAPPERS.put(DataHandler.class, new DataHandlerGWTMapper());
-    MAPPERS.put(QName.class, new QNameGWTMapper());
-    MAPPERS.put(URI.class, new URIGWTMapper());
-    MAPPERS.put(UUID.class, new UUIDGWTMapper());
-    MAPPERS.put(XMLGregorianCalendar.class, new XMLGregorianCalendarGWTMapper());
+    Map<Type, GWTMapper> builtInMappers = new HashMap<Type, GWTMapper>();
+    builtInMappers.put(BigDecimal.class, new BigDecimalGWTMapper());
+    builtInMappers.put(BigInteger.class, new BigIntegerGWTMapper());
+    builtInMappers.put(Calendar.class, new CalendarGWTMapper());
+    builtInMappers.put(DataHandler.class, new DataHandlerGWTMapper());
+    builtInMappers.put(QName.class, new QNameGWTMapper());
+    builtInMappers.put(URI.class, new URIGWTMapper());
+    builtInMappers.put(UUID.class, new UUIDGWTMapper());
+    builtInMappers.put(XMLGregorianCalendar.class, new XMLGregorianCalendarGWTMapper());
+    MAPPERS = new GWTMapperCache(Collections.unmodifiableMap(builtInMappers));
 
     ClassLoader loader;
     try {
@@ -72,6 +74,49 @@ public class GWTMapperIntrospector {
     }
   }
 
+  /**
+   * The cache of resolved mappers, exposed so that the hit/miss statistics can be inspected at runtime.
+   *
+   * @return The cache of resolved mappers.
+   */
+  public static GWTMapperCache getMapperCache() {
+    return MAPPERS;
+  }
+
+  /**
+   * Resolve the mappers needed to invoke the specified method: its parameters, its return type and its declared exceptions.
+   * Used to warm the mapper cache before the first call is made.
+   *
+   * @param method The method.
+   */
+  public static void preloadGWTMappers(Method method) {
+    for (Type paramType : method.getGenericParameterTypes()) {
+      getGWTMapper(paramType);
+    }
+
+    if (method.getReturnType() != Void.TYPE) {
+      getGWTMapper(method.getGenericReturnType());
+    }
+
+    for (Class exceptionType : method.getExceptionTypes()) {
+      getGWTMapper(exceptionType, exceptionType, null, null);
+    }
+  }
+
+  /**
+   * Resolve all the GWT-to-JAXB class mappings declared in "gwt-to-jaxb-mappings.properties".
+   */
+  public static void preloadGWT2JAXBMappings() {
+    for (String gwtClassName : GWT2JAXBMAPPINGS.stringPropertyNames()) {
+      try {
+        findJAXBClass(Class.forName(gwtClassName));
+      }
+      catch (Throwable e) {
+        //fall through... the mapping will be resolved (or not) when it's needed.
+      }
+    }
+  }
+
   public static GWTMapper getGWTMapper(Type jaxbType) {
     return getGWTMapper(null, jaxbType);
   }
@@ -85,40 +130,85 @@ public class GWTMapperIntrospector {
   }
 
   public static GWTMapper getGWTMapperForGWTObject(Object gwtObject) {
+    return gwtObject == null ? null : getGWTMapperForGWTClass(gwtObject.getClass());
+  }
+
+  /**
+   * Get the mapper for the JAXB class that the specified GWT class maps to.
+   *
+   * @param gwtType The GWT class.
+   * @return The mapper, or null if the GWT class doesn't map to a JAXB class.
+   */
+  public static GWTMapper getGWTMapperForGWTClass(Class gwtType) {
     GWTMapper result = null;
-    if (gwtObject != null) {
-      Class gwtType = gwtObject.getClass();
-      if ((gwtType != null) && (!gwtType.isArray()) && (!gwtType.isPrimitive())) {
-        String jaxbType = GWT2JAXBMAPPINGS.getProperty(gwtType.getName());
-        if (jaxbType != null) {
-          try {
-            result = getGWTMapper(Class.forName(jaxbType));
-          }
-          catch (Throwable e) {
-            result = null;
-          }
+    if ((gwtType != null) && (!gwtType.isArray()) && (!gwtType.isPrimitive())) {
+      Class jaxbType = findJAXBClass(gwtType);
+      if (jaxbType != null) {
+        try {
+          result = getGWTMapper(jaxbType);
+        }
+        catch (Throwable e) {
+          result = null;
         }
       }
     }
     return result;
   }
 
+  /**
+   * Find the JAXB class that the specified GWT class maps to. The mapping is resolved once and cached.
+   *
+   * @param gwtType The GWT class.
+   * @return The JAXB class, or null if the GWT class doesn't map to a JAXB class.
+   */
+  private static Class findJAXBClass(Class gwtType) {
+    Class jaxbType = MAPPERS.getJAXBClass(gwtType);
+    if (jaxbType == null) {
+      jaxbType = GWTMapperCache.NO_JAXB_CLASS;
+      String jaxbTypeName = GWT2JAXBMAPPINGS.getProperty(gwtType.getName());
+      if (jaxbTypeName != null) {
+        try {
+          jaxbType = Class.forName(jaxbTypeName);
+        }
+        catch (Throwable e) {
+          //fall through.
+        }
+      }
+      MAPPERS.putJAXBClass(gwtType, jaxbType);
+    }
+    return jaxbType == GWTMapperCache.NO_JAXB_CLASS ? null : jaxbType;
+  }
+
   public static GWTMapper getGWTMapper(Class realType, Type jaxbType, XmlJavaTypeAdapter adapterInfo, XmlElement elementInfo) {
     if (adapterInfo == null && (realType != null) && (!realType.isArray()) && (!realType.isPrimitive()) && (realType.getPackage() != null)) {
       //first check the real type.  if a mapper exists, use it, otherwise use the type defined in the signature.
-      if (MAPPERS.containsKey(realType)) {
-        return MAPPERS.get(realType);
+      GWTMapper mapper = MAPPERS.get(realType, null, null);
+      if (mapper != null) {
+        return mapper;
       }
 
-      try {
-        loadCustomMapperClass(realType);
-        jaxbType = realType;
-      }
-      catch (Throwable e) {
-        //fall through.
+      if (!MAPPERS.isKnownWithoutCustomMapper(realType)) {
+        try {
+          loadCustomMapperClass(realType);
+          jaxbType = realType;
+        }
+        catch (Throwable e) {
+          //fall through.
+          MAPPERS.markWithoutCustomMapper(realType);
+        }
       }
     }
 
+    Class specifiedType = ((elementInfo != null) && (elementInfo.type() != null) && (elementInfo.type() != XmlElement.DEFAULT.class)) ? elementInfo.type() : null;
+    GWTMapper mapper = MAPPERS.get(jaxbType, adapterInfo, specifiedType);
+    if (mapper == null) {
+      //cache under the context as it was requested, so that subsequent lookups in the same context don't have to resolve the adapter again.
+      mapper = MAPPERS.put(jaxbType, adapterInfo, specifiedType, resolveGWTMapper(jaxbType, adapterInfo, elementInfo, specifiedType));
+    }
+    return mapper;
+  }
+
+  private static GWTMapper resolveGWTMapper(Type jaxbType, XmlJavaTypeAdapter adapterInfo, XmlElement elementInfo, Class specifiedType) {
     if (adapterInfo == null && jaxbType instanceof Class) {
       adapterInfo = (XmlJavaTypeAdapter) ((Class)jaxbType).getAnnotation(XmlJavaTypeAdapter.class);
     }
@@ -127,7 +217,6 @@ public class GWTMapperIntrospector {
       Type adaptingType = findAdaptingType(adapterInfo.value());
       GWTMapper adaptingMapper = getGWTMapper(adaptingType);
       try {
-        //if it's adapted, don't cache it (return it directly).
         return new AdaptingGWTMapper(adapterInfo.value().newInstance(), adaptingMapper, narrowType(jaxbType), narrowType(adaptingType));
       }
       catch (Exception e) {
@@ -139,12 +228,8 @@ public class GWTMapperIntrospector {
       jaxbType = Object.class;
     }
     
-    Class specifiedType = ((elementInfo != null) && (elementInfo.type() != null) && (elementInfo.type() != XmlElement.DEFAULT.class)) ? elementInfo.type() : null;
-    GWTMapper mapper;
-    if (adapterInfo == null && MAPPERS.containsKey(jaxbType)) {
-      mapper = MAPPERS.get(jaxbType);
-    }
-    else {
+    GWTMapper mapper = adapterInfo == null ? MAPPERS.getBuiltInMapper(jaxbType) : null;
+    if (mapper == null) {
       if (jaxbType instanceof ParameterizedType) {
         Type rawType = ((ParameterizedType) jaxbType).getRawType();
 
@@ -228,10 +313,6 @@ public class GWTMapperIntrospector {
       else {
         mapper = DefaultGWTMapper.INSTANCE;
       }
-
-      if (specifiedType == null) { //only cache if the type isn't specified.
-        MAPPERS.put(jaxbType, mapper);
-      }
     }
 
     return mapper;
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2006-2008 Web Cohesion
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.codehaus.enunciate.modules.gwt;
+
+import java.util.List;
+
+/**
+ * @author Ryan Heaton
+ */
+public class MappedBean {
+
+  private MappedItem item;
+  private MappedItem[] items;
+  private List<MappedItem> itemList;
+  private String readOnly;
+  private String writeOnly;
+
+  public MappedItem getItem() {
+    return item;
+  }
+
+  public void setItem(MappedItem item) {
+    this.item = item;
+  }
+
+  public MappedItem[] getItems() {
+    return items;
+  }
+
+  public void setItems(MappedItem[] items) {
+    this.items = items;
+  }
+
+  public List<MappedItem> getItemList() {
+    return itemList;
+  }
+
+  public void setItemList(List<MappedItem> itemList) {
+    this.itemList = itemList;
+  }
+
+  public String getReadOnly() {
+    return readOnly;
+  }
+
+  public void initReadOnly(String readOnly) {
+    this.readOnly = readOnly;
+  }
+
+  public void setWriteOnly(String writeOnly) {
+    this.writeOnly = writeOnly;
+  }
+
+  public String peekWriteOnly() {
+    return writeOnly;
+  }
+}
@@ -21,6 +21,7 @@ import junit.framework.TestCase;
 import java.util.*;
 import java.net.URI;
 import java.net.URL;
+import java.lang.reflect.Type;
 
 /**
  * @author Ryan Heaton
@@ -126,4 +127,133 @@ public class TestBaseGWTMapper extends TestCase {
     assertEquals(date2, jaxbObject.getProperty9().getMyDate());
   }
 
+  /**
+   * Tests that resolved mappers are cached, including adapted mappers.
+   */
+  public void testMappersAreCached() throws Exception {
+    GWTMapper mapper = GWTMapperIntrospector.getGWTMapper(BeanOne.class, null, null);
+    long hits = GWTMapperIntrospector.getMapperCache().getHitCount();
+    assertSame(mapper, GWTMapperIntrospector.getGWTMapper(BeanOne.class, null, null));
+    assertTrue(GWTMapperIntrospector.getMapperCache().getHitCount() > hits);
+
+    GWTMapper adaptingMapper = GWTMapperIntrospector.getGWTMapper(DateWrapper.class);
+    assertTrue(adaptingMapper instanceof AdaptingGWTMapper);
+    assertSame(adaptingMapper, GWTMapperIntrospector.getGWTMapper(DateWrapper.class));
+  }
+
+  /**
+   * Tests that the resolved mappers and the resolved JAXB classes are evicted when the cache is full, and that the built-in
+   * mappers are kept.
+   */
+  public void testMapperCacheEviction() throws Exception {
+    HashMap<Type, GWTMapper> builtInMappers = new HashMap<Type, GWTMapper>();
+    GWTMapper builtIn = new DefaultGWTMapper();
+    builtInMappers.put(Boolean.class, builtIn);
+    GWTMapperCache cache = new GWTMapperCache(builtInMappers, 2);
+    cache.put(String.class, null, null, DefaultGWTMapper.INSTANCE);
+    cache.put(Long.class, null, null, DefaultGWTMapper.INSTANCE);
+    assertEquals(2, cache.getSize());
+
+    //caching a mapper that is already cached doesn't evict a full cache.
+    assertSame(DefaultGWTMapper.INSTANCE, cache.put(Long.class, null, null, new DefaultGWTMapper()));
+    assertEquals(2, cache.getSize());
+    assertEquals(0, cache.getEvictionCount());
+
+    //caching a new mapper evicts all resolved mappers, but keeps the built-in mappers.
+    cache.put(Integer.class, null, null, DefaultGWTMapper.INSTANCE);
+    assertEquals(1, cache.getSize());
+    assertEquals(1, cache.getEvictionCount());
+    assertNull(cache.get(String.class, null, null));
+    assertSame(DefaultGWTMapper.INSTANCE, cache.get(Integer.class, null, null));
+    assertSame(builtIn, cache.get(Boolean.class, null, null));
+
+    //the resolved JAXB classes are bounded the same way.
+    cache.putJAXBClass(GWTBeanOne.class, BeanOne.class);
+    cache.putJAXBClass(GWTMappedItem.class, GWTMapperCache.NO_JAXB_CLASS);
+    assertSame(BeanOne.class, cache.getJAXBClass(GWTBeanOne.class));
+    cache.putJAXBClass(GWTMappedBean.class, MappedBean.class);
+    assertNull(cache.getJAXBClass(GWTBeanOne.class));
+    assertSame(MappedBean.class, cache.getJAXBClass(GWTMappedBean.class));
+  }
+
+  /**
+   * Tests mapping there and back again: null values, a property without a setter, a property without a getter, a property
+   * value whose class changes from one call to the next, and the items of arrays and collections.
+   */
+  public void testRoundTrip() throws Exception {
+    GWTMapper mapper = GWTMapperIntrospector.getGWTMapper(MappedBean.class, null, null);
+    MappedBean bean = new MappedBean();
+    bean.initReadOnly("read-only");
+    bean.setItems(new MappedItem[]{new MappedItem("one"), new SpecialMappedItem("two", 2), null, new MappedItem("three")});
+    bean.setItemList(Arrays.asList(new SpecialMappedItem("four", 4), new MappedItem("five")));
+
+    GWTMappedBean gwtBean = (GWTMappedBean) mapper.toGWT(bean, new GWTMappingContext());
+    assertNull(gwtBean.getItem());
+    assertEquals("read-only", gwtBean.getReadOnly());
+    GWTMappedItem[] gwtItems = gwtBean.getItems();
+    assertEquals(4, gwtItems.length);
+    assertEquals(GWTMappedItem.class, gwtItems[0].getClass());
+    assertEquals("one", gwtItems[0].getName());
+    assertEquals(GWTSpecialMappedItem.class, gwtItems[1].getClass());
+    assertEquals(2, ((GWTSpecialMappedItem) gwtItems[1]).getRank());
+    assertNull(gwtItems[2]);
+    assertEquals(GWTMappedItem.class, gwtItems[3].getClass());
+    assertEquals("three", gwtItems[3].getName());
+    List gwtItemList = gwtBean.getItemList();
+    assertEquals(2, gwtItemList.size());
+    assertEquals(GWTSpecialMappedItem.class, gwtItemList.get(0).getClass());
+    assertEquals(4, ((GWTSpecialMappedItem) gwtItemList.get(0)).getRank());
+    assertEquals(GWTMappedItem.class, gwtItemList.get(1).getClass());
+    assertEquals("five", ((GWTMappedItem) gwtItemList.get(1)).getName());
+
+    //the class of the value changes from one call to the next.
+    bean.setItem(new MappedItem("six"));
+    assertEquals(GWTMappedItem.class, ((GWTMappedBean) mapper.toGWT(bean, new GWTMappingContext())).getItem().getClass());
+    bean.setItem(new SpecialMappedItem("seven", 7));
+    GWTMappedItem gwtItem = ((GWTMappedBean) mapper.toGWT(bean, new GWTMappingContext())).getItem();
+    assertEquals(GWTSpecialMappedItem.class, gwtItem.getClass());
+    assertEquals(7, ((GWTSpecialMappedItem) gwtItem).getRank());
+    bean.setItem(new MappedItem("eight"));
+    gwtItem = ((GWTMappedBean) mapper.toGWT(bean, new GWTMappingContext())).getItem();
+    assertEquals(GWTMappedItem.class, gwtItem.getClass());
+    assertEquals("eight", gwtItem.getName());
+
+    //a null value doesn't need the missing setter.
+    gwtBean.setReadOnly(null);
+    MappedBean jaxbBean = (MappedBean) mapper.toJAXB(gwtBean, new GWTMappingContext());
+    assertNull(jaxbBean.getItem());
+    assertNull(jaxbBean.getReadOnly());
+    MappedItem[] jaxbItems = jaxbBean.getItems();
+    assertEquals(4, jaxbItems.length);
+    assertEquals("one", jaxbItems[0].getName());
+    assertEquals("two", jaxbItems[1].getName());
+    //without a gwt-to-jaxb mapping, the items are mapped back to the declared item class.
+    assertNull(jaxbItems[2]);
+    assertEquals("three", jaxbItems[3].getName());
+    List<MappedItem> jaxbItemList = jaxbBean.getItemList();
+    assertEquals(2, jaxbItemList.size());
+    assertEquals("four", jaxbItemList.get(0).getName());
+    assertEquals("five", jaxbItemList.get(1).getName());
+
+    gwtBean.setReadOnly("changed");
+    try {
+      mapper.toJAXB(gwtBean, new GWTMappingContext());
+      fail("a value for a property without a setter shouldn't be mapped.");
+    }
+    catch (GWTMappingException e) {
+      //fall through...
+    }
+
+    GWTMapper writeOnlyMapper = new BaseGWTMapper(MappedBean.class, GWTMappedBean.class, "writeOnly") {};
+    gwtBean.setWriteOnly("write-only");
+    assertEquals("write-only", ((MappedBean) writeOnlyMapper.toJAXB(gwtBean, new GWTMappingContext())).peekWriteOnly());
+    try {
+      writeOnlyMapper.toGWT(bean, new GWTMappingContext());
+      fail("a property without a getter shouldn't be mapped.");
+    }
+    catch (GWTMappingException e) {
+      //fall through...
+    }
+  }
+
 }
@@ -39,6 +39,7 @@ import org.codehaus.enunciate.main.*;
 import org.codehaus.enunciate.main.webapp.BaseWebAppFragment;
 import org.codehaus.enunciate.main.webapp.WebAppComponent;
 import org.codehaus.enunciate.modules.FacetAware;
+import org.codehaus.enunciate.modules.DependencyAware;
 import org.codehaus.enunciate.modules.FreemarkerDeploymentModule;
 import org.codehaus.enunciate.modules.ProjectExtensionModule;
 import org.codehaus.enunciate.modules.GWTHomeAwareModule;
@@ -55,6 +56,7 @@ import java.io.*;
 import java.net.URL;
 import java.net.URLDecoder;
 import java.util.*;
+import java.util.concurrent.*;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -132,6 +134,10 @@ import java.util.regex.Pattern;
  * <li>The "useWrappedServices" attribute specifies whether to use wrapped GWT client services. This is an artifact from when GWT 1.4 was supported
  * and the generic types were unavailable. Default: false</li>
  * <li>The "disableCompile" attribute prevents Enunciate from compiling its generated client source files.</li>
+ * <li>The "gwtCompileThreads" attribute specifies the number of GWT modules that are compiled at the same time, each by its own
+ * GWT compiler process. Default: 1.</li>
+ * <li>The "gwtCompileLocalWorkers" attribute specifies the number of local workers each GWT compiler process uses to compile the permutations
+ * of a module (passed as the "-localWorkers" argument, GWT 1.6 and above). By default, the GWT default is used.</li>
  * </ul>
  *
  * <h3>The "war" element</h3>
@@ -174,6 +180,8 @@ import java.util.regex.Pattern;
  * of this, the "outputDir" attribute will only be honored if not using GWT 1.6 or above.</u></li>
  * <li>The "shellPage" attribute specifies the (usually HTML) page to open when invoking the shell for this module (used to generate the shell script). By
  * default, the shell page is the [moduleId].html, where [moduleId] is the (short, unqualified) name of the module.</li>
+ * <li>The "maxMemory" attribute specifies the maximum heap size of the GWT compiler process for this module (e.g. "512m"). By default,
+ * only the "gwtCompileJVMArg" elements apply.</li>
  * </ul>
  *
  * <h3>The "gwtCompileJVMArg" element</h3>
@@ -257,7 +265,7 @@ import java.util.regex.Pattern;
  * @author Ryan Heaton
  * @docFileName module_gwt.html
  */
-public class GWTDeploymentModule extends FreemarkerDeploymentModule implements ProjectExtensionModule, GWTHomeAwareModule, EnunciateClasspathListener, FacetAware {
+public class GWTDeploymentModule extends FreemarkerDeploymentModule implements ProjectExtensionModule, GWTHomeAwareModule, EnunciateClasspathListener, FacetAware, DependencyAware {
 
   private boolean forceGenerateJsonOverlays = false;
   private boolean disableJsonOverlays = false;
@@ -283,6 +291,8 @@ public class GWTDeploymentModule extends FreemarkerDeploymentModule implements P
   private int[] gwtVersion = null;
   private GWTModuleClasspathHandler gwtClasspathHandler;
   private boolean disableCompile = false;
+  private int gwtCompileThreads = 1;
+  private int gwtCompileLocalWorkers = 0;
   private Set<String> facetIncludes = new TreeSet<String>();
   private Set<String> facetExcludes = new TreeSet<String>(Arrays.asList("org.codehaus.enunciate.modules.gwt.GWTTransient"));
 
@@ -294,6 +304,11 @@ public class GWTDeploymentModule extends FreemarkerDeploymentModule implements P
     return "gwt";
   }
 
+  // Inherited.
+  public Set<String> getModuleDependencies() {
+    return Collections.emptySet();
+  }
+
   @Override
   public void init(Enunciate enunciate) throws EnunciateException {
     super.init(enunciate);
@@ -729,6 +744,7 @@ public class GWTDeploymentModule extends FreemarkerDeploymentModule implements P
     int compileClassIndex = argIndex;
     gwtcCommand.add(argIndex++, getGwtCompilerClass());
     gwtcCommand.add(argIndex++, "-gen");
+    int genArgIndex = argIndex;
     gwtcCommand.add(argIndex++, getGwtGenDir().getAbsolutePath());
     gwtcCommand.add(argIndex++, "-style");
     int styleArgIndex = argIndex;
@@ -742,6 +758,8 @@ public class GWTDeploymentModule extends FreemarkerDeploymentModule implements P
     int moduleNameIndex = argIndex;
     gwtcCommand.add(argIndex, null); //module-specific arg.
 
+    boolean concurrent = getGwtCompileThreads() > 1;
+    List<GWTModuleCompile> moduleCompiles = new ArrayList<GWTModuleCompile>();
     for (GWTApp gwtApp : gwtApps) {
       String appName = gwtApp.getName();
       File appSource = enunciate.resolvePath(gwtApp.getSrcDir());
@@ -755,109 +773,209 @@ public class GWTDeploymentModule extends FreemarkerDeploymentModule implements P
       boolean upToDate = enunciate.isUpToDate(getClientSideGenerateDir(), appDir) && enunciate.isUpToDate(appSource, appDir);
       if (!upToDate) {
         for (GWTAppModule appModule : gwtApp.getModules()) {
-          String moduleName = appModule.getName();
-
-          gwtcCommand.set(moduleNameIndex, moduleName);
-          debug("Executing GWTCompile for module '%s'...", moduleName);
-          if (enunciate.isDebug()) {
-            StringBuilder command = new StringBuilder();
-            for (String commandPiece : gwtcCommand) {
-              command.append(' ').append(commandPiece);
-            }
-            debug("Executing GWTCompile for module %s with the command: %s", moduleName, command);
-          }
-          ProcessBuilder processBuilder = new ProcessBuilder(gwtcCommand);
-          processBuilder.directory(getGenerateDir());
-          processBuilder.redirectErrorStream(true);
-          Process process = processBuilder.start();
-          BufferedReader procReader = new BufferedReader(new InputStreamReader(process.getInputStream()));
-          String line = procReader.readLine();
-          while (line != null) {
-            line = URLDecoder.decode(line, "utf-8").replaceAll("%", "%%").trim(); //GWT URL-encodes spaces and other weird Windows characters.
-            info(line);
-            line = procReader.readLine();
-          }
-          int procCode;
-          try {
-            procCode = process.waitFor();
-          }
-          catch (InterruptedException e1) {
-            throw new EnunciateException("Unexpected inturruption of the GWT compile process.");
+          gwtcCommand.set(moduleNameIndex, appModule.getName());
+          if (concurrent) {
+            //modules compiled at the same time get their own gen directory so they don't step on each other.
+            gwtcCommand.set(genArgIndex, new File(getGwtGenDir(), appModule.getName()).getAbsolutePath());
           }
+          moduleCompiles.add(new GWTModuleCompile(appName, appDir, appModule, new ArrayList<String>(gwtcCommand)));
+        }
+      }
+      else {
+        info("Skipping GWT compile for app %s as everything appears up-to-date...", appName);
+      }
+    }
 
-          if (procCode != 0) {
-            throw new EnunciateException("GWT compile failed for module " + moduleName);
-          }
+    if (concurrent && moduleCompiles.size() > 1) {
+      compileModulesConcurrently(moduleCompiles);
+    }
+    else {
+      for (GWTModuleCompile moduleCompile : moduleCompiles) {
+        compileModule(moduleCompile, false);
+      }
+    }
 
-          if (!gwtVersionGreaterThan(1, 5)) {
-            File moduleOutputDir = appDir;
-            String outputPath = appModule.getOutputPath();
-            if ((outputPath != null) && (!"".equals(outputPath.trim()))) {
-              moduleOutputDir = new File(appDir, outputPath);
-            }
+    for (GWTModuleCompile moduleCompile : moduleCompiles) {
+      String appName = moduleCompile.appName;
+      String moduleName = moduleCompile.appModule.getName();
+      List<String> gwtcModuleCommand = moduleCompile.command;
+      StringBuilder shellCommand = new StringBuilder();
+      for (int i = 0; i < moduleNameIndex; i++) {
+        String commandArg = gwtcModuleCommand.get(i);
+        if (i == compileClassIndex) {
+          commandArg = gwtVersionGreaterThan(1, 5) ? "com.google.gwt.dev.HostedMode" : "com.google.gwt.dev.GWTShell";
+        }
+        else if (commandArg.indexOf(' ') >= 0) {
+          commandArg = '"' + commandArg + '"';
+        }
 
-            File moduleGenDir = new File(appDir, moduleName);
-            if (!moduleOutputDir.equals(moduleGenDir)) {
-              moduleOutputDir.mkdirs();
-              enunciate.copyDir(moduleGenDir, moduleOutputDir);
-              deleteDir(moduleGenDir);
-            }
-          }
+        shellCommand.append(commandArg).append(' ');
+      }
 
-          StringBuilder shellCommand = new StringBuilder();
-          for (int i = 0; i < moduleNameIndex; i++) {
-            String commandArg = gwtcCommand.get(i);
-            if (i == compileClassIndex) {
-              commandArg = gwtVersionGreaterThan(1, 5) ? "com.google.gwt.dev.HostedMode" : "com.google.gwt.dev.GWTShell";
-            }
-            else if (commandArg.indexOf(' ') >= 0) {
-              commandArg = '"' + commandArg + '"';
-            }
+      //add any extra args before the module name.
+      shellCommand.append(windows ? "%*" : "$@").append(' ');
 
-            shellCommand.append(commandArg).append(' ');
-          }
+      String shellPage = getModuleId(moduleName) + ".html";
+      if (moduleCompile.appModule.getShellPage() != null) {
+        shellPage = moduleCompile.appModule.getShellPage();
+      }
 
-          //add any extra args before the module name.
-          shellCommand.append(windows ? "%*" : "$@").append(' ');
+      if (!gwtVersionGreaterThan(1, 5)) {
+        //when invoking the shell for GWT 1.4 or 1.5, it requires a URL to load.
+        //The URL is the [moduleName]/[shellPage.html]
+        shellCommand.append(moduleName).append('/').append(shellPage);
+      }
+      else {
+        //as of 1.6, you invoke it with -startupUrl [shellPage.html] [moduleName]
+        shellCommand.append("-startupUrl ").append(shellPage).append(' ').append(moduleName);
+      }
 
-          String shellPage = getModuleId(moduleName) + ".html";
-          if (appModule.getShellPage() != null) {
-            shellPage = appModule.getShellPage();
-          }
+      File scriptFile = getShellScriptFile(appName, moduleName);
+      scriptFile.getParentFile().mkdirs();
+      FileWriter writer = new FileWriter(scriptFile);
+      writer.write(shellCommand.toString());
+      writer.flush();
+      writer.close();
+
+      File shellFile = getShellScriptFile(appName, moduleName);
+      if (shellFile.exists()) {
+        StringBuilder scriptArtifactId = new StringBuilder();
+        if ((appName != null) && (appName.trim().length() > 0)) {
+          scriptArtifactId.append(appName).append('.');
+        }
+        scriptArtifactId.append(moduleName).append(".shell");
+        getEnunciate().addArtifact(new FileArtifact(getName(), scriptArtifactId.toString(), shellFile));
+      }
+      else {
+        debug("No GWT shell script file exists at %s.  No artifact added.", shellFile);
+      }
+    }
+  }
 
-          if (!gwtVersionGreaterThan(1, 5)) {
-            //when invoking the shell for GWT 1.4 or 1.5, it requires a URL to load.
-            //The URL is the [moduleName]/[shellPage.html]
-            shellCommand.append(moduleName).append('/').append(shellPage);
-          }
-          else {
-            //as of 1.6, you invoke it with -startupUrl [shellPage.html] [moduleName]
-            shellCommand.append("-startupUrl ").append(shellPage).append(' ').append(moduleName);
+  /**
+   * Compiles the specified GWT modules using a pool of {@link #getGwtCompileThreads() GWT compile threads}.
+   *
+   * @param moduleCompiles The module compiles.
+   */
+  protected void compileModulesConcurrently(List<GWTModuleCompile> moduleCompiles) throws EnunciateException, IOException {
+    ExecutorService executor = Executors.newFixedThreadPool(Math.min(getGwtCompileThreads(), moduleCompiles.size()));
+    boolean success = false;
+    try {
+      List<Future<Object>> results = new ArrayList<Future<Object>>();
+      for (final GWTModuleCompile moduleCompile : moduleCompiles) {
+        results.add(executor.submit(new Callable<Object>() {
+          public Object call() throws Exception {
+            compileModule(moduleCompile, true);
+            return null;
           }
+        }));
+      }
 
-          File scriptFile = getShellScriptFile(appName, moduleName);
-          scriptFile.getParentFile().mkdirs();
-          FileWriter writer = new FileWriter(scriptFile);
-          writer.write(shellCommand.toString());
-          writer.flush();
-          writer.close();
-
-          File shellFile = getShellScriptFile(appName, moduleName);
-          if (shellFile.exists()) {
-            StringBuilder scriptArtifactId = new StringBuilder();
-            if ((appName != null) && (appName.trim().length() > 0)) {
-              scriptArtifactId.append(appName).append('.');
-            }
-            scriptArtifactId.append(moduleName).append(".shell");
-            getEnunciate().addArtifact(new FileArtifact(getName(), scriptArtifactId.toString(), shellFile));
-          }
-          else {
-            debug("No GWT shell script file exists at %s.  No artifact added.", shellFile);
-          }
+      for (Future<Object> result : results) {
+        result.get();
+      }
+      success = true;
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new EnunciateException("Interrupted while compiling the GWT modules.", e);
+    }
+    catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof EnunciateException) {
+        throw (EnunciateException) cause;
+      }
+      else if (cause instanceof IOException) {
+        throw (IOException) cause;
+      }
+      else if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      else if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new EnunciateException(cause);
+    }
+    finally {
+      executor.shutdownNow();
+      if (!success) {
+        //interrupting the workers doesn't stop the compile processes they're reading from.
+        for (GWTModuleCompile moduleCompile : moduleCompiles) {
+          moduleCompile.cancel();
         }
       }
-      else {
-        info("Skipping GWT compile for app %s as everything appears up-to-date...", appName);
+    }
+  }
+
+  /**
+   * Invokes GWTCompile on the specified module.
+   *
+   * @param moduleCompile The module compile.
+   * @param concurrent Whether other modules are being compiled at the same time (in which case the compiler output is prefixed with the module name).
+   */
+  protected void compileModule(GWTModuleCompile moduleCompile, boolean concurrent) throws EnunciateException, IOException {
+    String moduleName = moduleCompile.appModule.getName();
+    List<String> gwtcCommand = new ArrayList<String>(moduleCompile.command);
+    if (moduleCompile.appModule.getMaxMemory() != null) {
+      //the jvm arg just before the classpath, after the configured jvm args, so it overrides any -Xmx among them.
+      gwtcCommand.add(gwtcCommand.indexOf("-cp"), "-Xmx" + moduleCompile.appModule.getMaxMemory());
+    }
+    if (getGwtCompileLocalWorkers() > 0 && gwtVersionGreaterThan(1, 5)) {
+      //the compiler args just before the module name.
+      gwtcCommand.add(gwtcCommand.size() - 1, "-localWorkers");
+      gwtcCommand.add(gwtcCommand.size() - 1, String.valueOf(getGwtCompileLocalWorkers()));
+    }
+
+    debug("Executing GWTCompile for module '%s'...", moduleName);
+    if (enunciate.isDebug()) {
+      StringBuilder command = new StringBuilder();
+      for (String commandPiece : gwtcCommand) {
+        command.append(' ').append(commandPiece);
+      }
+      debug("Executing GWTCompile for module %s with the command: %s", moduleName, command);
+    }
+    long start = System.currentTimeMillis();
+    ProcessBuilder processBuilder = new ProcessBuilder(gwtcCommand);
+    processBuilder.directory(getGenerateDir());
+    processBuilder.redirectErrorStream(true);
+    Process process = processBuilder.start();
+    if (!moduleCompile.started(process)) {
+      process.destroy();
+      throw new EnunciateException("GWT compile of module " + moduleName + " was cancelled.");
+    }
+    BufferedReader procReader = new BufferedReader(new InputStreamReader(process.getInputStream()));
+    String line = procReader.readLine();
+    while (line != null) {
+      line = URLDecoder.decode(line, "utf-8").replaceAll("%", "%%").trim(); //GWT URL-encodes spaces and other weird Windows characters.
+      info(concurrent ? "[" + moduleName.replaceAll("%", "%%") + "] " + line : line);
+      line = procReader.readLine();
+    }
+    int procCode;
+    try {
+      procCode = process.waitFor();
+    }
+    catch (InterruptedException e1) {
+      throw new EnunciateException("Unexpected inturruption of the GWT compile process.");
+    }
+
+    if (procCode != 0) {
+      throw new EnunciateException("GWT compile failed for module " + moduleName);
+    }
+    info("GWT compile of module %s took %d ms.", moduleName, System.currentTimeMillis() - start);
+
+    if (!gwtVersionGreaterThan(1, 5)) {
+      File appDir = moduleCompile.appDir;
+      File moduleOutputDir = appDir;
+      String outputPath = moduleCompile.appModule.getOutputPath();
+      if ((outputPath != null) && (!"".equals(outputPath.trim()))) {
+        moduleOutputDir = new File(appDir, outputPath);
+      }
+
+      File moduleGenDir = new File(appDir, moduleName);
+      if (!moduleOutputDir.equals(moduleGenDir)) {
+        moduleOutputDir.mkdirs();
+        enunciate.copyDir(moduleGenDir, moduleOutputDir);
+        deleteDir(moduleGenDir);
       }
     }
   }
@@ -897,7 +1015,7 @@ public class GWTDeploymentModule extends FreemarkerDeploymentModule implements P
       Collection<String> clientSideFiles = enunciate.getJavaFiles(getClientSideGenerateDir());
       String clientClasspath = enunciate.getRuntimeClasspath();
       if (!isDisableCompile()) {
-        enunciate.invokeJavac(clientClasspath, "1.5", "1.5", getClientSideCompileDir(), new ArrayList<String>(), clientSideFiles.toArray(new String[clientSideFiles.size()]));
+        invokeJavacIncrementally(clientClasspath, "1.5", "1.5", getClientSideCompileDir(), new ArrayList<String>(), clientSideFiles);
       }
       else {
         info("Compilation of GWT Java sources has been disabled.");
@@ -946,15 +1064,17 @@ public class GWTDeploymentModule extends FreemarkerDeploymentModule implements P
 
     //servlets.
     ArrayList<WebAppComponent> servlets = new ArrayList<WebAppComponent>();
-    for (WsdlInfo wsdlInfo : getModel().getNamespacesToWSDLs().values()) {
-      for (EndpointInterface ei : wsdlInfo.getEndpointInterfaces()) {
-        WebAppComponent gwtServlet = new WebAppComponent();
-        gwtServlet.setClassname(ei.getPackage().getQualifiedName() + ".gwt.GWT" + ei.getSimpleName() + "Impl");
-        gwtServlet.setName("GWT" + ei.getSimpleName());
-        TreeSet<String> urlMappings = new TreeSet<String>();
-        urlMappings.add(getGwtSubcontext() + '/' + ei.getServiceName());
-        gwtServlet.setUrlMappings(urlMappings);
-        servlets.add(gwtServlet);
+    synchronized (getModelLock()) {
+      for (WsdlInfo wsdlInfo : getModel().getNamespacesToWSDLs().values()) {
+        for (EndpointInterface ei : wsdlInfo.getEndpointInterfaces()) {
+          WebAppComponent gwtServlet = new WebAppComponent();
+          gwtServlet.setClassname(ei.getPackage().getQualifiedName() + ".gwt.GWT" + ei.getSimpleName() + "Impl");
+          gwtServlet.setName("GWT" + ei.getSimpleName());
+          TreeSet<String> urlMappings = new TreeSet<String>();
+          urlMappings.add(getGwtSubcontext() + '/' + ei.getServiceName());
+          gwtServlet.setUrlMappings(urlMappings);
+          servlets.add(gwtServlet);
+        }
       }
     }
     webAppFragment.setServlets(servlets);
@@ -1017,21 +1137,23 @@ public class GWTDeploymentModule extends FreemarkerDeploymentModule implements P
    * @return The string form of the resource.
    */
   protected String readResource(String resource) throws IOException, EnunciateException {
-    HashMap<String, Object> model = new HashMap<String, Object>();
-    model.put("sample_service_method", getModelInternal().findExampleWebMethod());
-    model.put("sample_resource", getModelInternal().findExampleResourceMethod());
-
-    URL res = GWTDeploymentModule.class.getResource(resource);
-    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
-    PrintStream out = new PrintStream(bytes);
-    try {
-      processTemplate(res, model, out);
-      out.flush();
-      bytes.flush();
-      return bytes.toString("utf-8");
-    }
-    catch (TemplateException e) {
-      throw new EnunciateException(e);
+    synchronized (getModelLock()) {
+      HashMap<String, Object> model = new HashMap<String, Object>();
+      model.put("sample_service_method", getModelInternal().findExampleWebMethod());
+      model.put("sample_resource", getModelInternal().findExampleResourceMethod());
+
+      URL res = GWTDeploymentModule.class.getResource(resource);
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      PrintStream out = new PrintStream(bytes);
+      try {
+        processTemplate(res, model, out);
+        out.flush();
+        bytes.flush();
+        return bytes.toString("utf-8");
+      }
+      catch (TemplateException e) {
+        throw new EnunciateException(e);
+      }
     }
   }
 
@@ -1489,7 +1611,9 @@ public class GWTDeploymentModule extends FreemarkerDeploymentModule implements P
    * @return Whether to generate JSON overlays.
    */
   public boolean isGenerateJsonOverlays() {
-    return forceGenerateJsonOverlays || (!disableJsonOverlays && jacksonXcAvailable && existsAnyJsonResourceMethod(getModelInternal().getRootResources()));
+    synchronized (getModelLock()) {
+      return forceGenerateJsonOverlays || (!disableJsonOverlays && jacksonXcAvailable && existsAnyJsonResourceMethod(getModelInternal().getRootResources()));
+    }
   }
 
   /**
@@ -1498,7 +1622,9 @@ public class GWTDeploymentModule extends FreemarkerDeploymentModule implements P
    * @return Whether to generate the RPC support classes.
    */
   public boolean isGenerateRPCSupport() {
-    return !getModelInternal().getNamespacesToWSDLs().isEmpty();
+    synchronized (getModelLock()) {
+      return !getModelInternal().getNamespacesToWSDLs().isEmpty();
+    }
   }
 
   /**
@@ -1658,4 +1784,84 @@ public class GWTDeploymentModule extends FreemarkerDeploymentModule implements P
   public void setDisableCompile(boolean disableCompile) {
     this.disableCompile = disableCompile;
   }
+
+  /**
+   * The number of GWT modules to compile at the same time (default: 1).
+   *
+   * @return The number of GWT modules to compile at the same time.
+   */
+  public int getGwtCompileThreads() {
+    return gwtCompileThreads;
+  }
+
+  /**
+   * The number of GWT modules to compile at the same time (default: 1).
+   *
+   * @param gwtCompileThreads The number of GWT modules to compile at the same time.
+   */
+  public void setGwtCompileThreads(int gwtCompileThreads) {
+    this.gwtCompileThreads = gwtCompileThreads;
+  }
+
+  /**
+   * The number of local workers the GWT compiler (1.6 and above) uses to compile the permutations of a module (default: 0, the GWT default).
+   *
+   * @return The number of local workers the GWT compiler uses.
+   */
+  public int getGwtCompileLocalWorkers() {
+    return gwtCompileLocalWorkers;
+  }
+
+  /**
+   * The number of local workers the GWT compiler (1.6 and above) uses to compile the permutations of a module (default: 0, the GWT default).
+   *
+   * @param gwtCompileLocalWorkers The number of local workers the GWT compiler uses.
+   */
+  public void setGwtCompileLocalWorkers(int gwtCompileLocalWorkers) {
+    this.gwtCompileLocalWorkers = gwtCompileLocalWorkers;
+  }
+
+  /**
+   * The compile of a GWT module of an app.
+   */
+  protected static class GWTModuleCompile {
+
+    private final String appName;
+    private final File appDir;
+    private final GWTAppModule appModule;
+    private final List<String> command;
+    private Process process;
+    private boolean cancelled = false;
+
+    protected GWTModuleCompile(String appName, File appDir, GWTAppModule appModule, List<String> command) {
+      this.appName = appName;
+      this.appDir = appDir;
+      this.appModule = appModule;
+      this.command = command;
+    }
+
+    /**
+     * Record the process compiling the module.
+     *
+     * @param process The process.
+     * @return Whether the compile may proceed (i.e. it wasn't cancelled).
+     */
+    protected synchronized boolean started(Process process) {
+      if (this.cancelled) {
+        return false;
+      }
+      this.process = process;
+      return true;
+    }
+
+    /**
+     * Cancel the compile, destroying the process compiling the module (if any).
+     */
+    protected synchronized void cancel() {
+      this.cancelled = true;
+      if (this.process != null) {
+        this.process.destroy();
+      }
+    }
+  }
 }
@@ -26,6 +26,7 @@ public class GWTAppModule {
   private String name;
   private String outputPath;
   private String shellPage;
+  private String maxMemory;
 
   /**
    * The name of the module.
@@ -89,4 +90,22 @@ public class GWTAppModule {
   public void setHostPage(String shellPage) {
     this.shellPage = shellPage;
   }
+
+  /**
+   * The maximum heap size of the GWT compiler process for this module (e.g. "512m").
+   *
+   * @return The maximum heap size of the GWT compiler process for this module.
+   */
+  public String getMaxMemory() {
+    return maxMemory;
+  }
+
+  /**
+   * The maximum heap size of the GWT compiler process for this module (e.g. "512m").
+   *
+   * @param maxMemory The maximum heap size of the GWT compiler process for this module.
+   */
+  public void setMaxMemory(String maxMemory) {
+    this.maxMemory = maxMemory;
+  }
 }
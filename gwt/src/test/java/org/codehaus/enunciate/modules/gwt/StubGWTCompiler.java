@@ -0,0 +1,57 @@
+/*
+ * Copyright 2006-2008 Web Cohesion
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.codehaus.enunciate.modules.gwt;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Stands in for the GWT compiler: writes the arguments it was invoked with (and the JVM arguments) to
+ * [war]/[moduleName]/compiled.txt.
+ *
+ * @author Ryan Heaton
+ */
+public class StubGWTCompiler {
+
+  public static void main(String[] args) throws IOException {
+    File war = null;
+    StringBuilder invocation = new StringBuilder();
+    for (int i = 0; i < args.length; i++) {
+      if ("-war".equals(args[i]) || "-out".equals(args[i])) {
+        war = new File(args[i + 1]);
+      }
+      invocation.append(args[i]).append(' ');
+    }
+    for (String jvmArg : ManagementFactory.getRuntimeMXBean().getInputArguments()) {
+      invocation.append(jvmArg).append(' ');
+    }
+
+    String moduleName = args[args.length - 1];
+    System.out.println("Compiling module " + moduleName);
+    if ("fail".equals(moduleName)) {
+      System.exit(1);
+    }
+
+    File moduleDir = new File(war, moduleName);
+    moduleDir.mkdirs();
+    FileWriter writer = new FileWriter(new File(moduleDir, "compiled.txt"));
+    writer.write(invocation.toString());
+    writer.close();
+  }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2006-2008 Web Cohesion
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.codehaus.enunciate.modules.gwt;
+
+import junit.framework.TestCase;
+import org.codehaus.enunciate.EnunciateException;
+import org.codehaus.enunciate.main.Enunciate;
+import org.codehaus.enunciate.modules.gwt.config.GWTApp;
+import org.codehaus.enunciate.modules.gwt.config.GWTAppModule;
+
+import java.io.*;
+
+/**
+ * @author Ryan Heaton
+ */
+public class TestGWTCompile extends TestCase {
+
+  /**
+   * tests compiling the modules of the gwt apps concurrently.
+   */
+  public void testCompileConcurrently() throws Exception {
+    Enunciate enunciate = new Enunciate(new String[0]);
+    GWTDeploymentModule module = newModule(enunciate, "module1", "module2", "module3");
+    module.getGwtApps().get(0).getModules().get(0).setMaxMemory("64m");
+    module.setGwtCompileThreads(2);
+    module.setGwtCompileLocalWorkers(2);
+    module.init(enunciate);
+    module.doGWTCompile();
+
+    File appDir = module.getAppGenerateDir();
+    String module1 = read(new File(new File(appDir, "module1"), "compiled.txt"));
+    assertTrue(module1.contains("-Xmx64m"));
+    assertTrue(module1.contains("-localWorkers 2 module1"));
+    assertTrue(module1.contains(new File(module.getGwtGenDir(), "module1").getAbsolutePath()));
+    String module2 = read(new File(new File(appDir, "module2"), "compiled.txt"));
+    assertFalse(module2.contains("-Xmx64m"));
+    assertTrue(module2.contains(new File(module.getGwtGenDir(), "module2").getAbsolutePath()));
+    assertTrue(new File(new File(appDir, "module3"), "compiled.txt").exists());
+    assertTrue(module.getShellScriptFile("", "module1").exists());
+    assertTrue(module.getShellScriptFile("", "module2").exists());
+    assertTrue(module.getShellScriptFile("", "module3").exists());
+  }
+
+  /**
+   * tests that a failed compile of a module is reported when compiling concurrently.
+   */
+  public void testCompileFailure() throws Exception {
+    Enunciate enunciate = new Enunciate(new String[0]);
+    GWTDeploymentModule module = newModule(enunciate, "module1", "fail");
+    module.setGwtCompileThreads(2);
+    module.init(enunciate);
+    try {
+      module.doGWTCompile();
+      fail("The failed compile should have been reported.");
+    }
+    catch (EnunciateException e) {
+      assertEquals("GWT compile failed for module fail", e.getMessage());
+    }
+  }
+
+  private GWTDeploymentModule newModule(Enunciate enunciate, String... moduleNames) throws IOException {
+    File gwtHome = enunciate.createTempDir();
+    new File(gwtHome, "gwt-user.jar").createNewFile();
+    new File(gwtHome, "gwt-dev.jar").createNewFile();
+    enunciate.setGenerateDir(enunciate.createTempDir());
+    enunciate.setCompileDir(enunciate.createTempDir());
+
+    GWTDeploymentModule module = new GWTDeploymentModule();
+    module.setRpcModuleName("org.codehaus.enunciate.samples.RPCModule");
+    module.setGwtHome(gwtHome.getAbsolutePath());
+    module.setGwtVersion("2.0");
+    module.setGwtCompilerClass(StubGWTCompiler.class.getName());
+    GWTApp app = new GWTApp();
+    app.setName("");
+    app.setSrcDir(enunciate.createTempDir().getAbsolutePath());
+    for (String moduleName : moduleNames) {
+      GWTAppModule appModule = new GWTAppModule();
+      appModule.setName(moduleName);
+      app.addModule(appModule);
+    }
+    module.addGWTApp(app);
+    return module;
+  }
+
+  private String read(File file) throws IOException {
+    BufferedReader reader = new BufferedReader(new FileReader(file));
+    try {
+      return reader.readLine();
+    }
+    finally {
+      reader.close();
+    }
+  }
+}
@@ -40,6 +40,7 @@ import org.codehaus.enunciate.main.Enunciate;
 import org.codehaus.enunciate.main.NamedFileArtifact;
 import org.codehaus.enunciate.main.ArtifactType;
 import org.codehaus.enunciate.modules.FacetAware;
+import org.codehaus.enunciate.modules.DependencyAware;
 import org.codehaus.enunciate.modules.FreemarkerDeploymentModule;
 import org.codehaus.enunciate.modules.DeploymentModule;
 import org.codehaus.enunciate.modules.ProjectExtensionModule;
@@ -154,7 +155,7 @@ import java.util.*;
  * @author Ryan Heaton
  * @docFileName module_java_client.html
  */
-public class JavaClientDeploymentModule extends FreemarkerDeploymentModule implements ProjectExtensionModule, EnunciateClasspathListener, FacetAware {
+public class JavaClientDeploymentModule extends FreemarkerDeploymentModule implements ProjectExtensionModule, EnunciateClasspathListener, FacetAware, DependencyAware {
 
   private String jarName = null;
   private String jsonJarName = null;
@@ -188,6 +189,15 @@ public class JavaClientDeploymentModule extends FreemarkerDeploymentModule imple
     return "java-client";
   }
 
+  /**
+   * The Java client module compiles against the generated schemas of the XML module.
+   *
+   * @return "xml"
+   */
+  public Set<String> getModuleDependencies() {
+    return Collections.singleton("xml");
+  }
+
   /**
    * @return 50
    */
@@ -504,7 +514,7 @@ public class JavaClientDeploymentModule extends FreemarkerDeploymentModule imple
       Collection<String> javaSourceFiles = enunciate.getJavaFiles(getClientGenerateDir());
       String clientClasspath = enunciate.getEnunciateBuildClasspath(); //we use the build classpath for client-side jars so you don't have to include client-side dependencies on the server-side.
       if (!isDisableCompile()) {
-        enunciate.invokeJavac(clientClasspath, "1.5", "1.5", getClientCompileDir(), new ArrayList<String>(), javaSourceFiles.toArray(new String[javaSourceFiles.size()]));
+        invokeJavacIncrementally(clientClasspath, "1.5", "1.5", getClientCompileDir(), new ArrayList<String>(), javaSourceFiles);
       }
       else {
         info("Compilation of the java sources has been disabled.");
@@ -521,7 +531,7 @@ public class JavaClientDeploymentModule extends FreemarkerDeploymentModule imple
         Collection<String> jsonSourceFiles = enunciate.getJavaFiles(getJsonClientGenerateDir());
         clientClasspath = enunciate.getEnunciateBuildClasspath(); //we use the build classpath for client-side jars so you don't have to include client-side dependencies on the server-side.
         if (!isDisableCompile()) {
-          enunciate.invokeJavac(clientClasspath, "1.5", "1.5", getJsonClientCompileDir(), new ArrayList<String>(), jsonSourceFiles.toArray(new String[jsonSourceFiles.size()]));
+          invokeJavacIncrementally(clientClasspath, "1.5", "1.5", getJsonClientCompileDir(), new ArrayList<String>(), jsonSourceFiles);
         }
         else {
           info("Compilation of the java json sources has been disabled.");          
@@ -692,21 +702,23 @@ public class JavaClientDeploymentModule extends FreemarkerDeploymentModule imple
    * @return The string form of the resource.
    */
   protected String readResource(String resource) throws IOException, EnunciateException {
-    HashMap<String, Object> model = new HashMap<String, Object>();
-    model.put("sample_service_method", getModelInternal().findExampleWebMethod());
-    model.put("sample_resource", getModelInternal().findExampleResourceMethod());
-
-    URL res = JavaClientDeploymentModule.class.getResource(resource);
-    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
-    PrintStream out = new PrintStream(bytes);
-    try {
-      processTemplate(res, model, out);
-      out.flush();
-      bytes.flush();
-      return bytes.toString("utf-8");
-    }
-    catch (TemplateException e) {
-      throw new EnunciateException(e);
+    synchronized (getModelLock()) {
+      HashMap<String, Object> model = new HashMap<String, Object>();
+      model.put("sample_service_method", getModelInternal().findExampleWebMethod());
+      model.put("sample_resource", getModelInternal().findExampleResourceMethod());
+
+      URL res = JavaClientDeploymentModule.class.getResource(resource);
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      PrintStream out = new PrintStream(bytes);
+      try {
+        processTemplate(res, model, out);
+        out.flush();
+        bytes.flush();
+        return bytes.toString("utf-8");
+      }
+      catch (TemplateException e) {
+        throw new EnunciateException(e);
+      }
     }
   }
 
@@ -908,7 +920,9 @@ public class JavaClientDeploymentModule extends FreemarkerDeploymentModule imple
    * @return Whether to generate the JSON client jar.
    */
   public boolean isGenerateJsonJar() {
-    return forceGenerateJsonJar || (!disableJsonJar && jacksonXcAvailable && existsAnyJsonResourceMethod(getModelInternal().getRootResources()));
+    synchronized (getModelLock()) {
+      return forceGenerateJsonJar || (!disableJsonJar && jacksonXcAvailable && existsAnyJsonResourceMethod(getModelInternal().getRootResources()));
+    }
   }
 
   /**
@@ -5,22 +5,44 @@ import com.sun.jersey.api.model.AbstractResourceMethod;
 import com.sun.jersey.api.model.AbstractSubResourceLocator;
 import com.sun.jersey.server.impl.modelapi.annotation.IntrospectionModeller;
 import com.sun.jersey.core.reflection.AnnotatedMethod;
+import org.springframework.aop.TargetSource;
 import org.springframework.aop.framework.ProxyFactory;
 
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 
 /**
- * Factory for JSR 311 resources that are advised.
+ * Factory for JSR 311 resources that are advised.<br/><br/>
+ *
+ * By default, a new proxy is built for each resource instance. In shared-proxy mode, the proxy (and its advisor chain) for
+ * per-request resources is built once per resource class, and each new instance is bound to the current thread as the
+ * target of that proxy. If another instance of the same class is already bound to the current thread (e.g. a resource
+ * created for a sub-resource or injected into another resource during the same request), the new instance gets its own
+ * proxy instead, so that neither proxy calls into the wrong instance. Shared-proxy mode must only be used for resources
+ * that are used on the thread that created them, and the bound instances must be released with
+ * {@link #releaseBoundResources()} when the request ends.
  *
  * @author Ryan Heaton
  */
 public class AdvisedResourceFactory<T> extends ProxyFactory {
 
+  /**
+   * The resource instances bound to the current thread, by target source.
+   */
+  private static final ThreadLocal<Map<ThreadBoundTargetSource, Object>> BOUND_RESOURCES = new ThreadLocal<Map<ThreadBoundTargetSource, Object>>();
+
   private final boolean advising;
+  private final Class<T> resourceClass;
+  private final ThreadBoundTargetSource sharedTargetSource;
+  private boolean sharedProxyEnabled = false;
+  private volatile Object sharedProxy;
 
   private AdvisedResourceFactory() {
     advising = true;
+    resourceClass = null;
+    sharedTargetSource = null;
     //no-op for internal use.
   }
 
@@ -30,6 +52,8 @@ public class AdvisedResourceFactory<T> extends ProxyFactory {
    * @param resourceClass The resource class.
    */
   public AdvisedResourceFactory(Class<T> resourceClass) {
+    this.resourceClass = resourceClass;
+    this.sharedTargetSource = new ThreadBoundTargetSource(resourceClass);
     AbstractResource resource = IntrospectionModeller.createResource(resourceClass);
 
     if (!resource.isRootResource()) {
@@ -58,11 +82,53 @@ public class AdvisedResourceFactory<T> extends ProxyFactory {
     return true;
   }
 
+  /**
+   * Whether resources created by this factory are actually advised, i.e. the resource is a root resource and there
+   * is at least one advisor.
+   *
+   * @return Whether resources created by this factory are actually advised.
+   */
+  public boolean isAdvising() {
+    return advising && !getAdvisorsInternal().isEmpty();
+  }
+
+  /**
+   * Whether shared-proxy mode is enabled.
+   *
+   * @return Whether shared-proxy mode is enabled.
+   */
+  public boolean isSharedProxyEnabled() {
+    return sharedProxyEnabled;
+  }
+
+  /**
+   * Whether shared-proxy mode is enabled.
+   *
+   * @param sharedProxyEnabled Whether shared-proxy mode is enabled.
+   */
+  public void setSharedProxyEnabled(boolean sharedProxyEnabled) {
+    this.sharedProxyEnabled = sharedProxyEnabled;
+  }
+
   public Object createAdvisedResource(T bareResource) {
-    if (!advising || getAdvisorsInternal().isEmpty()) {
+    return createAdvisedResource(bareResource, false);
+  }
+
+  /**
+   * Create the advised resource.
+   *
+   * @param bareResource The bare resource.
+   * @param perRequest Whether the resource is a per-request resource (i.e. whether it may be served by the shared proxy).
+   * @return The advised resource.
+   */
+  public Object createAdvisedResource(T bareResource, boolean perRequest) {
+    if (!isAdvising()) {
       //we're not doing any advising, just return the bare resource.
       return bareResource;
     }
+    else if (perRequest && this.sharedProxyEnabled && this.sharedTargetSource.bind(bareResource)) {
+      return getSharedProxy();
+    }
     else {
       AdvisedResourceFactory local = new AdvisedResourceFactory();
       local.copyConfigurationFrom(this);
@@ -71,6 +137,36 @@ public class AdvisedResourceFactory<T> extends ProxyFactory {
     }
   }
 
+  /**
+   * Get the shared proxy, building it the first time it's needed.
+   *
+   * @return The shared proxy.
+   */
+  protected Object getSharedProxy() {
+    Object proxy = this.sharedProxy;
+    if (proxy == null) {
+      synchronized (this) {
+        proxy = this.sharedProxy;
+        if (proxy == null) {
+          AdvisedResourceFactory local = new AdvisedResourceFactory();
+          local.copyConfigurationFrom(this);
+          local.setTargetSource(this.sharedTargetSource);
+          proxy = local.getProxy();
+          this.sharedProxy = proxy;
+        }
+      }
+    }
+    return proxy;
+  }
+
+  /**
+   * Release the resource instances bound to the current thread by any shared proxy. To be called when the request ends
+   * so that the worker thread doesn't keep the resources (and the classloader of the application) after the request.
+   */
+  public static void releaseBoundResources() {
+    BOUND_RESOURCES.remove();
+  }
+
   protected Set<Class> getDefiningClasses(AbstractResource resourceClass) {
     HashSet<Class> definingClasses = new HashSet<Class>();
 
@@ -89,4 +185,59 @@ public class AdvisedResourceFactory<T> extends ProxyFactory {
     return definingClasses;
   }
 
+  /**
+   * Target source that resolves to the resource instance bound to the current thread.
+   */
+  protected static class ThreadBoundTargetSource implements TargetSource {
+
+    private final Class targetClass;
+
+    public ThreadBoundTargetSource(Class targetClass) {
+      this.targetClass = targetClass;
+    }
+
+    /**
+     * Bind the specified target to the current thread, unless another target is already bound to it.
+     *
+     * @param target The target.
+     * @return Whether the target is bound to the current thread.
+     */
+    public boolean bind(Object target) {
+      Map<ThreadBoundTargetSource, Object> bound = BOUND_RESOURCES.get();
+      if (bound == null) {
+        bound = new HashMap<ThreadBoundTargetSource, Object>();
+        BOUND_RESOURCES.set(bound);
+      }
+
+      Object existing = bound.get(this);
+      if (existing != null && existing != target) {
+        return false;
+      }
+
+      bound.put(this, target);
+      return true;
+    }
+
+    public Class getTargetClass() {
+      return this.targetClass;
+    }
+
+    public boolean isStatic() {
+      return false;
+    }
+
+    public Object getTarget() throws Exception {
+      Map<ThreadBoundTargetSource, Object> bound = BOUND_RESOURCES.get();
+      Object target = bound == null ? null : bound.get(this);
+      if (target == null) {
+        throw new IllegalStateException("No instance of " + this.targetClass.getName() + " is bound to the current thread.");
+      }
+      return target;
+    }
+
+    public void releaseTarget(Object target) throws Exception {
+      //no-op: the target stays bound until the request ends (see releaseBoundResources).
+    }
+  }
+
 }
@@ -17,29 +17,154 @@
 package org.codehaus.enunciate.modules.jersey;
 
 import javax.xml.bind.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
- * Convenience context that just delegates its methods.
+ * Convenience context that just delegates its methods.<br/><br/>
+ *
+ * In pooled mode, each thread reuses one marshaller and one unmarshaller instead of creating new ones for every call.
+ * The instances are configured (see {@link #configureMarshaller(Marshaller)}) once, when they're created. A pooled instance
+ * is in use from the time it's handed out until one of its (un)marshal methods completes; asking for another one while
+ * it's in use (e.g. a nested call) gets a new one. Whatever a caller changes on a pooled instance is restored before it's
+ * handed out again, and an instance that was changed in a way that can't be restored (an adapter or a vendor property) is
+ * replaced. The pools should be cleared with {@link #clearPool()} when the application shuts down, so that the threads
+ * don't keep the instances (and the classes of the application) after it's gone.
  *
  * @author Ryan Heaton
  */
 public class DelegatingJAXBContext extends JAXBContext {
 
   private final JAXBContext delegate;
+  private final boolean pooled;
+  //the thread-locals hold only jdk types so that a thread that outlives the application doesn't keep its classes.
+  private final ThreadLocal<AtomicReference<Object>> marshallers;
+  private final ThreadLocal<AtomicReference<Object>> unmarshallers;
+  private final Map<Thread, List<AtomicReference<Object>>> pools = Collections.synchronizedMap(new WeakHashMap<Thread, List<AtomicReference<Object>>>());
 
   public DelegatingJAXBContext(JAXBContext delegate) {
+    this(delegate, false);
+  }
+
+  public DelegatingJAXBContext(JAXBContext delegate, boolean pooled) {
     this.delegate = delegate;
+    this.pooled = pooled;
+    this.marshallers = pooled ? new ThreadLocal<AtomicReference<Object>>() : null;
+    this.unmarshallers = pooled ? new ThreadLocal<AtomicReference<Object>>() : null;
   }
 
   public Unmarshaller createUnmarshaller() throws JAXBException {
-    return this.delegate.createUnmarshaller();
+    if (!this.pooled) {
+      Unmarshaller unmarshaller = this.delegate.createUnmarshaller();
+      configureUnmarshaller(unmarshaller);
+      return unmarshaller;
+    }
+
+    AtomicReference<Object> pool = getPool(this.unmarshallers);
+    PooledUnmarshaller unmarshaller = (PooledUnmarshaller) pool.get();
+    if (unmarshaller == null || !unmarshaller.checkOut()) {
+      //the pooled unmarshaller is in use or can't be restored; replace it.
+      Unmarshaller created = this.delegate.createUnmarshaller();
+      configureUnmarshaller(created);
+      unmarshaller = new PooledUnmarshaller(created);
+      unmarshaller.checkOut();
+      pool.set(unmarshaller);
+    }
+    return unmarshaller;
   }
 
   public Marshaller createMarshaller() throws JAXBException {
-    return this.delegate.createMarshaller();
+    if (!this.pooled) {
+      Marshaller marshaller = this.delegate.createMarshaller();
+      configureMarshaller(marshaller);
+      return marshaller;
+    }
+
+    AtomicReference<Object> pool = getPool(this.marshallers);
+    PooledMarshaller marshaller = (PooledMarshaller) pool.get();
+    if (marshaller == null || !marshaller.checkOut()) {
+      //the pooled marshaller is in use or can't be restored; replace it.
+      Marshaller created = this.delegate.createMarshaller();
+      configureMarshaller(created);
+      marshaller = new PooledMarshaller(created);
+      marshaller.checkOut();
+      pool.set(marshaller);
+    }
+    return marshaller;
+  }
+
+  /**
+   * Get the pool of the current thread.
+   *
+   * @param pools The thread-local pools.
+   * @return The pool of the current thread.
+   */
+  private AtomicReference<Object> getPool(ThreadLocal<AtomicReference<Object>> pools) {
+    AtomicReference<Object> pool = pools.get();
+    if (pool == null) {
+      pool = new AtomicReference<Object>();
+      pools.set(pool);
+      synchronized (this.pools) {
+        List<AtomicReference<Object>> threadPools = this.pools.get(Thread.currentThread());
+        if (threadPools == null) {
+          threadPools = new ArrayList<AtomicReference<Object>>(2);
+          this.pools.put(Thread.currentThread(), threadPools);
+        }
+        threadPools.add(pool);
+      }
+    }
+    return pool;
+  }
+
+  /**
+   * Clear the pooled marshallers and unmarshallers of all threads. The pools fill up again as needed.
+   */
+  public void clearPool() {
+    if (!this.pooled) {
+      return;
+    }
+
+    synchronized (this.pools) {
+      for (List<AtomicReference<Object>> threadPools : this.pools.values()) {
+        for (AtomicReference<Object> pool : threadPools) {
+          pool.set(null);
+        }
+      }
+    }
+    this.marshallers.remove();
+    this.unmarshallers.remove();
   }
 
   public Validator createValidator() throws JAXBException {
     return this.delegate.createValidator();
   }
+
+  /**
+   * Whether marshallers and unmarshallers are reused per thread.
+   *
+   * @return Whether marshallers and unmarshallers are reused per thread.
+   */
+  public boolean isPooled() {
+    return this.pooled;
+  }
+
+  /**
+   * Configure a newly-created marshaller. Default implementation is a no-op.
+   *
+   * @param marshaller The marshaller.
+   */
+  protected void configureMarshaller(Marshaller marshaller) throws JAXBException {
+  }
+
+  /**
+   * Configure a newly-created unmarshaller. Default implementation is a no-op.
+   *
+   * @param unmarshaller The unmarshaller.
+   */
+  protected void configureUnmarshaller(Unmarshaller unmarshaller) throws JAXBException {
+  }
 }
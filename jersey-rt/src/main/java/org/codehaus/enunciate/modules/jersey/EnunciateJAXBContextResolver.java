@@ -16,6 +16,7 @@
 
 package org.codehaus.enunciate.modules.jersey;
 
+import javax.annotation.PreDestroy;
 import javax.ws.rs.ext.ContextResolver;
 import javax.ws.rs.ext.Provider;
 import javax.xml.bind.JAXBContext;
@@ -26,14 +27,23 @@ import javax.xml.bind.annotation.XmlRootElement;
 import java.io.BufferedReader;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
- * Context resolver for JAXB.
+ * Context resolver for JAXB. Contexts for root elements that aren't in the list of known types are built once and cached
+ * per class, as is the failure to build one. The cache is bounded: when a context is cached and the cache already holds
+ * the maximum number of contexts, the cache is cleared first. The maximum size can be configured with the
+ * "enunciate.jersey.jaxbContextCacheSize" system property. Setting the "enunciate.jersey.poolMarshallers" system property
+ * to "true" makes the contexts reuse their (preconfigured) marshallers and unmarshallers per thread.
  *
  * @author Ryan Heaton
  */
@@ -42,32 +52,64 @@ public class EnunciateJAXBContextResolver implements ContextResolver<JAXBContext
 
   private static final Logger LOG = Logger.getLogger(EnunciateJAXBContextResolver.class.getName());
 
+  /**
+   * The default maximum number of cached root element contexts.
+   */
+  public static final int DEFAULT_CACHE_SIZE = 512;
+
+  /**
+   * Marker for a root element class for which a context couldn't be built.
+   */
+  private static final JAXBContext NO_CONTEXT = new DelegatingJAXBContext(null);
+
   private final JAXBContext context;
   private final Object prefixMapper;
+  private final boolean pooled;
 
   private final Set<Class> types;
+  private final ConcurrentMap<Class, JAXBContext> rootElementContexts = new ConcurrentHashMap<Class, JAXBContext>();
+  private final int maxRootElementContexts;
+  private final AtomicLong contextsBuilt = new AtomicLong(0);
+  private final AtomicLong cacheHits = new AtomicLong(0);
 
   public EnunciateJAXBContextResolver() throws Exception {
+    this(Integer.getInteger("enunciate.jersey.jaxbContextCacheSize", DEFAULT_CACHE_SIZE));
+  }
+
+  protected EnunciateJAXBContextResolver(int maxRootElementContexts) throws Exception {
     this.types = loadTypes();
     this.prefixMapper = loadPrefixMapper();
+    this.pooled = Boolean.getBoolean("enunciate.jersey.poolMarshallers");
+    this.maxRootElementContexts = maxRootElementContexts;
+    this.context = createContext(this.types.toArray(new Class[types.size()]));
+  }
 
-    JAXBContext context = JAXBContext.newInstance(this.types.toArray(new Class[types.size()]));
+  /**
+   * Create a context for the specified classes, applying the namespace prefix mapper (if any).
+   *
+   * @param classes The classes.
+   * @return The context.
+   */
+  protected JAXBContext createContext(Class... classes) throws JAXBException {
+    JAXBContext context = JAXBContext.newInstance(classes);
+    this.contextsBuilt.incrementAndGet();
     if (this.prefixMapper != null) {
-      context = new DelegatingJAXBContext(context) {
+      context = new DelegatingJAXBContext(context, this.pooled) {
         @Override
-        public Marshaller createMarshaller() throws JAXBException {
-          Marshaller marshaller = super.createMarshaller();
+        protected void configureMarshaller(Marshaller marshaller) throws JAXBException {
           try {
             marshaller.setProperty("com.sun.xml.bind.namespacePrefixMapper", prefixMapper);
           }
           catch (PropertyException e) {
             //fall through...
           }
-          return marshaller;
         }
       };
     }
-    this.context = context;
+    else if (this.pooled) {
+      context = new DelegatingJAXBContext(context, true);
+    }
+    return context;
   }
 
   public Set<Class> loadTypes() {
@@ -166,31 +208,77 @@ public class EnunciateJAXBContextResolver implements ContextResolver<JAXBContext
     }
     else if (objectType.isAnnotationPresent(XmlRootElement.class)) {
       //if this is a root element, we'll do our best to apply our namespace prefix mapper.
-      try {
-        JAXBContext context = JAXBContext.newInstance(objectType);
-        if (this.prefixMapper != null) {
-          context = new DelegatingJAXBContext(context) {
-            @Override
-            public Marshaller createMarshaller() throws JAXBException {
-              Marshaller marshaller = super.createMarshaller();
-              try {
-                marshaller.setProperty("com.sun.xml.bind.namespacePrefixMapper", prefixMapper);
-              }
-              catch (PropertyException e) {
-                //fall through...
-              }
-              return marshaller;
-            }
-          };
-        }
-        return context;
+      JAXBContext context = this.rootElementContexts.get(objectType);
+      if (context != null) {
+        this.cacheHits.incrementAndGet();
       }
-      catch (Exception e) {
-        //fall through...
+      else {
+        try {
+          context = createContext(objectType);
+        }
+        catch (Exception e) {
+          context = NO_CONTEXT;
+        }
+
+        if (this.rootElementContexts.size() >= this.maxRootElementContexts) {
+          clearPools(this.rootElementContexts.values());
+          this.rootElementContexts.clear();
+        }
+
+        JAXBContext existing = this.rootElementContexts.putIfAbsent(objectType, context);
+        if (existing != null) {
+          context = existing;
+        }
       }
+
+      return context == NO_CONTEXT ? null : context;
     }
 
     return null;
   }
 
+  /**
+   * Clear the pooled marshallers and unmarshallers of the contexts of this resolver when the application shuts down.
+   */
+  @PreDestroy
+  public void destroy() {
+    clearPools(Arrays.asList(this.context));
+    clearPools(this.rootElementContexts.values());
+  }
+
+  private void clearPools(Collection<JAXBContext> contexts) {
+    for (JAXBContext context : contexts) {
+      if (context instanceof DelegatingJAXBContext) {
+        ((DelegatingJAXBContext) context).clearPool();
+      }
+    }
+  }
+
+  /**
+   * The number of JAXB contexts that have been built by this resolver, including the context for the known types.
+   *
+   * @return The number of JAXB contexts that have been built.
+   */
+  public long getContextsBuilt() {
+    return this.contextsBuilt.get();
+  }
+
+  /**
+   * The number of root element context lookups that were answered from the cache.
+   *
+   * @return The number of cache hits.
+   */
+  public long getCacheHits() {
+    return this.cacheHits.get();
+  }
+
+  /**
+   * The number of root element contexts currently cached, including the root elements for which no context could be built.
+   *
+   * @return The number of root element contexts currently cached.
+   */
+  public int getCachedContextCount() {
+    return this.rootElementContexts.size();
+  }
+
 }
@@ -19,8 +19,14 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -45,6 +51,8 @@ public class EnunciateJerseyServletContainer extends ServletContainer {
   private WebApplication wa;
   private String servletPath;
   private boolean pathBasedConneg = true;
+  private MediaTypePrefixTable mediaTypePrefixes;
+  private final ConcurrentMap<String, BaseUriPaths> baseUriPaths = new ConcurrentHashMap<String, BaseUriPaths>();
 
   @Override
   protected void configure(ServletConfig sc, ResourceConfig rc, WebApplication wa) {
@@ -100,6 +108,7 @@ public class EnunciateJerseyServletContainer extends ServletContainer {
     }
     this.pathBasedConneg = Boolean.valueOf(pathBasedConneg);
     rc.getFeatures().put(JerseyAdaptedHttpServletRequest.FEATURE_PATH_BASED_CONNEG, this.pathBasedConneg);
+    rc.getFeatures().put(JerseyAdaptedHttpServletRequest.FEATURE_SHARED_RESOURCE_PROXIES, Boolean.valueOf(sc.getInitParameter(JerseyAdaptedHttpServletRequest.FEATURE_SHARED_RESOURCE_PROXIES)));
 
     String resourceProvider = sc.getInitParameter(JerseyAdaptedHttpServletRequest.PROPERTY_RESOURCE_PROVIDER_FACTORY);
     if (resourceProvider != null) {
@@ -130,6 +139,21 @@ public class EnunciateJerseyServletContainer extends ServletContainer {
   protected void initiate(ResourceConfig rc, WebApplication wa) {
     wa.initiate(rc, loadResourceProviderFacotry(rc));
     this.resourceConfig = rc;
+    initRouting(this.servletPath, this.pathBasedConneg, rc.getMediaTypeMappings());
+  }
+
+  /**
+   * Initializes the routing of requests to base and request uris.
+   *
+   * @param servletPath The Enunciate-configured servlet path ("rest subcontext"), or null if none.
+   * @param pathBasedConneg Whether path-based content negotiation is enabled.
+   * @param mediaTypeMappings The media type mappings for path-based content negotiation.
+   */
+  void initRouting(String servletPath, boolean pathBasedConneg, Map<String, MediaType> mediaTypeMappings) {
+    this.servletPath = servletPath == null ? "" : servletPath;
+    this.pathBasedConneg = pathBasedConneg;
+    this.mediaTypePrefixes = new MediaTypePrefixTable(mediaTypeMappings);
+    this.baseUriPaths.clear();
   }
 
   @Override
@@ -169,85 +193,165 @@ public class EnunciateJerseyServletContainer extends ServletContainer {
     //same as the calculated base url. So we have to compensate for that here.
     //see http://jersey.576304.n2.nabble.com/ServletContainer-and-relative-path-resolution-td674105.html
 
-    //first get what the request url is, from which we can base our calculations.
-    UriBuilder requestUrl;
-    try {
-      requestUrl = UriBuilder.fromUri(String.valueOf(request.getRequestURL()));
-    }
-    catch (IllegalArgumentException e) {
-      String message = e.getCause() == null ? e.getMessage() : e.getCause().getMessage();
-      if (message == null) {
-        message = request.getRequestURL().insert(0, "Illegal URI: ").toString();
-      }
-      response.sendError(400, message);
-      return;
-    }
-
     //now calculate the path of the base uri, always starting with the context path.
-    StringBuilder baseUriPathBuilder = new StringBuilder();
-
     //the next part is specific to Enunciate because Enunciate allows users to configure a "rest subcontext"
     //so users can put their rest endpoints under, for example, "/rest" and their soap endpoints under, say "/soap".
     //furthermore, for rest endpoints, Enunciate provides for the ability to do path-based content negotiation
     //so the default resource will be at, for example, "/rest/resource", but the xml representation will be
     //at "/xml/resource" and the json at "/json/resource".
-    String requestPath = request.getRequestURI(); //start with what was actually requested.
+    final String requestURI = request.getRequestURI();
+    String requestPath = requestURI; //start with what was actually requested.
 
     final String contextPath = request.getContextPath();
-    MediaType mediaType = null;
+    String baseContextPath = "";
     if (!"".equals(contextPath) && requestPath.startsWith(contextPath)) {
       //the context path is part of the base uri.
-      baseUriPathBuilder.append(contextPath);
+      baseContextPath = contextPath;
       requestPath = requestPath.substring(contextPath.length());
     }
+
+    //the base uri paths are computed (and checked) once per context path.
+    BaseUriPaths basePaths = getBaseUriPaths(baseContextPath);
+    String baseUriPath = basePaths.defaultPath;
+    MediaType mediaType = null;
     if (!"".equals(this.servletPath) && requestPath.startsWith(this.servletPath)) {
       //the enunciate-configured servlet path ("rest subcontext") is part of the base uri
-      baseUriPathBuilder.append(this.servletPath);
+      baseUriPath = basePaths.servletPath;
       requestPath = requestPath.substring(this.servletPath.length());
     }
     else if (this.pathBasedConneg) {
-      //the enunciate-configured servlet path ("rest subcontext") is NOT part of the request. Iterate through
-      //each media type mapping and see if it's part of the path.
-      if (requestPath.startsWith("/")) {
-        requestPath = requestPath.substring(1);
+      //the enunciate-configured servlet path ("rest subcontext") is NOT part of the request. See if
+      //one of the media type mappings is part of the path.
+      int offset = requestPath.startsWith("/") ? 1 : 0;
+      MediaTypePrefixTable.Node mediaMapping = this.mediaTypePrefixes.match(requestPath, offset);
+      if (mediaMapping != null) {
+        //found a match to a specific media type, so we need to append the media type's 'key' to the base uri.
+        baseUriPath = basePaths.mediaPaths[mediaMapping.getIndex()];
+        requestPath = requestPath.substring(offset + mediaMapping.getKey().length());
+        mediaType = mediaMapping.getMediaType();
       }
-
-      for (Map.Entry<String, MediaType> mediaMapping : this.resourceConfig.getMediaTypeMappings().entrySet()) {
-        if (requestPath.startsWith(mediaMapping.getKey())) {
-          //found a match to a specific media type, so we need to append the media type's 'key' to the base uri.
-          String mediaKey = mediaMapping.getKey();
-          baseUriPathBuilder.append('/').append(mediaKey);
-          requestPath = requestPath.substring(mediaKey.length());
-          mediaType = mediaMapping.getValue();
-          break;
-        }
+      else if (offset > 0) {
+        requestPath = requestPath.substring(offset);
       }
     }
 
-
-    final String baseUriPath = baseUriPathBuilder.append('/').toString();
-
     //this check is in the super class, so I thought I'd keep it here for grins.
-    if (!baseUriPath.equals(UriComponent.encode(baseUriPath, UriComponent.Type.PATH))) {
+    if (basePaths.isPercentEncoded(baseUriPath)) {
         throw new ContainerException("The servlet context path and/or the servlet path contain characters that are percent enocded");
     }
 
-    final URI baseUri = requestUrl.replacePath(baseUriPath).build();
-
     String queryParameters = request.getQueryString();
     if (queryParameters == null) {
       queryParameters = "";
     }
 
-    final URI requestUri = requestUrl
-      .path(requestPath)
-      .replaceQuery(queryParameters)
-      .build();
+    //the request url is the scheme and authority followed by the request uri, so we can usually assemble the
+    //base and request uris directly. if that doesn't yield valid uris, fall back to the uri builder.
+    URI baseUri = null;
+    URI requestUri = null;
+    String requestUrl = String.valueOf(request.getRequestURL());
+    int authorityEnd = requestUrl.length() - requestURI.length();
+    if (authorityEnd > 0 && requestUrl.endsWith(requestURI)) {
+      StringBuilder uri = new StringBuilder(requestUrl.length() + baseUriPath.length() + queryParameters.length() + 1);
+      uri.append(requestUrl, 0, authorityEnd).append(baseUriPath);
+      try {
+        baseUri = new URI(uri.toString());
+        uri.append(requestPath, requestPath.startsWith("/") ? 1 : 0, requestPath.length());
+        if (queryParameters.length() > 0) {
+          uri.append('?').append(queryParameters);
+        }
+        requestUri = new URI(uri.toString());
+      }
+      catch (URISyntaxException e) {
+        baseUri = null;
+        requestUri = null;
+      }
+    }
+
+    if (requestUri == null) {
+      UriBuilder requestUrlBuilder;
+      try {
+        requestUrlBuilder = UriBuilder.fromUri(requestUrl);
+      }
+      catch (IllegalArgumentException e) {
+        String message = e.getCause() == null ? e.getMessage() : e.getCause().getMessage();
+        if (message == null) {
+          message = request.getRequestURL().insert(0, "Illegal URI: ").toString();
+        }
+        response.sendError(400, message);
+        return;
+      }
+
+      baseUri = requestUrlBuilder.replacePath(baseUriPath).build();
+      requestUri = requestUrlBuilder
+        .path(requestPath)
+        .replaceQuery(queryParameters)
+        .build();
+    }
 
-    request = new JerseyAdaptedHttpServletRequest(request, mediaType);
+    if (mediaType != null) {
+      //only the media type override needs the adapted request.
+      request = new JerseyAdaptedHttpServletRequest(request, mediaType);
+    }
     response = new JerseyAdaptedHttpServletResponse(response, this.wa);
 
-    service(baseUri, requestUri, request, response);
+    try {
+      service(baseUri, requestUri, request, response);
+    }
+    finally {
+      //release any resources bound to this thread by the shared resource proxies.
+      AdvisedResourceFactory.releaseBoundResources();
+    }
+  }
+
+  /**
+   * Get the base uri paths for the specified context path.
+   *
+   * @param contextPath The context path.
+   * @return The base uri paths.
+   */
+  protected BaseUriPaths getBaseUriPaths(String contextPath) {
+    BaseUriPaths paths = this.baseUriPaths.get(contextPath);
+    if (paths == null) {
+      paths = new BaseUriPaths(contextPath, this.servletPath, this.mediaTypePrefixes.getKeys());
+      BaseUriPaths existing = this.baseUriPaths.putIfAbsent(contextPath, paths);
+      if (existing != null) {
+        paths = existing;
+      }
+    }
+    return paths;
+  }
+
+  /**
+   * The possible paths of the base uri for a given context path: the default path, the path including the
+   * servlet path ("rest subcontext"), and the path for each media type mapping.
+   */
+  protected static final class BaseUriPaths {
+
+    private final String defaultPath;
+    private final String servletPath;
+    private final String[] mediaPaths;
+    private final Set<String> percentEncoded = new HashSet<String>();
+
+    private BaseUriPaths(String contextPath, String servletPath, List<String> mediaKeys) {
+      this.defaultPath = check(contextPath + '/');
+      this.servletPath = check(contextPath + servletPath + '/');
+      this.mediaPaths = new String[mediaKeys.size()];
+      for (int i = 0; i < this.mediaPaths.length; i++) {
+        this.mediaPaths[i] = check(contextPath + '/' + mediaKeys.get(i) + '/');
+      }
+    }
+
+    private String check(String path) {
+      if (!path.equals(UriComponent.encode(path, UriComponent.Type.PATH))) {
+        this.percentEncoded.add(path);
+      }
+      return path;
+    }
+
+    private boolean isPercentEncoded(String path) {
+      return !this.percentEncoded.isEmpty() && this.percentEncoded.contains(path);
+    }
   }
 
   /**
@@ -7,6 +7,8 @@ import com.sun.jersey.core.spi.component.ioc.IoCComponentProvider;
 import com.sun.jersey.core.spi.component.ioc.IoCInstantiatedComponentProvider;
 import com.sun.jersey.core.spi.component.ioc.IoCManagedComponentProvider;
 import com.sun.jersey.core.spi.component.ioc.IoCProxiedComponentProvider;
+import com.sun.jersey.server.impl.resource.PerRequestFactory;
+import com.sun.jersey.server.spi.component.ResourceComponentProviderFactoryClass;
 import com.sun.jersey.spi.spring.container.SpringComponentProviderFactory;
 import org.aopalliance.aop.Advice;
 import org.springframework.aop.Advisor;
@@ -18,9 +20,10 @@ import org.springframework.web.context.support.WebApplicationContextUtils;
 import javax.annotation.Resource;
 import javax.servlet.ServletContext;
 import javax.ws.rs.Path;
-import java.util.HashMap;
+import java.lang.annotation.Annotation;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * An enunciate-aware spring component provider factory. This factory is intended to extend the {@link SpringComponentProviderFactory} in such a way so
@@ -30,18 +33,22 @@ import java.util.Map;
  */
 public class EnunciateSpringComponentProviderFactory extends SpringComponentProviderFactory {
 
-  private final Map<Class, AdvisedResourceFactory> resourceFactories = new HashMap<Class, AdvisedResourceFactory>();
+  private final ConcurrentMap<Class, AdvisedResourceFactory> resourceFactories = new ConcurrentHashMap<Class, AdvisedResourceFactory>();
+  private final boolean sharedResourceProxies;
+  private final Object defaultResourceFactoryClass;
   private List<Object> interceptors;
 
   public EnunciateSpringComponentProviderFactory(ResourceConfig rc, ServletContext servletContext) {
     super(rc, (ConfigurableApplicationContext) WebApplicationContextUtils.getRequiredWebApplicationContext(servletContext));
+    this.sharedResourceProxies = rc.getFeature(JerseyAdaptedHttpServletRequest.FEATURE_SHARED_RESOURCE_PROXIES);
+    this.defaultResourceFactoryClass = rc.getProperty(ResourceConfig.PROPERTY_DEFAULT_RESOURCE_COMPONENT_PROVIDER_FACTORY_CLASS);
     WebApplicationContextUtils.getRequiredWebApplicationContext(servletContext).getAutowireCapableBeanFactory().autowireBean(this);
   }
 
   @Override
   public IoCComponentProvider getComponentProvider(ComponentContext cc, final Class c) {
     final IoCComponentProvider componentProvider = super.getComponentProvider(cc, c);
-    if (c.isAnnotationPresent(Path.class)) {
+    if (c.isAnnotationPresent(Path.class) && isAdvising(c)) {
       // we're only here to manage the lifecycle of service endpoints, but the component
       // provider factory also manages the lifecyle of other JAX-RS providers.
       // So we only inject our global service interceptors if the class is a service
@@ -58,7 +65,8 @@ public class EnunciateSpringComponentProviderFactory extends SpringComponentProv
           }
 
           public Object getInstance() {
-            return getResourceFactory(c).createAdvisedResource(componentProvider.getInstance());
+            boolean perRequest = getScope() == ComponentScope.PerRequest;
+            return getResourceFactory(c).createAdvisedResource(componentProvider.getInstance(), perRequest);
           }
         };
       }
@@ -70,7 +78,7 @@ public class EnunciateSpringComponentProviderFactory extends SpringComponentProv
           }
 
           public Object getInstance() {
-            return getResourceFactory(c).createAdvisedResource(componentProvider.getInstance());
+            return getResourceFactory(c).createAdvisedResource(componentProvider.getInstance(), isPerRequest(c));
           }
         };
       }
@@ -78,7 +86,7 @@ public class EnunciateSpringComponentProviderFactory extends SpringComponentProv
         //just a proxied provider.
         return new IoCProxiedComponentProvider() {
           public Object proxy(Object o) {
-            return getResourceFactory(c).createAdvisedResource(o);
+            return getResourceFactory(c).createAdvisedResource(o, isPerRequest(c));
           }
 
           public Object getInstance() {
@@ -116,24 +124,81 @@ public class EnunciateSpringComponentProviderFactory extends SpringComponentProv
     this.interceptors = interceptors;
   }
 
+  /**
+   * Whether instances of the specified resource class are actually advised. If not, the component provider
+   * is used as-is and the resources skip the proxy path entirely.
+   *
+   * @param resourceClass The resource class.
+   * @return Whether instances of the specified resource class are advised.
+   */
+  public boolean isAdvising(Class resourceClass) {
+    return getResourceFactory(resourceClass).isAdvising();
+  }
+
+  /**
+   * Whether the specified (Jersey-instantiated) resource class is a per-request resource.
+   *
+   * @param resourceClass The resource class.
+   * @return Whether the resource class is a per-request resource.
+   */
+  protected boolean isPerRequest(Class resourceClass) {
+    return isPerRequest(resourceClass, this.defaultResourceFactoryClass);
+  }
+
+  /**
+   * Whether the specified (Jersey-instantiated) resource class is a per-request resource. The scope is resolved the same
+   * way Jersey resolves it: from the scope annotation of the class, if any, or else from the default resource component
+   * provider factory of the resource config, which is per-request unless configured otherwise. A scope that can't be
+   * resolved to per-request (e.g. a custom scope) is treated as shared.
+   *
+   * @param resourceClass               The resource class.
+   * @param defaultResourceFactoryClass The configured default resource component provider factory (a class or a class name), or null.
+   * @return Whether the resource class is a per-request resource.
+   */
+  static boolean isPerRequest(Class resourceClass, Object defaultResourceFactoryClass) {
+    String factoryClassName = null;
+    for (Annotation annotation : resourceClass.getAnnotations()) {
+      ResourceComponentProviderFactoryClass factoryClass = annotation.annotationType().getAnnotation(ResourceComponentProviderFactoryClass.class);
+      if (factoryClass != null) {
+        factoryClassName = factoryClass.value().getName();
+        break;
+      }
+    }
+
+    if (factoryClassName == null) {
+      if (defaultResourceFactoryClass instanceof Class) {
+        factoryClassName = ((Class) defaultResourceFactoryClass).getName();
+      }
+      else if (defaultResourceFactoryClass != null) {
+        factoryClassName = String.valueOf(defaultResourceFactoryClass).trim();
+      }
+      else {
+        factoryClassName = PerRequestFactory.class.getName();
+      }
+    }
+
+    return PerRequestFactory.class.getName().equals(factoryClassName);
+  }
+
   protected <T> AdvisedResourceFactory<T> getResourceFactory(Class<T> resourceClass) {
-    AdvisedResourceFactory<T> factory;
-
-    synchronized (resourceFactories) {
-      factory = resourceFactories.get(resourceClass);
-      if (factory == null) {
-        factory = new AdvisedResourceFactory<T>(resourceClass);
-        if (interceptors != null && !interceptors.isEmpty()) {
-          for (Object interceptor : interceptors) {
-            if (interceptor instanceof Advice) {
-              factory.addAdvice((Advice) interceptor);
-            }
-            else if (interceptor instanceof Advisor) {
-              factory.addAdvisor((Advisor) interceptor);
-            }
+    AdvisedResourceFactory<T> factory = resourceFactories.get(resourceClass);
+    if (factory == null) {
+      factory = new AdvisedResourceFactory<T>(resourceClass);
+      factory.setSharedProxyEnabled(this.sharedResourceProxies);
+      if (interceptors != null && !interceptors.isEmpty()) {
+        for (Object interceptor : interceptors) {
+          if (interceptor instanceof Advice) {
+            factory.addAdvice((Advice) interceptor);
+          }
+          else if (interceptor instanceof Advisor) {
+            factory.addAdvisor((Advisor) interceptor);
           }
         }
-        resourceFactories.put(resourceClass, factory);
+      }
+
+      AdvisedResourceFactory<T> existing = resourceFactories.putIfAbsent(resourceClass, factory);
+      if (existing != null) {
+        factory = existing;
       }
     }
 
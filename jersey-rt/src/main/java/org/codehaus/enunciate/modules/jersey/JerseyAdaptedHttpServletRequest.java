@@ -29,6 +29,7 @@ public class JerseyAdaptedHttpServletRequest extends HttpServletRequestWrapper {
   public static final String PROPERTY_SERVLET_PATH = "org.codehaus.enunciate.modules.jersey.config.ServletPath";
   public static final String PROPERTY_RESOURCE_PROVIDER_FACTORY = "org.codehaus.enunciate.modules.jersey.config.ResourceProviderFactory";
   public static final String FEATURE_PATH_BASED_CONNEG = "org.codehaus.enunciate.modules.jersey.config.PathBasedConneg";
+  public static final String FEATURE_SHARED_RESOURCE_PROXIES = "org.codehaus.enunciate.modules.jersey.config.SharedResourceProxies";
 
   private final MediaType mediaType;
 
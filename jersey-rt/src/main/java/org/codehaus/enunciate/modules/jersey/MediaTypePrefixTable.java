@@ -0,0 +1,148 @@
+/*
+ * Copyright 2006-2008 Web Cohesion
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.codehaus.enunciate.modules.jersey;
+
+import javax.ws.rs.core.MediaType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Prefix table for path-based content negotiation, compiled once from the media type mappings of the resource config
+ * (e.g. "xml" to "application/xml"). The table is a character trie, so finding the mapping that a request path starts
+ * with doesn't allocate. If more than one mapping key is a prefix of the path, the longest key wins.
+ *
+ * @author Ryan Heaton
+ */
+public class MediaTypePrefixTable {
+
+  private final Node root = new Node('\0');
+  private final List<String> keys = new ArrayList<String>();
+
+  public MediaTypePrefixTable(Map<String, MediaType> mediaTypeMappings) {
+    for (Map.Entry<String, MediaType> mapping : mediaTypeMappings.entrySet()) {
+      String key = mapping.getKey();
+      if (key == null || key.length() == 0) {
+        continue;
+      }
+
+      Node node = this.root;
+      for (int i = 0; i < key.length(); i++) {
+        node = node.getOrAddChild(key.charAt(i));
+      }
+
+      if (node.key == null) {
+        node.index = this.keys.size();
+        this.keys.add(key);
+      }
+      node.key = key;
+      node.mediaType = mapping.getValue();
+    }
+  }
+
+  /**
+   * Find the longest mapping key that the specified path starts with.
+   *
+   * @param path The path.
+   * @param offset The offset in the path at which to start matching.
+   * @return The node of the matching key, or null if no key matches.
+   */
+  public Node match(String path, int offset) {
+    Node match = null;
+    Node node = this.root;
+    for (int i = offset; i < path.length() && node != null; i++) {
+      node = node.getChild(path.charAt(i));
+      if (node != null && node.key != null) {
+        match = node;
+      }
+    }
+    return match;
+  }
+
+  /**
+   * The mapping keys, in the order of their {@link Node#getIndex() indexes}.
+   *
+   * @return The mapping keys.
+   */
+  public List<String> getKeys() {
+    return keys;
+  }
+
+  /**
+   * A node in the trie.
+   */
+  public static final class Node {
+
+    private final char c;
+    private Node[] children = new Node[0];
+    private String key;
+    private MediaType mediaType;
+    private int index = -1;
+
+    private Node(char c) {
+      this.c = c;
+    }
+
+    private Node getChild(char c) {
+      for (Node child : this.children) {
+        if (child.c == c) {
+          return child;
+        }
+      }
+      return null;
+    }
+
+    private Node getOrAddChild(char c) {
+      Node child = getChild(c);
+      if (child == null) {
+        child = new Node(c);
+        Node[] children = new Node[this.children.length + 1];
+        System.arraycopy(this.children, 0, children, 0, this.children.length);
+        children[this.children.length] = child;
+        this.children = children;
+      }
+      return child;
+    }
+
+    /**
+     * The mapping key that ends at this node.
+     *
+     * @return The mapping key that ends at this node.
+     */
+    public String getKey() {
+      return key;
+    }
+
+    /**
+     * The media type the key maps to.
+     *
+     * @return The media type the key maps to.
+     */
+    public MediaType getMediaType() {
+      return mediaType;
+    }
+
+    /**
+     * The index of the key in the table.
+     *
+     * @return The index of the key in the table.
+     */
+    public int getIndex() {
+      return index;
+    }
+  }
+}
@@ -0,0 +1,234 @@
+/*
+ * Copyright 2006-2008 Web Cohesion
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.codehaus.enunciate.modules.jersey;
+
+import org.w3c.dom.Node;
+import org.xml.sax.ContentHandler;
+
+import javax.xml.bind.*;
+import javax.xml.bind.annotation.adapters.XmlAdapter;
+import javax.xml.bind.attachment.AttachmentMarshaller;
+import javax.xml.stream.XMLEventWriter;
+import javax.xml.stream.XMLStreamWriter;
+import javax.xml.transform.Result;
+import javax.xml.validation.Schema;
+import java.io.File;
+import java.io.OutputStream;
+import java.io.Writer;
+
+/**
+ * A marshaller that is reused by a {@link DelegatingJAXBContext} in pooled mode. The marshaller is in use from the time it's
+ * handed out until a call to one of its marshal methods completes. It keeps track of what the caller changed so that it
+ * can be restored to the state it had when it was configured, and whether it was changed in a way that can't be restored
+ * (an adapter or a vendor property), in which case it isn't reused.
+ *
+ * @author Ryan Heaton
+ */
+class PooledMarshaller implements Marshaller {
+
+  private final Marshaller delegate;
+  private final Object encoding;
+  private final Object formattedOutput;
+  private final Object fragment;
+  private final Schema schema;
+  private final ValidationEventHandler eventHandler;
+  private final Listener listener;
+  private final AttachmentMarshaller attachmentMarshaller;
+  private boolean inUse = false;
+  private boolean modified = false;
+  private boolean reusable = true;
+
+  /**
+   * @param delegate The (configured) marshaller, the state of which is restored each time it's reused.
+   */
+  PooledMarshaller(Marshaller delegate) throws JAXBException {
+    this.delegate = delegate;
+    this.encoding = delegate.getProperty(JAXB_ENCODING);
+    this.formattedOutput = delegate.getProperty(JAXB_FORMATTED_OUTPUT);
+    this.fragment = delegate.getProperty(JAXB_FRAGMENT);
+    this.schema = delegate.getSchema();
+    this.eventHandler = delegate.getEventHandler();
+    this.listener = delegate.getListener();
+    this.attachmentMarshaller = delegate.getAttachmentMarshaller();
+  }
+
+  /**
+   * Check out this marshaller, restoring its state if it was changed since it was last checked out.
+   *
+   * @return Whether this marshaller could be checked out (i.e. it isn't in use and it could be restored).
+   */
+  boolean checkOut() throws JAXBException {
+    if (this.inUse || !this.reusable) {
+      return false;
+    }
+
+    if (this.modified) {
+      this.delegate.setProperty(JAXB_ENCODING, this.encoding);
+      this.delegate.setProperty(JAXB_FORMATTED_OUTPUT, this.formattedOutput);
+      this.delegate.setProperty(JAXB_FRAGMENT, this.fragment);
+      this.delegate.setSchema(this.schema);
+      this.delegate.setEventHandler(this.eventHandler);
+      this.delegate.setListener(this.listener);
+      this.delegate.setAttachmentMarshaller(this.attachmentMarshaller);
+      this.modified = false;
+    }
+
+    this.inUse = true;
+    return true;
+  }
+
+  public void marshal(Object jaxbElement, Result result) throws JAXBException {
+    try {
+      this.delegate.marshal(jaxbElement, result);
+    }
+    finally {
+      this.inUse = false;
+    }
+  }
+
+  public void marshal(Object jaxbElement, OutputStream os) throws JAXBException {
+    try {
+      this.delegate.marshal(jaxbElement, os);
+    }
+    finally {
+      this.inUse = false;
+    }
+  }
+
+  public void marshal(Object jaxbElement, File output) throws JAXBException {
+    try {
+      this.delegate.marshal(jaxbElement, output);
+    }
+    finally {
+      this.inUse = false;
+    }
+  }
+
+  public void marshal(Object jaxbElement, Writer writer) throws JAXBException {
+    try {
+      this.delegate.marshal(jaxbElement, writer);
+    }
+    finally {
+      this.inUse = false;
+    }
+  }
+
+  public void marshal(Object jaxbElement, ContentHandler handler) throws JAXBException {
+    try {
+      this.delegate.marshal(jaxbElement, handler);
+    }
+    finally {
+      this.inUse = false;
+    }
+  }
+
+  public void marshal(Object jaxbElement, Node node) throws JAXBException {
+    try {
+      this.delegate.marshal(jaxbElement, node);
+    }
+    finally {
+      this.inUse = false;
+    }
+  }
+
+  public void marshal(Object jaxbElement, XMLStreamWriter writer) throws JAXBException {
+    try {
+      this.delegate.marshal(jaxbElement, writer);
+    }
+    finally {
+      this.inUse = false;
+    }
+  }
+
+  public void marshal(Object jaxbElement, XMLEventWriter writer) throws JAXBException {
+    try {
+      this.delegate.marshal(jaxbElement, writer);
+    }
+    finally {
+      this.inUse = false;
+    }
+  }
+
+  public Node getNode(Object contentTree) throws JAXBException {
+    return this.delegate.getNode(contentTree);
+  }
+
+  public void setProperty(String name, Object value) throws PropertyException {
+    if (JAXB_ENCODING.equals(name) || JAXB_FORMATTED_OUTPUT.equals(name) || JAXB_FRAGMENT.equals(name)) {
+      this.modified = true;
+    }
+    else {
+      //includes the schema location properties, which can't be set back to null.
+      this.reusable = false;
+    }
+    this.delegate.setProperty(name, value);
+  }
+
+  public Object getProperty(String name) throws PropertyException {
+    return this.delegate.getProperty(name);
+  }
+
+  public void setEventHandler(ValidationEventHandler handler) throws JAXBException {
+    this.modified = true;
+    this.delegate.setEventHandler(handler);
+  }
+
+  public ValidationEventHandler getEventHandler() throws JAXBException {
+    return this.delegate.getEventHandler();
+  }
+
+  public void setAdapter(XmlAdapter adapter) {
+    this.reusable = false;
+    this.delegate.setAdapter(adapter);
+  }
+
+  public <A extends XmlAdapter> void setAdapter(Class<A> type, A adapter) {
+    this.reusable = false;
+    this.delegate.setAdapter(type, adapter);
+  }
+
+  public <A extends XmlAdapter> A getAdapter(Class<A> type) {
+    return this.delegate.getAdapter(type);
+  }
+
+  public void setAttachmentMarshaller(AttachmentMarshaller am) {
+    this.modified = true;
+    this.delegate.setAttachmentMarshaller(am);
+  }
+
+  public AttachmentMarshaller getAttachmentMarshaller() {
+    return this.delegate.getAttachmentMarshaller();
+  }
+
+  public void setSchema(Schema schema) {
+    this.modified = true;
+    this.delegate.setSchema(schema);
+  }
+
+  public Schema getSchema() {
+    return this.delegate.getSchema();
+  }
+
+  public void setListener(Listener listener) {
+    this.modified = true;
+    this.delegate.setListener(listener);
+  }
+
+  public Listener getListener() {
+    return this.delegate.getListener();
+  }
+}
@@ -0,0 +1,279 @@
+/*
+ * Copyright 2006-2008 Web Cohesion
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.codehaus.enunciate.modules.jersey;
+
+import org.w3c.dom.Node;
+import org.xml.sax.InputSource;
+
+import javax.xml.bind.*;
+import javax.xml.bind.annotation.adapters.XmlAdapter;
+import javax.xml.bind.attachment.AttachmentUnmarshaller;
+import javax.xml.stream.XMLEventReader;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.transform.Source;
+import javax.xml.validation.Schema;
+import java.io.File;
+import java.io.InputStream;
+import java.io.Reader;
+import java.net.URL;
+
+/**
+ * An unmarshaller that is reused by a {@link DelegatingJAXBContext} in pooled mode. The unmarshaller is in use from the time
+ * it's handed out until a call to one of its unmarshal methods completes. It keeps track of what the caller changed so that
+ * it can be restored to the state it had when it was configured, and whether it was changed in a way that can't be restored
+ * (an adapter, a vendor property or an unmarshaller handler handed out), in which case it isn't reused.
+ *
+ * @author Ryan Heaton
+ */
+class PooledUnmarshaller implements Unmarshaller {
+
+  private final Unmarshaller delegate;
+  private final Schema schema;
+  private final ValidationEventHandler eventHandler;
+  private final Listener listener;
+  private final AttachmentUnmarshaller attachmentUnmarshaller;
+  private boolean inUse = false;
+  private boolean modified = false;
+  private boolean reusable = true;
+
+  /**
+   * @param delegate The (configured) unmarshaller, the state of which is restored each time it's reused.
+   */
+  PooledUnmarshaller(Unmarshaller delegate) throws JAXBException {
+    this.delegate = delegate;
+    this.schema = delegate.getSchema();
+    this.eventHandler = delegate.getEventHandler();
+    this.listener = delegate.getListener();
+    this.attachmentUnmarshaller = delegate.getAttachmentUnmarshaller();
+  }
+
+  /**
+   * Check out this unmarshaller, restoring its state if it was changed since it was last checked out.
+   *
+   * @return Whether this unmarshaller could be checked out (i.e. it isn't in use and it could be restored).
+   */
+  boolean checkOut() throws JAXBException {
+    if (this.inUse || !this.reusable) {
+      return false;
+    }
+
+    if (this.modified) {
+      this.delegate.setSchema(this.schema);
+      this.delegate.setEventHandler(this.eventHandler);
+      this.delegate.setListener(this.listener);
+      this.delegate.setAttachmentUnmarshaller(this.attachmentUnmarshaller);
+      this.modified = false;
+    }
+
+    this.inUse = true;
+    return true;
+  }
+
+  public Object unmarshal(File f) throws JAXBException {
+    try {
+      return this.delegate.unmarshal(f);
+    }
+    finally {
+      this.inUse = false;
+    }
+  }
+
+  public Object unmarshal(InputStream is) throws JAXBException {
+    try {
+      return this.delegate.unmarshal(is);
+    }
+    finally {
+      this.inUse = false;
+    }
+  }
+
+  public Object unmarshal(Reader reader) throws JAXBException {
+    try {
+      return this.delegate.unmarshal(reader);
+    }
+    finally {
+      this.inUse = false;
+    }
+  }
+
+  public Object unmarshal(URL url) throws JAXBException {
+    try {
+      return this.delegate.unmarshal(url);
+    }
+    finally {
+      this.inUse = false;
+    }
+  }
+
+  public Object unmarshal(InputSource source) throws JAXBException {
+    try {
+      return this.delegate.unmarshal(source);
+    }
+    finally {
+      this.inUse = false;
+    }
+  }
+
+  public Object unmarshal(Node node) throws JAXBException {
+    try {
+      return this.delegate.unmarshal(node);
+    }
+    finally {
+      this.inUse = false;
+    }
+  }
+
+  public <T> JAXBElement<T> unmarshal(Node node, Class<T> declaredType) throws JAXBException {
+    try {
+      return this.delegate.unmarshal(node, declaredType);
+    }
+    finally {
+      this.inUse = false;
+    }
+  }
+
+  public Object unmarshal(Source source) throws JAXBException {
+    try {
+      return this.delegate.unmarshal(source);
+    }
+    finally {
+      this.inUse = false;
+    }
+  }
+
+  public <T> JAXBElement<T> unmarshal(Source source, Class<T> declaredType) throws JAXBException {
+    try {
+      return this.delegate.unmarshal(source, declaredType);
+    }
+    finally {
+      this.inUse = false;
+    }
+  }
+
+  public Object unmarshal(XMLStreamReader reader) throws JAXBException {
+    try {
+      return this.delegate.unmarshal(reader);
+    }
+    finally {
+      this.inUse = false;
+    }
+  }
+
+  public <T> JAXBElement<T> unmarshal(XMLStreamReader reader, Class<T> declaredType) throws JAXBException {
+    try {
+      return this.delegate.unmarshal(reader, declaredType);
+    }
+    finally {
+      this.inUse = false;
+    }
+  }
+
+  public Object unmarshal(XMLEventReader reader) throws JAXBException {
+    try {
+      return this.delegate.unmarshal(reader);
+    }
+    finally {
+      this.inUse = false;
+    }
+  }
+
+  public <T> JAXBElement<T> unmarshal(XMLEventReader reader, Class<T> declaredType) throws JAXBException {
+    try {
+      return this.delegate.unmarshal(reader, declaredType);
+    }
+    finally {
+      this.inUse = false;
+    }
+  }
+
+  public UnmarshallerHandler getUnmarshallerHandler() {
+    //the handler unmarshals outside of this unmarshaller, so there's no telling when it's done.
+    this.reusable = false;
+    return this.delegate.getUnmarshallerHandler();
+  }
+
+  @SuppressWarnings ( "deprecation" )
+  public void setValidating(boolean validating) throws JAXBException {
+    this.reusable = false;
+    this.delegate.setValidating(validating);
+  }
+
+  @SuppressWarnings ( "deprecation" )
+  public boolean isValidating() throws JAXBException {
+    return this.delegate.isValidating();
+  }
+
+  public void setEventHandler(ValidationEventHandler handler) throws JAXBException {
+    this.modified = true;
+    this.delegate.setEventHandler(handler);
+  }
+
+  public ValidationEventHandler getEventHandler() throws JAXBException {
+    return this.delegate.getEventHandler();
+  }
+
+  public void setProperty(String name, Object value) throws PropertyException {
+    //there are no standard unmarshaller properties; a vendor property can't be restored.
+    this.reusable = false;
+    this.delegate.setProperty(name, value);
+  }
+
+  public Object getProperty(String name) throws PropertyException {
+    return this.delegate.getProperty(name);
+  }
+
+  public void setSchema(Schema schema) {
+    this.modified = true;
+    this.delegate.setSchema(schema);
+  }
+
+  public Schema getSchema() {
+    return this.delegate.getSchema();
+  }
+
+  public void setAdapter(XmlAdapter adapter) {
+    this.reusable = false;
+    this.delegate.setAdapter(adapter);
+  }
+
+  public <A extends XmlAdapter> void setAdapter(Class<A> type, A adapter) {
+    this.reusable = false;
+    this.delegate.setAdapter(type, adapter);
+  }
+
+  public <A extends XmlAdapter> A getAdapter(Class<A> type) {
+    return this.delegate.getAdapter(type);
+  }
+
+  public void setAttachmentUnmarshaller(AttachmentUnmarshaller au) {
+    this.modified = true;
+    this.delegate.setAttachmentUnmarshaller(au);
+  }
+
+  public AttachmentUnmarshaller getAttachmentUnmarshaller() {
+    return this.delegate.getAttachmentUnmarshaller();
+  }
+
+  public void setListener(Listener listener) {
+    this.modified = true;
+    this.delegate.setListener(listener);
+  }
+
+  public Listener getListener() {
+    return this.delegate.getListener();
+  }
+}
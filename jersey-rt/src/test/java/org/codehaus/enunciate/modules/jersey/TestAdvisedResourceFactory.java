@@ -0,0 +1,146 @@
+package org.codehaus.enunciate.modules.jersey;
+
+import junit.framework.TestCase;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * @author Ryan Heaton
+ */
+public class TestAdvisedResourceFactory extends TestCase {
+
+  /**
+   * tests that the shared proxy resolves to the instance bound on the calling thread.
+   */
+  public void testSharedProxyAcrossThreads() throws Exception {
+    final AdvisedResourceFactory<TestResourceImpl> factory = newFactory();
+    Object proxy = factory.createAdvisedResource(new TestResourceImpl("main"), true);
+    assertEquals("main (advised)", ((TestResource) proxy).getName());
+
+    final CountDownLatch bound = new CountDownLatch(1);
+    final CountDownLatch resume = new CountDownLatch(1);
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      Future<Object[]> other = executor.submit(new Callable<Object[]>() {
+        public Object[] call() throws Exception {
+          try {
+            Object proxy = factory.createAdvisedResource(new TestResourceImpl("other"), true);
+            bound.countDown();
+            resume.await();
+            return new Object[]{proxy, ((TestResource) proxy).getName()};
+          }
+          finally {
+            AdvisedResourceFactory.releaseBoundResources();
+          }
+        }
+      });
+
+      bound.await();
+      assertEquals("binding on another thread shouldn't change the instance bound to this one.", "main (advised)", ((TestResource) proxy).getName());
+      resume.countDown();
+      Object[] result = other.get();
+      assertSame("the proxy should be shared.", proxy, result[0]);
+      assertEquals("other (advised)", result[1]);
+    }
+    finally {
+      executor.shutdownNow();
+      AdvisedResourceFactory.releaseBoundResources();
+    }
+  }
+
+  /**
+   * tests that the resources bound to a thread are released.
+   */
+  public void testReleaseBoundResources() throws Exception {
+    AdvisedResourceFactory<TestResourceImpl> factory = newFactory();
+    Object proxy = factory.createAdvisedResource(new TestResourceImpl("main"), true);
+    assertEquals("main (advised)", ((TestResource) proxy).getName());
+
+    AdvisedResourceFactory.releaseBoundResources();
+    try {
+      ((TestResource) proxy).getName();
+      fail("the resource should have been released.");
+    }
+    catch (IllegalStateException e) {
+      //fall through...
+    }
+
+    assertSame(proxy, factory.createAdvisedResource(new TestResourceImpl("next"), true));
+    assertEquals("next (advised)", ((TestResource) proxy).getName());
+    AdvisedResourceFactory.releaseBoundResources();
+  }
+
+  /**
+   * tests that a resource that isn't per-request gets its own proxy.
+   */
+  public void testNotPerRequest() throws Exception {
+    AdvisedResourceFactory<TestResourceImpl> factory = newFactory();
+    Object singleton = factory.createAdvisedResource(new TestResourceImpl("singleton"), false);
+    Object perRequest = factory.createAdvisedResource(new TestResourceImpl("main"), true);
+    assertNotSame(singleton, perRequest);
+    AdvisedResourceFactory.releaseBoundResources();
+    assertEquals("singleton (advised)", ((TestResource) singleton).getName());
+  }
+
+  /**
+   * tests that a second instance of the same resource class created on the same thread during the same request gets its
+   * own proxy instead of rebinding the shared one.
+   */
+  public void testSecondInstanceOnSameThread() throws Exception {
+    AdvisedResourceFactory<TestResourceImpl> factory = newFactory();
+    try {
+      Object first = factory.createAdvisedResource(new TestResourceImpl("first"), true);
+      Object second = factory.createAdvisedResource(new TestResourceImpl("second"), true);
+      assertNotSame(first, second);
+      assertEquals("first (advised)", ((TestResource) first).getName());
+      assertEquals("second (advised)", ((TestResource) second).getName());
+
+      AdvisedResourceFactory.releaseBoundResources();
+      assertEquals("a per-instance proxy shouldn't depend on the thread binding.", "second (advised)", ((TestResource) second).getName());
+      assertSame("the shared proxy should be used again in the next request.", first, factory.createAdvisedResource(new TestResourceImpl("next"), true));
+      assertEquals("next (advised)", ((TestResource) first).getName());
+    }
+    finally {
+      AdvisedResourceFactory.releaseBoundResources();
+    }
+  }
+
+  private AdvisedResourceFactory<TestResourceImpl> newFactory() {
+    AdvisedResourceFactory<TestResourceImpl> factory = new AdvisedResourceFactory<TestResourceImpl>(TestResourceImpl.class);
+    factory.setSharedProxyEnabled(true);
+    factory.addAdvice(new MethodInterceptor() {
+      public Object invoke(MethodInvocation invocation) throws Throwable {
+        return invocation.proceed() + " (advised)";
+      }
+    });
+    return factory;
+  }
+
+  public static interface TestResource {
+
+    @GET
+    String getName();
+  }
+
+  @Path ( "test" )
+  public static class TestResourceImpl implements TestResource {
+
+    private final String name;
+
+    public TestResourceImpl(String name) {
+      this.name = name;
+    }
+
+    public String getName() {
+      return name;
+    }
+  }
+}
@@ -0,0 +1,127 @@
+package org.codehaus.enunciate.modules.jersey;
+
+import junit.framework.TestCase;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.Marshaller;
+import javax.xml.bind.Unmarshaller;
+import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.bind.annotation.adapters.XmlAdapter;
+import java.io.StringReader;
+import java.io.StringWriter;
+
+/**
+ * @author Ryan Heaton
+ */
+public class TestDelegatingJAXBContext extends TestCase {
+
+  /**
+   * tests reusing a pooled marshaller, restoring what the caller changed.
+   */
+  public void testPooledMarshaller() throws Exception {
+    DelegatingJAXBContext context = new DelegatingJAXBContext(JAXBContext.newInstance(Bean.class), true);
+    Marshaller marshaller = context.createMarshaller();
+    marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.TRUE);
+    marshaller.setProperty(Marshaller.JAXB_FRAGMENT, Boolean.TRUE);
+    marshaller.setListener(new Marshaller.Listener() {});
+    marshaller.marshal(new Bean(), new StringWriter());
+
+    Marshaller next = context.createMarshaller();
+    assertSame(marshaller, next);
+    assertEquals(Boolean.FALSE, next.getProperty(Marshaller.JAXB_FORMATTED_OUTPUT));
+    assertEquals(Boolean.FALSE, next.getProperty(Marshaller.JAXB_FRAGMENT));
+    assertNull(next.getListener());
+    StringWriter out = new StringWriter();
+    next.marshal(new Bean(), out);
+    assertTrue(out.toString().startsWith("<?xml"));
+  }
+
+  /**
+   * tests that a marshaller that is still in use isn't handed out again.
+   */
+  public void testNestedMarshaller() throws Exception {
+    DelegatingJAXBContext context = new DelegatingJAXBContext(JAXBContext.newInstance(Bean.class), true);
+    Marshaller outer = context.createMarshaller();
+    Marshaller nested = context.createMarshaller();
+    assertNotSame(outer, nested);
+    nested.marshal(new Bean(), new StringWriter());
+    outer.marshal(new Bean(), new StringWriter());
+    assertSame(nested, context.createMarshaller());
+  }
+
+  /**
+   * tests that a marshaller that was changed in a way that can't be restored isn't reused.
+   */
+  public void testUnrestorableMarshaller() throws Exception {
+    DelegatingJAXBContext context = new DelegatingJAXBContext(JAXBContext.newInstance(Bean.class), true);
+    Marshaller marshaller = context.createMarshaller();
+    marshaller.setAdapter(new BeanAdapter());
+    marshaller.marshal(new Bean(), new StringWriter());
+    Marshaller next = context.createMarshaller();
+    assertNotSame(marshaller, next);
+    assertNull(next.getAdapter(BeanAdapter.class));
+    next.marshal(new Bean(), new StringWriter());
+
+    next.setProperty(Marshaller.JAXB_SCHEMA_LOCATION, "urn:example schema.xsd");
+    next.marshal(new Bean(), new StringWriter());
+    assertNotSame(next, context.createMarshaller());
+  }
+
+  /**
+   * tests reusing a pooled unmarshaller.
+   */
+  public void testPooledUnmarshaller() throws Exception {
+    DelegatingJAXBContext context = new DelegatingJAXBContext(JAXBContext.newInstance(Bean.class), true);
+    Unmarshaller unmarshaller = context.createUnmarshaller();
+    assertNotSame("the first unmarshaller is still in use.", unmarshaller, context.createUnmarshaller());
+
+    unmarshaller = context.createUnmarshaller();
+    unmarshaller.setListener(new Unmarshaller.Listener() {});
+    assertTrue(unmarshaller.unmarshal(new StringReader("<bean/>")) instanceof Bean);
+    Unmarshaller next = context.createUnmarshaller();
+    assertSame(unmarshaller, next);
+    assertNull(next.getListener());
+
+    next.getUnmarshallerHandler();
+    assertNotSame(next, context.createUnmarshaller());
+  }
+
+  /**
+   * tests clearing the pool.
+   */
+  public void testClearPool() throws Exception {
+    DelegatingJAXBContext context = new DelegatingJAXBContext(JAXBContext.newInstance(Bean.class), true);
+    Marshaller marshaller = context.createMarshaller();
+    marshaller.marshal(new Bean(), new StringWriter());
+    context.clearPool();
+    Marshaller next = context.createMarshaller();
+    assertNotSame(marshaller, next);
+    next.marshal(new Bean(), new StringWriter());
+    assertSame(next, context.createMarshaller());
+  }
+
+  /**
+   * tests that nothing is reused when not pooled.
+   */
+  public void testNotPooled() throws Exception {
+    DelegatingJAXBContext context = new DelegatingJAXBContext(JAXBContext.newInstance(Bean.class));
+    Marshaller marshaller = context.createMarshaller();
+    marshaller.marshal(new Bean(), new StringWriter());
+    assertNotSame(marshaller, context.createMarshaller());
+  }
+
+  @XmlRootElement ( name = "bean" )
+  public static class Bean {
+  }
+
+  public static class BeanAdapter extends XmlAdapter<String, Bean> {
+
+    public Bean unmarshal(String v) throws Exception {
+      return new Bean();
+    }
+
+    public String marshal(Bean v) throws Exception {
+      return "bean";
+    }
+  }
+}
@@ -0,0 +1,90 @@
+package org.codehaus.enunciate.modules.jersey;
+
+import junit.framework.TestCase;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.annotation.XmlRootElement;
+
+/**
+ * @author Ryan Heaton
+ */
+public class TestEnunciateJAXBContextResolver extends TestCase {
+
+  /**
+   * tests that root element contexts are built once and cached.
+   */
+  public void testCacheHits() throws Exception {
+    EnunciateJAXBContextResolver resolver = new EnunciateJAXBContextResolver(10);
+    long built = resolver.getContextsBuilt();
+    JAXBContext context = resolver.getContext(RootOne.class);
+    assertNotNull(context);
+    assertEquals(built + 1, resolver.getContextsBuilt());
+    assertEquals(0, resolver.getCacheHits());
+    assertSame(context, resolver.getContext(RootOne.class));
+    assertEquals(built + 1, resolver.getContextsBuilt());
+    assertEquals(1, resolver.getCacheHits());
+    assertEquals(1, resolver.getCachedContextCount());
+
+    assertNull("a class that isn't a root element shouldn't get a context.", resolver.getContext(String.class));
+    assertEquals(1, resolver.getCachedContextCount());
+
+    //a root element for which no context can be built is cached, too.
+    assertNull(resolver.getContext(BadRoot.class));
+    assertEquals(2, resolver.getCachedContextCount());
+    assertNull(resolver.getContext(BadRoot.class));
+    assertEquals(2, resolver.getCacheHits());
+  }
+
+  /**
+   * tests that the cache is cleared when a context is cached and the cache is full.
+   */
+  public void testBoundAndEviction() throws Exception {
+    EnunciateJAXBContextResolver resolver = new EnunciateJAXBContextResolver(2);
+    JAXBContext one = resolver.getContext(RootOne.class);
+    resolver.getContext(BadRoot.class);
+    assertEquals(2, resolver.getCachedContextCount());
+
+    //a cached context doesn't evict a full cache.
+    assertSame(one, resolver.getContext(RootOne.class));
+    assertEquals(2, resolver.getCachedContextCount());
+
+    long built = resolver.getContextsBuilt();
+    assertNotNull(resolver.getContext(RootTwo.class));
+    assertEquals("the cache should have been cleared before the new context was cached.", 1, resolver.getCachedContextCount());
+    assertEquals(built + 1, resolver.getContextsBuilt());
+
+    JAXBContext rebuilt = resolver.getContext(RootOne.class);
+    assertNotSame("an evicted context should be built again.", one, rebuilt);
+    assertEquals(built + 2, resolver.getContextsBuilt());
+    assertEquals(2, resolver.getCachedContextCount());
+  }
+
+  /**
+   * tests that the cache size is read from the system property.
+   */
+  public void testConfiguredBound() throws Exception {
+    System.setProperty("enunciate.jersey.jaxbContextCacheSize", "1");
+    EnunciateJAXBContextResolver resolver;
+    try {
+      resolver = new EnunciateJAXBContextResolver();
+    }
+    finally {
+      System.getProperties().remove("enunciate.jersey.jaxbContextCacheSize");
+    }
+    resolver.getContext(RootOne.class);
+    resolver.getContext(RootTwo.class);
+    assertEquals(1, resolver.getCachedContextCount());
+  }
+
+  @XmlRootElement
+  public static class RootOne {
+  }
+
+  @XmlRootElement
+  public static class RootTwo {
+  }
+
+  @XmlRootElement
+  public static interface BadRoot {
+  }
+}
@@ -0,0 +1,142 @@
+package org.codehaus.enunciate.modules.jersey;
+
+import com.sun.jersey.api.container.ContainerException;
+import junit.framework.TestCase;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.ws.rs.core.MediaType;
+import java.io.IOException;
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.easymock.EasyMock.*;
+
+/**
+ * @author Ryan Heaton
+ */
+public class TestEnunciateJerseyServletContainer extends TestCase {
+
+  /**
+   * tests the base and request uris of a request to the servlet path ("rest subcontext").
+   */
+  public void testServletPath() throws Exception {
+    RecordingContainer container = newContainer(true);
+    HttpServletRequest request = request("/app", "/app/rest/person/1", "a=b&c=%20d");
+    container.service(request, createMock(HttpServletResponse.class));
+    assertEquals(URI.create("http://localhost:8080/app/rest/"), container.baseUri);
+    assertEquals(URI.create("http://localhost:8080/app/rest/person/1?a=b&c=%20d"), container.requestUri);
+    assertSame("the request shouldn't be adapted without a media type.", request, container.request);
+  }
+
+  /**
+   * tests the base and request uris of a request without a context path.
+   */
+  public void testRootContext() throws Exception {
+    RecordingContainer container = newContainer(true);
+    container.service(request("", "/person/1", null), createMock(HttpServletResponse.class));
+    assertEquals(URI.create("http://localhost:8080/"), container.baseUri);
+    assertEquals(URI.create("http://localhost:8080/person/1"), container.requestUri);
+    assertNull(container.requestUri.getQuery());
+  }
+
+  /**
+   * tests the base and request uris of a request routed by path-based content negotiation.
+   */
+  public void testPathBasedConneg() throws Exception {
+    RecordingContainer container = newContainer(true);
+    container.service(request("/app", "/app/xml/person/1", "a=b"), createMock(HttpServletResponse.class));
+    assertEquals(URI.create("http://localhost:8080/app/xml/"), container.baseUri);
+    assertEquals(URI.create("http://localhost:8080/app/xml/person/1?a=b"), container.requestUri);
+    assertTrue(container.request instanceof JerseyAdaptedHttpServletRequest);
+    assertEquals(MediaType.APPLICATION_XML, container.request.getHeader("Accept"));
+
+    //overlapping keys: the longest key wins.
+    container.service(request("/app", "/app/x/person/1", null), createMock(HttpServletResponse.class));
+    assertEquals(URI.create("http://localhost:8080/app/x/"), container.baseUri);
+    assertEquals(URI.create("http://localhost:8080/app/x/person/1"), container.requestUri);
+    assertEquals(MediaType.TEXT_PLAIN, container.request.getHeader("Accept"));
+
+    //no mapping: the default base uri.
+    container.service(request("/app", "/app/person/1", null), createMock(HttpServletResponse.class));
+    assertEquals(URI.create("http://localhost:8080/app/"), container.baseUri);
+    assertEquals(URI.create("http://localhost:8080/app/person/1"), container.requestUri);
+
+    //disabled: the mapping is part of the request path.
+    container = newContainer(false);
+    HttpServletRequest request = request("/app", "/app/xml/person/1", null);
+    container.service(request, createMock(HttpServletResponse.class));
+    assertEquals(URI.create("http://localhost:8080/app/"), container.baseUri);
+    assertEquals(URI.create("http://localhost:8080/app/xml/person/1"), container.requestUri);
+    assertSame(request, container.request);
+  }
+
+  /**
+   * tests that percent-encoded characters in the request path are kept encoded.
+   */
+  public void testEncodedCharacters() throws Exception {
+    RecordingContainer container = newContainer(true);
+    container.service(request("/app", "/app/rest/person/a%20b%2Fc", "q=%C3%A9"), createMock(HttpServletResponse.class));
+    assertEquals(URI.create("http://localhost:8080/app/rest/"), container.baseUri);
+    assertEquals("/app/rest/person/a%20b%2Fc", container.requestUri.getRawPath());
+    assertEquals("q=%C3%A9", container.requestUri.getRawQuery());
+
+    try {
+      container.service(request("/my%20app", "/my%20app/rest/person/1", null), createMock(HttpServletResponse.class));
+      fail("a percent-encoded context path should be rejected.");
+    }
+    catch (ContainerException e) {
+      //fall through...
+    }
+  }
+
+  /**
+   * tests that a request url that isn't a valid uri is rejected.
+   */
+  public void testIllegalRequestUrl() throws Exception {
+    RecordingContainer container = newContainer(true);
+    HttpServletResponse response = createMock(HttpServletResponse.class);
+    response.sendError(eq(400), (String) notNull());
+    replay(response);
+    container.service(request("/app", "/app/rest/a b", null), response);
+    verify(response);
+    assertNull(container.requestUri);
+  }
+
+  private RecordingContainer newContainer(boolean pathBasedConneg) {
+    Map<String, MediaType> mappings = new HashMap<String, MediaType>();
+    mappings.put("xml", MediaType.APPLICATION_XML_TYPE);
+    mappings.put("x", MediaType.TEXT_PLAIN_TYPE);
+    mappings.put("json", MediaType.APPLICATION_JSON_TYPE);
+    RecordingContainer container = new RecordingContainer();
+    container.initRouting("/rest", pathBasedConneg, mappings);
+    return container;
+  }
+
+  private HttpServletRequest request(String contextPath, String requestURI, String queryString) {
+    HttpServletRequest request = createNiceMock(HttpServletRequest.class);
+    expect(request.getContextPath()).andReturn(contextPath).anyTimes();
+    expect(request.getRequestURI()).andReturn(requestURI).anyTimes();
+    expect(request.getRequestURL()).andReturn(new StringBuffer("http://localhost:8080").append(requestURI)).anyTimes();
+    expect(request.getQueryString()).andReturn(queryString).anyTimes();
+    replay(request);
+    return request;
+  }
+
+  private static class RecordingContainer extends EnunciateJerseyServletContainer {
+
+    private URI baseUri;
+    private URI requestUri;
+    private HttpServletRequest request;
+
+    @Override
+    public int service(URI baseUri, URI requestUri, HttpServletRequest request, HttpServletResponse response) throws ServletException, IOException {
+      this.baseUri = baseUri;
+      this.requestUri = requestUri;
+      this.request = request;
+      return 200;
+    }
+  }
+}
@@ -0,0 +1,44 @@
+package org.codehaus.enunciate.modules.jersey;
+
+import com.sun.jersey.server.impl.resource.PerRequestFactory;
+import com.sun.jersey.server.spi.component.ResourceComponentProviderFactoryClass;
+import com.sun.jersey.spi.resource.PerRequest;
+import com.sun.jersey.spi.resource.Singleton;
+import junit.framework.TestCase;
+
+import javax.ws.rs.Path;
+
+/**
+ * @author Ryan Heaton
+ */
+public class TestEnunciateSpringComponentProviderFactory extends TestCase {
+
+  /**
+   * tests resolving the scope of a resource the way jersey resolves it.
+   */
+  public void testIsPerRequest() throws Exception {
+    assertTrue(EnunciateSpringComponentProviderFactory.isPerRequest(DefaultScopedResource.class, null));
+    assertTrue(EnunciateSpringComponentProviderFactory.isPerRequest(DefaultScopedResource.class, PerRequestFactory.class));
+    assertTrue(EnunciateSpringComponentProviderFactory.isPerRequest(DefaultScopedResource.class, PerRequestFactory.class.getName()));
+    assertFalse(EnunciateSpringComponentProviderFactory.isPerRequest(SingletonResource.class, null));
+    assertTrue(EnunciateSpringComponentProviderFactory.isPerRequest(PerRequestResource.class, null));
+
+    String singletonFactory = Singleton.class.getAnnotation(ResourceComponentProviderFactoryClass.class).value().getName();
+    assertFalse("a configured default scope should apply.", EnunciateSpringComponentProviderFactory.isPerRequest(DefaultScopedResource.class, singletonFactory));
+    assertTrue("a scope annotation should override the default scope.", EnunciateSpringComponentProviderFactory.isPerRequest(PerRequestResource.class, singletonFactory));
+  }
+
+  @Path ( "default" )
+  public static class DefaultScopedResource {
+  }
+
+  @Path ( "singleton" )
+  @Singleton
+  public static class SingletonResource {
+  }
+
+  @Path ( "perrequest" )
+  @PerRequest
+  public static class PerRequestResource {
+  }
+}
@@ -0,0 +1,64 @@
+package org.codehaus.enunciate.modules.jersey;
+
+import junit.framework.TestCase;
+
+import javax.ws.rs.core.MediaType;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * @author Ryan Heaton
+ */
+public class TestMediaTypePrefixTable extends TestCase {
+
+  /**
+   * tests matching the mapping key that a path starts with.
+   */
+  public void testMatch() throws Exception {
+    Map<String, MediaType> mappings = new HashMap<String, MediaType>();
+    mappings.put("xml", MediaType.APPLICATION_XML_TYPE);
+    mappings.put("json", MediaType.APPLICATION_JSON_TYPE);
+    mappings.put("", MediaType.TEXT_PLAIN_TYPE);
+    MediaTypePrefixTable table = new MediaTypePrefixTable(mappings);
+    assertEquals("an empty key should be ignored.", 2, table.getKeys().size());
+
+    MediaTypePrefixTable.Node match = table.match("/xml/person/1", 1);
+    assertEquals("xml", match.getKey());
+    assertSame(MediaType.APPLICATION_XML_TYPE, match.getMediaType());
+    assertEquals("xml", table.getKeys().get(match.getIndex()));
+    match = table.match("json/person/1", 0);
+    assertEquals("json", match.getKey());
+    assertSame(MediaType.APPLICATION_JSON_TYPE, match.getMediaType());
+    assertEquals("json", table.getKeys().get(match.getIndex()));
+
+    assertNull(table.match("/person/1", 1));
+    assertNull("the match should start at the offset.", table.match("/xml/person/1", 0));
+    assertNull("a partial key shouldn't match.", table.match("/xm", 1));
+    assertNull(table.match("", 0));
+    assertNull(new MediaTypePrefixTable(new HashMap<String, MediaType>()).match("/xml", 1));
+  }
+
+  /**
+   * tests that the longest key wins if more than one key is a prefix of the path.
+   */
+  public void testOverlappingKeys() throws Exception {
+    Map<String, MediaType> mappings = new HashMap<String, MediaType>();
+    mappings.put("x", MediaType.TEXT_PLAIN_TYPE);
+    mappings.put("xml", MediaType.APPLICATION_XML_TYPE);
+    mappings.put("xmlx", MediaType.APPLICATION_XHTML_XML_TYPE);
+    MediaTypePrefixTable table = new MediaTypePrefixTable(mappings);
+
+    assertEquals("xml", table.match("/xml/person", 1).getKey());
+    assertEquals("xmlx", table.match("/xmlx/person", 1).getKey());
+    assertEquals("x", table.match("/x/person", 1).getKey());
+    assertEquals("x", table.match("/xm/person", 1).getKey());
+    assertEquals("xml", table.match("/xml", 1).getKey());
+    assertSame(MediaType.APPLICATION_XML_TYPE, table.match("/xml/person", 1).getMediaType());
+
+    //each key has its own index.
+    assertEquals(3, table.getKeys().size());
+    for (String key : mappings.keySet()) {
+      assertEquals(key, table.getKeys().get(table.match(key, 0).getIndex()));
+    }
+  }
+}
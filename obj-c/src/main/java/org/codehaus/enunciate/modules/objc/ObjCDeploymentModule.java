@@ -35,6 +35,7 @@ import org.codehaus.enunciate.main.ClientLibraryArtifact;
 import org.codehaus.enunciate.main.NamedFileArtifact;
 import org.codehaus.enunciate.main.ArtifactType;
 import org.codehaus.enunciate.modules.FacetAware;
+import org.codehaus.enunciate.modules.DependencyAware;
 import org.codehaus.enunciate.modules.FreemarkerDeploymentModule;
 import org.codehaus.enunciate.modules.objc.config.ObjCRuleSet;
 import org.codehaus.enunciate.modules.objc.config.PackageIdentifier;
@@ -102,7 +103,7 @@ import java.util.regex.Pattern;
  * @author Ryan Heaton
  * @docFileName module_obj_c.html
  */
-public class ObjCDeploymentModule extends FreemarkerDeploymentModule implements FacetAware {
+public class ObjCDeploymentModule extends FreemarkerDeploymentModule implements FacetAware, DependencyAware {
 
   /**
    * The pattern to scrub is any non-word character.
@@ -128,6 +129,11 @@ public class ObjCDeploymentModule extends FreemarkerDeploymentModule implements
     return "obj-c";
   }
 
+  // Inherited.
+  public Set<String> getModuleDependencies() {
+    return Collections.emptySet();
+  }
+
   /**
    * Scrub a C identifier (removing any illegal characters, etc.).
    *
@@ -246,58 +252,60 @@ public class ObjCDeploymentModule extends FreemarkerDeploymentModule implements
    * @return The string form of the resource.
    */
   protected String readResource(String resource) throws IOException, EnunciateException {
-    HashMap<String, Object> model = new HashMap<String, Object>();
-    ResourceMethod exampleResource = getModelInternal().findExampleResourceMethod();
-    String label = getLabel() == null ? getEnunciate().getConfig() == null ? "enunciate" : getEnunciate().getConfig().getLabel() : getLabel();
-    model.put("label", label);
-    NameForTypeDefinitionMethod nameForTypeDefinition = new NameForTypeDefinitionMethod(getTypeDefinitionNamePattern(), label, getModelInternal().getNamespacesToPrefixes(), this.packageIdentifiers);
-
-    if (exampleResource != null) {
-      if (exampleResource.getEntityParameter() != null && exampleResource.getEntityParameter().getXmlElement() != null) {
-        ElementDeclaration el = exampleResource.getEntityParameter().getXmlElement();
-        TypeDefinition typeDefinition = null;
-        if (el instanceof RootElementDeclaration) {
-          typeDefinition = getModelInternal().findTypeDefinition((RootElementDeclaration) el);
-        }
-        else if (el instanceof LocalElementDeclaration && ((LocalElementDeclaration) el).getElementTypeDeclaration() instanceof ClassDeclaration) {
-          typeDefinition = getModelInternal().findTypeDefinition((ClassDeclaration) ((LocalElementDeclaration) el).getElementTypeDeclaration());
-        }
+    synchronized (getModelLock()) {
+      HashMap<String, Object> model = new HashMap<String, Object>();
+      ResourceMethod exampleResource = getModelInternal().findExampleResourceMethod();
+      String label = getLabel() == null ? getEnunciate().getConfig() == null ? "enunciate" : getEnunciate().getConfig().getLabel() : getLabel();
+      model.put("label", label);
+      NameForTypeDefinitionMethod nameForTypeDefinition = new NameForTypeDefinitionMethod(getTypeDefinitionNamePattern(), label, getModelInternal().getNamespacesToPrefixes(), this.packageIdentifiers);
+
+      if (exampleResource != null) {
+        if (exampleResource.getEntityParameter() != null && exampleResource.getEntityParameter().getXmlElement() != null) {
+          ElementDeclaration el = exampleResource.getEntityParameter().getXmlElement();
+          TypeDefinition typeDefinition = null;
+          if (el instanceof RootElementDeclaration) {
+            typeDefinition = getModelInternal().findTypeDefinition((RootElementDeclaration) el);
+          }
+          else if (el instanceof LocalElementDeclaration && ((LocalElementDeclaration) el).getElementTypeDeclaration() instanceof ClassDeclaration) {
+            typeDefinition = getModelInternal().findTypeDefinition((ClassDeclaration) ((LocalElementDeclaration) el).getElementTypeDeclaration());
+          }
 
-        if (typeDefinition != null) {
-          model.put("input_element_name", nameForTypeDefinition.calculateName(typeDefinition));
+          if (typeDefinition != null) {
+            model.put("input_element_name", nameForTypeDefinition.calculateName(typeDefinition));
+          }
         }
-      }
 
-      if (exampleResource.getRepresentationMetadata() != null && exampleResource.getRepresentationMetadata().getXmlElement() != null) {
-        ElementDeclaration el = exampleResource.getRepresentationMetadata().getXmlElement();
-        TypeDefinition typeDefinition = null;
-        if (el instanceof RootElementDeclaration) {
-          typeDefinition = getModelInternal().findTypeDefinition((RootElementDeclaration) el);
-        }
-        else if (el instanceof LocalElementDeclaration && ((LocalElementDeclaration) el).getElementTypeDeclaration() instanceof ClassDeclaration) {
-          typeDefinition = getModelInternal().findTypeDefinition((ClassDeclaration) ((LocalElementDeclaration) el).getElementTypeDeclaration());
-        }
+        if (exampleResource.getRepresentationMetadata() != null && exampleResource.getRepresentationMetadata().getXmlElement() != null) {
+          ElementDeclaration el = exampleResource.getRepresentationMetadata().getXmlElement();
+          TypeDefinition typeDefinition = null;
+          if (el instanceof RootElementDeclaration) {
+            typeDefinition = getModelInternal().findTypeDefinition((RootElementDeclaration) el);
+          }
+          else if (el instanceof LocalElementDeclaration && ((LocalElementDeclaration) el).getElementTypeDeclaration() instanceof ClassDeclaration) {
+            typeDefinition = getModelInternal().findTypeDefinition((ClassDeclaration) ((LocalElementDeclaration) el).getElementTypeDeclaration());
+          }
 
-        if (typeDefinition != null) {
-          model.put("output_element_name", nameForTypeDefinition.calculateName(typeDefinition));
+          if (typeDefinition != null) {
+            model.put("output_element_name", nameForTypeDefinition.calculateName(typeDefinition));
+          }
         }
-      }
 
-      model.put("resource_url", exampleResource.getFullpath());
-      model.put("resource_method", exampleResource.getHttpMethods().isEmpty() ? "GET" : exampleResource.getHttpMethods().iterator().next());
-    }
+        model.put("resource_url", exampleResource.getFullpath());
+        model.put("resource_method", exampleResource.getHttpMethods().isEmpty() ? "GET" : exampleResource.getHttpMethods().iterator().next());
+      }
 
-    URL res = ObjCDeploymentModule.class.getResource(resource);
-    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
-    PrintStream out = new PrintStream(bytes);
-    try {
-      processTemplate(res, model, out);
-      out.flush();
-      bytes.flush();
-      return bytes.toString("utf-8");
-    }
-    catch (TemplateException e) {
-      throw new EnunciateException(e);
+      URL res = ObjCDeploymentModule.class.getResource(resource);
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      PrintStream out = new PrintStream(bytes);
+      try {
+        processTemplate(res, model, out);
+        out.flush();
+        bytes.flush();
+        return bytes.toString("utf-8");
+      }
+      catch (TemplateException e) {
+        throw new EnunciateException(e);
+      }
     }
   }
 
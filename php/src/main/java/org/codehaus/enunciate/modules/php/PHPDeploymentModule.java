@@ -33,6 +33,7 @@ import org.codehaus.enunciate.contract.jaxrs.ResourceMethod;
 import org.codehaus.enunciate.main.NamedFileArtifact;
 import org.codehaus.enunciate.main.ClientLibraryArtifact;
 import org.codehaus.enunciate.main.ArtifactType;
+import org.codehaus.enunciate.modules.DependencyAware;
 import org.codehaus.enunciate.modules.FreemarkerDeploymentModule;
 import org.codehaus.enunciate.modules.php.config.PackageModuleConversion;
 import org.codehaus.enunciate.modules.php.config.PHPRuleSet;
@@ -99,7 +100,7 @@ import com.sun.mirror.type.ClassType;
  * @author Ryan Heaton
  * @docFileName module_php.html
  */
-public class PHPDeploymentModule extends FreemarkerDeploymentModule implements EnunciateClasspathListener {
+public class PHPDeploymentModule extends FreemarkerDeploymentModule implements EnunciateClasspathListener, DependencyAware {
 
   private boolean forceEnable = false;
   private String label = null;
@@ -117,6 +118,11 @@ public class PHPDeploymentModule extends FreemarkerDeploymentModule implements E
     return "php";
   }
 
+  // Inherited.
+  public Set<String> getModuleDependencies() {
+    return Collections.emptySet();
+  }
+
   public void onClassesFound(Set<String> classes) {
     jacksonXcAvailable |= classes.contains("org.codehaus.jackson.xc.JaxbAnnotationIntrospector");
   }
@@ -237,20 +243,22 @@ public class PHPDeploymentModule extends FreemarkerDeploymentModule implements E
    * @return The string form of the resource.
    */
   protected String readResource(String resource) throws IOException, EnunciateException {
-    HashMap<String, Object> model = new HashMap<String, Object>();
-    model.put("sample_resource", getModelInternal().findExampleResourceMethod());
-
-    URL res = PHPDeploymentModule.class.getResource(resource);
-    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
-    PrintStream out = new PrintStream(bytes);
-    try {
-      processTemplate(res, model, out);
-      out.flush();
-      bytes.flush();
-      return bytes.toString("utf-8");
-    }
-    catch (TemplateException e) {
-      throw new EnunciateException(e);
+    synchronized (getModelLock()) {
+      HashMap<String, Object> model = new HashMap<String, Object>();
+      model.put("sample_resource", getModelInternal().findExampleResourceMethod());
+
+      URL res = PHPDeploymentModule.class.getResource(resource);
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      PrintStream out = new PrintStream(bytes);
+      try {
+        processTemplate(res, model, out);
+        out.flush();
+        bytes.flush();
+        return bytes.toString("utf-8");
+      }
+      catch (TemplateException e) {
+        throw new EnunciateException(e);
+      }
     }
   }
 
@@ -33,6 +33,7 @@ import org.codehaus.enunciate.contract.jaxrs.ResourceMethod;
 import org.codehaus.enunciate.main.NamedFileArtifact;
 import org.codehaus.enunciate.main.ClientLibraryArtifact;
 import org.codehaus.enunciate.main.ArtifactType;
+import org.codehaus.enunciate.modules.DependencyAware;
 import org.codehaus.enunciate.modules.FreemarkerDeploymentModule;
 import org.codehaus.enunciate.modules.ruby.config.PackageModuleConversion;
 import org.codehaus.enunciate.modules.ruby.config.RubyRuleSet;
@@ -98,7 +99,7 @@ import com.sun.mirror.type.ClassType;
  * @author Ryan Heaton
  * @docFileName module_ruby.html
  */
-public class RubyDeploymentModule extends FreemarkerDeploymentModule implements EnunciateClasspathListener {
+public class RubyDeploymentModule extends FreemarkerDeploymentModule implements EnunciateClasspathListener, DependencyAware {
 
   private boolean forceEnable = false;
   private String label = null;
@@ -115,6 +116,11 @@ public class RubyDeploymentModule extends FreemarkerDeploymentModule implements
     return "ruby";
   }
 
+  // Inherited.
+  public Set<String> getModuleDependencies() {
+    return Collections.emptySet();
+  }
+
   public void onClassesFound(Set<String> classes) {
     jacksonXcAvailable |= classes.contains("org.codehaus.jackson.xc.JaxbAnnotationIntrospector");
   }
@@ -209,20 +215,22 @@ public class RubyDeploymentModule extends FreemarkerDeploymentModule implements
    * @return The string form of the resource.
    */
   protected String readResource(String resource) throws IOException, EnunciateException {
-    HashMap<String, Object> model = new HashMap<String, Object>();
-    model.put("sample_resource", getModelInternal().findExampleResourceMethod());
-
-    URL res = RubyDeploymentModule.class.getResource(resource);
-    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
-    PrintStream out = new PrintStream(bytes);
-    try {
-      processTemplate(res, model, out);
-      out.flush();
-      bytes.flush();
-      return bytes.toString("utf-8");
-    }
-    catch (TemplateException e) {
-      throw new EnunciateException(e);
+    synchronized (getModelLock()) {
+      HashMap<String, Object> model = new HashMap<String, Object>();
+      model.put("sample_resource", getModelInternal().findExampleResourceMethod());
+
+      URL res = RubyDeploymentModule.class.getResource(resource);
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      PrintStream out = new PrintStream(bytes);
+      try {
+        processTemplate(res, model, out);
+        out.flush();
+        bytes.flush();
+        return bytes.toString("utf-8");
+      }
+      catch (TemplateException e) {
+        throw new EnunciateException(e);
+      }
     }
   }
 
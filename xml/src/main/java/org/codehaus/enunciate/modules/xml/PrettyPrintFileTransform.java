@@ -0,0 +1,52 @@
+/*
+ * Copyright 2006-2008 Web Cohesion
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.codehaus.enunciate.modules.xml;
+
+import net.sf.jelly.apt.freemarker.FreemarkerModel;
+import net.sf.jelly.apt.strategies.FileStrategy;
+import net.sf.jelly.apt.strategies.MissingParameterException;
+import org.codehaus.enunciate.apt.EnunciateFreemarkerModel;
+import org.codehaus.enunciate.template.freemarker.EnunciateFileTransform;
+import org.codehaus.enunciate.template.strategies.EnunciateFileStrategy;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+
+/**
+ * File transform that pretty-prints the xml files as they're written.
+ *
+ * @author Ryan Heaton
+ */
+public class PrettyPrintFileTransform extends EnunciateFileTransform {
+
+  public PrettyPrintFileTransform(String namespace) {
+    super(namespace);
+  }
+
+  @Override
+  public FileStrategy newStrategy() {
+    EnunciateFreemarkerModel model = (EnunciateFreemarkerModel) FreemarkerModel.get();
+    File outputDir = (model != null) ? model.getFileOutputDirectory() : null;
+    return new EnunciateFileStrategy(outputDir) {
+      @Override
+      public PrintWriter getWriter() throws IOException, MissingParameterException {
+        return new PrintWriter(new PrettyPrintWriter(super.getWriter()));
+      }
+    };
+  }
+}
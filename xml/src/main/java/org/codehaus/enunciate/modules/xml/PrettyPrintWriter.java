@@ -0,0 +1,313 @@
+/*
+ * Copyright 2006-2008 Web Cohesion
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.codehaus.enunciate.modules.xml;
+
+import java.io.FilterWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.LinkedList;
+
+/**
+ * A writer that pretty-prints the xml that is written to it as it goes, so the xml doesn't have to be parsed again
+ * after it's written. Each element is put on its own line, indented according to its depth, elements without content
+ * are collapsed to empty elements, and character data is trimmed. Some important assumptions are made:
+ *
+ * <ol>
+ *   <li>The XML declaration that is written is replaced with a UTF-8 declaration.</li>
+ *   <li>The whitespace in character data is not important.</li>
+ *   <li>There are no entity declarations in the document type declaration, if there is one.</li>
+ * </ol>
+ *
+ * @author Ryan Heaton
+ */
+public class PrettyPrintWriter extends FilterWriter {
+
+  private static final String LINE_SEPARATOR = System.getProperty("line.separator");
+  private static final String COMMENT_START = "<!--";
+  private static final String CDATA_START = "<![CDATA[";
+
+  /**
+   * The kinds of markup, decided from the first few characters of the markup.
+   */
+  private static final int UNDECIDED = 0;
+  private static final int TAG = 1;
+  private static final int COMMENT = 2;
+  private static final int CDATA = 3;
+  private static final int PROCESSING_INSTRUCTION = 4;
+
+  private final StringBuilder indentation = new StringBuilder();
+  private final LinkedList<Boolean> bodyStack = new LinkedList<Boolean>();
+  private final StringBuilder text = new StringBuilder();
+  private final StringBuilder markup = new StringBuilder();
+  private boolean inMarkup = false;
+  private int markupKind = UNDECIDED;
+  private boolean maybeComment = false;
+  private boolean maybeCData = false;
+  private char quote = 0;
+  private boolean started = false;
+
+  public PrettyPrintWriter(Writer out) {
+    super(out);
+    this.bodyStack.add(true);
+  }
+
+  @Override
+  public void write(int c) throws IOException {
+    if (this.inMarkup) {
+      this.markup.append((char) c);
+      if (isMarkupComplete((char) c)) {
+        this.inMarkup = false;
+        writeMarkup(this.markup.toString());
+        this.markup.setLength(0);
+      }
+    }
+    else if (c == '<') {
+      writeText();
+      this.inMarkup = true;
+      this.markupKind = UNDECIDED;
+      this.maybeComment = true;
+      this.maybeCData = true;
+      this.markup.append('<');
+    }
+    else {
+      this.text.append((char) c);
+    }
+  }
+
+  @Override
+  public void write(char[] chars, int off, int len) throws IOException {
+    for (int i = off; i < off + len; i++) {
+      write(chars[i]);
+    }
+  }
+
+  @Override
+  public void write(String str, int off, int len) throws IOException {
+    for (int i = off; i < off + len; i++) {
+      write(str.charAt(i));
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    writeText();
+    if (this.markup.length() > 0) {
+      //incomplete markup; just write it out.
+      this.out.write(this.markup.toString());
+      this.markup.setLength(0);
+    }
+    super.close();
+  }
+
+  /**
+   * Whether the markup being written is complete with the specified character. The kind of markup is decided once, from
+   * its first few characters, and only the end of the markup is looked at after that.
+   *
+   * @param c The character that was just appended to the markup.
+   * @return Whether the markup is complete.
+   */
+  private boolean isMarkupComplete(char c) {
+    int length = this.markup.length();
+    if (this.markupKind == UNDECIDED) {
+      if (length == 2 && c == '?') {
+        this.markupKind = PROCESSING_INSTRUCTION;
+        return false;
+      }
+
+      //the markup is a comment or a cdata section if it starts with their start sequence.
+      int index = length - 1;
+      this.maybeComment = this.maybeComment && index < COMMENT_START.length() && COMMENT_START.charAt(index) == c;
+      this.maybeCData = this.maybeCData && index < CDATA_START.length() && CDATA_START.charAt(index) == c;
+      if (this.maybeComment && length == COMMENT_START.length()) {
+        this.markupKind = COMMENT;
+        return false;
+      }
+      else if (this.maybeCData && length == CDATA_START.length()) {
+        this.markupKind = CDATA;
+        return false;
+      }
+      else if (this.maybeComment || this.maybeCData) {
+        //can't tell yet.
+        return false;
+      }
+      this.markupKind = TAG;
+    }
+
+    switch (this.markupKind) {
+      case COMMENT:
+        return length >= 7 && endsWith("-->");
+      case CDATA:
+        return length >= 12 && endsWith("]]>");
+      case PROCESSING_INSTRUCTION:
+        return length >= 4 && endsWith("?>");
+      default:
+        if (this.quote != 0) {
+          if (c == this.quote) {
+            this.quote = 0;
+          }
+          return false;
+        }
+        else if (c == '"' || c == '\'') {
+          this.quote = c;
+          return false;
+        }
+        else {
+          return c == '>';
+        }
+    }
+  }
+
+  private boolean endsWith(String suffix) {
+    int offset = this.markup.length() - suffix.length();
+    for (int i = 0; i < suffix.length(); i++) {
+      if (this.markup.charAt(offset + i) != suffix.charAt(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Writes the (trimmed) character data that was written since the last markup, if any.
+   */
+  private void writeText() throws IOException {
+    String chars = this.text.toString().trim();
+    this.text.setLength(0);
+    if (chars.length() > 0) {
+      writeLine(chars);
+    }
+  }
+
+  /**
+   * Writes a complete piece of markup.
+   *
+   * @param markup The markup.
+   */
+  private void writeMarkup(String markup) throws IOException {
+    if (markup.startsWith("<?xml ") || markup.equals("<?xml?>")) {
+      //the xml declaration is written at the start of the document.
+      return;
+    }
+    else if (markup.startsWith("<!") || markup.startsWith("<?")) {
+      //comments, CDATA sections, processing instructions and document type declarations are written as they are.
+      writeLine(markup);
+      return;
+    }
+
+    String tag = normalizeWhitespace(markup.substring(1, markup.length() - 1));
+    if (tag.startsWith("/")) {
+      int nameEnd = tag.indexOf(' ');
+      endElement(nameEnd < 0 ? tag.substring(1) : tag.substring(1, nameEnd));
+    }
+    else if (tag.endsWith("/")) {
+      startElement(tag.substring(0, tag.length() - 1).trim());
+      endElement(null);
+    }
+    else {
+      startElement(tag);
+    }
+  }
+
+  private void startElement(String tag) throws IOException {
+    startBody();
+    this.out.write(this.indentation.toString());
+    this.out.write('<');
+    this.out.write(tag);
+    this.bodyStack.addFirst(false);
+    this.indentation.append("  ");
+  }
+
+  private void endElement(String qName) throws IOException {
+    if (this.bodyStack.size() < 2) {
+      //unbalanced end tag; just write it out.
+      writeLine("</" + qName + ">");
+      return;
+    }
+
+    this.indentation.delete(0, 2);
+    if (!this.bodyStack.removeFirst()) {
+      this.out.write('/');
+      this.out.write('>');
+    }
+    else {
+      this.out.write(this.indentation.toString());
+      this.out.write('<');
+      this.out.write('/');
+      this.out.write(qName);
+      this.out.write('>');
+    }
+    this.out.write(LINE_SEPARATOR);
+  }
+
+  private void writeLine(String line) throws IOException {
+    startBody();
+    this.out.write(this.indentation.toString());
+    this.out.write(line);
+    this.out.write(LINE_SEPARATOR);
+  }
+
+  /**
+   * Starts the document if it hasn't been started yet, and the body of the current element if it hasn't been started yet.
+   */
+  private void startBody() throws IOException {
+    if (!this.started) {
+      this.out.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>");
+      this.out.write(LINE_SEPARATOR);
+      this.started = true;
+    }
+
+    if (!this.bodyStack.getFirst()) {
+      this.out.write('>');
+      this.out.write(LINE_SEPARATOR);
+      this.bodyStack.removeFirst();
+      this.bodyStack.addFirst(true);
+    }
+  }
+
+  /**
+   * Collapses each run of whitespace outside of the attribute values of a tag to a single space.
+   *
+   * @param tag The tag.
+   * @return The normalized tag.
+   */
+  private static String normalizeWhitespace(String tag) {
+    StringBuilder normalized = new StringBuilder(tag.length());
+    char quote = 0;
+    boolean whitespace = false;
+    for (int i = 0; i < tag.length(); i++) {
+      char c = tag.charAt(i);
+      if (quote == 0 && Character.isWhitespace(c)) {
+        whitespace = true;
+        continue;
+      }
+
+      if (whitespace && normalized.length() > 0 && c != '=' && normalized.charAt(normalized.length() - 1) != '=') {
+        normalized.append(' ');
+      }
+      whitespace = false;
+
+      if (quote != 0 && c == quote) {
+        quote = 0;
+      }
+      else if (quote == 0 && (c == '"' || c == '\'')) {
+        quote = c;
+      }
+      normalized.append(c);
+    }
+    return normalized.toString();
+  }
+}
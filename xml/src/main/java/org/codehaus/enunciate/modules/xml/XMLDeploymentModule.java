@@ -18,6 +18,7 @@ package org.codehaus.enunciate.modules.xml;
 
 import freemarker.template.ObjectWrapper;
 import freemarker.template.TemplateException;
+import freemarker.template.TemplateModel;
 import org.apache.commons.digester.RuleSet;
 import org.codehaus.enunciate.EnunciateException;
 import org.codehaus.enunciate.apt.EnunciateFreemarkerModel;
@@ -39,8 +40,6 @@ import org.codehaus.enunciate.template.freemarker.AccessorOverridesAnotherMethod
 import org.codehaus.enunciate.template.freemarker.IsDefinedGloballyMethod;
 import org.codehaus.enunciate.template.freemarker.UniqueContentTypesMethod;
 
-import javax.xml.parsers.SAXParser;
-import javax.xml.parsers.SAXParserFactory;
 import java.io.File;
 import java.io.IOException;
 import java.net.MalformedURLException;
@@ -337,7 +336,23 @@ public class XMLDeploymentModule extends FreemarkerDeploymentModule implements F
     model.setFileOutputDirectory(artifactDir);
     boolean upToDate = isUpToDate(artifactDir);
     if (!upToDate) {
-      processTemplate(getTemplateURL(), model);
+      TemplateModel fileTransform = model.get("file");
+      if (prettyPrint) {
+        //pretty-print the files as they're written.
+        model.put("file", new PrettyPrintFileTransform(null));
+      }
+
+      try {
+        processTemplate(getTemplateURL(), model);
+      }
+      finally {
+        if (fileTransform != null) {
+          model.put("file", fileTransform);
+        }
+        else {
+          model.remove("file");
+        }
+      }
     }
     else {
       info("Skipping generation of XML files since everything appears up-to-date...");
@@ -349,10 +364,6 @@ public class XMLDeploymentModule extends FreemarkerDeploymentModule implements F
         String file = (String) wsdl.getProperty("filename");
         wsdlFile = new File(artifactDir, file);
         wsdl.setProperty("file", wsdlFile);
-
-        if (!upToDate && prettyPrint) {
-          prettyPrint(wsdlFile);
-        }
       }
 
       FileArtifact wsdlArtifact = new FileArtifact(getName(), wsdl.getId() + ".wsdl", wsdlFile);
@@ -367,10 +378,6 @@ public class XMLDeploymentModule extends FreemarkerDeploymentModule implements F
         schemaFile = new File(artifactDir, file);
         schemaInfo.setProperty("file", schemaFile);
 
-        if (!upToDate && prettyPrint) {
-          prettyPrint(schemaFile);
-        }
-
         if (!upToDate && validateSchemas) {
           //todo: write some logic to validate the schemas.
         }
@@ -387,7 +394,6 @@ public class XMLDeploymentModule extends FreemarkerDeploymentModule implements F
         FileArtifact wadlArtifact = new FileArtifact(getName(), "application.wadl", wadl);
         wadlArtifact.setDescription("WADL document");
         getEnunciate().addArtifact(wadlArtifact);
-        prettyPrint(wadl);
         model.setWadlFile(wadl);
       }
     }
@@ -403,35 +409,6 @@ public class XMLDeploymentModule extends FreemarkerDeploymentModule implements F
     return enunciate.isUpToDateWithSources(artifactDir);
   }
 
-  /**
-   * Pretty-prints the specified xml file.
-   *
-   * @param file The file to pretty-print.
-   */
-  protected void prettyPrint(File file) {
-    try {
-      SAXParserFactory factory = SAXParserFactory.newInstance();
-      factory.setNamespaceAware(false);
-      SAXParser parser = factory.newSAXParser();
-      File prettyFile = enunciate.createTempFile("enunciate", file.getName());
-      parser.parse(file, new PrettyPrinter(prettyFile));
-
-      if (file.delete()) {
-        enunciate.copyFile(prettyFile, file);
-      }
-      else {
-        warn("Unable to delete %s.  Skipping pretty-print transformation....", file);
-      }
-    }
-    catch (Exception e) {
-      //fall through... skip pretty printing.
-      warn("Unable to pretty-print %s (%s).", file, e.getMessage());
-      if (enunciate.isDebug()) {
-        e.printStackTrace(System.err);
-      }
-    }
-  }
-
   @Override
   protected ObjectWrapper getObjectWrapper() {
     return xmlWrapper;
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2006-2008 Web Cohesion
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.codehaus.enunciate.modules.xml;
+
+import junit.framework.TestCase;
+
+import java.io.StringWriter;
+
+/**
+ * @author Ryan Heaton
+ */
+public class TestPrettyPrintWriter extends TestCase {
+
+  /**
+   * tests pretty-printing xml as it's written.
+   */
+  public void testPrettyPrint() throws Exception {
+    StringWriter out = new StringWriter();
+    PrettyPrintWriter writer = new PrettyPrintWriter(out);
+    //write it in pieces to make sure markup can be split across writes.
+    String xml = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?><?xml-stylesheet type=\"text/xsl\" href=\"wadl.xsl\"?>" +
+      "<xs:schema   xmlns:xs=\"http://www.w3.org/2001/XMLSchema\"\n  version = \"1.0\"><!-- a comment -->" +
+      "<xs:element name=\"a &gt; b\" type='xs:string'></xs:element><xs:element name=\"c\"/><xs:annotation>" +
+      "<xs:documentation>\n  <![CDATA[some <docs>]]>  </xs:documentation><xs:appinfo>  text &amp; more  </xs:appinfo></xs:annotation></xs:schema>";
+    for (int i = 0; i < xml.length(); i += 7) {
+      writer.write(xml, i, Math.min(7, xml.length() - i));
+    }
+    writer.close();
+
+    String nl = System.getProperty("line.separator");
+    assertEquals("<?xml version=\"1.0\" encoding=\"UTF-8\"?>" + nl +
+      "<?xml-stylesheet type=\"text/xsl\" href=\"wadl.xsl\"?>" + nl +
+      "<xs:schema xmlns:xs=\"http://www.w3.org/2001/XMLSchema\" version=\"1.0\">" + nl +
+      "  <!-- a comment -->" + nl +
+      "  <xs:element name=\"a &gt; b\" type='xs:string'/>" + nl +
+      "  <xs:element name=\"c\"/>" + nl +
+      "  <xs:annotation>" + nl +
+      "    <xs:documentation>" + nl +
+      "      <![CDATA[some <docs>]]>" + nl +
+      "    </xs:documentation>" + nl +
+      "    <xs:appinfo>" + nl +
+      "      text &amp; more" + nl +
+      "    </xs:appinfo>" + nl +
+      "  </xs:annotation>" + nl +
+      "</xs:schema>" + nl, out.toString());
+  }
+
+  /**
+   * tests markup that is long, or that looks like another kind of markup at first.
+   */
+  public void testLongMarkup() throws Exception {
+    StringBuilder value = new StringBuilder();
+    for (int i = 0; i < 100000; i++) {
+      value.append('v');
+    }
+    StringWriter out = new StringWriter();
+    PrettyPrintWriter writer = new PrettyPrintWriter(out);
+    writer.write("<!DOCTYPE a><a b=\"" + value + "\"><!-- it's \"quoted\" > --><!-x/></a>");
+    writer.close();
+
+    String nl = System.getProperty("line.separator");
+    assertEquals("<?xml version=\"1.0\" encoding=\"UTF-8\"?>" + nl +
+      "<!DOCTYPE a>" + nl +
+      "<a b=\"" + value + "\">" + nl +
+      "  <!-- it's \"quoted\" > -->" + nl +
+      "  <!-x/>" + nl +
+      "</a>" + nl, out.toString());
+  }
+
+}